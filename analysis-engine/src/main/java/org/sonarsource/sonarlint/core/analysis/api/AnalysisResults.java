@@ -31,6 +31,9 @@ public class AnalysisResults {
   private final Set<ClientInputFile> failedAnalysisFiles = new LinkedHashSet<>();
   private int indexedFileCount;
   private final Map<ClientInputFile, Language> languagePerFile = new LinkedHashMap<>();
+  private long fileIndexingDurationMs;
+  private long sensorsDurationMs;
+  private long issueFilteringDurationMs;
 
   public AnalysisResults setIndexedFileCount(int indexedFileCount) {
     this.indexedFileCount = indexedFileCount;
@@ -69,4 +72,37 @@ public class AnalysisResults {
     return failedAnalysisFiles;
   }
 
+  public void setFileIndexingDurationMs(long fileIndexingDurationMs) {
+    this.fileIndexingDurationMs = fileIndexingDurationMs;
+  }
+
+  public void setSensorsDurationMs(long sensorsDurationMs) {
+    this.sensorsDurationMs = sensorsDurationMs;
+  }
+
+  public void setIssueFilteringDurationMs(long issueFilteringDurationMs) {
+    this.issueFilteringDurationMs = issueFilteringDurationMs;
+  }
+
+  /**
+   * Time spent to index the files, including language detection and issue exclusions loading.
+   */
+  public long fileIndexingDurationMs() {
+    return fileIndexingDurationMs;
+  }
+
+  /**
+   * Time spent to execute the sensors, including issue filtering.
+   */
+  public long sensorsDurationMs() {
+    return sensorsDurationMs;
+  }
+
+  /**
+   * Time spent to filter the issues raised by the sensors.
+   */
+  public long issueFilteringDurationMs() {
+    return issueFilteringDurationMs;
+  }
+
 }
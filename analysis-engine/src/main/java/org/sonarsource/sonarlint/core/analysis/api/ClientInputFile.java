@@ -75,6 +75,17 @@ public interface ClientInputFile {
    */
   String contents() throws IOException;
 
+  /**
+   * Gets the contents of the file as a read-only sequence of characters. It is requested at most once per analysis (unless memory is low),
+   * and shared by the metadata computation, the hash computation and the sensors.
+   * Implementations for files that are saved on disk can use {@link ClientInputFileContents#read(java.nio.file.Path, Charset)} to avoid
+   * intermediate copies of big files.
+   * @since 9.3
+   */
+  default CharSequence contentsBuffer() throws IOException {
+    return contents();
+  }
+
   /**
    * Logical relative path with '/' separators. Used to apply SonarLintPathPatterns and by some analyzers. Example: 'src/main/java/Foo.java'.
    * Can be project relative path when it makes sense.
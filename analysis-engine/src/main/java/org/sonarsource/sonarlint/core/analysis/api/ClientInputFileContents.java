@@ -0,0 +1,67 @@
+/*
+ * SonarLint Core - Analysis Engine
+ * Copyright (C) 2016-2023 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.analysis.api;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Helps implementing {@link ClientInputFile#contentsBuffer()} for files saved on disk.
+ * @since 9.3
+ */
+public final class ClientInputFileContents {
+
+  /**
+   * Smaller files are simply read in memory, as mapping has a fixed cost, and keeps the file locked on some OS until the mapping is garbage collected.
+   */
+  static final long MAPPING_THRESHOLD_BYTES = 1024L * 1024;
+
+  private ClientInputFileContents() {
+    // utility class
+  }
+
+  /**
+   * Decodes the content of the file. Big files are memory-mapped and decoded directly from the mapping, without an intermediate copy
+   * of their bytes. Malformed input is replaced by the replacement character, as done by {@link String#String(byte[], Charset)}.
+   */
+  public static CharSequence read(Path path, Charset charset) throws IOException {
+    try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      var size = channel.size();
+      if (size < MAPPING_THRESHOLD_BYTES) {
+        return new String(Files.readAllBytes(path), charset);
+      }
+      if (size > Integer.MAX_VALUE) {
+        throw new IOException("File is too big to be read: " + path);
+      }
+      var bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      return charset.newDecoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE)
+        .decode(bytes)
+        .asReadOnlyBuffer();
+    }
+  }
+
+}
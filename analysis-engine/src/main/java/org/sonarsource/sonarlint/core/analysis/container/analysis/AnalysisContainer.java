@@ -19,9 +19,12 @@
  */
 package org.sonarsource.sonarlint.core.analysis.container.analysis;
 
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import org.sonar.api.batch.rule.CheckFactory;
 import org.sonar.api.resources.Languages;
 import org.sonar.api.scan.filesystem.PathResolver;
+import org.sonarsource.sonarlint.core.analysis.api.AnalysisResults;
 import org.sonarsource.sonarlint.core.analysis.container.ContainerLifespan;
 import org.sonarsource.sonarlint.core.analysis.container.analysis.filesystem.FileIndexer;
 import org.sonarsource.sonarlint.core.analysis.container.analysis.filesystem.FileMetadata;
@@ -117,9 +120,22 @@ public class AnalysisContainer extends SpringComponentContainer {
   @Override
   protected void doAfterStart() {
     LOG.debug("Start analysis");
+    var analysisResults = getComponentByType(AnalysisResults.class);
     // Don't initialize Sensors before the FS is indexed
+    var start = System.nanoTime();
     getComponentByType(FileIndexer.class).index();
+    var indexed = System.nanoTime();
+    analysisResults.setFileIndexingDurationMs(TimeUnit.NANOSECONDS.toMillis(indexed - start));
     getComponentByType(SensorsExecutor.class).execute();
+    analysisResults.setSensorsDurationMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - indexed));
+    var issueFilters = getComponentByType(IssueFilters.class);
+    analysisResults.setIssueFilteringDurationMs(issueFilters.timeSpentMs());
+    var timeSpentByFilter = issueFilters.timeSpentByFilterMs();
+    if (!timeSpentByFilter.isEmpty()) {
+      LOG.debug("Time spent in issue filters: {}", timeSpentByFilter.entrySet().stream()
+        .map(e -> e.getKey() + "=" + e.getValue() + "ms")
+        .collect(Collectors.joining(", ")));
+    }
   }
 
 }
@@ -20,11 +20,19 @@
 package org.sonarsource.sonarlint.core.analysis.container.analysis.filesystem;
 
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.fs.InputFileFilter;
 import org.sonar.api.utils.MessageException;
@@ -37,11 +45,20 @@ import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
 
 /**
  * Index input files into {@link InputFileIndex}.
+ * <p>
+ * When the client sets {@link #PARALLEL_INDEXING_PROPERTY} and there are many files, the creation of {@link SonarLintInputFile} and the
+ * {@link InputFileFilter}s (that might trigger metadata generation) run on a shared bounded pool of workers. This is an opt-in, as it calls the
+ * methods of {@link ClientInputFile} and the filters contributed by plugins concurrently, so both have to be thread-safe.
+ * Files are then registered one by one on the calling thread, in the order of {@link AnalysisConfiguration#inputFiles()}, so the content of the
+ * index does not depend on the scheduling of the workers, and neither {@link InputFileIndex} nor {@link IssueExclusionsLoader} are accessed concurrently.
  */
 @SonarLintSide
 public class FileIndexer {
 
   private static final SonarLintLogger LOG = SonarLintLogger.get();
+  public static final String PARALLEL_INDEXING_PROPERTY = "sonarlint.analysis.parallelIndexing";
+  static final int PARALLEL_INDEXING_THRESHOLD = 100;
+  private static final int MAX_INDEXING_THREADS = 8;
 
   private final InputFileBuilder inputFileBuilder;
   private final AnalysisConfiguration analysisConfiguration;
@@ -49,13 +66,26 @@ public class FileIndexer {
   private final List<InputFileFilter> filters;
   private final IssueExclusionsLoader issueExclusionsLoader;
   private final InputFileIndex inputFileCache;
+  @Nullable
+  private final ExecutorService indexingExecutor;
 
   private ProgressReport progressReport;
 
   public FileIndexer(InputFileIndex inputFileCache, InputFileBuilder inputFileBuilder, AnalysisConfiguration analysisConfiguration,
     AnalysisResults analysisResult, IssueExclusionsLoader issueExclusionsLoader,
     Optional<List<InputFileFilter>> filters) {
+    this(inputFileCache, inputFileBuilder, analysisConfiguration, analysisResult, issueExclusionsLoader, filters,
+      Boolean.parseBoolean(analysisConfiguration.extraProperties().get(PARALLEL_INDEXING_PROPERTY)) ? SharedIndexingExecutor.INSTANCE : null);
+  }
+
+  /**
+   * @param indexingExecutor the workers used for large analyses, or null to index files on the calling thread only
+   */
+  FileIndexer(InputFileIndex inputFileCache, InputFileBuilder inputFileBuilder, AnalysisConfiguration analysisConfiguration,
+    AnalysisResults analysisResult, IssueExclusionsLoader issueExclusionsLoader,
+    Optional<List<InputFileFilter>> filters, @Nullable ExecutorService indexingExecutor) {
     this.inputFileCache = inputFileCache;
+    this.indexingExecutor = indexingExecutor;
     this.inputFileBuilder = inputFileBuilder;
     this.analysisConfiguration = analysisConfiguration;
     this.analysisResult = analysisResult;
@@ -85,14 +115,62 @@ public class FileIndexer {
   }
 
   private void indexFiles(InputFileIndex inputFileCache, Progress progress, Iterable<ClientInputFile> inputFiles) {
-    for (ClientInputFile file : inputFiles) {
-      indexFile(inputFileCache, progress, file);
+    List<ClientInputFile> files = new ArrayList<>();
+    inputFiles.forEach(files::add);
+    if (indexingExecutor == null || files.size() < PARALLEL_INDEXING_THRESHOLD) {
+      for (ClientInputFile file : files) {
+        register(inputFileCache, progress, file, createAndFilter(file));
+      }
+    } else {
+      indexFilesInParallel(indexingExecutor, inputFileCache, progress, files);
     }
   }
 
-  private void indexFile(InputFileIndex inputFileCache, Progress progress, ClientInputFile file) {
+  private void indexFilesInParallel(ExecutorService executor, InputFileIndex inputFileCache, Progress progress, List<ClientInputFile> files) {
+    List<Future<SonarLintInputFile>> futures = new ArrayList<>(files.size());
+    try {
+      for (ClientInputFile file : files) {
+        futures.add(executor.submit(() -> createAndFilter(file)));
+      }
+      for (var i = 0; i < files.size(); i++) {
+        register(inputFileCache, progress, files.get(i), await(futures.get(i)));
+      }
+    } finally {
+      // the pool is shared, only skip the files that are not processed yet if indexing failed
+      futures.forEach(future -> future.cancel(false));
+    }
+  }
+
+  private static SonarLintInputFile await(Future<SonarLintInputFile> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while indexing files", e);
+    } catch (ExecutionException e) {
+      var cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new IllegalStateException("Unable to index file", cause);
+    }
+  }
+
+  /**
+   * Safe to be called concurrently, as long as the file is not shared between calls.
+   * @return the input file, or null if it was excluded by a filter
+   */
+  @CheckForNull
+  private SonarLintInputFile createAndFilter(ClientInputFile file) {
     var inputFile = inputFileBuilder.create(file);
-    if (accept(inputFile)) {
+    return accept(inputFile) ? inputFile : null;
+  }
+
+  private void register(InputFileIndex inputFileCache, Progress progress, ClientInputFile file, @Nullable SonarLintInputFile inputFile) {
+    if (inputFile != null) {
       analysisResult.setLanguageForFile(file, inputFile.getLanguage());
       indexFile(inputFileCache, progress, inputFile);
       issueExclusionsLoader.addMulticriteriaPatterns(inputFile);
@@ -115,6 +193,24 @@ public class FileIndexer {
     return true;
   }
 
+  /**
+   * Shared by all the analyses, the threads are stopped when idle
+   */
+  private static class SharedIndexingExecutor {
+    private static final ExecutorService INSTANCE = newExecutor();
+
+    private static ExecutorService newExecutor() {
+      var threads = Math.min(Runtime.getRuntime().availableProcessors(), MAX_INDEXING_THREADS);
+      var executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+        var thread = new Thread(r, "sonarlint-file-indexer");
+        thread.setDaemon(true);
+        return thread;
+      });
+      executor.allowCoreThreadTimeOut(true);
+      return executor;
+    }
+  }
+
   private class Progress {
     private final Set<URI> indexed = new HashSet<>();
 
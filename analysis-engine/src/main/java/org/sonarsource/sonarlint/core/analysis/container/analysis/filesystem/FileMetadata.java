@@ -34,6 +34,7 @@ import java.util.List;
 import javax.annotation.Nullable;
 import org.apache.commons.io.ByteOrderMark;
 import org.apache.commons.io.input.BOMInputStream;
+import org.apache.commons.io.input.CharSequenceReader;
 import org.sonarsource.api.sonarlint.SonarLintSide;
 import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
 
@@ -143,9 +144,20 @@ public class FileMetadata {
    * Maximum performance is needed.
    */
   public Metadata readMetadata(InputStream stream, Charset encoding, URI fileUri, @Nullable CharHandler otherHandler) {
+    return readMetadata(new BufferedReader(new InputStreamReader(stream, encoding)), encoding, fileUri, otherHandler);
+  }
+
+  /**
+   * Same as {@link #readMetadata(InputStream, Charset, URI, CharHandler)}, for contents that are already decoded.
+   */
+  public Metadata readMetadata(CharSequence contents, Charset encoding, URI fileUri, @Nullable CharHandler otherHandler) {
+    return readMetadata(new CharSequenceReader(contents), encoding, fileUri, otherHandler);
+  }
+
+  private static Metadata readMetadata(Reader contentReader, Charset encoding, URI fileUri, @Nullable CharHandler otherHandler) {
     var lineCounter = new LineCounter(fileUri, encoding);
     var lineOffsetCounter = new LineOffsetCounter();
-    try (Reader reader = new BufferedReader(new InputStreamReader(stream, encoding))) {
+    try (var reader = contentReader) {
       CharHandler[] handlers;
       if (otherHandler != null) {
         handlers = new CharHandler[] {lineCounter, lineOffsetCounter, otherHandler};
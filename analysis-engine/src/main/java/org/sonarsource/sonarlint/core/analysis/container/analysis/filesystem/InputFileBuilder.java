@@ -20,7 +20,6 @@
 package org.sonarsource.sonarlint.core.analysis.container.analysis.filesystem;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.charset.Charset;
 import org.sonar.api.batch.fs.InputFile.Type;
 import org.sonarsource.sonarlint.core.analysis.api.ClientInputFile;
@@ -43,13 +42,14 @@ public class InputFileBuilder {
     var defaultInputFile = new SonarLintInputFile(inputFile, f -> {
       LOG.debug("Initializing metadata of file {}", f.uri());
       var charset = f.charset();
-      InputStream stream;
+      CharSequence contents;
       try {
-        stream = f.inputStream();
+        // shared with the sensors, so that the file is read and decoded only once
+        contents = f.contentsBuffer();
       } catch (IOException e) {
         throw new IllegalStateException("Failed to open a stream on file: " + f.uri(), e);
       }
-      return fileMetadata.readMetadata(stream, charset != null ? charset : Charset.defaultCharset(), f.uri(), exclusionsScanner.createCharHandlerFor(f));
+      return fileMetadata.readMetadata(contents, charset != null ? charset : Charset.defaultCharset(), f.uri(), exclusionsScanner.createCharHandlerFor(f));
     });
     defaultInputFile.setType(inputFile.isTest() ? Type.TEST : Type.MAIN);
     var fileLanguage = inputFile.language();
@@ -21,10 +21,14 @@ package org.sonarsource.sonarlint.core.analysis.container.analysis.filesystem;
 
 import java.text.MessageFormat;
 import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.annotation.CheckForNull;
 import org.apache.commons.lang3.StringUtils;
 import org.sonar.api.batch.fs.InputFile;
@@ -33,69 +37,86 @@ import org.sonar.api.utils.MessageException;
 import org.sonarsource.sonarlint.core.commons.Language;
 import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
 
-import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
 
 /**
  * Detect language of a source file based on its suffix and configured patterns.
+ * A file matches a language when its name ends with a dot followed by one of the language suffixes, so the suffixes are indexed by value and only
+ * the parts of the file name following a dot have to be looked up. The index is shared as long as the configured suffixes don't change.
  */
 public class LanguageDetection {
 
   private static final SonarLintLogger LOG = SonarLintLogger.get();
+  private static final AtomicReference<SuffixIndex> LAST_INDEX = new AtomicReference<>();
 
-  /**
-   * Lower-case extension -> languages
-   */
-  private final Map<Language, String[]> extensionsByLanguage = new LinkedHashMap<>();
+  private final SuffixIndex index;
 
   public LanguageDetection(Configuration config) {
+    var extensionsByLanguage = new LinkedHashMap<Language, List<String>>();
     for (Language language : Language.values()) {
       var extensions = config.get(language.getFileSuffixesPropKey()).isPresent() ? config.getStringArray(language.getFileSuffixesPropKey())
         : language.getDefaultFileSuffixes();
-      for (var i = 0; i < extensions.length; i++) {
-        var suffix = extensions[i];
-        extensions[i] = sanitizeExtension(suffix);
-      }
-      extensionsByLanguage.put(language, extensions);
+      extensionsByLanguage.put(language, Arrays.stream(extensions).map(LanguageDetection::sanitizeExtension).collect(toList()));
+    }
+    this.index = getOrCreateIndex(extensionsByLanguage);
+  }
+
+  private static SuffixIndex getOrCreateIndex(Map<Language, List<String>> extensionsByLanguage) {
+    var lastIndex = LAST_INDEX.get();
+    if (lastIndex != null && lastIndex.extensionsByLanguage.equals(extensionsByLanguage)) {
+      return lastIndex;
     }
+    var newIndex = new SuffixIndex(extensionsByLanguage);
+    LAST_INDEX.set(newIndex);
+    return newIndex;
   }
 
   @CheckForNull
   public Language language(InputFile inputFile) {
-    Language detectedLanguage = null;
-    for (Entry<Language, String[]> languagePatterns : extensionsByLanguage.entrySet()) {
-      if (isCandidateForLanguage(inputFile, languagePatterns.getValue())) {
-        if (detectedLanguage == null) {
-          detectedLanguage = languagePatterns.getKey();
-        } else {
-          // Language was already forced by another pattern
-          throw MessageException.of(MessageFormat.format("Language of file \"{0}\" can not be decided as the file extension matches both {1} and {2}",
-            inputFile.uri(), getDetails(detectedLanguage), getDetails(languagePatterns.getKey())));
+    var fileName = inputFile.filename().toLowerCase(Locale.ENGLISH);
+    Set<Language> matchingLanguages = null;
+    for (var dot = fileName.lastIndexOf('.'); dot >= 0; dot = fileName.lastIndexOf('.', dot - 1)) {
+      var languages = index.languagesByExtension.get(fileName.substring(dot + 1));
+      if (languages != null) {
+        if (matchingLanguages == null) {
+          matchingLanguages = EnumSet.noneOf(Language.class);
         }
+        matchingLanguages.addAll(languages);
       }
     }
-    if (detectedLanguage != null) {
-      LOG.debug("Language of file \"{}\" is detected to be \"{}\"", inputFile.uri(), detectedLanguage);
-      return detectedLanguage;
+    if (matchingLanguages == null) {
+      return null;
     }
-    return null;
-  }
-
-  private static boolean isCandidateForLanguage(InputFile inputFile, String[] extensions) {
-    for (String extension : extensions) {
-      if (inputFile.filename().toLowerCase(Locale.ENGLISH).endsWith("." + extension)) {
-        return true;
-      }
+    var iterator = matchingLanguages.iterator();
+    var detectedLanguage = iterator.next();
+    if (iterator.hasNext()) {
+      // Language was already forced by another pattern
+      throw MessageException.of(MessageFormat.format("Language of file \"{0}\" can not be decided as the file extension matches both {1} and {2}",
+        inputFile.uri(), getDetails(detectedLanguage), getDetails(iterator.next())));
     }
-    return false;
+    LOG.debug("Language of file \"{}\" is detected to be \"{}\"", inputFile.uri(), detectedLanguage);
+    return detectedLanguage;
   }
 
   private String getDetails(Language detectedLanguage) {
-    return detectedLanguage + ": "
-      + Arrays.stream(extensionsByLanguage.get(detectedLanguage))
-        .collect(joining(","));
+    return detectedLanguage + ": " + String.join(",", index.extensionsByLanguage.get(detectedLanguage));
   }
 
   public static String sanitizeExtension(String suffix) {
     return StringUtils.lowerCase(StringUtils.removeStart(suffix, "."));
   }
+
+  private static class SuffixIndex {
+    private final Map<Language, List<String>> extensionsByLanguage;
+    /**
+     * Lower-case extension -> languages
+     */
+    private final Map<String, Set<Language>> languagesByExtension = new HashMap<>();
+
+    private SuffixIndex(Map<Language, List<String>> extensionsByLanguage) {
+      this.extensionsByLanguage = extensionsByLanguage;
+      extensionsByLanguage.forEach((language, extensions) -> extensions
+        .forEach(extension -> languagesByExtension.computeIfAbsent(extension, e -> EnumSet.noneOf(Language.class)).add(language)));
+    }
+  }
 }
@@ -0,0 +1,75 @@
+/*
+ * SonarLint Core - Analysis Engine
+ * Copyright (C) 2016-2023 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.analysis.container.analysis.filesystem;
+
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import org.sonarsource.sonarlint.core.analysis.api.ClientInputFile;
+
+/**
+ * Contents of a {@link ClientInputFile}, requested lazily from the client and then shared by all the consumers of the file during the analysis.
+ * Contents are softly referenced, so that analyzing many files does not keep all of them in memory: they are requested again from the
+ * client if they were garbage collected.
+ */
+class SharedFileContents {
+
+  private final ClientInputFile clientInputFile;
+  private SoftReference<Contents> contentsRef = new SoftReference<>(null);
+
+  SharedFileContents(ClientInputFile clientInputFile) {
+    this.clientInputFile = clientInputFile;
+  }
+
+  CharSequence buffer() throws IOException {
+    return contents().buffer;
+  }
+
+  String string() throws IOException {
+    var contents = contents();
+    synchronized (this) {
+      if (contents.string == null) {
+        contents.string = contents.buffer.toString();
+      }
+      return contents.string;
+    }
+  }
+
+  private synchronized Contents contents() throws IOException {
+    var contents = contentsRef.get();
+    if (contents == null) {
+      contents = new Contents(clientInputFile.contentsBuffer());
+      contentsRef = new SoftReference<>(contents);
+    }
+    return contents;
+  }
+
+  private static class Contents {
+    private final CharSequence buffer;
+    private String string;
+
+    private Contents(CharSequence buffer) {
+      this.buffer = buffer;
+      if (buffer instanceof String) {
+        this.string = (String) buffer;
+      }
+    }
+  }
+
+}
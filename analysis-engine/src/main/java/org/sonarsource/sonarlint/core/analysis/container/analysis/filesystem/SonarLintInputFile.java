@@ -33,7 +33,6 @@ import java.util.Set;
 import java.util.function.Function;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
-import org.apache.commons.codec.digest.DigestUtils;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.fs.TextPointer;
 import org.sonar.api.batch.fs.TextRange;
@@ -41,6 +40,7 @@ import org.sonar.api.utils.PathUtils;
 import org.sonarsource.sonarlint.core.analysis.api.ClientInputFile;
 import org.sonarsource.sonarlint.core.analysis.container.analysis.filesystem.FileMetadata.Metadata;
 import org.sonarsource.sonarlint.core.commons.Language;
+import org.sonarsource.sonarlint.core.commons.hash.Md5;
 
 public class SonarLintInputFile implements InputFile {
 
@@ -50,6 +50,7 @@ public class SonarLintInputFile implements InputFile {
   private Type type;
   private Metadata metadata;
   private final Function<SonarLintInputFile, Metadata> metadataGenerator;
+  private final SharedFileContents sharedContents;
   private boolean ignoreAllIssues;
   private final Set<Integer> noSonarLines = new HashSet<>();
   private Collection<int[]> ignoreIssuesOnlineRanges;
@@ -58,6 +59,7 @@ public class SonarLintInputFile implements InputFile {
     this.clientInputFile = clientInputFile;
     this.metadataGenerator = metadataGenerator;
     this.relativePath = PathUtils.sanitize(clientInputFile.relativePath());
+    this.sharedContents = new SharedFileContents(clientInputFile);
   }
 
   public void checkMetadata() {
@@ -135,7 +137,15 @@ public class SonarLintInputFile implements InputFile {
 
   @Override
   public String contents() throws IOException {
-    return clientInputFile.contents();
+    return sharedContents.string();
+  }
+
+  /**
+   * Same as {@link #contents()}, but avoids copying the contents provided by {@link ClientInputFile#contentsBuffer()} into a {@link String}.
+   * The contents are read at most once from the client, and shared between all callers.
+   */
+  public CharSequence contentsBuffer() throws IOException {
+    return sharedContents.buffer();
   }
 
   @Override
@@ -165,7 +175,7 @@ public class SonarLintInputFile implements InputFile {
   @Override
   public String md5Hash() {
     try {
-      return DigestUtils.md5Hex(contents());
+      return Md5.md5Hex(contentsBuffer());
     } catch (IOException e) {
       throw new IllegalStateException("Unable to compute md5Hash for " + uri(), e);
     }
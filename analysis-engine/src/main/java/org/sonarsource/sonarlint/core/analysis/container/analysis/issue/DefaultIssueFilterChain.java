@@ -20,24 +20,74 @@
 package org.sonarsource.sonarlint.core.analysis.container.analysis.issue;
 
 import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nullable;
 import org.sonar.api.scan.issue.filter.FilterableIssue;
 import org.sonar.api.scan.issue.filter.IssueFilter;
 import org.sonar.api.scan.issue.filter.IssueFilterChain;
 
+/**
+ * Immutable link of a filter chain, that can be reused for all the issues of an analysis. The time spent in the filter and in the rest of the chain
+ * is accumulated.
+ */
 public class DefaultIssueFilterChain implements IssueFilterChain {
-  private final List<IssueFilter> filters;
+  @Nullable
+  private final IssueFilter filter;
+  @Nullable
+  private final DefaultIssueFilterChain next;
+  private final LongAdder elapsedNanos = new LongAdder();
+
+  private DefaultIssueFilterChain(@Nullable IssueFilter filter, @Nullable DefaultIssueFilterChain next) {
+    this.filter = filter;
+    this.next = next;
+  }
 
-  public DefaultIssueFilterChain(List<IssueFilter> filters) {
-    this.filters = filters;
+  /**
+   * @return the head of a chain applying the filters in the given order
+   */
+  public static DefaultIssueFilterChain of(List<IssueFilter> filters) {
+    var chain = new DefaultIssueFilterChain(null, null);
+    for (var i = filters.size() - 1; i >= 0; i--) {
+      chain = new DefaultIssueFilterChain(filters.get(i), chain);
+    }
+    return chain;
   }
 
   @Override
   public boolean accept(FilterableIssue issue) {
-    if (filters.isEmpty()) {
+    if (filter == null) {
       return true;
-    } else {
-      return filters.get(0).accept(issue, new DefaultIssueFilterChain(filters.subList(1, filters.size())));
     }
+    var start = System.nanoTime();
+    try {
+      return filter.accept(issue, next);
+    } finally {
+      elapsedNanos.add(System.nanoTime() - start);
+    }
+  }
+
+  @Nullable
+  IssueFilter filter() {
+    return filter;
+  }
+
+  @Nullable
+  DefaultIssueFilterChain next() {
+    return next;
+  }
+
+  /**
+   * @return the time spent in this filter and in the rest of the chain
+   */
+  long elapsedNanos() {
+    return elapsedNanos.sum();
+  }
+
+  /**
+   * @return the time spent in this filter only, excluding the rest of the chain
+   */
+  long ownElapsedNanos() {
+    return elapsedNanos.sum() - (next == null ? 0 : next.elapsedNanos.sum());
   }
 
 }
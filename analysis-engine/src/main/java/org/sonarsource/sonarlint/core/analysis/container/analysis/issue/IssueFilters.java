@@ -19,28 +19,60 @@
  */
 package org.sonarsource.sonarlint.core.analysis.container.analysis.issue;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import org.sonar.api.batch.fs.InputComponent;
-import org.sonar.api.scan.issue.filter.FilterableIssue;
 import org.sonar.api.scan.issue.filter.IssueFilter;
-import org.sonar.api.scan.issue.filter.IssueFilterChain;
 import org.sonarsource.api.sonarlint.SonarLintSide;
 import org.sonarsource.sonarlint.core.analysis.api.Issue;
+import org.sonarsource.sonarlint.core.analysis.container.analysis.issue.ignore.EnforceIssuesFilter;
+import org.sonarsource.sonarlint.core.analysis.container.analysis.issue.ignore.IgnoreIssuesFilter;
 import org.sonarsource.sonarlint.core.analysis.sonarapi.DefaultFilterableIssue;
 
+/**
+ * The filter chain is built once per analysis and shared by all issues. Built-in filters only rely on data computed during file indexing, so they
+ * are applied before the filters contributed by plugins.
+ */
 @SonarLintSide
 public class IssueFilters {
-  private final List<IssueFilter> filters;
+  private final DefaultIssueFilterChain chain;
 
   public IssueFilters(Optional<List<IssueFilter>> exclusionFilters) {
-    this.filters = exclusionFilters.orElse(List.of());
+    var filters = new ArrayList<>(exclusionFilters.orElse(List.of()));
+    // stable sort, the relative order of built-in filters matters
+    filters.sort(Comparator.comparingInt(filter -> isBuiltIn(filter) ? 0 : 1));
+    this.chain = DefaultIssueFilterChain.of(filters);
+  }
+
+  private static boolean isBuiltIn(IssueFilter filter) {
+    return filter instanceof EnforceIssuesFilter || filter instanceof IgnoreIssuesFilter;
   }
 
   public boolean accept(InputComponent inputComponent, Issue rawIssue) {
-    IssueFilterChain filterChain = new DefaultIssueFilterChain(filters);
-    FilterableIssue fIssue = new DefaultFilterableIssue(rawIssue, inputComponent);
-    return filterChain.accept(fIssue);
+    return chain.accept(new DefaultFilterableIssue(rawIssue, inputComponent));
+  }
+
+  /**
+   * @return the time spent in all the filters since the beginning of the analysis
+   */
+  public long timeSpentMs() {
+    return TimeUnit.NANOSECONDS.toMillis(chain.elapsedNanos());
+  }
+
+  /**
+   * @return the time spent in each filter since the beginning of the analysis, in the order they are applied
+   */
+  public Map<String, Long> timeSpentByFilterMs() {
+    var timeSpentByFilter = new LinkedHashMap<String, Long>();
+    for (var link = chain; link.filter() != null; link = link.next()) {
+      timeSpentByFilter.merge(link.filter().getClass().getName(), TimeUnit.NANOSECONDS.toMillis(link.ownElapsedNanos()), Long::sum);
+    }
+    return timeSpentByFilter;
   }
 
 }
@@ -19,8 +19,9 @@
  */
 package org.sonarsource.sonarlint.core.analysis.container.analysis.issue.ignore.scanner;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 import javax.annotation.CheckForNull;
 import org.apache.commons.lang3.StringUtils;
 import org.sonarsource.sonarlint.core.analysis.container.analysis.filesystem.FileMetadata.CharHandler;
@@ -32,8 +33,9 @@ import org.sonarsource.sonarlint.core.analysis.container.analysis.issue.ignore.p
 
 public class IssueExclusionsLoader {
 
-  private final List<java.util.regex.Pattern> allFilePatterns;
-  private final List<DoubleRegexpMatcher> blockMatchers;
+  private static final AtomicReference<CompiledPatterns> LAST_COMPILED_PATTERNS = new AtomicReference<>();
+
+  private final CompiledPatterns compiledPatterns;
   private final IgnoreIssuesFilter ignoreIssuesFilter;
   private final IssueExclusionPatternInitializer patternsInitializer;
   private final boolean enableCharHandler;
@@ -41,18 +43,24 @@ public class IssueExclusionsLoader {
   public IssueExclusionsLoader(IssueExclusionPatternInitializer patternsInitializer, IgnoreIssuesFilter ignoreIssuesFilter) {
     this.patternsInitializer = patternsInitializer;
     this.ignoreIssuesFilter = ignoreIssuesFilter;
-    this.allFilePatterns = new ArrayList<>();
-    this.blockMatchers = new ArrayList<>();
+    this.compiledPatterns = getOrCompile(patternsInitializer.getAllFilePatterns(), patternsInitializer.getBlockPatterns());
+    enableCharHandler = !compiledPatterns.allFileMatcher.isEmpty() || !compiledPatterns.blockMatchers.isEmpty();
+  }
 
-    for (String pattern : patternsInitializer.getAllFilePatterns()) {
-      allFilePatterns.add(java.util.regex.Pattern.compile(pattern));
+  /**
+   * Patterns are compiled again only when the settings changed since the previous analysis.
+   */
+  private static CompiledPatterns getOrCompile(List<String> allFilePatterns, List<BlockIssuePattern> blockPatterns) {
+    var blockRegexps = blockPatterns.stream()
+      .map(pattern -> List.of(pattern.getBeginBlockRegexp(), pattern.getEndBlockRegexp()))
+      .collect(Collectors.toList());
+    var lastCompiledPatterns = LAST_COMPILED_PATTERNS.get();
+    if (lastCompiledPatterns != null && lastCompiledPatterns.allFileRegexps.equals(allFilePatterns) && lastCompiledPatterns.blockRegexps.equals(blockRegexps)) {
+      return lastCompiledPatterns;
     }
-    for (BlockIssuePattern pattern : patternsInitializer.getBlockPatterns()) {
-      blockMatchers.add(new DoubleRegexpMatcher(
-        java.util.regex.Pattern.compile(pattern.getBeginBlockRegexp()),
-        java.util.regex.Pattern.compile(pattern.getEndBlockRegexp())));
-    }
-    enableCharHandler = !allFilePatterns.isEmpty() || !blockMatchers.isEmpty();
+    var compiled = new CompiledPatterns(List.copyOf(allFilePatterns), blockRegexps);
+    LAST_COMPILED_PATTERNS.set(compiled);
+    return compiled;
   }
 
   public void addMulticriteriaPatterns(SonarLintInputFile inputFile) {
@@ -66,7 +74,7 @@ public class IssueExclusionsLoader {
   @CheckForNull
   public CharHandler createCharHandlerFor(SonarLintInputFile inputFile) {
     if (enableCharHandler) {
-      return new IssueExclusionsRegexpScanner(inputFile, allFilePatterns, blockMatchers);
+      return new IssueExclusionsRegexpScanner(inputFile, compiledPatterns.allFileMatcher, compiledPatterns.blockMatchers, compiledPatterns.blockStartMatcher);
     }
     return null;
   }
@@ -81,11 +89,11 @@ public class IssueExclusionsLoader {
       this.secondPattern = secondPattern;
     }
 
-    boolean matchesFirstPattern(String line) {
-      return firstPattern.matcher(line).find();
+    static MultiPatternMatcher firstPatternsMatcher(List<DoubleRegexpMatcher> matchers) {
+      return new MultiPatternMatcher(matchers.stream().map(m -> m.firstPattern).collect(Collectors.toList()));
     }
 
-    boolean matchesSecondPattern(String line) {
+    boolean matchesSecondPattern(CharSequence line) {
       return hasSecondPattern() && secondPattern.matcher(line).find();
     }
 
@@ -94,6 +102,24 @@ public class IssueExclusionsLoader {
     }
   }
 
+  private static class CompiledPatterns {
+    private final List<String> allFileRegexps;
+    private final List<List<String>> blockRegexps;
+    private final MultiPatternMatcher allFileMatcher;
+    private final List<DoubleRegexpMatcher> blockMatchers;
+    private final MultiPatternMatcher blockStartMatcher;
+
+    private CompiledPatterns(List<String> allFileRegexps, List<List<String>> blockRegexps) {
+      this.allFileRegexps = allFileRegexps;
+      this.blockRegexps = blockRegexps;
+      this.allFileMatcher = new MultiPatternMatcher(allFileRegexps.stream().map(java.util.regex.Pattern::compile).collect(Collectors.toList()));
+      this.blockMatchers = blockRegexps.stream()
+        .map(regexps -> new DoubleRegexpMatcher(java.util.regex.Pattern.compile(regexps.get(0)), java.util.regex.Pattern.compile(regexps.get(1))))
+        .collect(Collectors.toList());
+      this.blockStartMatcher = DoubleRegexpMatcher.firstPatternsMatcher(blockMatchers);
+    }
+  }
+
   @Override
   public String toString() {
     return "Issues Exclusions - Source Scanner";
@@ -34,8 +34,9 @@ public class IssueExclusionsRegexpScanner extends CharHandler {
   private static final SonarLintLogger LOG = SonarLintLogger.get();
 
   private final StringBuilder sb = new StringBuilder();
-  private final List<Pattern> allFilePatterns;
+  private final MultiPatternMatcher allFilePatterns;
   private final List<DoubleRegexpMatcher> blockMatchers;
+  private final MultiPatternMatcher blockStartPatterns;
   private final SonarLintInputFile inputFile;
 
   private int lineIndex = 1;
@@ -46,8 +47,14 @@ public class IssueExclusionsRegexpScanner extends CharHandler {
   private boolean ignoreAllIssues;
 
   IssueExclusionsRegexpScanner(SonarLintInputFile inputFile, List<Pattern> allFilePatterns, List<DoubleRegexpMatcher> blockMatchers) {
+    this(inputFile, new MultiPatternMatcher(allFilePatterns), blockMatchers, DoubleRegexpMatcher.firstPatternsMatcher(blockMatchers));
+  }
+
+  IssueExclusionsRegexpScanner(SonarLintInputFile inputFile, MultiPatternMatcher allFilePatterns, List<DoubleRegexpMatcher> blockMatchers,
+    MultiPatternMatcher blockStartPatterns) {
     this.allFilePatterns = allFilePatterns;
     this.blockMatchers = blockMatchers;
+    this.blockStartPatterns = blockStartPatterns;
     this.inputFile = inputFile;
     LOG.debug("Evaluate issue exclusions for '{}'", inputFile.relativePath());
   }
@@ -67,7 +74,7 @@ public class IssueExclusionsRegexpScanner extends CharHandler {
       // Optimization
       return;
     }
-    processLine(sb.toString());
+    processLine(sb);
     sb.setLength(0);
     lineIndex++;
   }
@@ -78,7 +85,7 @@ public class IssueExclusionsRegexpScanner extends CharHandler {
       // Optimization
       return;
     }
-    processLine(sb.toString());
+    processLine(sb);
 
     if (currentMatcher != null && !currentMatcher.hasSecondPattern()) {
       // this will happen when there is a start block regexp but no end block regexp
@@ -94,20 +101,19 @@ public class IssueExclusionsRegexpScanner extends CharHandler {
     }
   }
 
-  private void processLine(String line) {
-    if (line.trim().length() == 0) {
+  private void processLine(CharSequence line) {
+    if (isBlank(line)) {
       return;
     }
 
     // first check the single regexp patterns that can be used to totally exclude a file
-    for (Pattern pattern : allFilePatterns) {
-      if (pattern.matcher(line).find()) {
-        // nothing more to do on this file
-        LOG.debug("  - Exclusion pattern '{}': all issues in this file will be ignored.", pattern);
-        ignoreAllIssues = true;
-        inputFile.setIgnoreAllIssues(true);
-        return;
-      }
+    var allFilePatternIndex = allFilePatterns.firstMatch(line);
+    if (allFilePatternIndex >= 0) {
+      // nothing more to do on this file
+      LOG.debug("  - Exclusion pattern '{}': all issues in this file will be ignored.", allFilePatterns.pattern(allFilePatternIndex));
+      ignoreAllIssues = true;
+      inputFile.setIgnoreAllIssues(true);
+      return;
     }
 
     // then check the double regexps if we're still here
@@ -122,14 +128,22 @@ public class IssueExclusionsRegexpScanner extends CharHandler {
     return lineRanges;
   }
 
-  private void checkDoubleRegexps(String line, int lineIndex) {
+  private static boolean isBlank(CharSequence line) {
+    for (var i = 0; i < line.length(); i++) {
+      // same definition of whitespaces as String::trim
+      if (line.charAt(i) > ' ') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void checkDoubleRegexps(CharSequence line, int lineIndex) {
     if (currentMatcher == null) {
-      for (DoubleRegexpMatcher matcher : blockMatchers) {
-        if (matcher.matchesFirstPattern(line)) {
-          startExclusion(lineIndex);
-          currentMatcher = matcher;
-          break;
-        }
+      var blockIndex = blockStartPatterns.firstMatch(line);
+      if (blockIndex >= 0) {
+        startExclusion(lineIndex);
+        currentMatcher = blockMatchers.get(blockIndex);
       }
     } else {
       if (currentMatcher.matchesSecondPattern(line)) {
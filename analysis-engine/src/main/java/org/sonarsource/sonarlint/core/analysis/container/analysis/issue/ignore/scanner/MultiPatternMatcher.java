@@ -0,0 +1,387 @@
+/*
+ * SonarLint Core - Analysis Engine
+ * Copyright (C) 2016-2023 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.analysis.container.analysis.issue.ignore.scanner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+import javax.annotation.CheckForNull;
+
+/**
+ * Find which of several regular expressions are found in a line, scanning the line only once in most cases.
+ * For each pattern, a literal fragment that any match has to contain is extracted when possible. All the fragments are searched at once
+ * with an Aho-Corasick automaton, and the regular expression is only evaluated when its fragment was found. Patterns for which no fragment could be
+ * extracted are always evaluated.
+ */
+class MultiPatternMatcher {
+  private static final String ESCAPES_WITH_OPERAND = "xuc0NpPk";
+
+  private final List<Pattern> patterns;
+  private final boolean[] alwaysEvaluated;
+  private final boolean hasAlwaysEvaluated;
+  private final Automaton automaton;
+
+  MultiPatternMatcher(List<Pattern> patterns) {
+    this.patterns = List.copyOf(patterns);
+    this.alwaysEvaluated = new boolean[patterns.size()];
+    var literals = new ArrayList<String>();
+    var hasAlwaysEvaluatedPattern = false;
+    for (var i = 0; i < patterns.size(); i++) {
+      var literal = requiredLiteral(patterns.get(i));
+      literals.add(literal);
+      if (literal == null) {
+        alwaysEvaluated[i] = true;
+        hasAlwaysEvaluatedPattern = true;
+      }
+    }
+    this.hasAlwaysEvaluated = hasAlwaysEvaluatedPattern;
+    this.automaton = new Automaton(literals);
+  }
+
+  boolean isEmpty() {
+    return patterns.isEmpty();
+  }
+
+  Pattern pattern(int index) {
+    return patterns.get(index);
+  }
+
+  /**
+   * @return the index of the first pattern, in declaration order, that is found in the line, or -1 if none is found
+   */
+  int firstMatch(CharSequence line) {
+    var candidates = automaton.scan(line, patterns.size());
+    if (candidates == null && !hasAlwaysEvaluated) {
+      return -1;
+    }
+    for (var i = 0; i < patterns.size(); i++) {
+      var isCandidate = alwaysEvaluated[i] || (candidates != null && candidates[i]);
+      if (isCandidate && patterns.get(i).matcher(line).find()) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Conservatively extract the longest literal fragment that any match of the pattern has to contain.
+   * @return null if no such fragment can be safely extracted, e.g. when the pattern contains an alternative or flags
+   */
+  @CheckForNull
+  static String requiredLiteral(Pattern pattern) {
+    var regex = pattern.pattern();
+    if (pattern.flags() != 0 || regex.contains("\\Q") || regex.contains("(?")) {
+      return null;
+    }
+    var best = "";
+    var current = new StringBuilder();
+    var depth = 0;
+    for (var i = 0; i < regex.length(); i++) {
+      var c = regex.charAt(i);
+      if (c == '\\') {
+        i++;
+        if (i >= regex.length()) {
+          return null;
+        }
+        c = regex.charAt(i);
+        if (ESCAPES_WITH_OPERAND.indexOf(c) >= 0 || Character.isDigit(c)) {
+          // the following characters are not literals (e.g. \x41, \u0041, \0101, \cA, \p{L}, \k<name>, multi-digit back reference)
+          return null;
+        }
+        if (depth > 0) {
+          continue;
+        }
+        if (Character.isLetter(c)) {
+          // character class or boundary
+          best = longest(best, current);
+          continue;
+        }
+      } else if (c == '[') {
+        i = skipCharacterClass(regex, i);
+        if (i < 0) {
+          return null;
+        }
+        if (depth == 0) {
+          best = longest(best, current);
+        }
+        continue;
+      } else if (c == '(') {
+        best = longest(best, current);
+        depth++;
+        continue;
+      } else if (c == ')') {
+        depth--;
+        continue;
+      } else if (depth > 0) {
+        continue;
+      } else if (c == '|') {
+        return null;
+      } else if (c == '{') {
+        i = regex.indexOf('}', i);
+        if (i < 0) {
+          return null;
+        }
+        best = longest(best, current);
+        continue;
+      } else if (".^$*?+".indexOf(c) >= 0) {
+        best = longest(best, current);
+        continue;
+      }
+      var next = i + 1 < regex.length() ? regex.charAt(i + 1) : 0;
+      if (next == '*' || next == '?' || next == '{') {
+        // the character is optional, or repeated an unknown number of times
+        best = longest(best, current);
+      } else if (next == '+') {
+        current.append(c);
+        best = longest(best, current);
+      } else {
+        current.append(c);
+      }
+    }
+    best = longest(best, current);
+    return best.isEmpty() ? null : best;
+  }
+
+  private static String longest(String best, StringBuilder current) {
+    var result = current.length() > best.length() ? current.toString() : best;
+    current.setLength(0);
+    return result;
+  }
+
+  private static int skipCharacterClass(String regex, int start) {
+    var depth = 0;
+    for (var i = start; i < regex.length(); i++) {
+      var c = regex.charAt(i);
+      if (c == '\\') {
+        i++;
+      } else if (c == '[') {
+        depth++;
+        // a closing bracket at the beginning of a class is a literal
+        if (i + 1 < regex.length() && regex.charAt(i + 1) == '^') {
+          i++;
+        }
+        if (i + 1 < regex.length() && regex.charAt(i + 1) == ']') {
+          i++;
+        }
+      } else if (c == ']') {
+        depth--;
+        if (depth == 0) {
+          return i;
+        }
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Aho-Corasick automaton. Transitions are stored in an open addressing hash table keyed by (state, char).
+   */
+  private static class Automaton {
+    private static final int[] NO_OUTPUT = new int[0];
+
+    private long[] keys = new long[16];
+    private int[] values = new int[16];
+    private int transitionCount;
+    private int[] failures = new int[1];
+    private int[][] outputs = {NO_OUTPUT};
+    private int stateCount = 1;
+    /**
+     * Bit set of the chars having a transition from the root, to quickly skip the other chars
+     */
+    private final long[] rootChars = new long[1 << 10];
+
+    private Automaton(List<String> literals) {
+      for (var i = 0; i < literals.size(); i++) {
+        var literal = literals.get(i);
+        if (literal != null) {
+          add(literal, i);
+        }
+      }
+      computeFailures();
+    }
+
+    private void add(String literal, int patternIndex) {
+      var state = 0;
+      for (var i = 0; i < literal.length(); i++) {
+        var next = transition(state, literal.charAt(i));
+        if (next < 0) {
+          next = newState();
+          putTransition(state, literal.charAt(i), next);
+          if (state == 0) {
+            rootChars[literal.charAt(i) >>> 6] |= 1L << literal.charAt(i);
+          }
+        }
+        state = next;
+      }
+      outputs[state] = append(outputs[state], patternIndex);
+    }
+
+    private int newState() {
+      if (stateCount == failures.length) {
+        failures = Arrays.copyOf(failures, stateCount * 2);
+        outputs = Arrays.copyOf(outputs, stateCount * 2);
+      }
+      outputs[stateCount] = NO_OUTPUT;
+      return stateCount++;
+    }
+
+    private void computeFailures() {
+      // breadth first traversal, so that the failure of a state is computed before the ones of its children
+      var children = childrenByState();
+      var queue = new int[stateCount];
+      var head = 0;
+      var tail = 0;
+      for (long child : children.get(0)) {
+        failures[(int) child] = 0;
+        queue[tail++] = (int) child;
+      }
+      while (head < tail) {
+        var state = queue[head++];
+        for (long child : children.get(state)) {
+          var childState = (int) child;
+          var c = (char) (child >>> 32);
+          var failure = failures[state];
+          while (failure != 0 && transition(failure, c) < 0) {
+            failure = failures[failure];
+          }
+          var failureTarget = transition(failure, c);
+          failures[childState] = Math.max(failureTarget, 0);
+          for (var patternIndex : outputs[failures[childState]]) {
+            outputs[childState] = append(outputs[childState], patternIndex);
+          }
+          queue[tail++] = childState;
+        }
+      }
+    }
+
+    /**
+     * @return for each state, its children encoded as (char << 32 | child state)
+     */
+    private List<List<Long>> childrenByState() {
+      var children = new ArrayList<List<Long>>(stateCount);
+      for (var i = 0; i < stateCount; i++) {
+        children.add(new ArrayList<>());
+      }
+      for (var i = 0; i < keys.length; i++) {
+        if (values[i] != 0) {
+          var state = (int) (keys[i] >>> 16);
+          var c = keys[i] & 0xFFFF;
+          children.get(state).add(c << 32 | values[i]);
+        }
+      }
+      return children;
+    }
+
+    /**
+     * @return for each pattern, whether its literal was found in the line, or null if none was found
+     */
+    @CheckForNull
+    private boolean[] scan(CharSequence line, int patternCount) {
+      if (transitionCount == 0) {
+        return null;
+      }
+      boolean[] found = null;
+      var state = 0;
+      for (var i = 0; i < line.length(); i++) {
+        var c = line.charAt(i);
+        if (state == 0 && (rootChars[c >>> 6] & (1L << c)) == 0) {
+          continue;
+        }
+        var next = transition(state, c);
+        while (next < 0 && state != 0) {
+          state = failures[state];
+          next = transition(state, c);
+        }
+        state = next < 0 ? 0 : next;
+        var stateOutputs = outputs[state];
+        if (stateOutputs.length > 0) {
+          if (found == null) {
+            found = new boolean[patternCount];
+          }
+          for (var patternIndex : stateOutputs) {
+            found[patternIndex] = true;
+          }
+        }
+      }
+      return found;
+    }
+
+    private int transition(int state, char c) {
+      var key = key(state, c);
+      var mask = keys.length - 1;
+      for (var slot = hash(key) & mask; values[slot] != 0; slot = (slot + 1) & mask) {
+        if (keys[slot] == key) {
+          return values[slot];
+        }
+      }
+      return -1;
+    }
+
+    private void putTransition(int state, char c, int target) {
+      if ((transitionCount + 1) * 2 > keys.length) {
+        resize();
+      }
+      var key = key(state, c);
+      var mask = keys.length - 1;
+      var slot = hash(key) & mask;
+      while (values[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      keys[slot] = key;
+      // the root is never the target of a transition, so 0 marks empty slots
+      values[slot] = target;
+      transitionCount++;
+    }
+
+    private void resize() {
+      var oldKeys = keys;
+      var oldValues = values;
+      keys = new long[oldKeys.length * 2];
+      values = new int[oldValues.length * 2];
+      transitionCount = 0;
+      for (var i = 0; i < oldKeys.length; i++) {
+        if (oldValues[i] != 0) {
+          putTransition((int) (oldKeys[i] >>> 16), (char) (oldKeys[i] & 0xFFFF), oldValues[i]);
+        }
+      }
+    }
+
+    private static long key(int state, char c) {
+      return ((long) state << 16) | c;
+    }
+
+    private static int hash(long key) {
+      var h = key * 0x9E3779B97F4A7C15L;
+      return (int) (h ^ (h >>> 32));
+    }
+
+    private static int[] append(int[] array, int value) {
+      for (var existing : array) {
+        if (existing == value) {
+          return array;
+        }
+      }
+      var result = Arrays.copyOf(array, array.length + 1);
+      result[array.length] = value;
+      return result;
+    }
+  }
+}
@@ -32,6 +32,9 @@ import org.sonarsource.sonarlint.core.analysis.container.analysis.filesystem.Def
 public class DefaultFilterableIssue implements FilterableIssue {
   private final Issue rawIssue;
   private final InputComponent component;
+  // computed lazily, as several filters might need them
+  private RuleKey ruleKey;
+  private TextRange textRange;
 
   public DefaultFilterableIssue(Issue rawIssue, InputComponent component) {
     this.rawIssue = rawIssue;
@@ -45,7 +48,10 @@ public class DefaultFilterableIssue implements FilterableIssue {
 
   @Override
   public RuleKey ruleKey() {
-    return RuleKey.parse(rawIssue.getRuleKey());
+    if (ruleKey == null) {
+      ruleKey = RuleKey.parse(rawIssue.getRuleKey());
+    }
+    return ruleKey;
   }
 
   @Override
@@ -88,12 +94,15 @@ public class DefaultFilterableIssue implements FilterableIssue {
 
   @Override
   public TextRange textRange() {
-    var textRange = rawIssue.getTextRange();
-    if (textRange == null) {
+    var rawTextRange = rawIssue.getTextRange();
+    if (rawTextRange == null) {
       return null;
     }
-    return new DefaultTextRange(new DefaultTextPointer(textRange.getStartLine(), textRange.getStartLineOffset()),
-      new DefaultTextPointer(textRange.getEndLine(), textRange.getEndLineOffset()));
+    if (textRange == null) {
+      textRange = new DefaultTextRange(new DefaultTextPointer(rawTextRange.getStartLine(), rawTextRange.getStartLineOffset()),
+        new DefaultTextPointer(rawTextRange.getEndLine(), rawTextRange.getEndLineOffset()));
+    }
+    return textRange;
   }
 
 }
@@ -0,0 +1,81 @@
+/*
+ * SonarLint Core - Analysis Engine
+ * Copyright (C) 2016-2023 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.analysis.api;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ClientInputFileContentsTests {
+
+  @TempDir
+  private Path tempDir;
+
+  @Test
+  void should_read_small_files_in_memory() throws IOException {
+    var file = tempDir.resolve("Foo.java");
+    Files.writeString(file, "class Foo {}\n", StandardCharsets.UTF_8);
+
+    var contents = ClientInputFileContents.read(file, StandardCharsets.UTF_8);
+
+    assertThat(contents).isInstanceOf(String.class).hasToString("class Foo {}\n");
+  }
+
+  @Test
+  void should_map_big_files() throws IOException {
+    var file = tempDir.resolve("Big.java");
+    var source = "// \u00e9\n".repeat((int) (ClientInputFileContents.MAPPING_THRESHOLD_BYTES / 5) + 1);
+    Files.writeString(file, source, StandardCharsets.UTF_8);
+
+    var contents = ClientInputFileContents.read(file, StandardCharsets.UTF_8);
+
+    assertThat(contents).isInstanceOf(CharBuffer.class).hasToString(source);
+    assertThat(((CharBuffer) contents).isReadOnly()).isTrue();
+  }
+
+  @Test
+  void should_replace_malformed_input_of_big_files() throws IOException {
+    var file = tempDir.resolve("Big.java");
+    var bytes = new byte[(int) ClientInputFileContents.MAPPING_THRESHOLD_BYTES + 1];
+    Arrays.fill(bytes, (byte) 'a');
+    bytes[0] = (byte) 0xFF;
+    Files.write(file, bytes);
+
+    var contents = ClientInputFileContents.read(file, StandardCharsets.UTF_8);
+
+    assertThat(contents.toString()).isEqualTo(new String(bytes, StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void should_fail_on_missing_file() {
+    var file = tempDir.resolve("Missing.java");
+
+    assertThatThrownBy(() -> ClientInputFileContents.read(file, StandardCharsets.UTF_8)).isInstanceOf(IOException.class);
+  }
+
+}
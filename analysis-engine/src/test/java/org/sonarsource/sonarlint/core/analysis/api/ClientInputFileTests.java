@@ -68,7 +68,7 @@ class ClientInputFileTests {
 
       @Override
       public String contents() throws IOException {
-        return null;
+        return "contents";
       }
 
       @Override
@@ -78,6 +78,7 @@ class ClientInputFileTests {
     };
 
     assertThat(underTest.language()).isNull();
+    assertThat(underTest.contentsBuffer()).isEqualTo("contents");
     assertThat(underTest.uri()).hasScheme("file");
     assertThat(underTest.uri().getPath()).endsWith("/Foo.java");
   }
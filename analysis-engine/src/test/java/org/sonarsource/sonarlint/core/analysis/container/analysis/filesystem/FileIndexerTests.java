@@ -0,0 +1,187 @@
+/*
+ * SonarLint Core - Analysis Engine
+ * Copyright (C) 2016-2023 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.analysis.container.analysis.filesystem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+import javax.annotation.Nullable;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.InputFileFilter;
+import org.sonar.api.utils.MessageException;
+import org.sonarsource.sonarlint.core.analysis.api.AnalysisConfiguration;
+import org.sonarsource.sonarlint.core.analysis.api.AnalysisResults;
+import org.sonarsource.sonarlint.core.analysis.api.ClientInputFile;
+import org.sonarsource.sonarlint.core.analysis.container.analysis.issue.ignore.scanner.IssueExclusionsLoader;
+import org.sonarsource.sonarlint.core.commons.Language;
+import testutils.InMemoryTestClientInputFile;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+
+class FileIndexerTests {
+
+  private static final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+  private final IssueExclusionsLoader issueExclusionsLoader = mock(IssueExclusionsLoader.class);
+  private final InputFileBuilder inputFileBuilder = new InputFileBuilder(mock(LanguageDetection.class), new FileMetadata(), issueExclusionsLoader);
+  private final InputFileIndex inputFileIndex = new InputFileIndex();
+  private final AnalysisResults analysisResults = new AnalysisResults();
+
+  @AfterAll
+  static void shutdownExecutor() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void should_index_files_on_the_calling_thread_by_default() {
+    var files = createFiles(FileIndexer.PARALLEL_INDEXING_THRESHOLD * 2);
+    Set<Thread> filterThreads = ConcurrentHashMap.newKeySet();
+    InputFileFilter filter = f -> {
+      filterThreads.add(Thread.currentThread());
+      return true;
+    };
+
+    new FileIndexer(inputFileIndex, inputFileBuilder, configuration(files), analysisResults, issueExclusionsLoader, Optional.of(List.of(filter))).index();
+
+    assertThat(indexedRelativePaths()).hasSize(files.size());
+    assertThat(filterThreads).containsOnly(Thread.currentThread());
+  }
+
+  @Test
+  void should_index_files_on_shared_workers_when_enabled() {
+    var files = createFiles(FileIndexer.PARALLEL_INDEXING_THRESHOLD * 2);
+    Set<Thread> filterThreads = ConcurrentHashMap.newKeySet();
+    InputFileFilter filter = f -> {
+      filterThreads.add(Thread.currentThread());
+      return true;
+    };
+    var configuration = AnalysisConfiguration.builder().addInputFiles(files).putExtraProperty(FileIndexer.PARALLEL_INDEXING_PROPERTY, "true").build();
+
+    new FileIndexer(inputFileIndex, inputFileBuilder, configuration, analysisResults, issueExclusionsLoader, Optional.of(List.of(filter))).index();
+
+    assertThat(indexedRelativePaths()).containsExactlyElementsOf(files.stream().map(ClientInputFile::relativePath).collect(Collectors.toList()));
+    assertThat(filterThreads).isNotEmpty().allMatch(t -> t.getName().equals("sonarlint-file-indexer"));
+  }
+
+  @Test
+  void should_index_files_in_parallel_in_input_order() {
+    var files = createFiles(FileIndexer.PARALLEL_INDEXING_THRESHOLD * 5);
+
+    newIndexer(files, List.of(), executor).index();
+
+    assertThat(indexedRelativePaths()).containsExactlyElementsOf(files.stream().map(ClientInputFile::relativePath).collect(Collectors.toList()));
+    assertThat(analysisResults.indexedFileCount()).isEqualTo(files.size());
+    assertThat(analysisResults.languagePerFile()).hasSize(files.size()).containsValue(Language.JAVA);
+    var inOrder = inOrder(issueExclusionsLoader);
+    inputFileIndex.inputFiles().forEach(f -> inOrder.verify(issueExclusionsLoader).addMulticriteriaPatterns((SonarLintInputFile) f));
+  }
+
+  @Test
+  void should_index_the_same_files_sequentially_and_in_parallel() {
+    var files = createFiles(FileIndexer.PARALLEL_INDEXING_THRESHOLD * 2);
+    InputFileFilter excludeEveryTenthFile = f -> !f.filename().endsWith("0.java") && f.lines() > 0;
+
+    newIndexer(files, List.of(excludeEveryTenthFile), null).index();
+    var sequentiallyIndexed = indexedRelativePaths();
+    var parallelIndex = new InputFileIndex();
+    new FileIndexer(parallelIndex, inputFileBuilder, configuration(files), new AnalysisResults(), issueExclusionsLoader, Optional.of(List.of(excludeEveryTenthFile)), executor)
+      .index();
+
+    assertThat(sequentiallyIndexed).hasSize(files.size() - files.size() / 10);
+    assertThat(relativePaths(parallelIndex.inputFiles())).containsExactlyElementsOf(sequentiallyIndexed);
+  }
+
+  @Test
+  void should_not_index_excluded_files() {
+    var files = createFiles(FileIndexer.PARALLEL_INDEXING_THRESHOLD);
+    var excluded = files.get(42);
+    InputFileFilter filter = f -> !f.relativePath().equals(excluded.relativePath());
+
+    newIndexer(files, List.of(filter), executor).index();
+
+    assertThat(indexedRelativePaths()).hasSize(files.size() - 1).doesNotContain(excluded.relativePath());
+    assertThat(analysisResults.languagePerFile()).doesNotContainKey(excluded);
+  }
+
+  @Test
+  void should_fail_when_a_file_is_indexed_twice() {
+    var files = createFiles(FileIndexer.PARALLEL_INDEXING_THRESHOLD);
+    files.add(files.get(10));
+    var indexer = newIndexer(files, List.of(), executor);
+
+    assertThatThrownBy(indexer::index)
+      .isInstanceOf(MessageException.class)
+      .hasMessageContaining("can't be indexed twice");
+  }
+
+  @Test
+  void should_propagate_filter_errors() {
+    var files = createFiles(FileIndexer.PARALLEL_INDEXING_THRESHOLD);
+    InputFileFilter failingFilter = f -> {
+      if (f.filename().equals("File50.java")) {
+        throw new IllegalStateException("Filter failure");
+      }
+      return true;
+    };
+    var indexer = newIndexer(files, List.of(failingFilter), executor);
+
+    assertThatThrownBy(indexer::index)
+      .isInstanceOf(IllegalStateException.class)
+      .hasMessage("Filter failure");
+    assertThat(indexedRelativePaths()).hasSize(50).doesNotContain("src/File50.java");
+  }
+
+  private FileIndexer newIndexer(List<ClientInputFile> files, List<InputFileFilter> filters, @Nullable ExecutorService indexingExecutor) {
+    return new FileIndexer(inputFileIndex, inputFileBuilder, configuration(files), analysisResults, issueExclusionsLoader, Optional.of(filters), indexingExecutor);
+  }
+
+  private static AnalysisConfiguration configuration(List<ClientInputFile> files) {
+    return AnalysisConfiguration.builder().addInputFiles(files).build();
+  }
+
+  private static List<ClientInputFile> createFiles(int count) {
+    return IntStream.range(0, count)
+      .mapToObj(i -> (ClientInputFile) new InMemoryTestClientInputFile("class File" + i + " {}\n", "src/File" + i + ".java", null, false, Language.JAVA))
+      .collect(Collectors.toCollection(ArrayList::new));
+  }
+
+  private List<String> indexedRelativePaths() {
+    return relativePaths(inputFileIndex.inputFiles());
+  }
+
+  private static List<String> relativePaths(Iterable<InputFile> files) {
+    return StreamSupport.stream(files.spliterator(), false)
+      .map(InputFile::relativePath)
+      .collect(Collectors.toList());
+  }
+
+}
@@ -63,6 +63,20 @@ class FileMetadataTests {
     assertThat(metadata.lastValidOffset()).isEqualTo(13);
   }
 
+  @Test
+  void read_decoded_contents_same_as_stream(@TempDir Path temp) throws Exception {
+    var contents = "foo\r\nbar\rbaz\n\nqux";
+    var tempFile = temp.resolve("tmpFile").toFile();
+    FileUtils.write(tempFile, contents, StandardCharsets.UTF_8);
+
+    var fromStream = underTest.readMetadata(tempFile, StandardCharsets.UTF_8);
+    var fromContents = underTest.readMetadata(new StringBuilder(contents), StandardCharsets.UTF_8, tempFile.toURI(), null);
+
+    assertThat(fromContents.lines()).isEqualTo(fromStream.lines()).isEqualTo(5);
+    assertThat(fromContents.originalLineOffsets()).containsExactly(fromStream.originalLineOffsets());
+    assertThat(fromContents.lastValidOffset()).isEqualTo(fromStream.lastValidOffset());
+  }
+
   @Test
   void read_with_wrong_encoding(@TempDir Path temp) throws Exception {
     var tempFile = temp.resolve("tmpFile").toFile();
@@ -128,6 +128,41 @@ class LanguageDetectionTests {
       .contains("XML: xhtml");
   }
 
+  @Test
+  void search_by_suffix_containing_dots() throws Exception {
+    var settings = new MapSettings(Map.of(org.sonarsource.sonarlint.core.commons.Language.XML.getFileSuffixesPropKey(), ".xml.tpl,.xsd"));
+    var detection = new LanguageDetection(settings.asConfig());
+
+    assertThat(detection.language(newInputFile("abc.xml.tpl"))).isEqualTo(org.sonarsource.sonarlint.core.commons.Language.XML);
+    assertThat(detection.language(newInputFile("abc.XML.Tpl"))).isEqualTo(org.sonarsource.sonarlint.core.commons.Language.XML);
+    assertThat(detection.language(newInputFile("abc.xsd"))).isEqualTo(org.sonarsource.sonarlint.core.commons.Language.XML);
+    assertThat(detection.language(newInputFile("abc.tpl"))).isNull();
+    assertThat(detection.language(newInputFile("abcxml.tpl"))).isNull();
+    assertThat(detection.language(newInputFile("abc.xml"))).isNull();
+  }
+
+  @Test
+  void fail_if_file_matches_suffixes_of_several_languages() throws Exception {
+    var settings = new MapSettings(Map.of(org.sonarsource.sonarlint.core.commons.Language.XML.getFileSuffixesPropKey(), "xml",
+      org.sonarsource.sonarlint.core.commons.Language.HTML.getFileSuffixesPropKey(), "html.xml"));
+    var detection = new LanguageDetection(settings.asConfig());
+
+    assertThat(detection.language(newInputFile("abc.xml"))).isEqualTo(org.sonarsource.sonarlint.core.commons.Language.XML);
+    var inputFile = newInputFile("abc.html.xml");
+    var e = assertThrows(MessageException.class, () -> detection.language(inputFile));
+    assertThat(e.getMessage())
+      .contains("abc.html.xml\" can not be decided as the file extension matches both ")
+      .contains("HTML: html.xml")
+      .contains("XML: xml");
+  }
+
+  @Test
+  void should_not_alter_default_suffixes() {
+    new LanguageDetection(new MapSettings(Map.of()).asConfig());
+
+    assertThat(org.sonarsource.sonarlint.core.commons.Language.JAVA.getDefaultFileSuffixes()).containsExactly(".java", ".jav");
+  }
+
   private InputFile newInputFile(String path) throws IOException {
     return new TestInputFileBuilder(path).setBaseDir(basedir).build();
   }
@@ -24,10 +24,13 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.net.URI;
+import java.nio.CharBuffer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import org.sonar.api.batch.fs.InputFile.Status;
@@ -67,6 +70,31 @@ class SonarLintInputFileTests {
 
   }
 
+  @Test
+  void should_read_contents_from_client_only_once() throws IOException {
+    var contentsRequests = new AtomicInteger();
+    ClientInputFile inputFile = new InMemoryTestClientInputFile("foo\nbar", "src/Foo.php", null, false, null) {
+      @Override
+      public CharSequence contentsBuffer() throws IOException {
+        contentsRequests.incrementAndGet();
+        return CharBuffer.wrap(contents());
+      }
+    };
+    var file = new SonarLintInputFile(inputFile, f -> {
+      try {
+        return new FileMetadata().readMetadata(f.contentsBuffer(), StandardCharsets.UTF_8, f.uri(), null);
+      } catch (IOException e) {
+        throw new IllegalStateException(e);
+      }
+    });
+
+    assertThat(file.lines()).isEqualTo(2);
+    assertThat(file.contentsBuffer()).hasToString("foo\nbar");
+    assertThat(file.contents()).isEqualTo("foo\nbar").isSameAs(file.contents());
+    assertThat(file.md5Hash()).isEqualTo(DigestUtils.md5Hex("foo\nbar"));
+    assertThat(contentsRequests).hasValue(1);
+  }
+
   @Test
   void checkValidPointer() {
     ClientInputFile inputFile = new InMemoryTestClientInputFile("foo", "src/Foo.php", null, false, null);
@@ -0,0 +1,145 @@
+/*
+ * SonarLint Core - Analysis Engine
+ * Copyright (C) 2016-2023 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.analysis.container.analysis.issue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sonar.api.scan.issue.filter.FilterableIssue;
+import org.sonar.api.scan.issue.filter.IssueFilter;
+import org.sonar.api.scan.issue.filter.IssueFilterChain;
+import org.sonarsource.sonarlint.core.analysis.api.Issue;
+import org.sonarsource.sonarlint.core.analysis.container.analysis.filesystem.SonarLintInputFile;
+import org.sonarsource.sonarlint.core.analysis.container.analysis.issue.ignore.IgnoreIssuesFilter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IssueFiltersTests {
+
+  private final List<String> calls = new ArrayList<>();
+  private SonarLintInputFile inputFile;
+  private Issue issue;
+
+  @BeforeEach
+  void prepare() {
+    inputFile = mock(SonarLintInputFile.class);
+    when(inputFile.isFile()).thenReturn(true);
+    issue = mock(Issue.class);
+    when(issue.getRuleKey()).thenReturn("java:S123");
+    when(issue.getStartLine()).thenReturn(1);
+  }
+
+  @Test
+  void should_accept_issue_when_no_filter() {
+    var filters = new IssueFilters(Optional.empty());
+
+    assertThat(filters.accept(inputFile, issue)).isTrue();
+    assertThat(filters.timeSpentByFilterMs()).isEmpty();
+    assertThat(filters.timeSpentMs()).isZero();
+  }
+
+  @Test
+  void should_apply_built_in_filters_first() {
+    var filters = new IssueFilters(Optional.of(List.of(new RecordingFilter("plugin1", true), new RecordingIgnoreIssuesFilter(), new RecordingFilter("plugin2", true))));
+
+    assertThat(filters.accept(inputFile, issue)).isTrue();
+
+    assertThat(calls).containsExactly("ignore", "plugin1", "plugin2");
+  }
+
+  @Test
+  void should_not_call_next_filters_when_issue_is_rejected() {
+    when(inputFile.isIgnoreAllIssues()).thenReturn(true);
+    var filters = new IssueFilters(Optional.of(List.of(new RecordingFilter("plugin", true), new RecordingIgnoreIssuesFilter())));
+
+    assertThat(filters.accept(inputFile, issue)).isFalse();
+
+    assertThat(calls).containsExactly("ignore");
+  }
+
+  @Test
+  void should_reuse_chain_for_all_issues() {
+    var filters = new IssueFilters(Optional.of(List.of(new RecordingFilter("plugin1", true), new RecordingFilter("plugin2", false))));
+
+    assertThat(filters.accept(inputFile, issue)).isFalse();
+    assertThat(filters.accept(inputFile, issue)).isFalse();
+
+    assertThat(calls).containsExactly("plugin1", "plugin2", "plugin1", "plugin2");
+  }
+
+  @Test
+  void should_report_time_spent_by_filter() {
+    var filters = new IssueFilters(Optional.of(List.of(new RecordingFilter("plugin", true), new RecordingIgnoreIssuesFilter())));
+
+    filters.accept(inputFile, issue);
+
+    assertThat(filters.timeSpentByFilterMs()).containsOnlyKeys(RecordingIgnoreIssuesFilter.class.getName(), RecordingFilter.class.getName());
+    assertThat(filters.timeSpentByFilterMs().values()).allMatch(time -> time >= 0);
+  }
+
+  @Test
+  void should_report_total_time_spent_in_filters() {
+    var filters = new IssueFilters(Optional.of(List.of(new SlowFilter(), new RecordingFilter("plugin", true))));
+
+    filters.accept(inputFile, issue);
+
+    assertThat(filters.timeSpentMs()).isGreaterThanOrEqualTo(filters.timeSpentByFilterMs().get(SlowFilter.class.getName())).isGreaterThanOrEqualTo(5);
+  }
+
+  private static class SlowFilter implements IssueFilter {
+    @Override
+    public boolean accept(FilterableIssue issue, IssueFilterChain chain) {
+      try {
+        Thread.sleep(5);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return chain.accept(issue);
+    }
+  }
+
+  private class RecordingFilter implements IssueFilter {
+    private final String name;
+    private final boolean accept;
+
+    private RecordingFilter(String name, boolean accept) {
+      this.name = name;
+      this.accept = accept;
+    }
+
+    @Override
+    public boolean accept(FilterableIssue issue, IssueFilterChain chain) {
+      calls.add(name);
+      return accept && chain.accept(issue);
+    }
+  }
+
+  private class RecordingIgnoreIssuesFilter extends IgnoreIssuesFilter {
+    @Override
+    public boolean accept(FilterableIssue issue, IssueFilterChain chain) {
+      calls.add("ignore");
+      return super.accept(issue, chain);
+    }
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * SonarLint Core - Analysis Engine
+ * Copyright (C) 2016-2023 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.analysis.container.analysis.issue.ignore.scanner;
+
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MultiPatternMatcherTests {
+
+  @Test
+  void should_extract_required_literal() {
+    assertThat(literal("// SONAR-OFF")).isEqualTo("// SONAR-OFF");
+    assertThat(literal("ab+c")).isEqualTo("ab");
+    assertThat(literal("x?yz")).isEqualTo("yz");
+    assertThat(literal("a{2}bc")).isEqualTo("bc");
+    assertThat(literal("\\.gen\\.")).isEqualTo(".gen.");
+    assertThat(literal("\\d+abc")).isEqualTo("abc");
+    assertThat(literal("a(bc)*de")).isEqualTo("de");
+    assertThat(literal("^import\\s+lombok")).isEqualTo("import");
+    assertThat(literal("[abc]def")).isEqualTo("def");
+    assertThat(literal("a[]]bc")).isEqualTo("bc");
+  }
+
+  @Test
+  void should_not_extract_literal_when_not_safe() {
+    assertThat(literal("foo|bar")).isNull();
+    assertThat(literal("(?i)hello")).isNull();
+    assertThat(literal("\\Qa.b\\E")).isNull();
+    assertThat(literal(".*")).isNull();
+    assertThat(literal("foo\\x41bar")).isNull();
+    assertThat(literal("foo\\u0041bar")).isNull();
+    assertThat(literal("foo\\0101bar")).isNull();
+    assertThat(literal("foo\\cAbar")).isNull();
+    assertThat(literal("foo\\p{Lu}bar")).isNull();
+    assertThat(literal("(a)\\12bc")).isNull();
+    assertThat(MultiPatternMatcher.requiredLiteral(Pattern.compile("hello", Pattern.CASE_INSENSITIVE))).isNull();
+  }
+
+  @Test
+  void should_return_first_matching_pattern_in_declaration_order() {
+    var matcher = matcher("// FOO-OFF", "OFF", "(?i)sonar-off", "he", "she");
+
+    assertThat(matcher.firstMatch("int a = 0; // FOO-OFF")).isZero();
+    assertThat(matcher.firstMatch("int a = 0; // BAR-OFF")).isEqualTo(1);
+    assertThat(matcher.firstMatch("// Sonar-Off")).isEqualTo(2);
+    assertThat(matcher.firstMatch("ushers")).isEqualTo(3);
+    assertThat(matcher.firstMatch("nothing here?")).isEqualTo(3);
+    assertThat(matcher.firstMatch("int a = 0;")).isEqualTo(-1);
+    assertThat(matcher.firstMatch("")).isEqualTo(-1);
+  }
+
+  @Test
+  void should_confirm_candidates_with_regular_expression() {
+    var matcher = matcher("^import\\s+lombok", "gen.*code");
+
+    assertThat(matcher.firstMatch("import   lombok.Data;")).isZero();
+    assertThat(matcher.firstMatch("// import lombok")).isEqualTo(-1);
+    assertThat(matcher.firstMatch("generated code")).isEqualTo(1);
+    assertThat(matcher.firstMatch("code generated")).isEqualTo(-1);
+  }
+
+  @Test
+  void should_find_overlapping_literals() {
+    var matcher = matcher("hers", "his", "she");
+
+    assertThat(matcher.firstMatch("ushers")).isZero();
+    assertThat(matcher.firstMatch("ushe")).isEqualTo(2);
+    assertThat(matcher.firstMatch("ahishe")).isEqualTo(1);
+  }
+
+  @Test
+  void should_match_like_individual_patterns() {
+    var regexps = List.of("a\\x41b1", "a\\u0041b2", "a\\0101b3", "a\\cAb4", "a\\p{Lu}b5", "a\\N{LATIN CAPITAL LETTER A}b6", "(a)\\1b7", "(?<x>a)\\k<x>b8",
+      "@SONAR-IGNORE-ALL", "// SONAR-OFF", "ab+c", "x?yz", "a{2}b", "foo|bar", "(?i)hello", "[abc]def", "\\.gen\\.", "a(bc)*de", "he", "she", "hers");
+    var patterns = regexps.stream().map(Pattern::compile).collect(Collectors.toList());
+    var matcher = new MultiPatternMatcher(patterns);
+    var lines = List.of("", "abbbc", "yz", "aab", "food", "HeLLo", "cdef", "a.gen.b", "abcbcde", "ushers", "// SONAR-OFF", "nothing", "x@SONAR-IGNORE-ALL", "aAb1",
+      "aAb2", "aAb3", "a\u0001b4", "aBb5", "aAb6", "aab7", "aab8");
+
+    for (var line : lines) {
+      var expected = IntStream.range(0, patterns.size()).filter(i -> patterns.get(i).matcher(line).find()).findFirst().orElse(-1);
+      assertThat(matcher.firstMatch(line)).as(line).isEqualTo(expected);
+    }
+  }
+
+  private static String literal(String regexp) {
+    return MultiPatternMatcher.requiredLiteral(Pattern.compile(regexp));
+  }
+
+  private static MultiPatternMatcher matcher(String... regexps) {
+    return new MultiPatternMatcher(List.of(regexps).stream().map(Pattern::compile).collect(Collectors.toList()));
+  }
+}
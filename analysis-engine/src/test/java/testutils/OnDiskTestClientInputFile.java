@@ -27,6 +27,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import javax.annotation.Nullable;
 import org.sonarsource.sonarlint.core.analysis.api.ClientInputFile;
+import org.sonarsource.sonarlint.core.analysis.api.ClientInputFileContents;
 import org.sonarsource.sonarlint.core.commons.Language;
 
 public class OnDiskTestClientInputFile implements ClientInputFile {
@@ -88,6 +89,11 @@ public class OnDiskTestClientInputFile implements ClientInputFile {
     return new String(Files.readAllBytes(path), encoding);
   }
 
+  @Override
+  public CharSequence contentsBuffer() throws IOException {
+    return ClientInputFileContents.read(path, encoding);
+  }
+
   @Override
   public URI uri() {
     return path.toUri();
@@ -0,0 +1,139 @@
+/*
+ * SonarLint Core - Commons
+ * Copyright (C) 2016-2023 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.commons.hash;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Computes md5 hashes of text contents, encoded in UTF-8, without materializing the encoded bytes nor intermediate strings.
+ * Outputs are the same as {@code DigestUtils.md5Hex(content)} from commons-codec.
+ */
+public class Md5 {
+
+  private static final int BUFFER_SIZE = 8192;
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+  private static final ThreadLocal<Md5Encoder> ENCODER = ThreadLocal.withInitial(Md5Encoder::new);
+
+  private Md5() {
+    // utility class, forbidden constructor
+  }
+
+  public static String md5Hex(CharSequence content) {
+    return ENCODER.get().hash(content, false);
+  }
+
+  /**
+   * Same as {@link #md5Hex(CharSequence)} on the content stripped of all the characters matched by the {@code \s} regular expression,
+   * i.e. {@code [ \t\n\x0B\f\r]}.
+   */
+  public static String md5HexIgnoringWhitespaces(CharSequence content) {
+    return ENCODER.get().hash(content, true);
+  }
+
+  static boolean isWhitespace(char c) {
+    return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+  }
+
+  /**
+   * Encodes characters in UTF-8 into a reused buffer that is fed to a reused digest. Not thread safe.
+   */
+  private static class Md5Encoder {
+    private final MessageDigest digest;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+
+    private Md5Encoder() {
+      try {
+        this.digest = MessageDigest.getInstance("MD5");
+      } catch (NoSuchAlgorithmException e) {
+        throw new IllegalStateException("MD5 algorithm is not available", e);
+      }
+    }
+
+    private String hash(CharSequence content, boolean ignoreWhitespaces) {
+      digest.reset();
+      position = 0;
+      var length = content.length();
+      for (var i = 0; i < length; i++) {
+        var c = content.charAt(i);
+        if (ignoreWhitespaces && isWhitespace(c)) {
+          continue;
+        }
+        if (position > BUFFER_SIZE - 4) {
+          flush();
+        }
+        if (c < 0x80) {
+          buffer[position++] = (byte) c;
+        } else if (c < 0x800) {
+          buffer[position++] = (byte) (0xC0 | (c >> 6));
+          buffer[position++] = (byte) (0x80 | (c & 0x3F));
+        } else if (Character.isSurrogate(c)) {
+          i = encodeSurrogate(content, i, c, ignoreWhitespaces);
+        } else {
+          buffer[position++] = (byte) (0xE0 | (c >> 12));
+          buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+          buffer[position++] = (byte) (0x80 | (c & 0x3F));
+        }
+      }
+      flush();
+      return toHex(digest.digest());
+    }
+
+    /**
+     * Surrogate pairs are encoded as a single code point, unpaired surrogates are replaced by '?', like {@link String#getBytes}.
+     * When whitespaces are ignored, they don't break a pair, as they would be stripped before encoding.
+     * @return the index of the last character consumed
+     */
+    private int encodeSurrogate(CharSequence content, int index, char c, boolean ignoreWhitespaces) {
+      if (Character.isHighSurrogate(c)) {
+        var next = index + 1;
+        while (ignoreWhitespaces && next < content.length() && isWhitespace(content.charAt(next))) {
+          next++;
+        }
+        if (next < content.length() && Character.isLowSurrogate(content.charAt(next))) {
+          var codePoint = Character.toCodePoint(c, content.charAt(next));
+          buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+          buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+          buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+          buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+          return next;
+        }
+      }
+      buffer[position++] = '?';
+      return index;
+    }
+
+    private void flush() {
+      digest.update(buffer, 0, position);
+      position = 0;
+    }
+  }
+
+  private static String toHex(byte[] bytes) {
+    var hex = new char[bytes.length * 2];
+    for (var i = 0; i < bytes.length; i++) {
+      hex[2 * i] = HEX_DIGITS[(bytes[i] >> 4) & 0xF];
+      hex[2 * i + 1] = HEX_DIGITS[bytes[i] & 0xF];
+    }
+    return new String(hex);
+  }
+
+}
@@ -0,0 +1,87 @@
+/*
+ * SonarLint Core - Commons
+ * Copyright (C) 2016-2023 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.commons.hash;
+
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class Md5Tests {
+
+  private static final char[] INTERESTING_CHARS = {'a', 'Z', '0', ' ', '\t', '\n', '\u000B', '\f', '\r', ' ', ' ', '\u00E9', '\u07FF', '\u0800',
+    '\u20AC', '\uFFFF', '\uD83D', '\uDE00', '\uDBFF', '\uDFFF'};
+
+  @Test
+  void should_compute_md5() {
+    assertThat(Md5.md5Hex("")).isEqualTo("d41d8cd98f00b204e9800998ecf8427e");
+    assertThat(Md5.md5Hex("test string")).isEqualTo("6f8db599de986fab7a21625b7916589c");
+    assertThat(Md5.md5Hex(CharBuffer.wrap("test string"))).isEqualTo("6f8db599de986fab7a21625b7916589c");
+  }
+
+  @Test
+  void should_ignore_whitespaces() {
+    assertThat(Md5.md5HexIgnoringWhitespaces(" test\tstring\r\n")).isEqualTo(Md5.md5Hex("teststring"));
+    assertThat(Md5.md5HexIgnoringWhitespaces(" \n\t")).isEqualTo(Md5.md5Hex(""));
+  }
+
+  @Test
+  void should_encode_surrogates_like_the_jdk() throws NoSuchAlgorithmException {
+    for (var content : new String[] {"\uD83D\uDE00", "\uD83D", "\uDE00", "\uDE00\uD83D", "a\uD83D b", "\uD83D \uDE00", "\uD83D\n\t\uDE00", "\uD83D\uD83D\uDE00"}) {
+      assertThat(Md5.md5Hex(content)).as(content).isEqualTo(referenceMd5(content));
+      assertThat(Md5.md5HexIgnoringWhitespaces(content)).as(content).isEqualTo(referenceMd5(content.replaceAll("[\\s]", "")));
+    }
+  }
+
+  @Test
+  void should_give_same_results_as_reference_implementation_on_random_contents() throws NoSuchAlgorithmException {
+    var random = new Random(42);
+    for (var i = 0; i < 10_000; i++) {
+      // some contents are bigger than the internal buffer
+      var content = randomContent(random, i % 100 == 0 ? 20_000 : 50);
+
+      assertThat(Md5.md5Hex(content)).as(content).isEqualTo(referenceMd5(content));
+      assertThat(Md5.md5HexIgnoringWhitespaces(content)).as(content).isEqualTo(referenceMd5(content.replaceAll("[\\s]", "")));
+    }
+  }
+
+  private static String randomContent(Random random, int maxLength) {
+    var length = random.nextInt(maxLength);
+    var content = new StringBuilder(length);
+    for (var i = 0; i < length; i++) {
+      content.append(random.nextBoolean() ? INTERESTING_CHARS[random.nextInt(INTERESTING_CHARS.length)] : (char) random.nextInt(Character.MAX_VALUE + 1));
+    }
+    return content.toString();
+  }
+
+  private static String referenceMd5(String content) throws NoSuchAlgorithmException {
+    var digest = MessageDigest.getInstance("MD5").digest(content.getBytes(StandardCharsets.UTF_8));
+    var hex = new StringBuilder();
+    for (var b : digest) {
+      hex.append(String.format("%02x", b));
+    }
+    return hex.toString();
+  }
+
+}
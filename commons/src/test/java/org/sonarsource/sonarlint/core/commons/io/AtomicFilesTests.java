@@ -0,0 +1,57 @@
+/*
+ * SonarLint Core - Commons
+ * Copyright (C) 2016-2023 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.commons.io;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AtomicFilesTests {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void should_move_file() throws IOException {
+    var source = Files.writeString(tempDir.resolve("source.tmp"), "content");
+    var target = tempDir.resolve("target");
+
+    AtomicFiles.move(source, target);
+
+    assertThat(source).doesNotExist();
+    assertThat(target).hasContent("content");
+  }
+
+  @Test
+  void should_replace_existing_file() throws IOException {
+    var source = Files.writeString(tempDir.resolve("source.tmp"), "new content");
+    var target = Files.writeString(tempDir.resolve("target"), "old content");
+
+    AtomicFiles.move(source, target);
+
+    assertThat(source).doesNotExist();
+    assertThat(target).hasContent("new content");
+  }
+
+}
@@ -29,12 +29,14 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import javax.annotation.Nullable;
 import org.apache.commons.lang3.StringUtils;
 import org.sonar.api.batch.fs.InputFile.Type;
@@ -92,9 +94,12 @@ import static org.apache.commons.lang3.StringUtils.trimToNull;
 
 public final class ConnectedSonarLintEngineImpl extends AbstractSonarLintEngine implements ConnectedSonarLintEngine {
 
+  private static final int PARALLEL_EXCLUSIONS_THRESHOLD = 1000;
+
   private final ConnectedGlobalConfiguration globalConfig;
   private final ServerConnection serverConnection;
   private final AtomicReference<AnalysisContext> analysisContext = new AtomicReference<>();
+  private final Map<String, CachedServerFileExclusions> serverFileExclusionsByProjectKey = new ConcurrentHashMap<>();
 
   public ConnectedSonarLintEngineImpl(ConnectedGlobalConfiguration globalConfig) {
     super(globalConfig.getLogOutput());
@@ -140,7 +145,7 @@ public final class ConnectedSonarLintEngineImpl extends AbstractSonarLintEngine
     pluginsToLoadByKey.putAll(globalConfig.getEmbeddedPluginPathsByKey());
     Set<Path> plugins = new HashSet<>(pluginsToLoadByKey.values());
 
-    var config = new Configuration(plugins, globalConfig.getEnabledLanguages(), Optional.ofNullable(globalConfig.getNodeJsVersion()));
+    var config = new Configuration(plugins, globalConfig.getEnabledLanguages(), Optional.ofNullable(globalConfig.getNodeJsVersion()), globalConfig.getSonarLintUserHome());
     return new PluginsLoader().load(config);
   }
 
@@ -429,28 +434,51 @@ public final class ConnectedSonarLintEngineImpl extends AbstractSonarLintEngine
       LOG.debug("Unable to read settings in local storage", e);
       return List.of();
     }
-    var settings = new MapSettings(analyzerConfig.getSettings().getAll());
-    var exclusionFilters = new ServerFileExclusions(settings.asConfig());
-    exclusionFilters.prepare();
-
-    List<G> excluded = new ArrayList<>();
-
-    for (G file : files) {
+    var exclusionFilters = getServerFileExclusions(projectBinding.projectKey(), analyzerConfig.getSettings().getAll());
+
+    // the client callbacks are called on the calling thread, only the matching of the resulting paths is parallelized
+    var fileList = new ArrayList<>(files);
+    var serverPaths = new String[fileList.size()];
+    var types = new Type[fileList.size()];
+    for (var i = 0; i < fileList.size(); i++) {
+      var file = fileList.get(i);
       var idePath = fileIdePathExtractor.apply(file);
-      if (idePath == null) {
-        continue;
-      }
-      var sqPath = IssueStorePaths.idePathToServerPath(projectBinding, idePath);
-      if (sqPath == null) {
-        // we can't map it to a SonarQube path, so just apply exclusions to the original ide path
-        sqPath = idePath;
-      }
-      var type = testFilePredicate.test(file) ? Type.TEST : Type.MAIN;
-      if (!exclusionFilters.accept(sqPath, type)) {
-        excluded.add(file);
+      if (idePath != null) {
+        serverPaths[i] = toServerPath(projectBinding, idePath);
+        types[i] = testFilePredicate.test(file) ? Type.TEST : Type.MAIN;
       }
     }
-    return excluded;
+    var indexes = IntStream.range(0, fileList.size());
+    if (fileList.size() >= PARALLEL_EXCLUSIONS_THRESHOLD) {
+      indexes = indexes.parallel();
+    }
+    return indexes
+      .filter(i -> serverPaths[i] != null && !exclusionFilters.accept(serverPaths[i], types[i]))
+      .mapToObj(fileList::get)
+      .collect(Collectors.toList());
+  }
+
+  private static String toServerPath(ProjectBinding projectBinding, String idePath) {
+    var sqPath = IssueStorePaths.idePathToServerPath(projectBinding, idePath);
+    if (sqPath == null) {
+      // we can't map it to a SonarQube path, so just apply exclusions to the original ide path
+      return idePath;
+    }
+    return sqPath;
+  }
+
+  /**
+   * Compiling the patterns is costly compared to matching a file, so they are only compiled again when the project settings change.
+   */
+  private ServerFileExclusions getServerFileExclusions(String projectKey, Map<String, String> settings) {
+    return serverFileExclusionsByProjectKey.compute(projectKey, (k, cached) -> {
+      if (cached != null && cached.settings.equals(settings)) {
+        return cached;
+      }
+      var exclusions = new ServerFileExclusions(new MapSettings(settings).asConfig());
+      exclusions.prepare();
+      return new CachedServerFileExclusions(Map.copyOf(settings), exclusions);
+    }).exclusions;
   }
 
   @Override
@@ -578,4 +606,14 @@ public final class ConnectedSonarLintEngineImpl extends AbstractSonarLintEngine
 
   }
 
+  private static class CachedServerFileExclusions {
+    private final Map<String, String> settings;
+    private final ServerFileExclusions exclusions;
+
+    private CachedServerFileExclusions(Map<String, String> settings, ServerFileExclusions exclusions) {
+      this.settings = settings;
+      this.exclusions = exclusions;
+    }
+  }
+
 }
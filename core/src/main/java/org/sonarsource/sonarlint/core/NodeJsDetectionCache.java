@@ -0,0 +1,155 @@
+/*
+ * SonarLint Core - Implementation
+ * Copyright (C) 2016-2023 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+import java.util.Properties;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+import org.sonarsource.sonarlint.core.commons.Version;
+import org.sonarsource.sonarlint.core.commons.io.AtomicFiles;
+import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
+
+/**
+ * On-disk cache of the Node.js detection made by {@link NodeJsHelper}, to avoid spawning processes each time an engine is created.
+ * Entries are keyed by the configured Node.js path and the PATH environment variable. They are valid as long as the last modification date of the
+ * detected binary did not change.
+ */
+class NodeJsDetectionCache {
+
+  private static final SonarLintLogger LOG = SonarLintLogger.get();
+  private static final char SEPARATOR = '|';
+  private static final int MAX_ENTRIES = 50;
+
+  private final Path cacheFile;
+  private Properties entries;
+
+  NodeJsDetectionCache(Path cacheFile) {
+    this.cacheFile = cacheFile;
+  }
+
+  static NodeJsDetectionCache inUserHome(Path sonarLintUserHome) {
+    return new NodeJsDetectionCache(sonarLintUserHome.resolve("cache").resolve("nodejs-detection.properties"));
+  }
+
+  synchronized Optional<CachedDetection> get(@Nullable Path configuredNodejsPath, @Nullable String pathEnv) {
+    var value = entries().getProperty(key(configuredNodejsPath, pathEnv));
+    if (value == null) {
+      return Optional.empty();
+    }
+    var firstSeparator = value.indexOf(SEPARATOR);
+    var secondSeparator = value.indexOf(SEPARATOR, firstSeparator + 1);
+    if (firstSeparator < 0 || secondSeparator < 0) {
+      return Optional.empty();
+    }
+    var nodePath = Paths.get(value.substring(secondSeparator + 1));
+    if (!String.valueOf(lastModified(nodePath)).equals(value.substring(0, firstSeparator))) {
+      // node was updated or removed
+      return Optional.empty();
+    }
+    var version = value.substring(firstSeparator + 1, secondSeparator);
+    return Optional.of(new CachedDetection(nodePath, version.isEmpty() ? null : Version.create(version)));
+  }
+
+  /**
+   * Only detections of existing binaries are cached, as there is no way to know when a detection failure becomes outdated.
+   */
+  synchronized void put(@Nullable Path configuredNodejsPath, @Nullable String pathEnv, @Nullable Path nodePath, @Nullable Version version) {
+    if (nodePath == null) {
+      return;
+    }
+    var lastModified = lastModified(nodePath);
+    if (lastModified < 0) {
+      return;
+    }
+    var cachedEntries = entries();
+    if (cachedEntries.size() >= MAX_ENTRIES) {
+      cachedEntries.clear();
+    }
+    var value = lastModified + String.valueOf(SEPARATOR) + (version != null ? version.toString() : "") + SEPARATOR + nodePath;
+    if (!value.equals(cachedEntries.setProperty(key(configuredNodejsPath, pathEnv), value))) {
+      save(cachedEntries);
+    }
+  }
+
+  private Properties entries() {
+    if (entries == null) {
+      entries = new Properties();
+      try (var in = Files.newInputStream(cacheFile)) {
+        entries.load(in);
+      } catch (NoSuchFileException e) {
+        // nothing cached yet
+      } catch (IOException | IllegalArgumentException e) {
+        LOG.debug("Unable to read the Node.js detection cache", e);
+      }
+    }
+    return entries;
+  }
+
+  private void save(Properties cachedEntries) {
+    try {
+      Files.createDirectories(cacheFile.getParent());
+      var tmpFile = Files.createTempFile(cacheFile.getParent(), cacheFile.getFileName().toString(), ".tmp");
+      try (var out = Files.newOutputStream(tmpFile)) {
+        cachedEntries.store(out, "Node.js detection");
+      }
+      AtomicFiles.move(tmpFile, cacheFile);
+    } catch (IOException e) {
+      LOG.debug("Unable to write the Node.js detection cache", e);
+    }
+  }
+
+  private static String key(@Nullable Path configuredNodejsPath, @Nullable String pathEnv) {
+    return (configuredNodejsPath != null ? configuredNodejsPath.toAbsolutePath().toString() : "") + SEPARATOR + (pathEnv != null ? pathEnv : "");
+  }
+
+  private static long lastModified(Path path) {
+    try {
+      return Files.getLastModifiedTime(path).toMillis();
+    } catch (IOException e) {
+      return -1;
+    }
+  }
+
+  static class CachedDetection {
+    private final Path nodePath;
+    private final Version version;
+
+    CachedDetection(Path nodePath, @Nullable Version version) {
+      this.nodePath = nodePath;
+      this.version = version;
+    }
+
+    Path getNodePath() {
+      return nodePath;
+    }
+
+    @CheckForNull
+    Version getVersion() {
+      return version;
+    }
+  }
+
+}
@@ -22,8 +22,13 @@ package org.sonarsource.sonarlint.core;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.regex.Pattern;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
@@ -38,25 +43,98 @@ public class NodeJsHelper {
 
   private static final SonarLintLogger LOG = SonarLintLogger.get();
   private static final Pattern NODEJS_VERSION_PATTERN = Pattern.compile("v?(\\d+\\.\\d+\\.\\d+(-.*)?)");
+  private static final ExecutorService BACKGROUND_DETECTION = Executors.newSingleThreadExecutor(r -> {
+    var thread = new Thread(r, "sonarlint-nodejs-detection");
+    thread.setDaemon(true);
+    return thread;
+  });
+  private static final Set<String> PENDING_BACKGROUND_DETECTIONS = ConcurrentHashMap.newKeySet();
+
   private final System2 system2;
   private final Path pathHelperLocationOnMac;
   private final CommandExecutor commandExecutor;
+  @Nullable
+  private final NodeJsDetectionCache detectionCache;
 
   private Path detectedNodePath;
   private Version nodeJsVersion;
+  private Duration detectionDuration = Duration.ZERO;
+  private boolean detectedFromCache;
 
+  /**
+   * Node.js is detected again each time
+   */
   public NodeJsHelper() {
-    this(System2.INSTANCE, Paths.get("/usr/libexec/path_helper"), CommandExecutor.create());
+    this(System2.INSTANCE, Paths.get("/usr/libexec/path_helper"), CommandExecutor.create(), null);
+  }
+
+  /**
+   * @param sonarLintUserHome the user home the engine is configured with, where the detection is cached
+   */
+  public NodeJsHelper(Path sonarLintUserHome) {
+    this(System2.INSTANCE, Paths.get("/usr/libexec/path_helper"), CommandExecutor.create(), NodeJsDetectionCache.inUserHome(sonarLintUserHome));
   }
 
   // For testing
   NodeJsHelper(System2 system2, Path pathHelperLocationOnMac, CommandExecutor commandExecutor) {
+    this(system2, pathHelperLocationOnMac, commandExecutor, null);
+  }
+
+  NodeJsHelper(System2 system2, Path pathHelperLocationOnMac, CommandExecutor commandExecutor, @Nullable NodeJsDetectionCache detectionCache) {
     this.system2 = system2;
     this.pathHelperLocationOnMac = pathHelperLocationOnMac;
     this.commandExecutor = commandExecutor;
+    this.detectionCache = detectionCache;
   }
 
+  /**
+   * Locates node and queries its version. When a previous detection made with the same configuration and PATH is cached in the user home,
+   * it is used immediately and node is detected again in the background to refresh the cache for the next time.
+   */
   public void detect(@Nullable Path configuredNodejsPath) {
+    var startTime = System.nanoTime();
+    detectedFromCache = false;
+    if (detectionCache == null) {
+      detectWithoutCache(configuredNodejsPath);
+    } else {
+      var pathEnv = system2.envVariable("PATH");
+      var cachedDetection = detectionCache.get(configuredNodejsPath, pathEnv);
+      if (cachedDetection.isPresent()) {
+        detectedNodePath = cachedDetection.get().getNodePath();
+        nodeJsVersion = cachedDetection.get().getVersion();
+        detectedFromCache = true;
+        LOG.debug("Using cached node detection: {} (version {})", detectedNodePath, nodeJsVersion);
+        detectInBackground(detectionCache, configuredNodejsPath, pathEnv);
+      } else {
+        detectWithoutCache(configuredNodejsPath);
+        detectionCache.put(configuredNodejsPath, pathEnv, detectedNodePath, nodeJsVersion);
+      }
+    }
+    detectionDuration = Duration.ofNanos(System.nanoTime() - startTime);
+    if (detectionCache != null) {
+      LOG.debug("Node.js detection took {}ms{}", detectionDuration.toMillis(), detectedFromCache ? " (from cache)" : "");
+    }
+  }
+
+  private void detectInBackground(NodeJsDetectionCache cache, @Nullable Path configuredNodejsPath, @Nullable String pathEnv) {
+    var key = configuredNodejsPath + "|" + pathEnv;
+    if (!PENDING_BACKGROUND_DETECTIONS.add(key)) {
+      return;
+    }
+    BACKGROUND_DETECTION.submit(() -> {
+      try {
+        var helper = new NodeJsHelper(system2, pathHelperLocationOnMac, commandExecutor, null);
+        helper.detectWithoutCache(configuredNodejsPath);
+        cache.put(configuredNodejsPath, pathEnv, helper.detectedNodePath, helper.nodeJsVersion);
+      } catch (Exception e) {
+        LOG.debug("Unable to detect node in the background", e);
+      } finally {
+        PENDING_BACKGROUND_DETECTIONS.remove(key);
+      }
+    });
+  }
+
+  private void detectWithoutCache(@Nullable Path configuredNodejsPath) {
     detectedNodePath = locateNode(configuredNodejsPath);
     if (detectedNodePath != null) {
       LOG.debug("Checking node version...");
@@ -88,6 +166,20 @@ public class NodeJsHelper {
     return nodeJsVersion;
   }
 
+  /**
+   * @return the time spent in the last call to {@link #detect(Path)}
+   */
+  public Duration getDetectionDuration() {
+    return detectionDuration;
+  }
+
+  /**
+   * @return true if the last call to {@link #detect(Path)} used a cached detection
+   */
+  public boolean isDetectedFromCache() {
+    return detectedFromCache;
+  }
+
   @CheckForNull
   private Path locateNode(@Nullable Path configuredNodejsPath) {
     if (configuredNodejsPath != null) {
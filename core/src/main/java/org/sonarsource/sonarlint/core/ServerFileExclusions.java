@@ -19,51 +19,62 @@
  */
 package org.sonarsource.sonarlint.core;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
 import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.config.Configuration;
 import org.sonar.api.scan.filesystem.FileExclusions;
+import org.sonar.api.utils.PathUtils;
 import org.sonarsource.sonarlint.core.analysis.container.analysis.SonarLintPathPattern;
 import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
 
+/**
+ * Inclusions and exclusions of the server project settings. Instances are immutable once {@link #prepare()} has been called, and can be shared
+ * between threads.
+ */
 public class ServerFileExclusions {
 
   private static final SonarLintLogger LOG = SonarLintLogger.get();
 
   private final FileExclusions exclusionSettings;
 
-  private SonarLintPathPattern[] mainInclusions;
-  private SonarLintPathPattern[] mainExclusions;
-  private SonarLintPathPattern[] testInclusions;
-  private SonarLintPathPattern[] testExclusions;
+  private PatternIndex mainInclusions;
+  private PatternIndex mainExclusions;
+  private PatternIndex testInclusions;
+  private PatternIndex testExclusions;
 
   public ServerFileExclusions(Configuration configuration) {
     this.exclusionSettings = new FileExclusions(configuration);
   }
 
   public void prepare() {
-    mainInclusions = prepareMainInclusions();
-    mainExclusions = prepareMainExclusions();
-    testInclusions = prepareTestInclusions();
-    testExclusions = prepareTestExclusions();
+    mainInclusions = new PatternIndex(prepareMainInclusions());
+    mainExclusions = new PatternIndex(prepareMainExclusions());
+    testInclusions = new PatternIndex(prepareTestInclusions());
+    testExclusions = new PatternIndex(prepareTestExclusions());
     log("Server included sources: ", mainInclusions);
     log("Server excluded sources: ", mainExclusions);
     log("Server included tests: ", testInclusions);
     log("Server excluded tests: ", testExclusions);
   }
 
-  private static void log(String title, SonarLintPathPattern[] patterns) {
-    if (patterns.length > 0) {
+  private static void log(String title, PatternIndex patterns) {
+    if (!patterns.isEmpty()) {
       LOG.debug(title);
-      for (SonarLintPathPattern pattern : patterns) {
+      for (SonarLintPathPattern pattern : patterns.patterns) {
         LOG.debug("  {}", pattern);
       }
     }
   }
 
   public boolean accept(String relativePath, InputFile.Type type) {
-    SonarLintPathPattern[] inclusionPatterns;
-    SonarLintPathPattern[] exclusionPatterns;
+    PatternIndex inclusionPatterns;
+    PatternIndex exclusionPatterns;
     if (InputFile.Type.MAIN == type) {
       inclusionPatterns = mainInclusions;
       exclusionPatterns = mainExclusions;
@@ -73,24 +84,16 @@ public class ServerFileExclusions {
     } else {
       throw new IllegalArgumentException("Unknown file type: " + type);
     }
-
-    if (inclusionPatterns.length > 0) {
-      var matchInclusion = false;
-      for (SonarLintPathPattern pattern : inclusionPatterns) {
-        matchInclusion |= pattern.match(relativePath);
-      }
-      if (!matchInclusion) {
-        return false;
-      }
+    if (inclusionPatterns.isEmpty() && exclusionPatterns.isEmpty()) {
+      return true;
     }
-    if (exclusionPatterns.length > 0) {
-      for (SonarLintPathPattern pattern : exclusionPatterns) {
-        if (pattern.match(relativePath)) {
-          return false;
-        }
-      }
+
+    // sanitize only once, patterns would do it again for each match
+    var path = PathUtils.sanitize(relativePath);
+    if (!inclusionPatterns.isEmpty() && !inclusionPatterns.anyMatch(path)) {
+      return false;
     }
-    return true;
+    return !exclusionPatterns.anyMatch(path);
   }
 
   SonarLintPathPattern[] prepareMainInclusions() {
@@ -123,4 +126,53 @@ public class ServerFileExclusions {
     return SonarLintPathPattern.create(exclusionSettings.testExclusions());
   }
 
+  /**
+   * Groups patterns by the literal filename suffix they require (e.g. ".java" for a pattern ending with "*.java"), so that a path is only
+   * matched against the patterns that can possibly match it.
+   */
+  private static class PatternIndex {
+    private final SonarLintPathPattern[] patterns;
+    private final String[] requiredSuffixes;
+    private final SonarLintPathPattern[][] patternsBySuffix;
+
+    private PatternIndex(SonarLintPathPattern[] patterns) {
+      this.patterns = patterns;
+      Map<String, List<SonarLintPathPattern>> groups = new LinkedHashMap<>();
+      for (SonarLintPathPattern pattern : patterns) {
+        groups.computeIfAbsent(requiredSuffix(pattern.toString()), k -> new ArrayList<>()).add(pattern);
+      }
+      this.requiredSuffixes = groups.keySet().toArray(new String[0]);
+      this.patternsBySuffix = groups.values().stream().map(g -> g.toArray(new SonarLintPathPattern[0])).toArray(SonarLintPathPattern[][]::new);
+    }
+
+    private boolean isEmpty() {
+      return patterns.length == 0;
+    }
+
+    private boolean anyMatch(@Nullable String sanitizedPath) {
+      if (sanitizedPath == null) {
+        return false;
+      }
+      var path = StringUtils.removeEnd(sanitizedPath, "/");
+      for (var i = 0; i < requiredSuffixes.length; i++) {
+        if (path.endsWith(requiredSuffixes[i])) {
+          for (SonarLintPathPattern pattern : patternsBySuffix[i]) {
+            if (pattern.match(path)) {
+              return true;
+            }
+          }
+        }
+      }
+      return false;
+    }
+
+    /**
+     * @return the literal characters following the last wildcard in the last segment of the pattern, empty if there are none
+     */
+    private static String requiredSuffix(String pattern) {
+      var lastWildcard = StringUtils.lastIndexOfAny(pattern, "*", "?");
+      var lastSeparator = pattern.lastIndexOf('/');
+      return pattern.substring(Math.max(lastWildcard, lastSeparator) + 1);
+    }
+  }
 }
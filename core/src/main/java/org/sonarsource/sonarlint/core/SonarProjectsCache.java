@@ -22,11 +22,23 @@ package org.sonarsource.sonarlint.core;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.eventbus.Subscribe;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 import org.sonarsource.sonarlint.core.client.api.util.TextSearchIndex;
@@ -35,6 +47,8 @@ import org.sonarsource.sonarlint.core.commons.progress.ProgressMonitor;
 import org.sonarsource.sonarlint.core.event.ConnectionConfigurationRemovedEvent;
 import org.sonarsource.sonarlint.core.event.ConnectionConfigurationUpdatedEvent;
 import org.sonarsource.sonarlint.core.serverapi.component.ServerProject;
+import org.sonarsource.sonarlint.core.serverconnection.StorageService;
+import org.sonarsource.sonarlint.core.serverconnection.StoredServerProjects;
 
 import static org.sonarsource.sonarlint.core.commons.log.SonarLintLogger.singlePlural;
 
@@ -43,10 +57,21 @@ import static org.sonarsource.sonarlint.core.commons.log.SonarLintLogger.singleP
 public class SonarProjectsCache {
 
   private static final SonarLintLogger LOG = SonarLintLogger.get();
+  static final Duration REFRESH_INTERVAL = Duration.ofHours(1);
   private final ServerApiProvider serverApiProvider;
+  private final StorageService storageService;
+  private final Clock clock;
+  private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor(r -> new Thread(r, "SonarLint Projects Cache Refresher"));
+  private final Set<String> refreshingConnectionIds = ConcurrentHashMap.newKeySet();
+  /**
+   * Guards the eviction, so that a background refresh started before does not store the projects again
+   */
+  private final Object evictionLock = new Object();
 
-  private final Cache<String, TextSearchIndex<ServerProject>> textSearchIndexCache = CacheBuilder.newBuilder()
-    .expireAfterWrite(1, TimeUnit.HOURS)
+  /**
+   * Projects are persisted in the storage and refreshed in the background, so entries never expire
+   */
+  private final Cache<String, CachedProjects> textSearchIndexCache = CacheBuilder.newBuilder()
     .build();
 
   private final Cache<SonarProjectKey, Optional<ServerProject>> singleProjectsCache = CacheBuilder.newBuilder()
@@ -80,8 +105,49 @@ public class SonarProjectsCache {
     }
   }
 
-  public SonarProjectsCache(ServerApiProvider serverApiProvider) {
+  private static class CachedProjects {
+    private final TextSearchIndex<ServerProject> index = new TextSearchIndex<>();
+    // only accessed by the refresh thread once loaded
+    private final Map<String, ServerProject> projectsByKey = new HashMap<>();
+    private volatile Instant lastRefresh;
+
+    private CachedProjects(List<ServerProject> projects, Instant lastRefresh) {
+      projects.forEach(this::add);
+      this.lastRefresh = lastRefresh;
+    }
+
+    private void add(ServerProject project) {
+      projectsByKey.put(project.getKey(), project);
+      index.index(project, project.getKey() + " " + project.getName());
+    }
+
+    /**
+     * Only updates the projects that were added, removed or renamed on the server, so that the index stays usable during the refresh.
+     */
+    private void update(List<ServerProject> serverProjects) {
+      Map<String, ServerProject> serverProjectsByKey = new HashMap<>();
+      serverProjects.forEach(p -> serverProjectsByKey.put(p.getKey(), p));
+      projectsByKey.values().removeIf(project -> {
+        var serverProject = serverProjectsByKey.get(project.getKey());
+        if (serverProject == null || !serverProject.getName().equals(project.getName())) {
+          index.remove(project);
+          return true;
+        }
+        return false;
+      });
+      serverProjects.stream().filter(p -> !projectsByKey.containsKey(p.getKey())).forEach(this::add);
+    }
+  }
+
+  @Inject
+  public SonarProjectsCache(ServerApiProvider serverApiProvider, StorageService storageService) {
+    this(serverApiProvider, storageService, Clock.systemUTC());
+  }
+
+  SonarProjectsCache(ServerApiProvider serverApiProvider, StorageService storageService, Clock clock) {
     this.serverApiProvider = serverApiProvider;
+    this.storageService = storageService;
+    this.clock = clock;
   }
 
   @Subscribe
@@ -96,7 +162,14 @@ public class SonarProjectsCache {
   }
 
   private void evictAll(String connectionId) {
-    textSearchIndexCache.invalidate(connectionId);
+    synchronized (evictionLock) {
+      textSearchIndexCache.invalidate(connectionId);
+      try {
+        storageService.connection(connectionId).serverProjects().delete();
+      } catch (Exception e) {
+        LOG.debug("Unable to delete stored projects of connection '{}'", connectionId, e);
+      }
+    }
     // Not possible to evict only entries of the given connection, so simply evict all
     singleProjectsCache.invalidateAll();
   }
@@ -119,28 +192,98 @@ public class SonarProjectsCache {
 
   public TextSearchIndex<ServerProject> getTextSearchIndex(String connectionId) {
     try {
-      return textSearchIndexCache.get(connectionId, () -> {
-        LOG.debug("Load projects from connection '{}'...", connectionId);
-        List<ServerProject> projects;
-        try {
-          projects = serverApiProvider.getServerApi(connectionId).map(s -> s.component().getAllProjects(new ProgressMonitor(null))).orElse(List.of());
-        } catch (Exception e) {
-          LOG.error("Error while querying projects from connection '{}'", connectionId, e);
-          return new TextSearchIndex<>();
-        }
-        if (projects.isEmpty()) {
-          LOG.debug("No projects found for connection '{}'", connectionId);
-          return new TextSearchIndex<>();
-        } else {
-          LOG.debug("Creating index for {} {}", projects.size(), singlePlural(projects.size(), "project", "projects"));
-          var index = new TextSearchIndex<ServerProject>();
-          projects.forEach(p -> index.index(p, p.getKey() + " " + p.getName()));
-          return index;
-        }
-      });
+      var cachedProjects = textSearchIndexCache.get(connectionId, () -> load(connectionId));
+      refreshIfNeeded(connectionId, cachedProjects);
+      return cachedProjects.index;
     } catch (ExecutionException e) {
       throw new IllegalStateException(e.getCause());
     }
   }
 
+  private CachedProjects load(String connectionId) {
+    var storedProjects = readStoredProjects(connectionId);
+    if (storedProjects.isPresent()) {
+      var projects = storedProjects.get().getProjects();
+      LOG.debug("Creating index for {} {} from the storage", projects.size(), singlePlural(projects.size(), "project", "projects"));
+      return new CachedProjects(projects, storedProjects.get().getLastRefresh());
+    }
+    var now = clock.instant();
+    var fetchedProjects = fetchAllProjects(connectionId);
+    if (fetchedProjects.isEmpty()) {
+      // the failure is cached until the next refresh
+      return new CachedProjects(List.of(), now);
+    }
+    var projects = fetchedProjects.get();
+    storeProjects(connectionId, projects, now);
+    if (projects.isEmpty()) {
+      LOG.debug("No projects found for connection '{}'", connectionId);
+    } else {
+      LOG.debug("Creating index for {} {}", projects.size(), singlePlural(projects.size(), "project", "projects"));
+    }
+    return new CachedProjects(projects, now);
+  }
+
+  private void refreshIfNeeded(String connectionId, CachedProjects cachedProjects) {
+    if (clock.instant().isBefore(cachedProjects.lastRefresh.plus(REFRESH_INTERVAL)) || !refreshingConnectionIds.add(connectionId)) {
+      return;
+    }
+    refreshExecutor.submit(() -> {
+      try {
+        var now = clock.instant();
+        fetchAllProjects(connectionId).ifPresent(serverProjects -> {
+          synchronized (evictionLock) {
+            if (textSearchIndexCache.getIfPresent(connectionId) != cachedProjects) {
+              LOG.debug("Projects of connection '{}' were evicted during the refresh", connectionId);
+              return;
+            }
+            cachedProjects.update(serverProjects);
+            storeProjects(connectionId, serverProjects, now);
+          }
+          LOG.debug("Refreshed index of {} {} for connection '{}'", serverProjects.size(), singlePlural(serverProjects.size(), "project", "projects"), connectionId);
+        });
+        // don't retry immediately in case of failure
+        cachedProjects.lastRefresh = now;
+      } finally {
+        refreshingConnectionIds.remove(connectionId);
+      }
+    });
+  }
+
+  /**
+   * @return empty if projects could not be fetched
+   */
+  private Optional<List<ServerProject>> fetchAllProjects(String connectionId) {
+    LOG.debug("Load projects from connection '{}'...", connectionId);
+    try {
+      return Optional.of(serverApiProvider.getServerApi(connectionId).map(s -> s.component().getAllProjects(new ProgressMonitor(null))).orElse(List.of()));
+    } catch (Exception e) {
+      LOG.error("Error while querying projects from connection '{}'", connectionId, e);
+      return Optional.empty();
+    }
+  }
+
+  private Optional<StoredServerProjects> readStoredProjects(String connectionId) {
+    try {
+      return storageService.connection(connectionId).serverProjects().read();
+    } catch (Exception e) {
+      LOG.debug("Unable to read stored projects of connection '{}'", connectionId, e);
+      return Optional.empty();
+    }
+  }
+
+  private void storeProjects(String connectionId, List<ServerProject> projects, Instant lastRefresh) {
+    try {
+      storageService.connection(connectionId).serverProjects().store(projects, lastRefresh);
+    } catch (Exception e) {
+      LOG.debug("Unable to store projects of connection '{}'", connectionId, e);
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    if (!MoreExecutors.shutdownAndAwaitTermination(refreshExecutor, 1, TimeUnit.SECONDS)) {
+      LOG.warn("Unable to stop projects cache refresher executor service in a timely manner");
+    }
+  }
+
 }
@@ -85,7 +85,8 @@ public final class StandaloneSonarLintEngineImpl extends AbstractSonarLintEngine
   }
 
   private static PluginsLoadResult loadPlugins(StandaloneGlobalConfiguration globalConfig) {
-    var config = new Configuration(globalConfig.getPluginPaths(), globalConfig.getEnabledLanguages(), Optional.ofNullable(globalConfig.getNodeJsVersion()));
+    var config = new Configuration(globalConfig.getPluginPaths(), globalConfig.getEnabledLanguages(), Optional.ofNullable(globalConfig.getNodeJsVersion()),
+      globalConfig.getSonarLintUserHome());
     return new PluginsLoader().load(config);
   }
 
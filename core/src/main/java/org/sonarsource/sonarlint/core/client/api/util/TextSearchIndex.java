@@ -19,18 +19,16 @@
  */
 package org.sonarsource.sonarlint.core.client.api.util;
 
+import com.google.common.annotations.VisibleForTesting;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
-import java.util.TreeMap;
-import java.util.stream.Collectors;
+import java.util.TreeSet;
 
 /**
  * Indexes text associated to objects, and performs full text search to find matching objects.
@@ -39,39 +37,120 @@ import java.util.stream.Collectors;
  * and the global score is the sum of the term's scores in the object divided by the total term frequency in the object.
  * 
  * The generic type should properly implement equals and hashCode.
- * <b>An object cannot be indexed twice</b>. 
+ * <b>An object cannot be indexed twice</b>, unless it was removed first.
  * 
- * Performance of indexing: O(N)
- * Performance of search: O(log N) on the number of indexed terms + O(N) on the number of results
+ * Terms are stored in a prefix trie, and postings (object and position of each term occurrence) in primitive int arrays, to keep the memory
+ * footprint low and search fast on large indexes (e.g. all the projects of a SonarCloud organization).
+ * The index is thread safe, so that it can be updated while being searched.
+ * Removed objects leave their ids, postings, terms and trie nodes behind and are skipped by searches, so the index is rebuilt from the remaining
+ * objects once they are outnumbered by the removed ones. This keeps removals cheap and the memory footprint proportional to the indexed objects
+ * when the index is repeatedly updated.
+ * 
+ * Performance of indexing: O(N) on the length of the text
+ * Performance of search: O(L) on the length of the query + O(N) on the number of matched term occurrences
  */
 public class TextSearchIndex<T> {
-  private static final String SPLIT_PATTERN = "\\W";
-  private TreeMap<String, List<DictEntry>> termToObj;
-  private Map<T, Integer> objToWordFrequency;
+  private static final int ROOT = 0;
+  private static final int NO_TERM = -1;
+  private static final int NO_NODE = -1;
+  private static final int INITIAL_CAPACITY = 64;
+
+  // prefix trie of the terms, children of a node are linked through their next sibling
+  private char[] nodeChars;
+  private int[] firstChildren;
+  private int[] nextSiblings;
+  private int[] nodeTerms;
+  private int nodeCount;
+
+  // postings of each term, as consecutive (object id, position) pairs
+  private List<String> terms;
+  private int[][] postings;
+  private int[] postingsLengths;
+  // number of occurrences of each term in objects that were not removed
+  private int[] termOccurrences;
+
+  private List<T> objects;
+  private Map<T, Integer> objToId;
+  private int[] objWordFrequencies;
+  private int[][] objTerms;
+  private int removedCount;
 
   public TextSearchIndex() {
     clear();
   }
 
-  public int size() {
-    return objToWordFrequency.size();
+  public synchronized int size() {
+    return objToId.size();
   }
 
-  public boolean isEmpty() {
-    return objToWordFrequency.isEmpty();
+  public synchronized boolean isEmpty() {
+    return objToId.isEmpty();
   }
 
-  public void index(T obj, String text) {
-    if (objToWordFrequency.containsKey(obj)) {
+  public synchronized void index(T obj, String text) {
+    if (objToId.containsKey(obj)) {
       throw new IllegalArgumentException("Already indexed");
     }
-    var terms = tokenize(text);
-    objToWordFrequency.put(obj, terms.size());
+    indexTokens(obj, tokenize(text));
+  }
 
-    var i = 0;
-    for (String s : terms) {
-      addToDictionary(s, i, obj);
-      i++;
+  private void indexTokens(T obj, List<String> tokens) {
+    var objId = objects.size();
+    objects.add(obj);
+    objToId.put(obj, objId);
+    if (objId == objWordFrequencies.length) {
+      objWordFrequencies = Arrays.copyOf(objWordFrequencies, objId * 2);
+      objTerms = Arrays.copyOf(objTerms, objId * 2);
+    }
+    objWordFrequencies[objId] = tokens.size();
+
+    var termIds = new int[tokens.size()];
+    for (var i = 0; i < tokens.size(); i++) {
+      termIds[i] = addTerm(tokens.get(i));
+      addPosting(termIds[i], objId, i);
+    }
+    objTerms[objId] = termIds;
+  }
+
+  /**
+   * Removes a previously indexed object, so that it is not returned by searches anymore. Does nothing if the object is not indexed.
+   */
+  public synchronized void remove(T obj) {
+    var objId = objToId.remove(obj);
+    if (objId == null) {
+      return;
+    }
+    objects.set(objId, null);
+    for (int termId : objTerms[objId]) {
+      termOccurrences[termId]--;
+    }
+    objTerms[objId] = null;
+    removedCount++;
+    if (removedCount > objToId.size()) {
+      compact();
+    }
+  }
+
+  /**
+   * Rebuilds the index with the remaining objects, in their indexing order, to reclaim the space used by the removed ones.
+   */
+  private void compact() {
+    var remainingObjects = new ArrayList<T>(objToId.size());
+    var remainingTokens = new ArrayList<List<String>>(objToId.size());
+    for (var objId = 0; objId < objects.size(); objId++) {
+      var obj = objects.get(objId);
+      if (obj != null) {
+        var tokens = new ArrayList<String>(objTerms[objId].length);
+        for (int termId : objTerms[objId]) {
+          tokens.add(terms.get(termId));
+        }
+        remainingObjects.add(obj);
+        remainingTokens.add(tokens);
+      }
+    }
+    clear();
+    for (var i = 0; i < remainingObjects.size(); i++) {
+      indexTokens(remainingObjects.get(i), remainingTokens.get(i));
     }
   }
 
@@ -81,143 +160,320 @@ public class TextSearchIndex<T> {
    * 
    * @return A map of results reverse-sorted by value (score). Can be empty, but never null
    */
-  public Map<T, Double> search(String query) {
-    var terms = tokenize(query);
+  public synchronized Map<T, Double> search(String query) {
+    var queryTerms = tokenize(query);
 
-    if (terms.isEmpty()) {
+    if (queryTerms.isEmpty()) {
       return Collections.emptyMap();
     }
 
-    List<SearchResult> matched;
-
     // positional search
-    var it = terms.iterator();
-    matched = searchTerm(it.next());
-
-    while (it.hasNext()) {
-      var termMatches = searchTerm(it.next());
-      matched = matchPositional(matched, termMatches, 1);
+    var it = queryTerms.iterator();
+    var matched = searchTerm(it.next());
 
-      if (matched.isEmpty()) {
-        break;
-      }
+    while (it.hasNext() && matched.size > 0) {
+      matched = matchPositional(matched, searchTerm(it.next()));
     }
 
     // convert results and calc score
     return prepareResult(matched);
   }
 
-  private List<SearchResult> matchPositional(List<SearchResult> previousMatches, List<SearchResult> termMatches, int maxDistance) {
-    List<SearchResult> matches = new LinkedList<>();
-
-    for (SearchResult e1 : previousMatches) {
-      for (SearchResult e2 : termMatches) {
-        if (!e1.obj.equals(e2.obj)) {
-          continue;
-        }
-
-        var dist = e2.lastIdx - e1.lastIdx;
-        if (dist > 0 && dist <= maxDistance) {
-          e2.score += e1.score;
-          matches.add(e2);
+  /**
+   * Keeps the occurrences of the term that directly follow a previous match in the same object, accumulating their score.
+   */
+  private static Matches matchPositional(Matches previousMatches, Matches termMatches) {
+    var previousScores = new LongDoubleMap(previousMatches.size);
+    for (var i = 0; i < previousMatches.size; i++) {
+      previousScores.put(key(previousMatches.objIds[i], previousMatches.positions[i]), previousMatches.scores[i]);
+    }
+    var matches = new Matches();
+    for (var i = 0; i < termMatches.size; i++) {
+      var position = termMatches.positions[i];
+      if (position > 0) {
+        var previousScore = previousScores.get(key(termMatches.objIds[i], position - 1));
+        if (!Double.isNaN(previousScore)) {
+          matches.add(termMatches.objIds[i], position, termMatches.scores[i] + previousScore);
         }
       }
     }
     return matches;
   }
 
-  private Map<T, Double> prepareResult(List<SearchResult> entries) {
-    Map<T, Double> objToScore = new HashMap<>();
+  private Map<T, Double> prepareResult(Matches matches) {
+    var objToScore = new LongDoubleMap(matches.size);
 
-    for (SearchResult e : entries) {
-      var score = e.score / objToWordFrequency.get(e.obj);
-      var previousScore = objToScore.get(e.obj);
+    for (var i = 0; i < matches.size; i++) {
+      var objId = matches.objIds[i];
+      var score = matches.scores[i] / objWordFrequencies[objId];
+      var previousScore = objToScore.get(objId);
 
-      if (previousScore == null || previousScore < score) {
-        objToScore.put(e.obj, score);
+      if (Double.isNaN(previousScore) || previousScore < score) {
+        objToScore.put(objId, score);
       }
     }
 
-    return objToScore.entrySet().stream()
-      .sorted(Map.Entry.<T, Double>comparingByValue().reversed())
-      .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (e1, e2) -> e1, LinkedHashMap::new));
+    var objIds = objToScore.keys();
+    var sortedIds = new Integer[objIds.length];
+    for (var i = 0; i < objIds.length; i++) {
+      sortedIds[i] = (int) objIds[i];
+    }
+    // higher score first, then in indexing order
+    Arrays.sort(sortedIds, (id1, id2) -> {
+      var byScore = Double.compare(objToScore.get(id2), objToScore.get(id1));
+      return byScore != 0 ? byScore : Integer.compare(id1, id2);
+    });
+    Map<T, Double> result = new LinkedHashMap<>();
+    for (int objId : sortedIds) {
+      result.put(objects.get(objId), objToScore.get(objId));
+    }
+    return result;
   }
 
   /**
-   * Returns any term prefixed by the given text
+   * Returns all occurrences of any term prefixed by the given text
    */
-  private List<SearchResult> searchTerm(String termPrefix) {
-    List<SearchResult> entries = new LinkedList<>();
+  private Matches searchTerm(String termPrefix) {
+    var matches = new Matches();
+    var node = findNode(termPrefix);
+    if (node == NO_NODE) {
+      return matches;
+    }
 
-    var tailMap = termToObj.tailMap(termPrefix);
-    for (Entry<String, List<DictEntry>> e : tailMap.entrySet()) {
-      if (!e.getKey().startsWith(termPrefix)) {
-        break;
+    var stack = new int[16];
+    var stackSize = 0;
+    stack[stackSize++] = node;
+    while (stackSize > 0) {
+      var current = stack[--stackSize];
+      var termId = nodeTerms[current];
+      if (termId != NO_TERM && termOccurrences[termId] > 0) {
+        var score = ((double) termPrefix.length()) / terms.get(termId).length();
+        var termPostings = postings[termId];
+        for (var i = 0; i < postingsLengths[termId]; i += 2) {
+          if (objects.get(termPostings[i]) != null) {
+            matches.add(termPostings[i], termPostings[i + 1], score);
+          }
+        }
+      }
+      for (var child = firstChildren[current]; child != NO_NODE; child = nextSiblings[child]) {
+        if (stackSize == stack.length) {
+          stack = Arrays.copyOf(stack, stackSize * 2);
+        }
+        stack[stackSize++] = child;
       }
-      var score = ((double) termPrefix.length()) / e.getKey().length();
-      e.getValue().stream()
-        .map(v -> new SearchResult(score, v.obj, v.tokenIndex))
-        .forEach(entries::add);
     }
+    return matches;
+  }
 
-    return entries;
+  public synchronized void clear() {
+    nodeChars = new char[INITIAL_CAPACITY];
+    firstChildren = new int[INITIAL_CAPACITY];
+    nextSiblings = new int[INITIAL_CAPACITY];
+    nodeTerms = new int[INITIAL_CAPACITY];
+    nodeCount = 0;
+    newNode('\0');
+
+    terms = new ArrayList<>();
+    postings = new int[INITIAL_CAPACITY][];
+    postingsLengths = new int[INITIAL_CAPACITY];
+    termOccurrences = new int[INITIAL_CAPACITY];
+
+    objects = new ArrayList<>();
+    objToId = new HashMap<>();
+    objWordFrequencies = new int[INITIAL_CAPACITY];
+    objTerms = new int[INITIAL_CAPACITY][];
+    removedCount = 0;
   }
 
-  public void clear() {
-    termToObj = new TreeMap<>();
-    objToWordFrequency = new HashMap<>();
+  @VisibleForTesting
+  synchronized int termCount() {
+    return terms.size();
   }
 
   /**
    * @return Can be empty, but never null
    */
-  public Set<String> getTokens() {
-    return Collections.unmodifiableSet(termToObj.keySet());
+  public synchronized Set<String> getTokens() {
+    var tokens = new TreeSet<String>();
+    for (var termId = 0; termId < terms.size(); termId++) {
+      if (termOccurrences[termId] > 0) {
+        tokens.add(terms.get(termId));
+      }
+    }
+    return Collections.unmodifiableSet(tokens);
   }
 
-  private void addToDictionary(String token, int tokenIndex, T obj) {
-    var entries = termToObj.get(token);
+  private int findNode(String prefix) {
+    var node = ROOT;
+    for (var i = 0; i < prefix.length() && node != NO_NODE; i++) {
+      node = findChild(node, prefix.charAt(i));
+    }
+    return node;
+  }
 
-    if (entries == null) {
-      entries = new LinkedList<>();
-      termToObj.put(token, entries);
+  private int findChild(int node, char c) {
+    var child = firstChildren[node];
+    while (child != NO_NODE && nodeChars[child] != c) {
+      child = nextSiblings[child];
     }
+    return child;
+  }
 
-    entries.add(new DictEntry(obj, tokenIndex));
+  private int addTerm(String term) {
+    var node = ROOT;
+    for (var i = 0; i < term.length(); i++) {
+      var c = term.charAt(i);
+      var child = findChild(node, c);
+      if (child == NO_NODE) {
+        child = newNode(c);
+        nextSiblings[child] = firstChildren[node];
+        firstChildren[node] = child;
+      }
+      node = child;
+    }
+    if (nodeTerms[node] == NO_TERM) {
+      var termId = terms.size();
+      terms.add(term);
+      if (termId == postings.length) {
+        postings = Arrays.copyOf(postings, termId * 2);
+        postingsLengths = Arrays.copyOf(postingsLengths, termId * 2);
+        termOccurrences = Arrays.copyOf(termOccurrences, termId * 2);
+      }
+      postings[termId] = new int[2];
+      nodeTerms[node] = termId;
+    }
+    return nodeTerms[node];
   }
 
-  private static List<String> tokenize(String text) {
-    var split = text.split(SPLIT_PATTERN);
-    List<String> terms = new ArrayList<>(split.length);
+  private int newNode(char c) {
+    if (nodeCount == nodeChars.length) {
+      var newCapacity = nodeCount * 2;
+      nodeChars = Arrays.copyOf(nodeChars, newCapacity);
+      firstChildren = Arrays.copyOf(firstChildren, newCapacity);
+      nextSiblings = Arrays.copyOf(nextSiblings, newCapacity);
+      nodeTerms = Arrays.copyOf(nodeTerms, newCapacity);
+    }
+    var node = nodeCount++;
+    nodeChars[node] = c;
+    firstChildren[node] = NO_NODE;
+    nextSiblings[node] = NO_NODE;
+    nodeTerms[node] = NO_TERM;
+    return node;
+  }
+
+  private void addPosting(int termId, int objId, int position) {
+    var length = postingsLengths[termId];
+    if (length == postings[termId].length) {
+      postings[termId] = Arrays.copyOf(postings[termId], length * 2);
+    }
+    postings[termId][length] = objId;
+    postings[termId][length + 1] = position;
+    postingsLengths[termId] = length + 2;
+    termOccurrences[termId]++;
+  }
 
-    for (String s : split) {
-      if (!s.isEmpty()) {
-        terms.add(s.toLowerCase(Locale.ENGLISH));
+  private static long key(int objId, int position) {
+    return ((long) objId << 32) | position;
+  }
+
+  /**
+   * Splits on non word characters, as the regular expression \W would do.
+   */
+  private static List<String> tokenize(String text) {
+    List<String> tokens = new ArrayList<>();
+    var tokenStart = -1;
+    for (var i = 0; i <= text.length(); i++) {
+      var isWordChar = i < text.length() && isWordChar(text.charAt(i));
+      if (isWordChar && tokenStart < 0) {
+        tokenStart = i;
+      } else if (!isWordChar && tokenStart >= 0) {
+        tokens.add(toLowerCase(text, tokenStart, i));
+        tokenStart = -1;
       }
     }
+    return tokens;
+  }
 
-    return terms;
+  private static boolean isWordChar(char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
   }
 
-  private class SearchResult {
-    private double score;
-    private T obj;
-    private int lastIdx;
+  private static String toLowerCase(String text, int start, int end) {
+    var chars = new char[end - start];
+    for (var i = start; i < end; i++) {
+      var c = text.charAt(i);
+      chars[i - start] = c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+    return new String(chars);
+  }
 
-    public SearchResult(double score, T obj, int lastIdx) {
-      this.score = score;
-      this.obj = obj;
-      this.lastIdx = lastIdx;
+  private static class Matches {
+    private int[] objIds = new int[16];
+    private int[] positions = new int[16];
+    private double[] scores = new double[16];
+    private int size;
+
+    private void add(int objId, int position, double score) {
+      if (size == objIds.length) {
+        objIds = Arrays.copyOf(objIds, size * 2);
+        positions = Arrays.copyOf(positions, size * 2);
+        scores = Arrays.copyOf(scores, size * 2);
+      }
+      objIds[size] = objId;
+      positions[size] = position;
+      scores[size] = score;
+      size++;
     }
   }
 
-  private class DictEntry {
-    T obj;
-    int tokenIndex;
+  /**
+   * Open addressing map from non negative long keys to double values, returning NaN for missing keys.
+   */
+  private static class LongDoubleMap {
+    private static final long EMPTY = -1;
+    private final long[] keys;
+    private final double[] values;
+    private int size;
+
+    private LongDoubleMap(int expectedSize) {
+      var capacity = Integer.highestOneBit(Math.max(expectedSize, 8) * 2) * 2;
+      keys = new long[capacity];
+      Arrays.fill(keys, EMPTY);
+      values = new double[capacity];
+    }
+
+    private void put(long key, double value) {
+      var slot = slot(key);
+      if (keys[slot] == EMPTY) {
+        keys[slot] = key;
+        size++;
+      }
+      values[slot] = value;
+    }
 
-    public DictEntry(T obj, int tokenIndex) {
-      this.obj = obj;
-      this.tokenIndex = tokenIndex;
+    private double get(long key) {
+      var slot = slot(key);
+      return keys[slot] == EMPTY ? Double.NaN : values[slot];
+    }
+
+    private long[] keys() {
+      var result = new long[size];
+      var i = 0;
+      for (long key : keys) {
+        if (key != EMPTY) {
+          result[i++] = key;
+        }
+      }
+      return result;
+    }
+
+    private int slot(long key) {
+      var mask = keys.length - 1;
+      var slot = (int) (key ^ (key >>> 32)) * 0x9E3779B9 & mask;
+      while (keys[slot] != EMPTY && keys[slot] != key) {
+        slot = (slot + 1) & mask;
+      }
+      return slot;
     }
   }
 }
@@ -43,13 +43,16 @@ public class PluginsServiceImpl implements PluginsService {
   private final StorageService storageService;
   private final Set<Path> embeddedPluginPaths;
   private final Map<String, Path> connectedModeEmbeddedPluginPathsByKey;
+  private final Path sonarlintUserHome;
 
-  public PluginsServiceImpl(PluginsRepository pluginsRepository, LanguageSupportRepository languageSupportRepository, StorageService storageService, InitializeParams params) {
+  public PluginsServiceImpl(PluginsRepository pluginsRepository, LanguageSupportRepository languageSupportRepository, StorageService storageService, InitializeParams params,
+    @Named("userHome") Path sonarlintUserHome) {
     this.pluginsRepository = pluginsRepository;
     this.languageSupportRepository = languageSupportRepository;
     this.storageService = storageService;
     this.embeddedPluginPaths = params.getEmbeddedPluginPaths();
     this.connectedModeEmbeddedPluginPathsByKey = params.getConnectedModeEmbeddedPluginPathsByKey();
+    this.sonarlintUserHome = sonarlintUserHome;
   }
 
   public LoadedPlugins getEmbeddedPlugins() {
@@ -85,9 +88,9 @@ public class PluginsServiceImpl implements PluginsService {
     return loadPlugins(languageSupportRepository.getEnabledLanguagesInConnectedMode(), pluginPaths);
   }
 
-  private static PluginsLoadResult loadPlugins(Set<Language> enabledLanguages, Set<Path> pluginPaths) {
+  private PluginsLoadResult loadPlugins(Set<Language> enabledLanguages, Set<Path> pluginPaths) {
     // not interested in the Node.js path at the moment
-    var config = new PluginsLoader.Configuration(pluginPaths, enabledLanguages);
+    var config = new PluginsLoader.Configuration(pluginPaths, enabledLanguages, sonarlintUserHome);
     return new PluginsLoader().load(config);
   }
 
@@ -21,14 +21,27 @@ package org.sonarsource.sonarlint.core.rules;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.CheckForNull;
 import org.apache.commons.io.IOUtils;
 import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
 
 class CleanCodePrinciples {
 
+  /**
+   * Contents are bundled in the jar, they never change
+   */
+  private static final Map<String, Optional<String>> CONTENT_BY_KEY = new ConcurrentHashMap<>();
+
   @CheckForNull
   public static String getContent(String key) {
+    return CONTENT_BY_KEY.computeIfAbsent(key, k -> Optional.ofNullable(readContent(k))).orElse(null);
+  }
+
+  @CheckForNull
+  private static String readContent(String key) {
     var fileStream = CleanCodePrinciples.class.getResourceAsStream("/clean-code-principles/" + key + ".html");
     if (fileStream == null) {
       SonarLintLogger.get().info("Unsupported clean code principle key: " + key);
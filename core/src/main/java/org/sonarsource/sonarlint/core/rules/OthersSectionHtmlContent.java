@@ -32,9 +32,19 @@ public class OthersSectionHtmlContent {
   private static final String ERROR_READING_FILE_CONTENT = "Could not read the content for rule description for context key: ";
 
   private static final String OTHERS_SECTION_HTML_CONTENT_KEY = "others_section_html_content";
+  private static String htmlContent;
+
   private OthersSectionHtmlContent() {}
 
-  public static String getHtmlContent() {
+  public static synchronized String getHtmlContent() {
+    // the content is bundled in the jar, it never changes
+    if (htmlContent == null) {
+      htmlContent = readHtmlContent();
+    }
+    return htmlContent;
+  }
+
+  private static String readHtmlContent() {
     try (var htmlContentFile = OthersSectionHtmlContent.class.getResourceAsStream(FOLDER_NAME +
       OTHERS_SECTION_HTML_CONTENT_KEY + FILE_EXTENSION)) {
       if (htmlContentFile == null) {
@@ -0,0 +1,83 @@
+/*
+ * SonarLint Core - Implementation
+ * Copyright (C) 2016-2023 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.rules;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
+import org.sonarsource.sonarlint.core.clientapi.backend.rules.RuleMonolithicDescriptionDto;
+import org.sonarsource.sonarlint.core.clientapi.backend.rules.RuleSplitDescriptionDto;
+import org.sonarsource.sonarlint.core.rule.extractor.SonarLintRuleDefinition;
+
+/**
+ * Rendered descriptions of the rules defined by the loaded analyzers. They only depend on the rule definition and on the requested context.
+ * Entries are tied to the rule definition instance they were rendered from, so that they are rendered again when the analyzers are reloaded.
+ */
+class RuleDescriptionsCache {
+  static final int MAX_ENTRIES = 1000;
+
+  private final Cache<List<String>, CachedDescription> descriptions = CacheBuilder.newBuilder()
+    .maximumSize(MAX_ENTRIES)
+    .build();
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+
+  Either<RuleMonolithicDescriptionDto, RuleSplitDescriptionDto> getOrRender(@Nullable String connectionId, SonarLintRuleDefinition ruleDefinition, @Nullable String contextKey,
+    Supplier<Either<RuleMonolithicDescriptionDto, RuleSplitDescriptionDto>> renderer) {
+    var key = Arrays.asList(connectionId, ruleDefinition.getKey(), contextKey);
+    var cachedDescription = descriptions.getIfPresent(key);
+    if (cachedDescription != null && cachedDescription.ruleDefinition == ruleDefinition) {
+      hitCount.incrementAndGet();
+    } else {
+      missCount.incrementAndGet();
+      cachedDescription = new CachedDescription(ruleDefinition, renderer.get());
+      descriptions.put(key, cachedDescription);
+    }
+    return cachedDescription.description;
+  }
+
+  void invalidate(String connectionId) {
+    descriptions.asMap().keySet().removeIf(key -> Objects.equals(key.get(0), connectionId));
+  }
+
+  long getHitCount() {
+    return hitCount.get();
+  }
+
+  long getMissCount() {
+    return missCount.get();
+  }
+
+  private static class CachedDescription {
+    private final SonarLintRuleDefinition ruleDefinition;
+    private final Either<RuleMonolithicDescriptionDto, RuleSplitDescriptionDto> description;
+
+    private CachedDescription(SonarLintRuleDefinition ruleDefinition, Either<RuleMonolithicDescriptionDto, RuleSplitDescriptionDto> description) {
+      this.ruleDefinition = ruleDefinition;
+      this.description = description;
+    }
+  }
+}
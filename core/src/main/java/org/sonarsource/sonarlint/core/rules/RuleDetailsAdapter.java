@@ -52,6 +52,10 @@ class RuleDetailsAdapter {
     HOW_TO_FIX_SECTION_KEY, RESOURCES_SECTION_KEY);
 
   public static EffectiveRuleDetailsDto transform(RuleDetails ruleDetails, @Nullable String contextKey) {
+    return transform(ruleDetails, transformDescriptions(ruleDetails, contextKey));
+  }
+
+  static EffectiveRuleDetailsDto transform(RuleDetails ruleDetails, Either<RuleMonolithicDescriptionDto, RuleSplitDescriptionDto> description) {
     return new EffectiveRuleDetailsDto(
       ruleDetails.getKey(),
       ruleDetails.getName(),
@@ -59,7 +63,7 @@ class RuleDetailsAdapter {
       ruleDetails.getType(),
       ruleDetails.getCleanCodeAttribute().orElse(null),
       ruleDetails.getDefaultImpacts(),
-      transformDescriptions(ruleDetails, contextKey),
+      description,
       transform(ruleDetails.getParams()),
       ruleDetails.getLanguage());
   }
@@ -19,10 +19,16 @@
  */
 package org.sonarsource.sonarlint.core.rules;
 
+import com.google.common.eventbus.Subscribe;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
@@ -46,6 +52,7 @@ import org.sonarsource.sonarlint.core.clientapi.backend.rules.UpdateStandaloneRu
 import org.sonarsource.sonarlint.core.commons.Binding;
 import org.sonarsource.sonarlint.core.commons.RuleKey;
 import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
+import org.sonarsource.sonarlint.core.event.ConnectionConfigurationRemovedEvent;
 import org.sonarsource.sonarlint.core.repository.config.ConfigurationRepository;
 import org.sonarsource.sonarlint.core.repository.rules.RulesRepository;
 import org.sonarsource.sonarlint.core.rule.extractor.SonarLintRuleDefinition;
@@ -71,6 +78,11 @@ public class RulesServiceImpl implements RulesService {
   private final SynchronizationServiceImpl synchronizationService;
   private static final String COULD_NOT_FIND_RULE = "Could not find rule '";
   private final Map<String, StandaloneRuleConfigDto> standaloneRuleConfig = new ConcurrentHashMap<>();
+  private final Map<List<String>, ActiveRulesIndex> activeRulesIndexByBinding = new ConcurrentHashMap<>();
+  private final RuleDescriptionsCache ruleDescriptionsCache = new RuleDescriptionsCache();
+  private final AtomicLong serverRuleCacheHitCount = new AtomicLong();
+  private final AtomicLong serverRuleFetchCount = new AtomicLong();
+  private final AtomicLong serverRuleFetchTotalMillis = new AtomicLong();
 
   @Inject
   public RulesServiceImpl(ServerApiProvider serverApiProvider, ConfigurationRepository configurationRepository, RulesRepository rulesRepository, StorageService storageService,
@@ -97,14 +109,12 @@ public class RulesServiceImpl implements RulesService {
       if (embeddedRule.isEmpty()) {
         return CompletableFuture.failedFuture(new IllegalArgumentException(COULD_NOT_FIND_RULE + ruleKey + "' in embedded rules"));
       }
-      var ruleDetails = RuleDetails.from(embeddedRule.get(), standaloneRuleConfig.get(ruleKey));
-      return CompletableFuture.completedFuture(buildResponse(ruleDetails, params.getContextKey()));
+      return CompletableFuture.completedFuture(buildResponse(null, ruleKey, embeddedRule.get(), params.getContextKey()));
     }
-    return getActiveRuleForBinding(ruleKey, effectiveBinding.get())
-      .thenApply(ruleDetails -> buildResponse(ruleDetails, params.getContextKey()));
+    return getActiveRuleForBinding(ruleKey, effectiveBinding.get(), params.getContextKey());
   }
 
-  private CompletableFuture<RuleDetails> getActiveRuleForBinding(String ruleKey, Binding binding) {
+  private CompletableFuture<GetEffectiveRuleDetailsResponse> getActiveRuleForBinding(String ruleKey, Binding binding, @Nullable String contextKey) {
     var connectionId = binding.getConnectionId();
     var serverApi = serverApiProvider.getServerApi(connectionId);
     if (serverApi.isEmpty()) {
@@ -113,15 +123,16 @@ public class RulesServiceImpl implements RulesService {
     boolean skipCleanCodeTaxonomy = synchronizationService.getServerConnection(connectionId, serverApi.get()).shouldSkipCleanCodeTaxonomy();
 
     return findServerActiveRuleInStorage(binding, ruleKey)
-      .map(storageRule -> hydrateDetailsWithServer(connectionId, storageRule, skipCleanCodeTaxonomy))
+      .map(storageRule -> hydrateDetailsWithServer(connectionId, storageRule, skipCleanCodeTaxonomy)
+        .thenApply(ruleDetails -> buildResponse(ruleDetails, contextKey)))
       // try from loaded rules, for e.g. extra analyzers
       .orElseGet(() -> rulesRepository.getRule(connectionId, ruleKey)
-        .map(r -> RuleDetails.from(r, standaloneRuleConfig.get(ruleKey)))
+        .map(r -> buildResponse(connectionId, ruleKey, r, contextKey))
         .map(CompletableFuture::completedFuture)
         .orElseGet(() -> CompletableFuture.failedFuture(new IllegalArgumentException(COULD_NOT_FIND_RULE + ruleKey + "' in plugins loaded from '" + connectionId + "'"))));
   }
 
-  private Optional<ServerActiveRule> findServerActiveRuleInStorage(Binding binding, String ruleKey) {
+  private Optional<IndexedActiveRule> findServerActiveRuleInStorage(Binding binding, String ruleKey) {
     AnalyzerConfiguration analyzerConfiguration;
     try {
       analyzerConfiguration = storageService.binding(binding).analyzerConfiguration().read();
@@ -129,24 +140,37 @@ public class RulesServiceImpl implements RulesService {
       // XXX we should make sure this situation can not happen (sync should be enforced at least once)
       return Optional.empty();
     }
-    return analyzerConfiguration.getRuleSetByLanguageKey().values().stream()
-      .flatMap(s -> s.getRules().stream())
+    var indexKey = List.of(binding.getConnectionId(), binding.getSonarProjectKey());
+    var index = activeRulesIndexByBinding.get(indexKey);
+    // the storage returns the same instance as long as the configuration did not change
+    if (index == null || index.analyzerConfiguration != analyzerConfiguration) {
       // XXX is it important to migrate the rule repos in tryConvertDeprecatedKeys?
-      .filter(r -> tryConvertDeprecatedKeys(r, binding.getConnectionId()).getRuleKey().equals(ruleKey)).findFirst();
+      index = new ActiveRulesIndex(analyzerConfiguration, r -> tryConvertDeprecatedKeys(r, binding.getConnectionId()));
+      activeRulesIndexByBinding.put(indexKey, index);
+    }
+    return Optional.ofNullable(index.activeRulesByKey.get(ruleKey));
+  }
+
+  @Subscribe
+  public void connectionRemoved(ConnectionConfigurationRemovedEvent e) {
+    activeRulesIndexByBinding.keySet().removeIf(key -> key.get(0).equals(e.getRemovedConnectionId()));
+    ruleDescriptionsCache.invalidate(e.getRemovedConnectionId());
   }
 
-  private CompletableFuture<RuleDetails> hydrateDetailsWithServer(String connectionId, ServerActiveRule activeRuleFromStorage, boolean skipCleanCodeTaxonomy) {
+  private CompletableFuture<RuleDetails> hydrateDetailsWithServer(String connectionId, IndexedActiveRule indexedActiveRule, boolean skipCleanCodeTaxonomy) {
+    var activeRuleFromStorage = indexedActiveRule.activeRule;
+    var qualityProfileLastModified = indexedActiveRule.qualityProfileLastModified;
     var ruleKey = activeRuleFromStorage.getRuleKey();
     var templateKey = activeRuleFromStorage.getTemplateKey();
     if (StringUtils.isNotBlank(templateKey)) {
       return rulesRepository.getRule(connectionId, templateKey)
         .map(templateRule -> serverApiProvider.getServerApi(connectionId)
-          .map(serverApi -> fetchRuleFromServer(connectionId, ruleKey, serverApi)
+          .map(serverApi -> fetchRuleFromServer(connectionId, ruleKey, qualityProfileLastModified, serverApi)
             .thenApply(serverRule -> RuleDetails.merging(activeRuleFromStorage, serverRule, templateRule, skipCleanCodeTaxonomy)))
           .orElseGet(() -> failedFutureUnknownConnection(connectionId)))
         .orElseGet(() -> CompletableFuture.failedFuture(new IllegalStateException("Unable to find rule definition for rule template " + templateKey)));
     } else {
-      return serverApiProvider.getServerApi(connectionId).map(serverApi -> fetchRuleFromServer(connectionId, ruleKey, serverApi)
+      return serverApiProvider.getServerApi(connectionId).map(serverApi -> fetchRuleFromServer(connectionId, ruleKey, qualityProfileLastModified, serverApi)
         .thenApply(serverRule -> rulesRepository.getRule(connectionId, ruleKey)
           .map(ruleDefFromPlugin -> RuleDetails.merging(serverRule, ruleDefFromPlugin, skipCleanCodeTaxonomy))
           .orElseGet(() -> RuleDetails.merging(activeRuleFromStorage, serverRule))))
@@ -155,20 +179,58 @@ public class RulesServiceImpl implements RulesService {
   }
 
   @NotNull
-  private static CompletableFuture<RuleDetails> failedFutureUnknownConnection(String connectionId) {
+  private static <T> CompletableFuture<T> failedFutureUnknownConnection(String connectionId) {
     return CompletableFuture.failedFuture(new IllegalStateException("Unknown connection '" + connectionId + "'"));
   }
 
-  private static CompletableFuture<ServerRule> fetchRuleFromServer(String connectionId, String ruleKey, ServerApi serverApi) {
+  private CompletableFuture<ServerRule> fetchRuleFromServer(String connectionId, String ruleKey, String qualityProfileLastModified, ServerApi serverApi) {
+    var rulesCache = storageService.connection(connectionId).rules();
+    var cachedRule = rulesCache.get(ruleKey, qualityProfileLastModified);
+    if (cachedRule.isPresent()) {
+      serverRuleCacheHitCount.incrementAndGet();
+      return CompletableFuture.completedFuture(cachedRule.get());
+    }
+    var startTime = System.nanoTime();
     return serverApi.rules().getRule(ruleKey)
       .handle((r, e) -> {
         if (e != null) {
           throw new IllegalStateException(COULD_NOT_FIND_RULE + ruleKey + "' on '" + connectionId + "'", e);
         }
+        var elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+        serverRuleFetchCount.incrementAndGet();
+        serverRuleFetchTotalMillis.addAndGet(elapsedMillis);
+        LOG.debug("Fetched rule '{}' from '{}' in {}ms", ruleKey, connectionId, elapsedMillis);
+        rulesCache.put(ruleKey, qualityProfileLastModified, r);
         return r;
       });
   }
 
+  /**
+   * @return the number of rule details served from the cache instead of being fetched from a server
+   */
+  public long getServerRuleCacheHitCount() {
+    return serverRuleCacheHitCount.get();
+  }
+
+  public long getServerRuleFetchCount() {
+    return serverRuleFetchCount.get();
+  }
+
+  public long getServerRuleFetchTotalMillis() {
+    return serverRuleFetchTotalMillis.get();
+  }
+
+  /**
+   * @return the number of rule descriptions that did not have to be rendered again
+   */
+  public long getRuleDescriptionCacheHitCount() {
+    return ruleDescriptionsCache.getHitCount();
+  }
+
+  public long getRuleDescriptionCacheMissCount() {
+    return ruleDescriptionsCache.getMissCount();
+  }
+
   private ServerActiveRule tryConvertDeprecatedKeys(ServerActiveRule possiblyDeprecatedActiveRuleFromStorage, String connectionId) {
     Optional<SonarLintRuleDefinition> ruleOrTemplateDefinition;
     if (StringUtils.isNotBlank(possiblyDeprecatedActiveRuleFromStorage.getTemplateKey())) {
@@ -194,10 +256,41 @@ public class RulesServiceImpl implements RulesService {
     }
   }
 
+  private static class IndexedActiveRule {
+    private final ServerActiveRule activeRule;
+    private final String qualityProfileLastModified;
+
+    private IndexedActiveRule(ServerActiveRule activeRule, String qualityProfileLastModified) {
+      this.activeRule = activeRule;
+      this.qualityProfileLastModified = qualityProfileLastModified;
+    }
+  }
+
+  /**
+   * Active rules of a binding, indexed by their key after conversion of deprecated keys
+   */
+  private static class ActiveRulesIndex {
+    private final AnalyzerConfiguration analyzerConfiguration;
+    private final Map<String, IndexedActiveRule> activeRulesByKey = new HashMap<>();
+
+    private ActiveRulesIndex(AnalyzerConfiguration analyzerConfiguration, UnaryOperator<ServerActiveRule> deprecatedKeysConverter) {
+      this.analyzerConfiguration = analyzerConfiguration;
+      analyzerConfiguration.getRuleSetByLanguageKey().values().forEach(ruleSet -> ruleSet.getRules()
+        .forEach(activeRule -> activeRulesByKey.putIfAbsent(deprecatedKeysConverter.apply(activeRule).getRuleKey(),
+          new IndexedActiveRule(activeRule, ruleSet.getLastModified()))));
+    }
+  }
+
   private static GetEffectiveRuleDetailsResponse buildResponse(RuleDetails ruleDetails, @Nullable String contextKey) {
     return new GetEffectiveRuleDetailsResponse(RuleDetailsAdapter.transform(ruleDetails, contextKey));
   }
 
+  private GetEffectiveRuleDetailsResponse buildResponse(@Nullable String connectionId, String ruleKey, SonarLintRuleDefinition ruleDefinition, @Nullable String contextKey) {
+    var ruleDetails = RuleDetails.from(ruleDefinition, standaloneRuleConfig.get(ruleKey));
+    var description = ruleDescriptionsCache.getOrRender(connectionId, ruleDefinition, contextKey, () -> RuleDetailsAdapter.transformDescriptions(ruleDetails, contextKey));
+    return new GetEffectiveRuleDetailsResponse(RuleDetailsAdapter.transform(ruleDetails, description));
+  }
+
   @Override
   public CompletableFuture<ListAllStandaloneRulesDefinitionsResponse> listAllStandaloneRulesDefinitions() {
     return CompletableFuture.supplyAsync(() -> new ListAllStandaloneRulesDefinitionsResponse(
@@ -239,9 +332,10 @@ public class RulesServiceImpl implements RulesService {
       return CompletableFuture.failedFuture(new IllegalArgumentException(COULD_NOT_FIND_RULE + ruleKey + "' in embedded rules"));
     }
     var ruleDefinition = embeddedRule.get();
-    var ruleDetails = RuleDetails.from(ruleDefinition, standaloneRuleConfig.get(ruleKey));
+    var description = ruleDescriptionsCache.getOrRender(null, ruleDefinition, null,
+      () -> RuleDetailsAdapter.transformDescriptions(RuleDetails.from(ruleDefinition, standaloneRuleConfig.get(ruleKey)), null));
 
-    return CompletableFuture.completedFuture(new GetStandaloneRuleDescriptionResponse(convert(ruleDefinition), RuleDetailsAdapter.transformDescriptions(ruleDetails, null)));
+    return CompletableFuture.completedFuture(new GetStandaloneRuleDescriptionResponse(convert(ruleDefinition), description));
   }
 
   @Override
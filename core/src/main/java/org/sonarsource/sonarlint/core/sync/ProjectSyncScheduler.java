@@ -0,0 +1,171 @@
+/*
+ * SonarLint Core - Implementation
+ * Copyright (C) 2016-2023 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.sync;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides when a bound project branch needs to be checked again, and whether a full synchronization is needed or a cheap probe is enough.
+ * Projects on which changes were recently seen are checked every {@link #MIN_CHECK_INTERVAL}. Every check that does not detect any change doubles
+ * the interval, up to {@link #MAX_CHECK_INTERVAL}. A full synchronization is forced when the last one is older than {@link #MAX_SYNC_AGE},
+ * as some server changes (e.g. issue status changes) are not visible from probes. A probe is only done if, when it does not detect any change,
+ * the next check still comes before that deadline, otherwise the project is fully synchronized right away.
+ * Projects that cannot be probed (e.g. the server does not support pulling issues, so there is no last synchronization timestamp to compare with)
+ * are fully synchronized every {@link #MAX_CHECK_INTERVAL}.
+ */
+public class ProjectSyncScheduler {
+  static final Duration MIN_CHECK_INTERVAL = Duration.ofMinutes(10);
+  static final Duration MAX_CHECK_INTERVAL = Duration.ofHours(1);
+  static final Duration MAX_SYNC_AGE = Duration.ofHours(4);
+
+  private final Clock clock;
+  private final Map<List<String>, ProjectSyncState> stateByProjectBranch = new ConcurrentHashMap<>();
+  private final AtomicLong probeCount = new AtomicLong();
+  private final AtomicLong fullSyncCount = new AtomicLong();
+  private final AtomicLong skippedSyncCount = new AtomicLong();
+
+  public ProjectSyncScheduler() {
+    this(Clock.systemUTC());
+  }
+
+  ProjectSyncScheduler(Clock clock) {
+    this.clock = clock;
+  }
+
+  /**
+   * @return true if the project branch was never synchronized, if changes were notified since the last check, or if the check interval elapsed
+   */
+  public boolean isDue(String connectionId, String projectKey, String branchName) {
+    var state = stateByProjectBranch.get(key(connectionId, projectKey, branchName));
+    return state == null || state.changeNotified || !clock.instant().isBefore(state.nextCheck);
+  }
+
+  /**
+   * @return true if a probe is enough to decide whether the project branch should be synchronized
+   */
+  public boolean canProbe(String connectionId, String projectKey, String branchName) {
+    var state = stateByProjectBranch.get(key(connectionId, projectKey, branchName));
+    return state != null && state.probeable && !state.changeNotified
+      && clock.instant().plus(state.backedOffInterval()).isBefore(state.fullSyncDeadline());
+  }
+
+  /**
+   * Called when a server push event about the project was received. All the branches of the project will be synchronized at the next check.
+   */
+  public void onChangeNotified(String projectKey) {
+    stateByProjectBranch.forEach((key, state) -> {
+      if (key.get(1).equals(projectKey)) {
+        state.changeNotified = true;
+      }
+    });
+  }
+
+  public void onProbedWithoutChange(String connectionId, String projectKey, String branchName) {
+    probeCount.incrementAndGet();
+    skippedSyncCount.incrementAndGet();
+    stateByProjectBranch.computeIfPresent(key(connectionId, projectKey, branchName), (k, state) -> {
+      state.backOff(clock.instant());
+      return state;
+    });
+  }
+
+  public void onProbedWithChange() {
+    probeCount.incrementAndGet();
+  }
+
+  /**
+   * @param probeable false if the project branch cannot be probed for changes at the next checks
+   */
+  public void onSynchronized(String connectionId, String projectKey, String branchName, boolean probeable) {
+    fullSyncCount.incrementAndGet();
+    var now = clock.instant();
+    stateByProjectBranch.compute(key(connectionId, projectKey, branchName), (k, state) -> {
+      if (state == null) {
+        return new ProjectSyncState(now, probeable);
+      }
+      state.reset(now, probeable);
+      return state;
+    });
+  }
+
+  public void forget(String connectionId) {
+    stateByProjectBranch.keySet().removeIf(key -> key.get(0).equals(connectionId));
+  }
+
+  public long getProbeCount() {
+    return probeCount.get();
+  }
+
+  public long getFullSyncCount() {
+    return fullSyncCount.get();
+  }
+
+  public long getSkippedSyncCount() {
+    return skippedSyncCount.get();
+  }
+
+  private static List<String> key(String connectionId, String projectKey, String branchName) {
+    return List.of(connectionId, projectKey, branchName);
+  }
+
+  private static class ProjectSyncState {
+    private volatile Instant lastSync;
+    private volatile Duration checkInterval;
+    private volatile Instant nextCheck;
+    private volatile boolean changeNotified;
+    private volatile boolean probeable;
+
+    private ProjectSyncState(Instant now, boolean probeable) {
+      reset(now, probeable);
+    }
+
+    private void reset(Instant now, boolean probeable) {
+      this.lastSync = now;
+      this.probeable = probeable;
+      // without probes, checking more often than the max interval would mean more full synchronizations
+      this.checkInterval = probeable ? MIN_CHECK_INTERVAL : MAX_CHECK_INTERVAL;
+      this.nextCheck = now.plus(checkInterval);
+      this.changeNotified = false;
+    }
+
+    private Duration backedOffInterval() {
+      var doubledInterval = checkInterval.multipliedBy(2);
+      return doubledInterval.compareTo(MAX_CHECK_INTERVAL) > 0 ? MAX_CHECK_INTERVAL : doubledInterval;
+    }
+
+    private Instant fullSyncDeadline() {
+      return lastSync.plus(MAX_SYNC_AGE);
+    }
+
+    private void backOff(Instant now) {
+      checkInterval = backedOffInterval();
+      var nextCheckAfterBackOff = now.plus(checkInterval);
+      var fullSyncDeadline = fullSyncDeadline();
+      // do not postpone the forced full synchronization
+      nextCheck = nextCheckAfterBackOff.isAfter(fullSyncDeadline) ? fullSyncDeadline : nextCheckAfterBackOff;
+    }
+  }
+}
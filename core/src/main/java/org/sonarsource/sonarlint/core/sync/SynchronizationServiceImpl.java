@@ -21,13 +21,23 @@ package org.sonarsource.sonarlint.core.sync;
 
 import com.google.common.eventbus.Subscribe;
 import com.google.common.util.concurrent.MoreExecutors;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import javax.inject.Named;
@@ -41,11 +51,13 @@ import org.sonarsource.sonarlint.core.clientapi.client.sync.DidSynchronizeConfig
 import org.sonarsource.sonarlint.core.commons.Binding;
 import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
 import org.sonarsource.sonarlint.core.event.ActiveSonarProjectBranchChanged;
+import org.sonarsource.sonarlint.core.event.ConnectionConfigurationRemovedEvent;
 import org.sonarsource.sonarlint.core.languages.LanguageSupportRepository;
 import org.sonarsource.sonarlint.core.progress.ProgressNotifier;
 import org.sonarsource.sonarlint.core.progress.TaskManager;
 import org.sonarsource.sonarlint.core.repository.config.ConfigurationRepository;
 import org.sonarsource.sonarlint.core.serverapi.ServerApi;
+import org.sonarsource.sonarlint.core.serverapi.branches.ServerBranch;
 import org.sonarsource.sonarlint.core.serverconnection.ServerConnection;
 import org.sonarsource.sonarlint.core.serverconnection.StorageService;
 
@@ -58,6 +70,8 @@ import static java.util.stream.Collectors.toList;
 @Singleton
 public class SynchronizationServiceImpl {
   private static final SonarLintLogger LOG = SonarLintLogger.get();
+  private static final int MAX_PARALLEL_SYNCS = 4;
+  private static final int MAX_PARALLEL_SYNCS_PER_CONNECTION = 2;
 
   private final SonarLintClient client;
   private final ConfigurationRepository configurationRepository;
@@ -68,6 +82,8 @@ public class SynchronizationServiceImpl {
   private final StorageService storageService;
   private final Set<String> connectedModeEmbeddedPluginKeys;
   private final boolean synchronizationEnabled;
+  private final ExecutorService synchronizationExecutor;
+  private final ProjectSyncScheduler projectSyncScheduler = new ProjectSyncScheduler();
   private ScheduledExecutorService scheduledSynchronizer;
 
   public SynchronizationServiceImpl(SonarLintClient client, ConfigurationRepository configurationRepository, LanguageSupportRepository languageSupportRepository,
@@ -81,6 +97,11 @@ public class SynchronizationServiceImpl {
     this.storageService = storageService;
     this.connectedModeEmbeddedPluginKeys = params.getConnectedModeEmbeddedPluginPathsByKey().keySet();
     this.synchronizationEnabled = params.getFeatureFlags().shouldSynchronizeProjects();
+    var threadCount = new AtomicInteger();
+    var executor = new ThreadPoolExecutor(MAX_PARALLEL_SYNCS, MAX_PARALLEL_SYNCS, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+      r -> new Thread(r, "SonarLint Project Synchronizer " + threadCount.incrementAndGet()));
+    executor.allowCoreThreadTimeOut(true);
+    this.synchronizationExecutor = executor;
   }
 
   @PostConstruct
@@ -89,7 +110,7 @@ public class SynchronizationServiceImpl {
       return;
     }
     scheduledSynchronizer = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "SonarLint Local Storage Synchronizer"));
-    scheduledSynchronizer.scheduleAtFixedRate(this::safeAutoSync, 1L, 3600, TimeUnit.SECONDS);
+    scheduledSynchronizer.scheduleAtFixedRate(this::safeAutoSync, 1L, ProjectSyncScheduler.MIN_CHECK_INTERVAL.getSeconds(), TimeUnit.SECONDS);
   }
 
   // we must catch errors for the scheduling to not stop
@@ -106,45 +127,84 @@ public class SynchronizationServiceImpl {
       .entrySet().stream().collect(
         groupingBy(e -> e.getValue().getConnectionId(),
           mapping(e -> new BoundConfigurationScope(e.getKey(), e.getValue().getSonarProjectKey()), toList())));
-    autoSync(bindingsPerConnectionId);
+    autoSync(bindingsPerConnectionId, true);
   }
 
-  private void autoSync(Map<String, List<BoundConfigurationScope>> bindingsPerConnectionId) {
-    if (bindingsPerConnectionId.isEmpty()) {
+  /**
+   * @param scheduled when true, projects that are not due according to the {@link ProjectSyncScheduler} are skipped,
+   *                  and others might only be probed for changes
+   */
+  private void autoSync(Map<String, List<BoundConfigurationScope>> bindingsPerConnectionId, boolean scheduled) {
+    var projectSyncsPerConnectionId = new LinkedHashMap<String, Collection<ProjectSync>>();
+    bindingsPerConnectionId.forEach((connectionId, scopes) -> {
+      var projectSyncs = groupByProjectAndBranch(scopes).stream()
+        .filter(projectSync -> !scheduled || projectSyncScheduler.isDue(connectionId, projectSync.sonarProjectKey, projectSync.branchName))
+        .collect(toList());
+      if (!projectSyncs.isEmpty()) {
+        projectSyncsPerConnectionId.put(connectionId, projectSyncs);
+      }
+    });
+    if (projectSyncsPerConnectionId.isEmpty()) {
       return;
     }
     taskManager.startTask(null, "Synchronizing projects...", null, false, false, progressNotifier -> {
-      var connectionsCount = bindingsPerConnectionId.keySet().size();
-      var progressGap = 100f / connectionsCount;
-      var progress = 0f;
-      var synchronizedConfScopeIds = new HashSet<String>();
-      for (var entry : bindingsPerConnectionId.entrySet()) {
-        var connectionId = entry.getKey();
-        progressNotifier.notify("Synchronizing with '" + connectionId + "'...", Math.round(progress));
-        autoSync(connectionId, entry.getValue(), progressNotifier, synchronizedConfScopeIds, progress, progressGap);
-        progress += progressGap;
-      }
+      var synchronizedConfScopeIds = ConcurrentHashMap.<String>newKeySet();
+      var totalCount = projectSyncsPerConnectionId.values().stream().mapToInt(Collection::size).sum();
+      var progress = new SyncProgress(progressNotifier, totalCount);
+      var pendingSyncs = new ArrayList<CompletableFuture<Void>>();
+      projectSyncsPerConnectionId
+        .forEach((connectionId, projectSyncs) -> pendingSyncs.addAll(autoSync(connectionId, projectSyncs, scheduled, progress, synchronizedConfScopeIds)));
+      CompletableFuture.allOf(pendingSyncs.toArray(new CompletableFuture[0])).join();
+      LOG.debug("[SYNC] Probes: {}, full synchronizations: {}, skipped synchronizations: {}", projectSyncScheduler.getProbeCount(),
+        projectSyncScheduler.getFullSyncCount(), projectSyncScheduler.getSkippedSyncCount());
       if (!synchronizedConfScopeIds.isEmpty()) {
         client.didSynchronizeConfigurationScopes(new DidSynchronizeConfigurationScopeParams(synchronizedConfScopeIds));
       }
     });
   }
 
-  private void autoSync(String connectionId, List<BoundConfigurationScope> boundConfigurationScopes, ProgressNotifier notifier, Set<String> synchronizedConfScopeIds,
-    float progress, float progressGap) {
-    if (boundConfigurationScopes.isEmpty()) {
-      return;
+  /**
+   * Several configuration scopes can be bound to the same project and branch, they only need to be synchronized once.
+   */
+  private Collection<ProjectSync> groupByProjectAndBranch(List<BoundConfigurationScope> boundConfigurationScopes) {
+    var projectSyncsByKey = new LinkedHashMap<List<String>, ProjectSync>();
+    for (BoundConfigurationScope scope : boundConfigurationScopes) {
+      branchService.getEffectiveActiveSonarProjectBranch(scope.configurationScopeId)
+        .ifPresent(branch -> projectSyncsByKey.computeIfAbsent(List.of(scope.sonarProjectKey, branch), k -> new ProjectSync(scope.sonarProjectKey, branch))
+          .configurationScopeIds.add(scope.configurationScopeId));
     }
-    serverApiProvider.getServerApi(connectionId).ifPresent(serverApi -> {
-      var serverConnection = getServerConnection(connectionId, serverApi);
-      var subProgressGap = progressGap / boundConfigurationScopes.size();
-      var subProgress = progress;
-      for (BoundConfigurationScope scope : boundConfigurationScopes) {
-        notifier.notify("Synchronizing project '" + scope.sonarProjectKey + "'...", Math.round(subProgress));
-        autoSyncBoundConfigurationScope(scope, serverApi, serverConnection, synchronizedConfScopeIds);
-        subProgress += subProgressGap;
-      }
-    });
+    return projectSyncsByKey.values();
+  }
+
+  /**
+   * Spawns at most {@link #MAX_PARALLEL_SYNCS_PER_CONNECTION} workers for the connection, each of them pulling projects to synchronize from a shared queue.
+   * Workers run on the shared executor, which bounds the overall parallelism.
+   */
+  private List<CompletableFuture<Void>> autoSync(String connectionId, Collection<ProjectSync> projectSyncs, boolean scheduled, SyncProgress progress,
+    Set<String> synchronizedConfScopeIds) {
+    var maybeServerApi = serverApiProvider.getServerApi(connectionId);
+    if (maybeServerApi.isEmpty()) {
+      progress.skipped(projectSyncs.size());
+      return List.of();
+    }
+    var serverApi = maybeServerApi.get();
+    var serverConnection = getServerConnection(connectionId, serverApi);
+    var queue = new ConcurrentLinkedQueue<>(projectSyncs);
+    // several branches of the same project can be probed, the branches are listed only once per project
+    var branchesByProjectKey = new ConcurrentHashMap<String, List<ServerBranch>>();
+    var workersCount = Math.min(MAX_PARALLEL_SYNCS_PER_CONNECTION, projectSyncs.size());
+    var workers = new ArrayList<CompletableFuture<Void>>(workersCount);
+    for (var i = 0; i < workersCount; i++) {
+      workers.add(CompletableFuture.runAsync(() -> {
+        ProjectSync projectSync;
+        while ((projectSync = queue.poll()) != null) {
+          progress.started(connectionId, projectSync.sonarProjectKey);
+          autoSyncProject(connectionId, projectSync, scheduled, serverApi, serverConnection, branchesByProjectKey, synchronizedConfScopeIds);
+          progress.completed();
+        }
+      }, synchronizationExecutor));
+    }
+    return workers;
   }
 
   @NotNull
@@ -153,16 +213,61 @@ public class SynchronizationServiceImpl {
       languageSupportRepository.getEnabledLanguagesInConnectedMode(), connectedModeEmbeddedPluginKeys);
   }
 
-  private void autoSyncBoundConfigurationScope(BoundConfigurationScope boundScope, ServerApi serverApi,
-    ServerConnection serverConnection, Set<String> synchronizedConfScopeIds) {
-    branchService.getEffectiveActiveSonarProjectBranch(boundScope.configurationScopeId).ifPresent(branch -> {
-      serverConnection.syncServerIssuesForProject(serverApi, boundScope.sonarProjectKey, branch);
+  private void autoSyncProject(String connectionId, ProjectSync projectSync, boolean scheduled, ServerApi serverApi, ServerConnection serverConnection,
+    Map<String, List<ServerBranch>> branchesByProjectKey, Set<String> synchronizedConfScopeIds) {
+    var startTime = System.currentTimeMillis();
+    try {
+      if (scheduled && projectSyncScheduler.canProbe(connectionId, projectSync.sonarProjectKey, projectSync.branchName)) {
+        if (!hasChangedSinceLastSync(projectSync, serverApi, serverConnection, branchesByProjectKey)) {
+          projectSyncScheduler.onProbedWithoutChange(connectionId, projectSync.sonarProjectKey, projectSync.branchName);
+          LOG.debug("[SYNC] Project '{}' on branch '{}' is up-to-date, skipping synchronization", projectSync.sonarProjectKey, projectSync.branchName);
+          return;
+        }
+        projectSyncScheduler.onProbedWithChange();
+      }
+      serverConnection.syncServerIssuesForProject(serverApi, projectSync.sonarProjectKey, projectSync.branchName);
       if (languageSupportRepository.areTaintVulnerabilitiesSupported()) {
-        serverConnection.syncServerTaintIssuesForProject(serverApi, boundScope.sonarProjectKey, branch);
+        serverConnection.syncServerTaintIssuesForProject(serverApi, projectSync.sonarProjectKey, projectSync.branchName);
       }
-      serverConnection.syncServerHotspotsForProject(serverApi, boundScope.sonarProjectKey, branch);
-      synchronizedConfScopeIds.add(boundScope.configurationScopeId);
-    });
+      serverConnection.syncServerHotspotsForProject(serverApi, projectSync.sonarProjectKey, projectSync.branchName);
+      synchronizedConfScopeIds.addAll(projectSync.configurationScopeIds);
+      // the last issue synchronization timestamp is not stored when the server does not support pulling issues, the project cannot be probed then
+      var probeable = serverConnection.getLastIssueSyncTimestamp(projectSync.sonarProjectKey, projectSync.branchName).isPresent();
+      projectSyncScheduler.onSynchronized(connectionId, projectSync.sonarProjectKey, projectSync.branchName, probeable);
+      LOG.info("[SYNC] Synchronized project '{}' on branch '{}' in {}ms", projectSync.sonarProjectKey, projectSync.branchName, System.currentTimeMillis() - startTime);
+    } catch (Exception e) {
+      LOG.error("Error while synchronizing project '" + projectSync.sonarProjectKey + "' on branch '" + projectSync.branchName + "'", e);
+    }
+  }
+
+  /**
+   * Compares the date of the last analysis of the branch on the server with the date of the last issue synchronization,
+   * which is cheaper than pulling issues, taints and hotspots.
+   */
+  private static boolean hasChangedSinceLastSync(ProjectSync projectSync, ServerApi serverApi, ServerConnection serverConnection,
+    Map<String, List<ServerBranch>> branchesByProjectKey) {
+    var lastSync = serverConnection.getLastIssueSyncTimestamp(projectSync.sonarProjectKey, projectSync.branchName);
+    if (lastSync.isEmpty()) {
+      return true;
+    }
+    return branchesByProjectKey.computeIfAbsent(projectSync.sonarProjectKey, projectKey -> serverApi.branches().getAllBranches(projectKey)).stream()
+      .filter(branch -> branch.getName().equals(projectSync.branchName))
+      .findFirst()
+      .flatMap(ServerBranch::getAnalysisDate)
+      .map(analysisDate -> analysisDate.isAfter(lastSync.get()))
+      .orElse(true);
+  }
+
+  /**
+   * Called when the server notified a change on a project, e.g. a new analysis. The project will be fully synchronized at the next scheduled check.
+   */
+  public void onServerProjectChanged(String projectKey) {
+    projectSyncScheduler.onChangeNotified(projectKey);
+  }
+
+  @Subscribe
+  public void onConnectionRemoved(ConnectionConfigurationRemovedEvent removedEvent) {
+    projectSyncScheduler.forget(removedEvent.getRemovedConnectionId());
   }
 
   @Subscribe
@@ -172,7 +277,7 @@ public class SynchronizationServiceImpl {
     }
     var configurationScopeId = changedEvent.getConfigurationScopeId();
     configurationRepository.getEffectiveBinding(configurationScopeId).ifPresent(binding -> autoSync(Map.of(requireNonNull(binding.getConnectionId()),
-      List.of(new BoundConfigurationScope(configurationScopeId, binding.getSonarProjectKey())))));
+      List.of(new BoundConfigurationScope(configurationScopeId, binding.getSonarProjectKey()))), false));
   }
 
   public void fetchProjectIssues(Binding binding, String activeBranch) {
@@ -189,11 +294,35 @@ public class SynchronizationServiceImpl {
     });
   }
 
+  /**
+   * @return the number of scheduled checks that only probed the server for changes
+   */
+  public long getSyncProbeCount() {
+    return projectSyncScheduler.getProbeCount();
+  }
+
+  /**
+   * @return the number of project branches that were fully synchronized
+   */
+  public long getFullSyncCount() {
+    return projectSyncScheduler.getFullSyncCount();
+  }
+
+  /**
+   * @return the number of scheduled synchronizations that were skipped because a probe did not detect any change
+   */
+  public long getSkippedSyncCount() {
+    return projectSyncScheduler.getSkippedSyncCount();
+  }
+
   @PreDestroy
   public void shutdown() {
     if (scheduledSynchronizer != null && !MoreExecutors.shutdownAndAwaitTermination(scheduledSynchronizer, 5, TimeUnit.SECONDS)) {
       LOG.warn("Unable to stop synchronizer executor service in a timely manner");
     }
+    if (!MoreExecutors.shutdownAndAwaitTermination(synchronizationExecutor, 5, TimeUnit.SECONDS)) {
+      LOG.warn("Unable to stop project synchronization executor service in a timely manner");
+    }
   }
 
   private static class BoundConfigurationScope {
@@ -205,4 +334,42 @@ public class SynchronizationServiceImpl {
       this.sonarProjectKey = sonarProjectKey;
     }
   }
+
+  private static class ProjectSync {
+    private final String sonarProjectKey;
+    private final String branchName;
+    private final Set<String> configurationScopeIds = new LinkedHashSet<>();
+
+    private ProjectSync(String sonarProjectKey, String branchName) {
+      this.sonarProjectKey = sonarProjectKey;
+      this.branchName = branchName;
+    }
+  }
+
+  private static class SyncProgress {
+    private final ProgressNotifier notifier;
+    private final int totalCount;
+    private final AtomicInteger doneCount = new AtomicInteger();
+
+    private SyncProgress(ProgressNotifier notifier, int totalCount) {
+      this.notifier = notifier;
+      this.totalCount = totalCount;
+    }
+
+    private synchronized void started(String connectionId, String sonarProjectKey) {
+      notifier.notify("Synchronizing project '" + sonarProjectKey + "' with '" + connectionId + "'...", percentage());
+    }
+
+    private void completed() {
+      doneCount.incrementAndGet();
+    }
+
+    private void skipped(int count) {
+      doneCount.addAndGet(count);
+    }
+
+    private int percentage() {
+      return totalCount == 0 ? 100 : Math.round(100f * doneCount.get() / totalCount);
+    }
+  }
 }
@@ -22,6 +22,7 @@ package org.sonarsource.sonarlint.core.telemetry;
 import java.nio.file.Path;
 import java.util.concurrent.CompletableFuture;
 import javax.annotation.CheckForNull;
+import javax.annotation.PreDestroy;
 import org.sonarsource.sonarlint.core.clientapi.backend.telemetry.GetStatusResponse;
 import org.sonarsource.sonarlint.core.clientapi.backend.telemetry.TelemetryService;
 import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
@@ -77,7 +78,7 @@ public class TelemetryServiceImpl implements TelemetryService {
 
   public void smartNotificationsReceived(String eventType) {
     if (isEnabled()) {
-      getTelemetryLocalStorageManager().tryUpdateAtomically(s -> s.incrementDevNotificationsCount(eventType));
+      getTelemetryLocalStorageManager().bufferUpdate(s -> s.incrementDevNotificationsCount(eventType));
     }
   }
 
@@ -92,4 +93,17 @@ public class TelemetryServiceImpl implements TelemetryService {
       getTelemetryLocalStorageManager().tryUpdateAtomically(telemetryLocalStorage -> telemetryLocalStorage.addIssueStatusChanged(ruleKey));
     }
   }
+
+  public void issueTrackingDone(long durationMs) {
+    if (isEnabled()) {
+      getTelemetryLocalStorageManager().bufferUpdate(s -> s.addIssueTrackingLatency(durationMs));
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    if (telemetryLocalStorageManager != null) {
+      telemetryLocalStorageManager.flush();
+    }
+  }
 }
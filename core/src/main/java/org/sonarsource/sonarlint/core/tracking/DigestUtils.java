@@ -19,6 +19,8 @@
  */
 package org.sonarsource.sonarlint.core.tracking;
 
+import org.sonarsource.sonarlint.core.commons.hash.Md5;
+
 public class DigestUtils {
 
   private DigestUtils() {
@@ -26,7 +28,7 @@ public class DigestUtils {
   }
 
   public static String digest(String content) {
-    return org.apache.commons.codec.digest.DigestUtils.md5Hex(content.replaceAll("[\\s]", ""));
+    return Md5.md5HexIgnoringWhitespaces(content);
   }
 
 }
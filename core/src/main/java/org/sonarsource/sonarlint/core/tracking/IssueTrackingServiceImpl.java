@@ -64,6 +64,7 @@ import org.sonarsource.sonarlint.core.repository.vcs.ActiveSonarProjectBranchRep
 import org.sonarsource.sonarlint.core.serverconnection.StorageService;
 import org.sonarsource.sonarlint.core.serverconnection.issues.ServerIssue;
 import org.sonarsource.sonarlint.core.sync.SynchronizationServiceImpl;
+import org.sonarsource.sonarlint.core.telemetry.TelemetryServiceImpl;
 
 import static org.sonarsource.sonarlint.core.utils.FutureUtils.waitForTask;
 import static org.sonarsource.sonarlint.core.utils.FutureUtils.waitForTasks;
@@ -79,17 +80,19 @@ public class IssueTrackingServiceImpl implements IssueTrackingService {
   private final SynchronizationServiceImpl synchronizationService;
   private final LocalOnlyIssueRepository localOnlyIssueRepository;
   private final LocalOnlyIssueStorageService localOnlyIssueStorageService;
+  private final TelemetryServiceImpl telemetryService;
   private final ExecutorService executorService;
 
   public IssueTrackingServiceImpl(ConfigurationRepository configurationRepository, StorageService storageService,
     ActiveSonarProjectBranchRepository activeSonarProjectBranchRepository, SynchronizationServiceImpl synchronizationService,
-    LocalOnlyIssueStorageService localOnlyIssueStorageService, LocalOnlyIssueRepository localOnlyIssueRepository) {
+    LocalOnlyIssueStorageService localOnlyIssueStorageService, LocalOnlyIssueRepository localOnlyIssueRepository, TelemetryServiceImpl telemetryService) {
     this.configurationRepository = configurationRepository;
     this.storageService = storageService;
     this.activeSonarProjectBranchRepository = activeSonarProjectBranchRepository;
     this.synchronizationService = synchronizationService;
     this.localOnlyIssueRepository = localOnlyIssueRepository;
     this.localOnlyIssueStorageService = localOnlyIssueStorageService;
+    this.telemetryService = telemetryService;
     this.executorService = Executors.newSingleThreadExecutor(r -> new Thread(r, "sonarlint-server-tracking-issue-updater"));
   }
 
@@ -115,7 +118,10 @@ public class IssueTrackingServiceImpl implements IssueTrackingService {
         var serverIssues = storageService.binding(binding).findings().load(activeBranch, serverRelativePath);
         var localOnlyIssues = localOnlyIssueStorageService.get().loadForFile(params.getConfigurationScopeId(), serverRelativePath);
         var clientIssueTrackables = toTrackables(e.getValue());
-        var matches = matchIssues(serverRelativePath, serverIssues, localOnlyIssues, clientIssueTrackables)
+        var startTime = System.currentTimeMillis();
+        var matchedIssues = matchIssues(serverRelativePath, serverIssues, localOnlyIssues, clientIssueTrackables);
+        telemetryService.issueTrackingDone(System.currentTimeMillis() - startTime);
+        var matches = matchedIssues
           .stream().<Either<ServerMatchedIssueDto, LocalOnlyIssueDto>>map(result -> {
             if (result.isLeft()) {
               var serverIssue = result.getLeft();
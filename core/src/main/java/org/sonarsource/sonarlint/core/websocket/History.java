@@ -19,23 +19,93 @@
  */
 package org.sonarsource.sonarlint.core.websocket;
 
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Bounded history of the received messages, used to de-duplicate them. Messages are identified by a 128 bits digest instead of their full content.
+ * Digests are kept in reception order, so that the oldest ones can be evicted without scanning the whole history,
+ * either when they expire or when the capacity is reached.
+ */
 public class History {
-  private final Map<String, Instant> receivedMessages = new ConcurrentHashMap<>();
-  public void recordMessage(String message) {
-    receivedMessages.put(message, Instant.now());
+  static final int DEFAULT_CAPACITY = 10_000;
+  private static final HashFunction DIGEST_FUNCTION = Hashing.murmur3_128();
+
+  private final Clock clock;
+  private final int capacity;
+  private final Deque<ReceivedMessage> messagesInReceptionOrder = new ArrayDeque<>();
+  private final Set<HashCode> digests = new HashSet<>();
+  private long lookupCount;
+  private long hitCount;
+
+  public History() {
+    this(Clock.systemUTC(), DEFAULT_CAPACITY);
   }
 
-  public boolean exists(String message) {
-    return receivedMessages.containsKey(message);
+  History(Clock clock, int capacity) {
+    this.clock = clock;
+    this.capacity = capacity;
   }
 
-  public void forgetOlderThan(Duration expiryDuration) {
-    var now = Instant.now();
-    receivedMessages.values().removeIf(messageDate -> messageDate.isBefore(now.minus(expiryDuration)));
+  public synchronized void recordMessage(String message) {
+    var digest = digest(message);
+    if (!digests.add(digest)) {
+      return;
+    }
+    if (messagesInReceptionOrder.size() == capacity) {
+      digests.remove(messagesInReceptionOrder.removeFirst().digest);
+    }
+    messagesInReceptionOrder.addLast(new ReceivedMessage(digest, clock.instant()));
+  }
+
+  public synchronized boolean exists(String message) {
+    lookupCount++;
+    var exists = digests.contains(digest(message));
+    if (exists) {
+      hitCount++;
+    }
+    return exists;
+  }
+
+  public synchronized void forgetOlderThan(Duration expiryDuration) {
+    var expiryDate = clock.instant().minus(expiryDuration);
+    while (!messagesInReceptionOrder.isEmpty() && messagesInReceptionOrder.peekFirst().receptionDate.isBefore(expiryDate)) {
+      digests.remove(messagesInReceptionOrder.removeFirst().digest);
+    }
+  }
+
+  public synchronized int size() {
+    return messagesInReceptionOrder.size();
+  }
+
+  /**
+   * @return the ratio of received messages that were duplicates, between 0 and 1
+   */
+  public synchronized double getHitRate() {
+    return lookupCount == 0 ? 0 : ((double) hitCount / lookupCount);
+  }
+
+  private static HashCode digest(String message) {
+    return DIGEST_FUNCTION.hashString(message, UTF_8);
+  }
+
+  private static class ReceivedMessage {
+    private final HashCode digest;
+    private final Instant receptionDate;
+
+    private ReceivedMessage(HashCode digest, Instant receptionDate) {
+      this.digest = digest;
+      this.receptionDate = receptionDate;
+    }
   }
 }
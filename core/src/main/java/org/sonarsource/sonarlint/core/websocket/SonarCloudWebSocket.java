@@ -67,6 +67,7 @@ public class SonarCloudWebSocket {
 
   private void cleanUpMessageHistory() {
     history.forgetOlderThan(Duration.ofMinutes(1));
+    SonarLintLogger.get().debug("WebSocket message history size: {}, duplicate rate: {}%", history.size(), Math.round(history.getHitRate() * 100));
   }
 
   private SonarCloudWebSocket() {
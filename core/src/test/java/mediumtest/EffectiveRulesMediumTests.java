@@ -169,6 +169,26 @@ class EffectiveRulesMediumTests {
     assertThat(details.getParams()).isEmpty();
   }
 
+  @Test
+  void it_should_not_fetch_again_rule_from_server_when_quality_profile_did_not_change() {
+    backend = newBackend()
+      .withSonarQubeConnection("connectionId", mockWebServerExtension.endpointParams().getBaseUrl(), storage -> storage.withProject("projectKey",
+        projectStorage -> projectStorage.withRuleSet(Language.PYTHON.getLanguageKey(),
+          ruleSet -> ruleSet.withActiveRule("python:S139", "INFO", Map.of("legalTrailingCommentPattern", "blah")))))
+      .withBoundConfigScope("scopeId", "connectionId", "projectKey")
+      .withConnectedEmbeddedPluginAndEnabledLanguage(TestPlugin.PYTHON)
+      .build();
+    mockWebServerExtension.addProtobufResponse("/api/rules/show.protobuf?key=python:S139", Rules.ShowResponse.newBuilder()
+      .setRule(Rules.Rule.newBuilder().setName("newName").setSeverity("INFO").setType(Common.RuleType.BUG).setLang("py").setHtmlDesc("desc").setHtmlNote("extendedDesc").build())
+      .build());
+    getEffectiveRuleDetails("scopeId", "python:S139");
+    mockWebServerExtension.removeResponse("/api/rules/show.protobuf?key=python:S139");
+
+    var details = getEffectiveRuleDetails("scopeId", "python:S139");
+
+    assertThat(details.getDescription().getLeft().getHtmlContent()).isEqualTo(PYTHON_S139_DESCRIPTION + "extendedDesc");
+  }
+
   @Test
   void it_should_merge_rule_from_storage_and_server_when_parent_project_is_bound() {
     backend = newBackend()
@@ -19,10 +19,8 @@
  */
 package mediumtest;
 
-import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.ExecutionException;
-import mediumtest.fixtures.SonarLintBackendFixture.FakeSonarLintClient.ProgressReport;
 import mediumtest.fixtures.SonarLintBackendFixture.FakeSonarLintClient.ProgressStep;
 import mediumtest.fixtures.SonarLintTestBackend;
 import org.assertj.core.api.Condition;
@@ -98,12 +96,14 @@ class SynchronizationMediumTests {
     waitAtMost(3, SECONDS).untilAsserted(() -> {
       assertThat(fakeClient.getProgressReportsByTaskId())
         .hasKeySatisfying(isUUID())
-        .containsValue(new ProgressReport(null, "Synchronizing projects...", null, false, false,
-          List.of(
-            new ProgressStep("Synchronizing with 'connectionId'...", 0),
-            new ProgressStep("Synchronizing project 'projectKey'...", 0),
-            new ProgressStep("Synchronizing project 'projectKey2'...", 50)),
-          true));
+        .hasSize(1);
+      var progressReport = fakeClient.getProgressReportsByTaskId().values().iterator().next();
+      assertThat(progressReport.getTitle()).isEqualTo("Synchronizing projects...");
+      assertThat(progressReport.isComplete()).isTrue();
+      // projects are synchronized in parallel, the order of the steps is not deterministic
+      assertThat(progressReport.getSteps())
+        .extracting(ProgressStep::getMessage)
+        .containsExactlyInAnyOrder("Synchronizing project 'projectKey' with 'connectionId'...", "Synchronizing project 'projectKey2' with 'connectionId'...");
     });
   }
 
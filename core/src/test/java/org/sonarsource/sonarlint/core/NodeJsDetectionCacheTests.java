@@ -0,0 +1,106 @@
+/*
+ * SonarLint Core - Implementation
+ * Copyright (C) 2016-2023 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonarsource.sonarlint.core.commons.Version;
+import org.sonarsource.sonarlint.core.commons.log.SonarLintLogTester;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NodeJsDetectionCacheTests {
+
+  @RegisterExtension
+  SonarLintLogTester logTester = new SonarLintLogTester();
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void should_persist_detections() throws IOException {
+    var nodePath = Files.createFile(tempDir.resolve("node"));
+    var cacheFile = tempDir.resolve("cache").resolve("nodejs-detection.properties");
+    new NodeJsDetectionCache(cacheFile).put(null, "/usr/bin", nodePath, Version.create("16.14.0"));
+
+    var cachedDetection = new NodeJsDetectionCache(cacheFile).get(null, "/usr/bin");
+
+    assertThat(cachedDetection).hasValueSatisfying(d -> {
+      assertThat(d.getNodePath()).isEqualTo(nodePath);
+      assertThat(d.getVersion()).isEqualTo(Version.create("16.14.0"));
+    });
+  }
+
+  @Test
+  void should_persist_detections_in_the_given_user_home() throws IOException {
+    var nodePath = Files.createFile(tempDir.resolve("node"));
+    var userHome = tempDir.resolve("userHome");
+
+    NodeJsDetectionCache.inUserHome(userHome).put(null, "/usr/bin", nodePath, Version.create("16.14.0"));
+
+    assertThat(userHome.resolve("cache").resolve("nodejs-detection.properties")).isRegularFile();
+    assertThat(NodeJsDetectionCache.inUserHome(userHome).get(null, "/usr/bin")).isPresent();
+  }
+
+  @Test
+  void should_persist_detections_without_version() throws IOException {
+    var nodePath = Files.createFile(tempDir.resolve("node"));
+    var underTest = new NodeJsDetectionCache(tempDir.resolve("cache.properties"));
+    underTest.put(null, null, nodePath, null);
+
+    assertThat(underTest.get(null, null)).hasValueSatisfying(d -> assertThat(d.getVersion()).isNull());
+  }
+
+  @Test
+  void should_not_cache_missing_node() {
+    var cacheFile = tempDir.resolve("cache.properties");
+    var underTest = new NodeJsDetectionCache(cacheFile);
+
+    underTest.put(null, "/usr/bin", null, null);
+    underTest.put(null, "/usr/bin", tempDir.resolve("missing"), Version.create("16.14.0"));
+
+    assertThat(underTest.get(null, "/usr/bin")).isEmpty();
+    assertThat(cacheFile).doesNotExist();
+  }
+
+  @Test
+  void should_forget_detection_when_node_is_removed() throws IOException {
+    var nodePath = Files.createFile(tempDir.resolve("node"));
+    var underTest = new NodeJsDetectionCache(tempDir.resolve("cache.properties"));
+    underTest.put(nodePath, "/usr/bin", nodePath, Version.create("16.14.0"));
+
+    Files.delete(nodePath);
+
+    assertThat(underTest.get(nodePath, "/usr/bin")).isEmpty();
+  }
+
+  @Test
+  void should_ignore_corrupted_cache() throws IOException {
+    var cacheFile = tempDir.resolve("cache.properties");
+    Files.writeString(cacheFile, "|/usr/bin=corrupted\n");
+
+    assertThat(new NodeJsDetectionCache(cacheFile).get(null, "/usr/bin")).isEmpty();
+  }
+
+}
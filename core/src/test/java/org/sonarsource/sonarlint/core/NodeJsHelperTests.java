@@ -23,6 +23,8 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -47,9 +49,11 @@ import org.sonarsource.sonarlint.core.commons.log.SonarLintLogTester;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.fail;
+import static org.awaitility.Awaitility.await;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
 import static org.mockito.Mockito.when;
 
 class NodeJsHelperTests {
@@ -358,6 +362,73 @@ class NodeJsHelperTests {
     assertThat(underTest.getNodeJsVersion()).isNull();
   }
 
+  @Test
+  void useCachedDetectionAndRefreshItInBackground(@TempDir Path tempDir) throws IOException {
+    var nodePath = Files.createFile(tempDir.resolve("node"));
+    var cacheFile = tempDir.resolve("cache.properties");
+    when(system2.envVariable("PATH")).thenReturn("/usr/bin");
+    registerNodeVersionAnswer(nodePath, "v16.14.0");
+
+    var firstDetection = new NodeJsHelper(system2, null, commandExecutor, new NodeJsDetectionCache(cacheFile));
+    firstDetection.detect(nodePath);
+    assertThat(firstDetection.isDetectedFromCache()).isFalse();
+    assertThat(firstDetection.getNodeJsVersion()).isEqualTo(Version.create("16.14.0"));
+    assertThat(cacheFile).exists();
+
+    registeredCommandAnswers.clear();
+    registerNodeVersionAnswer(nodePath, "v18.0.0");
+    var secondDetection = new NodeJsHelper(system2, null, commandExecutor, new NodeJsDetectionCache(cacheFile));
+    secondDetection.detect(nodePath);
+
+    assertThat(secondDetection.isDetectedFromCache()).isTrue();
+    assertThat(secondDetection.getNodeJsPath()).isEqualTo(nodePath);
+    assertThat(secondDetection.getNodeJsVersion()).isEqualTo(Version.create("16.14.0"));
+    assertThat(secondDetection.getDetectionDuration()).isLessThan(Duration.ofSeconds(10));
+    assertThat(logTester.logs(Level.DEBUG)).contains("Using cached node detection: " + nodePath + " (version 16.14.0)");
+    await().untilAsserted(() -> assertThat(new NodeJsDetectionCache(cacheFile).get(nodePath, "/usr/bin"))
+      .hasValueSatisfying(d -> assertThat(d.getVersion()).isEqualTo(Version.create("18.0.0"))));
+  }
+
+  @Test
+  void ignoreCachedDetectionWhenNodeWasModified(@TempDir Path tempDir) throws IOException {
+    var nodePath = Files.createFile(tempDir.resolve("node"));
+    var cache = new NodeJsDetectionCache(tempDir.resolve("cache.properties"));
+    registerNodeVersionAnswer(nodePath, "v16.14.0");
+    new NodeJsHelper(system2, null, commandExecutor, cache).detect(nodePath);
+
+    Files.setLastModifiedTime(nodePath, FileTime.fromMillis(Files.getLastModifiedTime(nodePath).toMillis() - 10_000));
+    registeredCommandAnswers.clear();
+    registerNodeVersionAnswer(nodePath, "v18.0.0");
+    var underTest = new NodeJsHelper(system2, null, commandExecutor, cache);
+    underTest.detect(nodePath);
+
+    assertThat(underTest.isDetectedFromCache()).isFalse();
+    assertThat(underTest.getNodeJsVersion()).isEqualTo(Version.create("18.0.0"));
+  }
+
+  @Test
+  void ignoreCachedDetectionWhenPathChanged(@TempDir Path tempDir) throws IOException {
+    var nodePath = Files.createFile(tempDir.resolve("node"));
+    var cache = new NodeJsDetectionCache(tempDir.resolve("cache.properties"));
+    when(system2.envVariable("PATH")).thenReturn("/usr/bin");
+    registerNodeVersionAnswer(nodePath, "v16.14.0");
+    new NodeJsHelper(system2, null, commandExecutor, cache).detect(nodePath);
+
+    when(system2.envVariable("PATH")).thenReturn("/usr/local/bin:/usr/bin");
+    var underTest = new NodeJsHelper(system2, null, commandExecutor, cache);
+    underTest.detect(nodePath);
+
+    assertThat(underTest.isDetectedFromCache()).isFalse();
+    assertThat(mockingDetails(commandExecutor).getInvocations()).hasSize(2);
+  }
+
+  private void registerNodeVersionAnswer(Path nodePath, String version) {
+    registeredCommandAnswers.put(c -> c.toString().equals(nodePath + " -v"), (stdOut, stdErr) -> {
+      stdOut.consumeLine(version);
+      return 0;
+    });
+  }
+
   private void registerNodeVersionAnswer(String version) {
     registeredCommandAnswers.put(c -> c.toString().endsWith(FAKE_NODE_PATH.toString() + " -v"), (stdOut, stdErr) -> {
       stdOut.consumeLine(version);
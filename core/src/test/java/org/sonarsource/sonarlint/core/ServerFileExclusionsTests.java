@@ -0,0 +1,76 @@
+/*
+ * SonarLint Core - Implementation
+ * Copyright (C) 2016-2023 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core;
+
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonarsource.sonarlint.core.analysis.sonarapi.MapSettings;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ServerFileExclusionsTests {
+
+  @Test
+  void should_accept_everything_without_patterns() {
+    var exclusions = prepare(Map.of());
+
+    assertThat(exclusions.accept("src/Foo.java", InputFile.Type.MAIN)).isTrue();
+    assertThat(exclusions.accept("test/FooTest.java", InputFile.Type.TEST)).isTrue();
+  }
+
+  @Test
+  void should_accept_files_matching_any_inclusion() {
+    var exclusions = prepare(Map.of("sonar.inclusions", "**/*.java,**/*.js,src/main/**"));
+
+    assertThat(exclusions.accept("module/Foo.java", InputFile.Type.MAIN)).isTrue();
+    assertThat(exclusions.accept("module/foo.js", InputFile.Type.MAIN)).isTrue();
+    assertThat(exclusions.accept("src/main/foo.xml", InputFile.Type.MAIN)).isTrue();
+    assertThat(exclusions.accept("module/foo.xml", InputFile.Type.MAIN)).isFalse();
+    assertThat(exclusions.accept("module/Foo.javax", InputFile.Type.MAIN)).isFalse();
+  }
+
+  @Test
+  void should_reject_files_matching_any_exclusion() {
+    var exclusions = prepare(Map.of("sonar.exclusions", "**/generated/**,**/*Dto.java,**/package-info.java"));
+
+    assertThat(exclusions.accept("src/generated/Foo.java", InputFile.Type.MAIN)).isFalse();
+    assertThat(exclusions.accept("src/FooDto.java", InputFile.Type.MAIN)).isFalse();
+    assertThat(exclusions.accept("src\\foo\\package-info.java", InputFile.Type.MAIN)).isFalse();
+    assertThat(exclusions.accept("src/Foo.java", InputFile.Type.MAIN)).isTrue();
+    assertThat(exclusions.accept("src/generated/Foo.java", InputFile.Type.TEST)).isTrue();
+  }
+
+  @Test
+  void should_exclude_test_inclusions_from_main_files() {
+    var exclusions = prepare(Map.of("sonar.test.inclusions", "**/*Test.java", "sonar.test.exclusions", "**/it/**"));
+
+    assertThat(exclusions.accept("src/FooTest.java", InputFile.Type.MAIN)).isFalse();
+    assertThat(exclusions.accept("src/FooTest.java", InputFile.Type.TEST)).isTrue();
+    assertThat(exclusions.accept("src/it/FooTest.java", InputFile.Type.TEST)).isFalse();
+    assertThat(exclusions.accept("src/Foo.java", InputFile.Type.TEST)).isFalse();
+  }
+
+  private static ServerFileExclusions prepare(Map<String, String> settings) {
+    var exclusions = new ServerFileExclusions(new MapSettings(settings).asConfig());
+    exclusions.prepare();
+    return exclusions;
+  }
+}
@@ -19,17 +19,31 @@
  */
 package org.sonarsource.sonarlint.core;
 
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mockito;
 import org.sonarsource.sonarlint.core.event.ConnectionConfigurationRemovedEvent;
 import org.sonarsource.sonarlint.core.event.ConnectionConfigurationUpdatedEvent;
 import org.sonarsource.sonarlint.core.serverapi.ServerApi;
 import org.sonarsource.sonarlint.core.serverapi.component.ServerProject;
+import org.sonarsource.sonarlint.core.serverconnection.ConnectionStorage;
+import org.sonarsource.sonarlint.core.serverconnection.StorageService;
+import org.sonarsource.sonarlint.core.serverconnection.storage.ServerProjectsStorage;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
@@ -78,11 +92,22 @@ class SonarProjectsCacheTests {
   };
   private final ServerApiProvider serverApiProvider = mock(ServerApiProvider.class);
   private final ServerApi serverApi = mock(ServerApi.class, Mockito.RETURNS_DEEP_STUBS);
-  private final SonarProjectsCache underTest = new SonarProjectsCache(serverApiProvider);
+  private final StorageService storageService = mock(StorageService.class);
+  private final ConnectionStorage connectionStorage = mock(ConnectionStorage.class);
+  private final SonarProjectsCache underTest = new SonarProjectsCache(serverApiProvider, storageService);
+  private ServerProjectsStorage serverProjectsStorage;
 
   @BeforeEach
-  public void setup() {
+  public void setup(@TempDir Path storageDir) {
     when(serverApiProvider.getServerApi(SQ_1)).thenReturn(Optional.of(serverApi));
+    serverProjectsStorage = new ServerProjectsStorage(storageDir);
+    when(storageService.connection(SQ_1)).thenReturn(connectionStorage);
+    when(connectionStorage.serverProjects()).thenReturn(serverProjectsStorage);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    underTest.shutdown();
   }
 
   @Test
@@ -218,4 +243,82 @@ class SonarProjectsCacheTests {
 
     verify(serverApi.component(), times(1)).getAllProjects(any());
   }
+
+  @Test
+  void getTextSearchIndex_should_load_stored_projects_after_restart() {
+    when(serverApi.component().getAllProjects(any()))
+      .thenReturn(List.of(PROJECT_1, PROJECT_2))
+      .thenThrow(new AssertionError("Should only be called once"));
+    underTest.getTextSearchIndex(SQ_1);
+
+    var restartedCache = new SonarProjectsCache(serverApiProvider, storageService);
+    var searchIndex = restartedCache.getTextSearchIndex(SQ_1);
+    restartedCache.shutdown();
+
+    assertThat(searchIndex.size()).isEqualTo(2);
+    assertThat(searchIndex.search(PROJECT_KEY_2).keySet()).extracting(ServerProject::getName).containsExactly(PROJECT_NAME_2);
+    verify(serverApi.component(), times(1)).getAllProjects(any());
+  }
+
+  @Test
+  void getTextSearchIndex_should_refresh_stale_projects_in_background() {
+    var now = Instant.now();
+    serverProjectsStorage.store(List.of(PROJECT_1), now.minus(SonarProjectsCache.REFRESH_INTERVAL).minus(Duration.ofMinutes(1)));
+    when(serverApi.component().getAllProjects(any())).thenReturn(List.of(PROJECT_2));
+    var cache = new SonarProjectsCache(serverApiProvider, storageService, Clock.fixed(now, ZoneOffset.UTC));
+
+    var searchIndex = cache.getTextSearchIndex(SQ_1);
+
+    await().untilAsserted(() -> {
+      assertThat(searchIndex.search(PROJECT_KEY_2).keySet()).containsExactly(PROJECT_2);
+      assertThat(serverProjectsStorage.read()).hasValueSatisfying(stored -> {
+        assertThat(stored.getProjects()).extracting(ServerProject::getKey).containsExactly(PROJECT_KEY_2);
+        assertThat(stored.getLastRefresh()).isEqualTo(now.truncatedTo(ChronoUnit.MILLIS));
+      });
+    });
+    assertThat(searchIndex.search(PROJECT_KEY_1)).isEmpty();
+    cache.shutdown();
+  }
+
+  @Test
+  void getTextSearchIndex_should_not_store_projects_refreshed_after_eviction() throws InterruptedException {
+    var now = Instant.now();
+    serverProjectsStorage.store(List.of(PROJECT_1), now.minus(SonarProjectsCache.REFRESH_INTERVAL).minus(Duration.ofMinutes(1)));
+    var refreshStarted = new CountDownLatch(1);
+    var evicted = new CountDownLatch(1);
+    when(serverApi.component().getAllProjects(any())).thenAnswer(invocation -> {
+      refreshStarted.countDown();
+      evicted.await();
+      return List.of(PROJECT_2);
+    });
+    var cache = new SonarProjectsCache(serverApiProvider, storageService, Clock.fixed(now, ZoneOffset.UTC));
+    var searchIndex = cache.getTextSearchIndex(SQ_1);
+    assertThat(refreshStarted.await(10, TimeUnit.SECONDS)).isTrue();
+
+    cache.connectionRemoved(new ConnectionConfigurationRemovedEvent(SQ_1));
+    evicted.countDown();
+    cache.shutdown();
+
+    assertThat(serverProjectsStorage.read()).isEmpty();
+    assertThat(searchIndex.search(PROJECT_KEY_2)).isEmpty();
+  }
+
+  @Test
+  void getTextSearchIndex_should_not_refresh_recent_projects() {
+    serverProjectsStorage.store(List.of(PROJECT_1), Instant.now());
+
+    var searchIndex = underTest.getTextSearchIndex(SQ_1);
+
+    assertThat(searchIndex.size()).isEqualTo(1);
+    verify(serverApi.component(), times(0)).getAllProjects(any());
+  }
+
+  @Test
+  void evict_stored_projects_if_connection_updated() {
+    serverProjectsStorage.store(List.of(PROJECT_1), Instant.now());
+
+    underTest.connectionUpdated(new ConnectionConfigurationUpdatedEvent(SQ_1));
+
+    assertThat(serverProjectsStorage.read()).isEmpty();
+  }
 }
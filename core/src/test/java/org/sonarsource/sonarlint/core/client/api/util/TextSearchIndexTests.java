@@ -136,4 +136,49 @@ class TextSearchIndexTests {
     assertThat(index.search("mod10").keySet()).containsExactly("o2", "o3");
     assertThat(index.search("mod103").keySet()).containsExactly("o3");
   }
+
+  @Test
+  void testRemove() {
+    index.index("o1", "org.sonarsource.sonarlint.intellij:sonarlint-intellij SonarLint Intellij");
+    index.index("o2", "org.codehaus.sonar-plugins:sonar-scm-jazzrtc-plugin Jazz RTC SCM Plugin");
+
+    index.remove("o1");
+    index.remove("unknown");
+
+    assertThat(index.size()).isEqualTo(1);
+    assertThat(index.search("org").keySet()).containsOnly("o2");
+    assertThat(index.search("intellij")).isEmpty();
+    assertThat(index.getTokens()).doesNotContain("sonarlint", "intellij").contains("org", "jazzrtc");
+
+    // can be indexed again once removed
+    index.index("o1", "mod1");
+    assertThat(index.search("mod").keySet()).containsOnly("o1");
+  }
+
+  @Test
+  void testReclaimRemovedObjects() {
+    index.index("o1", "project one");
+    index.index("o2", "project two");
+    index.index("o3", "project three");
+
+    for (var i = 0; i < 100; i++) {
+      index.remove("o2");
+      index.index("o2", "project two version" + i);
+    }
+
+    assertThat(index.size()).isEqualTo(3);
+    assertThat(index.termCount()).isLessThan(10);
+    assertThat(index.getTokens()).containsOnly("project", "one", "two", "three", "version99");
+    assertThat(index.search("version").keySet()).containsOnly("o2");
+    assertThat(index.search("project").keySet()).containsExactly("o1", "o3", "o2");
+  }
+
+  @Test
+  void testSameScoreSortedByIndexingOrder() {
+    index.index("o3", "mod1");
+    index.index("o1", "mod2");
+    index.index("o2", "mod3");
+
+    assertThat(index.search("mod").keySet()).containsExactly("o3", "o1", "o2");
+  }
 }
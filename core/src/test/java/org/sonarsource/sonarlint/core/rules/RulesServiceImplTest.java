@@ -21,10 +21,14 @@ package org.sonarsource.sonarlint.core.rules;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.sonarsource.sonarlint.core.clientapi.backend.rules.GetEffectiveRuleDetailsParams;
+import org.sonarsource.sonarlint.core.clientapi.backend.rules.GetStandaloneRuleDescriptionParams;
 import org.sonarsource.sonarlint.core.clientapi.backend.rules.RuleDefinitionDto;
+import org.sonarsource.sonarlint.core.repository.config.ConfigurationRepository;
 import org.sonarsource.sonarlint.core.repository.rules.RulesRepository;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -55,4 +59,32 @@ class RulesServiceImplTest {
       .extracting(RuleDefinitionDto::getKey, RuleDefinitionDto::getName)
       .containsExactly(tuple("repo:ruleKey", "ruleName"));
   }
+
+  @Test
+  void it_should_render_the_description_of_a_standalone_rule_only_once() throws Exception {
+    when(extractionHelper.extractEmbeddedRules()).thenReturn(List.of(aRule()));
+    var rulesService = new RulesServiceImpl(null, null, rulesRepository, null, null, Map.of());
+
+    var firstDescription = rulesService.getStandaloneRuleDetails(new GetStandaloneRuleDescriptionParams("repo:ruleKey")).get(1, TimeUnit.MINUTES).getDescription();
+    var secondDescription = rulesService.getStandaloneRuleDetails(new GetStandaloneRuleDescriptionParams("repo:ruleKey")).get(1, TimeUnit.MINUTES).getDescription();
+
+    assertThat(firstDescription.getLeft().getHtmlContent()).isEqualTo("Hello, world!");
+    assertThat(secondDescription).isSameAs(firstDescription);
+    assertThat(rulesService.getRuleDescriptionCacheHitCount()).isEqualTo(1);
+    assertThat(rulesService.getRuleDescriptionCacheMissCount()).isEqualTo(1);
+  }
+
+  @Test
+  void it_should_share_rendered_descriptions_between_effective_and_standalone_rule_details() throws Exception {
+    when(extractionHelper.extractEmbeddedRules()).thenReturn(List.of(aRule()));
+    var configurationRepository = mock(ConfigurationRepository.class);
+    when(configurationRepository.getEffectiveBinding("scopeId")).thenReturn(Optional.empty());
+    var rulesService = new RulesServiceImpl(null, configurationRepository, rulesRepository, null, null, Map.of());
+
+    var effectiveDetails = rulesService.getEffectiveRuleDetails(new GetEffectiveRuleDetailsParams("scopeId", "repo:ruleKey")).get(1, TimeUnit.MINUTES).details();
+    var standaloneDetails = rulesService.getStandaloneRuleDetails(new GetStandaloneRuleDescriptionParams("repo:ruleKey")).get(1, TimeUnit.MINUTES);
+
+    assertThat(effectiveDetails.getName()).isEqualTo("ruleName");
+    assertThat(standaloneDetails.getDescription()).isSameAs(effectiveDetails.getDescription());
+  }
 }
@@ -0,0 +1,196 @@
+/*
+ * SonarLint Core - Implementation
+ * Copyright (C) 2016-2023 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.sync;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProjectSyncSchedulerTests {
+
+  private MutableClock clock;
+  private ProjectSyncScheduler underTest;
+
+  @BeforeEach
+  void prepare() {
+    clock = new MutableClock(Instant.parse("2023-07-19T10:00:00Z"));
+    underTest = new ProjectSyncScheduler(clock);
+  }
+
+  @Test
+  void it_should_consider_never_synchronized_projects_as_due_and_not_probe_them() {
+    assertThat(underTest.isDue("connectionId", "projectKey", "main")).isTrue();
+    assertThat(underTest.canProbe("connectionId", "projectKey", "main")).isFalse();
+  }
+
+  @Test
+  void it_should_check_again_recently_synchronized_projects_after_the_min_interval() {
+    underTest.onSynchronized("connectionId", "projectKey", "main", true);
+
+    assertThat(underTest.isDue("connectionId", "projectKey", "main")).isFalse();
+    clock.advance(ProjectSyncScheduler.MIN_CHECK_INTERVAL);
+    assertThat(underTest.isDue("connectionId", "projectKey", "main")).isTrue();
+    assertThat(underTest.canProbe("connectionId", "projectKey", "main")).isTrue();
+  }
+
+  @Test
+  void it_should_back_off_projects_without_changes() {
+    underTest.onSynchronized("connectionId", "projectKey", "main", true);
+    clock.advance(ProjectSyncScheduler.MIN_CHECK_INTERVAL);
+
+    underTest.onProbedWithoutChange("connectionId", "projectKey", "main");
+
+    clock.advance(ProjectSyncScheduler.MIN_CHECK_INTERVAL);
+    assertThat(underTest.isDue("connectionId", "projectKey", "main")).isFalse();
+    clock.advance(ProjectSyncScheduler.MIN_CHECK_INTERVAL);
+    assertThat(underTest.isDue("connectionId", "projectKey", "main")).isTrue();
+    assertThat(underTest.getProbeCount()).isEqualTo(1);
+    assertThat(underTest.getSkippedSyncCount()).isEqualTo(1);
+    assertThat(underTest.getFullSyncCount()).isEqualTo(1);
+  }
+
+  @Test
+  void it_should_not_back_off_more_than_the_max_interval() {
+    underTest.onSynchronized("connectionId", "projectKey", "main", true);
+    for (var i = 0; i < 10; i++) {
+      underTest.onProbedWithoutChange("connectionId", "projectKey", "main");
+    }
+
+    clock.advance(ProjectSyncScheduler.MAX_CHECK_INTERVAL);
+
+    assertThat(underTest.isDue("connectionId", "projectKey", "main")).isTrue();
+  }
+
+  @Test
+  void it_should_force_a_full_synchronization_when_the_last_one_is_too_old() {
+    underTest.onSynchronized("connectionId", "projectKey", "main", true);
+
+    clock.advance(ProjectSyncScheduler.MAX_SYNC_AGE);
+
+    assertThat(underTest.isDue("connectionId", "projectKey", "main")).isTrue();
+    assertThat(underTest.canProbe("connectionId", "projectKey", "main")).isFalse();
+  }
+
+  @Test
+  void it_should_not_postpone_the_forced_full_synchronization_when_backing_off() {
+    underTest.onSynchronized("connectionId", "projectKey", "main", true);
+    for (var i = 0; i < 3; i++) {
+      underTest.onProbedWithoutChange("connectionId", "projectKey", "main");
+    }
+    clock.advance(Duration.ofMinutes(210));
+    underTest.onProbedWithoutChange("connectionId", "projectKey", "main");
+
+    clock.advance(Duration.ofMinutes(29));
+    assertThat(underTest.isDue("connectionId", "projectKey", "main")).isFalse();
+    clock.advance(Duration.ofMinutes(1));
+    assertThat(underTest.isDue("connectionId", "projectKey", "main")).isTrue();
+    assertThat(underTest.canProbe("connectionId", "projectKey", "main")).isFalse();
+  }
+
+  @Test
+  void it_should_not_probe_when_the_forced_full_synchronization_would_be_due_before_the_next_check() {
+    underTest.onSynchronized("connectionId", "projectKey", "main", true);
+    var probeCount = 0;
+    advanceUntilDue();
+    while (underTest.canProbe("connectionId", "projectKey", "main")) {
+      underTest.onProbedWithoutChange("connectionId", "projectKey", "main");
+      probeCount++;
+      advanceUntilDue();
+    }
+
+    // checks after 10, 30, 70 and 130 minutes, the check after 190 minutes is a full synchronization instead of a probe followed by another one after 240 minutes
+    assertThat(probeCount).isEqualTo(4);
+    assertThat(clock.instant()).isEqualTo(Instant.parse("2023-07-19T13:10:00Z"));
+  }
+
+  @Test
+  void it_should_synchronize_projects_that_cannot_be_probed_every_max_interval() {
+    underTest.onSynchronized("connectionId", "projectKey", "main", false);
+
+    clock.advance(ProjectSyncScheduler.MIN_CHECK_INTERVAL);
+    assertThat(underTest.isDue("connectionId", "projectKey", "main")).isFalse();
+    clock.advance(ProjectSyncScheduler.MAX_CHECK_INTERVAL.minus(ProjectSyncScheduler.MIN_CHECK_INTERVAL));
+    assertThat(underTest.isDue("connectionId", "projectKey", "main")).isTrue();
+    assertThat(underTest.canProbe("connectionId", "projectKey", "main")).isFalse();
+  }
+
+  @Test
+  void it_should_synchronize_all_branches_of_a_project_when_a_change_is_notified() {
+    underTest.onSynchronized("connectionId", "projectKey", "main", true);
+    underTest.onSynchronized("connectionId", "projectKey", "feature", true);
+    underTest.onSynchronized("connectionId", "otherProjectKey", "main", true);
+
+    underTest.onChangeNotified("projectKey");
+
+    assertThat(underTest.isDue("connectionId", "projectKey", "main")).isTrue();
+    assertThat(underTest.canProbe("connectionId", "projectKey", "main")).isFalse();
+    assertThat(underTest.isDue("connectionId", "projectKey", "feature")).isTrue();
+    assertThat(underTest.isDue("connectionId", "otherProjectKey", "main")).isFalse();
+  }
+
+  @Test
+  void it_should_forget_projects_of_removed_connections() {
+    underTest.onSynchronized("connectionId", "projectKey", "main", true);
+
+    underTest.forget("connectionId");
+
+    assertThat(underTest.isDue("connectionId", "projectKey", "main")).isTrue();
+    assertThat(underTest.canProbe("connectionId", "projectKey", "main")).isFalse();
+  }
+
+  private void advanceUntilDue() {
+    while (!underTest.isDue("connectionId", "projectKey", "main")) {
+      clock.advance(ProjectSyncScheduler.MIN_CHECK_INTERVAL);
+    }
+  }
+
+  private static class MutableClock extends Clock {
+    private Instant now;
+
+    private MutableClock(Instant now) {
+      this.now = now;
+    }
+
+    private void advance(Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * SonarLint Core - Implementation
+ * Copyright (C) 2016-2023 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.websocket;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HistoryTests {
+
+  private static final Instant NOW = Instant.parse("2023-07-19T10:00:00Z");
+
+  @Test
+  void it_should_remember_recorded_messages() {
+    var underTest = new History();
+
+    underTest.recordMessage("message");
+
+    assertThat(underTest.exists("message")).isTrue();
+    assertThat(underTest.exists("other message")).isFalse();
+    assertThat(underTest.size()).isEqualTo(1);
+    assertThat(underTest.getHitRate()).isEqualTo(0.5);
+  }
+
+  @Test
+  void it_should_not_record_the_same_message_twice() {
+    var underTest = new History();
+
+    underTest.recordMessage("message");
+    underTest.recordMessage("message");
+
+    assertThat(underTest.size()).isEqualTo(1);
+  }
+
+  @Test
+  void it_should_forget_expired_messages() {
+    var underTest = new History(Clock.fixed(NOW, ZoneOffset.UTC), History.DEFAULT_CAPACITY);
+    underTest.recordMessage("message");
+
+    underTest.forgetOlderThan(Duration.ofMinutes(-1));
+
+    assertThat(underTest.exists("message")).isFalse();
+    assertThat(underTest.size()).isZero();
+  }
+
+  @Test
+  void it_should_keep_recent_messages() {
+    var underTest = new History(Clock.fixed(NOW, ZoneOffset.UTC), History.DEFAULT_CAPACITY);
+    underTest.recordMessage("message");
+
+    underTest.forgetOlderThan(Duration.ofMinutes(1));
+
+    assertThat(underTest.exists("message")).isTrue();
+  }
+
+  @Test
+  void it_should_evict_oldest_messages_when_capacity_is_reached() {
+    var underTest = new History(Clock.fixed(NOW, ZoneOffset.UTC), 2);
+
+    underTest.recordMessage("message1");
+    underTest.recordMessage("message2");
+    underTest.recordMessage("message3");
+
+    assertThat(underTest.size()).isEqualTo(2);
+    assertThat(underTest.exists("message1")).isFalse();
+    assertThat(underTest.exists("message2")).isTrue();
+    assertThat(underTest.exists("message3")).isTrue();
+  }
+}
@@ -27,6 +27,7 @@ import java.util.Optional;
 import java.util.Set;
 import org.sonar.api.utils.System2;
 import org.sonarsource.sonarlint.core.commons.Language;
+import org.sonarsource.sonarlint.core.commons.SonarLintUserHome;
 import org.sonarsource.sonarlint.core.commons.Version;
 import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
 import org.sonarsource.sonarlint.core.plugin.commons.loading.PluginInfo;
@@ -42,39 +43,64 @@ import static java.util.stream.Collectors.toList;
  */
 public class PluginsLoader {
   private static final SonarLintLogger LOG = SonarLintLogger.get();
-  private final SonarPluginRequirementsChecker requirementsChecker = new SonarPluginRequirementsChecker();
 
   public static class Configuration {
     private final Set<Path> pluginJarLocations;
     private final Set<Language> enabledLanguages;
     private final boolean shouldCheckNodeVersion;
     private final Optional<Version> nodeCurrentVersion;
+    private final Path sonarLintUserHome;
 
+    /**
+     * The caches used to load plugins are stored in the default SonarLint user home
+     */
     public Configuration(Set<Path> pluginJarLocations, Set<Language> enabledLanguages) {
+      this(pluginJarLocations, enabledLanguages, SonarLintUserHome.get());
+    }
+
+    /**
+     * @param sonarLintUserHome where the caches used to load plugins are stored
+     */
+    public Configuration(Set<Path> pluginJarLocations, Set<Language> enabledLanguages, Path sonarLintUserHome) {
       this.pluginJarLocations = pluginJarLocations;
       this.enabledLanguages = enabledLanguages;
       this.nodeCurrentVersion = Optional.empty();
       this.shouldCheckNodeVersion = false;
+      this.sonarLintUserHome = sonarLintUserHome;
     }
 
+    /**
+     * The caches used to load plugins are stored in the default SonarLint user home
+     */
     public Configuration(Set<Path> pluginJarLocations, Set<Language> enabledLanguages, Optional<Version> nodeCurrentVersion) {
+      this(pluginJarLocations, enabledLanguages, nodeCurrentVersion, SonarLintUserHome.get());
+    }
+
+    /**
+     * @param sonarLintUserHome where the caches used to load plugins are stored
+     */
+    public Configuration(Set<Path> pluginJarLocations, Set<Language> enabledLanguages, Optional<Version> nodeCurrentVersion, Path sonarLintUserHome) {
       this.pluginJarLocations = pluginJarLocations;
       this.enabledLanguages = enabledLanguages;
       this.nodeCurrentVersion = nodeCurrentVersion;
       this.shouldCheckNodeVersion = true;
+      this.sonarLintUserHome = sonarLintUserHome;
     }
   }
 
   public PluginsLoadResult load(Configuration configuration) {
     var javaSpecVersion = Objects.requireNonNull(System2.INSTANCE.property("java.specification.version"), "Missing Java property 'java.specification.version'");
+    var requirementsChecker = new SonarPluginRequirementsChecker(configuration.sonarLintUserHome);
     var pluginCheckResultByKeys = requirementsChecker.checkRequirements(configuration.pluginJarLocations, configuration.enabledLanguages, Version.create(javaSpecVersion),
       configuration.shouldCheckNodeVersion, configuration.nodeCurrentVersion);
 
     var nonSkippedPlugins = getNonSkippedPlugins(pluginCheckResultByKeys);
     logPlugins(nonSkippedPlugins);
 
-    var instancesLoader = new PluginInstancesLoader();
+    var startTime = System.currentTimeMillis();
+    var instancesLoader = new PluginInstancesLoader(configuration.sonarLintUserHome);
     var pluginInstancesByKeys = instancesLoader.instantiatePluginClasses(nonSkippedPlugins);
+    LOG.debug("Instantiated {} plugins in {}ms", pluginInstancesByKeys.size(), System.currentTimeMillis() - startTime);
 
     return new PluginsLoadResult(new LoadedPlugins(pluginInstancesByKeys, instancesLoader), pluginCheckResultByKeys);
   }
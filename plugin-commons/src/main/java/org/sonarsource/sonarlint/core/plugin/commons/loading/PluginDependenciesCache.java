@@ -0,0 +1,258 @@
+/*
+ * SonarLint Core - Plugin Commons
+ * Copyright (C) 2016-2023 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.plugin.commons.loading;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import org.apache.commons.io.FileUtils;
+import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
+
+/**
+ * On-disk cache of the dependencies embedded in plugin JARs, so that they are extracted only once, and not each time plugins are loaded.
+ * <p>
+ * Entries are keyed by the SHA-256 of the plugin JAR. An entry is extracted in a temporary directory that is then atomically renamed,
+ * so a complete entry can be shared by several engines and processes. When several processes extract the same entry concurrently, the first
+ * rename wins and the other extractions are discarded.
+ * <p>
+ * The last modification time of an entry is updated each time it is used. Entries unused for more than {@link #MAX_UNUSED_AGE} are deleted
+ * by {@link #cleanUp()}, along with leftovers of interrupted extractions.
+ */
+public class PluginDependenciesCache {
+
+  private static final SonarLintLogger LOG = SonarLintLogger.get();
+  static final Duration MAX_UNUSED_AGE = Duration.ofDays(30);
+  private static final Duration MAX_EXTRACTION_DURATION = Duration.ofDays(1);
+  private static final String TMP_INFIX = ".tmp";
+  private static final Map<JarFileKey, String> JAR_HASHES = new ConcurrentHashMap<>();
+
+  private final Path cacheDir;
+
+  public PluginDependenciesCache(Path cacheDir) {
+    this.cacheDir = cacheDir;
+  }
+
+  /**
+   * @return the cache located in the given SonarLint user home
+   */
+  public static PluginDependenciesCache inUserHome(Path sonarLintUserHome) {
+    return new PluginDependenciesCache(sonarLintUserHome.resolve("cache").resolve("plugin-dependencies"));
+  }
+
+  Path getCacheDir() {
+    return cacheDir;
+  }
+
+  /**
+   * @return the extracted dependencies, in the same order as {@link PluginInfo#getDependencies()}
+   */
+  public List<Path> getDependencies(PluginInfo info) {
+    var startTime = System.currentTimeMillis();
+    var jarFile = info.getJarFile().toPath();
+    var entryDir = cacheDir.resolve(hash(jarFile));
+    var dependencies = resolveDependencies(entryDir, info.getDependencies());
+    if (isComplete(entryDir, info)) {
+      markAsUsed(entryDir);
+      LOG.debug("Reused cached dependencies of plugin '{}' in {}ms", info.getKey(), System.currentTimeMillis() - startTime);
+      return dependencies;
+    }
+    extract(info, entryDir);
+    LOG.debug("Extracted dependencies of plugin '{}' in {}ms", info.getKey(), System.currentTimeMillis() - startTime);
+    return dependencies;
+  }
+
+  /**
+   * Deletes the entries that were not used recently. Entries still used by other processes might fail to be deleted, they are ignored.
+   */
+  public void cleanUp() {
+    if (!Files.isDirectory(cacheDir)) {
+      return;
+    }
+    var now = Instant.now();
+    try (var entries = Files.list(cacheDir)) {
+      entries
+        .filter(entry -> {
+          var maxAge = entry.getFileName().toString().contains(TMP_INFIX) ? MAX_EXTRACTION_DURATION : MAX_UNUSED_AGE;
+          return lastModifiedTime(entry).toInstant().plus(maxAge).isBefore(now);
+        })
+        .collect(Collectors.toList())
+        .forEach(PluginDependenciesCache::deleteQuietly);
+    } catch (IOException e) {
+      LOG.debug("Unable to clean up the plugin dependencies cache", e);
+    }
+  }
+
+  private void extract(PluginInfo info, Path entryDir) {
+    Path tmpDir;
+    try {
+      Files.createDirectories(cacheDir);
+      tmpDir = Files.createTempDirectory(cacheDir, entryDir.getFileName() + TMP_INFIX);
+    } catch (IOException e) {
+      throw new IllegalStateException("Unable to create temporary directory", e);
+    }
+    try {
+      extractDependencies(info, tmpDir);
+      if (isComplete(entryDir, info)) {
+        // extracted concurrently by another engine or process
+        deleteQuietly(tmpDir);
+        return;
+      }
+      if (Files.exists(entryDir)) {
+        // incomplete entry, e.g. a dependency was deleted by hand
+        FileUtils.deleteDirectory(entryDir.toFile());
+      }
+      Files.move(tmpDir, entryDir, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      deleteQuietly(tmpDir);
+      if (!isComplete(entryDir, info)) {
+        throw new IllegalStateException("Unable to extract dependencies of plugin " + info.getKey(), e);
+      }
+    }
+  }
+
+  private static void extractDependencies(PluginInfo info, Path targetDir) throws IOException {
+    try (var fileSystem = FileSystems.newFileSystem(info.getJarFile().toPath(), (ClassLoader) null)) {
+      for (String dependency : info.getDependencies()) {
+        var targetFile = targetDir.resolve(dependency);
+        if (!targetFile.normalize().startsWith(targetDir + File.separator)) {
+          throw new IOException("Entry is outside of the target dir: " + dependency);
+        }
+        Files.createDirectories(targetFile.getParent());
+        Files.copy(fileSystem.getPath(dependency), targetFile);
+      }
+    }
+  }
+
+  private static boolean isComplete(Path entryDir, PluginInfo info) {
+    return resolveDependencies(entryDir, info.getDependencies()).stream().allMatch(Files::isRegularFile);
+  }
+
+  private static List<Path> resolveDependencies(Path entryDir, List<String> dependencies) {
+    List<Path> resolved = new ArrayList<>(dependencies.size());
+    for (String dependency : dependencies) {
+      resolved.add(entryDir.resolve(dependency));
+    }
+    return resolved;
+  }
+
+  private static void markAsUsed(Path entryDir) {
+    try {
+      Files.setLastModifiedTime(entryDir, FileTime.from(Instant.now()));
+    } catch (IOException e) {
+      // only used for the clean up
+    }
+  }
+
+  /**
+   * The hash of a JAR is computed only once per process, unless the JAR is modified.
+   */
+  static String hash(Path jarFile) {
+    try {
+      var key = new JarFileKey(jarFile.toAbsolutePath(), Files.size(jarFile), Files.getLastModifiedTime(jarFile));
+      var hash = JAR_HASHES.get(key);
+      if (hash == null) {
+        hash = computeHash(jarFile);
+        JAR_HASHES.put(key, hash);
+      }
+      return hash;
+    } catch (IOException e) {
+      throw new IllegalStateException("Unable to compute the hash of " + jarFile, e);
+    }
+  }
+
+  private static String computeHash(Path file) throws IOException {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 algorithm is not available", e);
+    }
+    try (var stream = new DigestInputStream(Files.newInputStream(file), digest)) {
+      stream.transferTo(OutputStream.nullOutputStream());
+    }
+    var hex = new StringBuilder();
+    for (byte b : digest.digest()) {
+      hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+    }
+    return hex.toString();
+  }
+
+  private static FileTime lastModifiedTime(Path path) {
+    try {
+      return Files.getLastModifiedTime(path);
+    } catch (IOException e) {
+      return FileTime.from(Instant.now());
+    }
+  }
+
+  private static void deleteQuietly(Path path) {
+    try {
+      FileUtils.forceDelete(path.toFile());
+    } catch (IOException e) {
+      // might be in use by another process, it will be deleted later
+    }
+  }
+
+  private static class JarFileKey {
+    private final Path path;
+    private final long size;
+    private final FileTime lastModified;
+
+    private JarFileKey(Path path, long size, FileTime lastModified) {
+      this.path = path;
+      this.size = size;
+      this.lastModified = lastModified;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof JarFileKey)) {
+        return false;
+      }
+      var that = (JarFileKey) o;
+      return size == that.size && path.equals(that.path) && lastModified.equals(that.lastModified);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(path, size, lastModified);
+    }
+  }
+
+}
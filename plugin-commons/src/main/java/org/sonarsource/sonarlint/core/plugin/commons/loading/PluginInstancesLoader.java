@@ -30,6 +30,8 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import javax.annotation.CheckForNull;
 import org.apache.commons.io.FileUtils;
@@ -57,21 +59,31 @@ public class PluginInstancesLoader {
 
   private static final String[] DEFAULT_SHARED_RESOURCES = {"org/sonar/plugins", "com/sonar/plugins", "com/sonarsource/plugins"};
 
+  /**
+   * Several engines can share the same cache, it is cleaned up once per process
+   */
+  private static final Set<Path> CLEANED_UP_DEPENDENCIES_CACHE_DIRS = ConcurrentHashMap.newKeySet();
+
   private final PluginClassloaderFactory classloaderFactory;
+  private final PluginDependenciesCache dependenciesCache;
   private final ClassLoader baseClassLoader;
   private final Collection<ClassLoader> classloadersToClose = new ArrayList<>();
   private final List<Path> filesToDelete = new ArrayList<>();
 
-  public PluginInstancesLoader() {
-    this(new PluginClassloaderFactory());
+  public PluginInstancesLoader(Path sonarLintUserHome) {
+    this(new PluginClassloaderFactory(), PluginDependenciesCache.inUserHome(sonarLintUserHome));
   }
 
-  PluginInstancesLoader(PluginClassloaderFactory classloaderFactory) {
+  PluginInstancesLoader(PluginClassloaderFactory classloaderFactory, PluginDependenciesCache dependenciesCache) {
     this.classloaderFactory = classloaderFactory;
+    this.dependenciesCache = dependenciesCache;
     this.baseClassLoader = getClass().getClassLoader();
   }
 
   public Map<String, Plugin> instantiatePluginClasses(Collection<PluginInfo> plugins) {
+    if (CLEANED_UP_DEPENDENCIES_CACHE_DIRS.add(dependenciesCache.getCacheDir())) {
+      dependenciesCache.cleanUp();
+    }
     var defs = defineClassloaders(plugins.stream().collect(Collectors.toMap(PluginInfo::getKey, p -> p)));
     var classloaders = classloaderFactory.create(baseClassLoader, defs);
     this.classloadersToClose.addAll(classloaders.values());
@@ -94,12 +106,7 @@ public class PluginInstancesLoader {
       def.addFiles(List.of(info.getJarFile()));
       if (!info.getDependencies().isEmpty()) {
         LOG.warn("Plugin '{}' embeds dependencies. This will be deprecated soon. Plugin should be updated.", info.getKey());
-        var tmpFolderForDeps = createTmpFolderForPluginDeps(info);
-        for (String dependency : info.getDependencies()) {
-          var tmpDepFile = extractDependencyInTempFolder(info, dependency, tmpFolderForDeps);
-          def.addFiles(List.of(tmpDepFile.toFile()));
-          filesToDelete.add(tmpDepFile);
-        }
+        def.addFiles(getDependencies(info));
       }
       def.addMainClass(info.getKey(), info.getMainClass());
 
@@ -110,6 +117,22 @@ public class PluginInstancesLoader {
     return classloadersByBasePlugin.values();
   }
 
+  private List<File> getDependencies(PluginInfo info) {
+    try {
+      return dependenciesCache.getDependencies(info).stream().map(Path::toFile).collect(Collectors.toList());
+    } catch (IllegalStateException e) {
+      LOG.debug("Unable to use the plugin dependencies cache, extracting to a temporary folder", e);
+    }
+    List<File> dependencies = new ArrayList<>();
+    var tmpFolderForDeps = createTmpFolderForPluginDeps(info);
+    for (String dependency : info.getDependencies()) {
+      var tmpDepFile = extractDependencyInTempFolder(info, dependency, tmpFolderForDeps);
+      dependencies.add(tmpDepFile.toFile());
+      filesToDelete.add(tmpDepFile);
+    }
+    return dependencies;
+  }
+
   private static Path createTmpFolderForPluginDeps(PluginInfo info) {
     try {
       var prefix = "sonarlint_" + info.getKey();
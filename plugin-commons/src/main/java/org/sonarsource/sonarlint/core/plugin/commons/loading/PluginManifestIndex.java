@@ -0,0 +1,189 @@
+/*
+ * SonarLint Core - Plugin Commons
+ * Copyright (C) 2016-2023 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.plugin.commons.loading;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import javax.annotation.Nullable;
+import org.sonarsource.sonarlint.core.commons.io.AtomicFiles;
+import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Persistent index of the manifests of plugin JARs, so that unchanged JARs don't have to be opened at each plugin loading.
+ * Entries are keyed by the JAR path, size and last modification date. Only the attributes used by {@link SonarPluginManifest} are stored.
+ * <p>
+ * The index is safe to use from several threads. The index file is written atomically, so it can be shared between processes, the last
+ * writer wins.
+ */
+class PluginManifestIndex {
+
+  private static final SonarLintLogger LOG = SonarLintLogger.get();
+  private static final String[] INDEXED_ATTRIBUTES = {SonarPluginManifest.KEY_ATTRIBUTE, SonarPluginManifest.MAIN_CLASS_ATTRIBUTE,
+    SonarPluginManifest.NAME_ATTRIBUTE, SonarPluginManifest.VERSION_ATTRIBUTE, SonarPluginManifest.SONAR_VERSION_ATTRIBUTE,
+    SonarPluginManifest.DEPENDENCIES_ATTRIBUTE, SonarPluginManifest.REQUIRE_PLUGINS_ATTRIBUTE, SonarPluginManifest.BASE_PLUGIN,
+    SonarPluginManifest.JRE_MIN_VERSION, SonarPluginManifest.NODEJS_MIN_VERSION};
+  private static final char KEY_SEPARATOR = '|';
+
+  @Nullable
+  private final Path indexFile;
+  private final Properties manifestsByJarKey = new Properties();
+  private boolean loaded;
+  private final AtomicBoolean modified = new AtomicBoolean();
+  private final AtomicInteger hitCount = new AtomicInteger();
+  private final AtomicInteger missCount = new AtomicInteger();
+
+  /**
+   * @param indexFile where the index is persisted, or null to keep it only in memory
+   */
+  PluginManifestIndex(@Nullable Path indexFile) {
+    this.indexFile = indexFile;
+  }
+
+  /**
+   * @return the index persisted in the given SonarLint user home
+   */
+  static PluginManifestIndex inUserHome(Path sonarLintUserHome) {
+    return new PluginManifestIndex(sonarLintUserHome.resolve("cache").resolve("plugin-manifests.properties"));
+  }
+
+  SonarPluginManifest get(Path jarPath) {
+    load();
+    try {
+      var jarKey = jarKey(jarPath);
+      var indexedManifest = manifestsByJarKey.getProperty(jarKey);
+      if (indexedManifest != null) {
+        hitCount.incrementAndGet();
+        return new SonarPluginManifest(new Manifest(new ByteArrayInputStream(indexedManifest.getBytes(UTF_8))));
+      }
+      missCount.incrementAndGet();
+      var manifest = readIndexedAttributes(jarPath);
+      removeOtherVersions(jarPath);
+      manifestsByJarKey.setProperty(jarKey, serialize(manifest));
+      modified.set(true);
+      return new SonarPluginManifest(manifest);
+    } catch (IOException e) {
+      throw new IllegalStateException("Error while reading plugin manifest from jar: " + jarPath.toAbsolutePath(), e);
+    }
+  }
+
+  int hitCount() {
+    return hitCount.get();
+  }
+
+  int missCount() {
+    return missCount.get();
+  }
+
+  /**
+   * Writes the index if new manifests were read since it was loaded.
+   */
+  void save() {
+    if (indexFile == null || !modified.compareAndSet(true, false)) {
+      return;
+    }
+    // forget the JARs that were deleted
+    manifestsByJarKey.keySet().removeIf(key -> !isExistingJar((String) key));
+    try {
+      Files.createDirectories(indexFile.getParent());
+      var tmpFile = Files.createTempFile(indexFile.getParent(), indexFile.getFileName().toString(), ".tmp");
+      try (var out = Files.newOutputStream(tmpFile)) {
+        manifestsByJarKey.store(out, "Manifests of plugin JARs");
+      }
+      AtomicFiles.move(tmpFile, indexFile);
+    } catch (IOException e) {
+      LOG.debug("Unable to save the plugin manifest index", e);
+    }
+  }
+
+  private synchronized void load() {
+    if (indexFile == null || loaded) {
+      return;
+    }
+    loaded = true;
+    try (var in = Files.newInputStream(indexFile)) {
+      var persisted = new Properties();
+      persisted.load(in);
+      persisted.forEach(manifestsByJarKey::putIfAbsent);
+    } catch (NoSuchFileException e) {
+      // first use
+    } catch (IOException | IllegalArgumentException e) {
+      LOG.debug("Unable to load the plugin manifest index, it will be rebuilt", e);
+    }
+  }
+
+  private void removeOtherVersions(Path jarPath) {
+    var prefix = jarPath.toAbsolutePath().toString() + KEY_SEPARATOR;
+    manifestsByJarKey.keySet().removeIf(key -> ((String) key).startsWith(prefix));
+  }
+
+  private static boolean isExistingJar(String jarKey) {
+    var separatorIndex = jarKey.indexOf(KEY_SEPARATOR);
+    try {
+      return separatorIndex > 0 && Files.exists(Paths.get(jarKey.substring(0, separatorIndex)));
+    } catch (InvalidPathException e) {
+      return false;
+    }
+  }
+
+  private static String jarKey(Path jarPath) throws IOException {
+    return jarPath.toAbsolutePath().toString() + KEY_SEPARATOR + Files.size(jarPath) + KEY_SEPARATOR + Files.getLastModifiedTime(jarPath).toMillis();
+  }
+
+  private static Manifest readIndexedAttributes(Path jarPath) throws IOException {
+    try (var jar = new JarFile(jarPath.toFile())) {
+      var manifest = jar.getManifest();
+      if (manifest == null) {
+        throw new IOException("No manifest in jar: " + jarPath.toAbsolutePath());
+      }
+      var indexed = new Manifest();
+      // attributes are not written without a version
+      indexed.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+      var attributes = manifest.getMainAttributes();
+      for (String attribute : INDEXED_ATTRIBUTES) {
+        var value = attributes.getValue(attribute);
+        if (value != null) {
+          indexed.getMainAttributes().put(new Attributes.Name(attribute), value);
+        }
+      }
+      return indexed;
+    }
+  }
+
+  private static String serialize(Manifest manifest) throws IOException {
+    var out = new ByteArrayOutputStream();
+    manifest.write(out);
+    return out.toString(UTF_8);
+  }
+
+}
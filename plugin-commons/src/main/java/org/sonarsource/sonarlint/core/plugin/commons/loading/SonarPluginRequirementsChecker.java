@@ -20,10 +20,15 @@
 package org.sonarsource.sonarlint.core.plugin.commons.loading;
 
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import org.sonarsource.sonarlint.core.commons.Language;
 import org.sonarsource.sonarlint.core.commons.PluginsMinVersions;
@@ -40,16 +45,27 @@ public class SonarPluginRequirementsChecker {
 
   private static final SonarLintLogger LOG = SonarLintLogger.get();
 
+  private static final int MAX_MANIFEST_READING_THREADS = 4;
+
   private final PluginsMinVersions pluginMinVersions;
   private final Version implementedPluginApiVersion;
+  private final PluginManifestIndex manifestIndex;
 
-  public SonarPluginRequirementsChecker() {
-    this(new PluginsMinVersions(), ApiVersions.loadSonarPluginApiVersion());
+  /**
+   * @param sonarLintUserHome where the index of the plugin manifests is persisted
+   */
+  public SonarPluginRequirementsChecker(Path sonarLintUserHome) {
+    this(new PluginsMinVersions(), ApiVersions.loadSonarPluginApiVersion(), PluginManifestIndex.inUserHome(sonarLintUserHome));
   }
 
   SonarPluginRequirementsChecker(PluginsMinVersions pluginMinVersions, org.sonar.api.utils.Version pluginApiVersion) {
+    this(pluginMinVersions, pluginApiVersion, new PluginManifestIndex(null));
+  }
+
+  SonarPluginRequirementsChecker(PluginsMinVersions pluginMinVersions, org.sonar.api.utils.Version pluginApiVersion, PluginManifestIndex manifestIndex) {
     this.pluginMinVersions = pluginMinVersions;
     this.implementedPluginApiVersion = Version.create(pluginApiVersion.toString());
+    this.manifestIndex = manifestIndex;
   }
 
   /**
@@ -59,11 +75,16 @@ public class SonarPluginRequirementsChecker {
     boolean shouldCheckNodeVersion, Optional<Version> nodeCurrentVersion) {
     Map<String, PluginRequirementsCheckResult> resultsByKey = new HashMap<>();
 
-    for (Path jarLocation : pluginJarLocations) {
+    var startTime = System.currentTimeMillis();
+    var jarLocations = List.copyOf(pluginJarLocations);
+    var pluginInfos = readPluginInfos(jarLocations);
+    var manifestsReadTime = System.currentTimeMillis();
+    for (var i = 0; i < jarLocations.size(); i++) {
+      var jarLocation = jarLocations.get(i);
       PluginInfo plugin;
 
       try {
-        plugin = PluginInfo.create(jarLocation);
+        plugin = await(pluginInfos.get(i));
       } catch (Exception e) {
         LOG.error("Unable to load plugin " + jarLocation, e);
         continue;
@@ -80,9 +101,51 @@ public class SonarPluginRequirementsChecker {
         resultsByKey.put(result.getPlugin().getKey(), checkUnsatisfiedPluginDependency(result, resultsByKey));
       }
     }
+    LOG.debug("Checked requirements of {} plugins in {}ms (reading manifests: {}ms, {} from index, {} from JARs; checks: {}ms)", jarLocations.size(),
+      System.currentTimeMillis() - startTime, manifestsReadTime - startTime, manifestIndex.hitCount(), manifestIndex.missCount(),
+      System.currentTimeMillis() - manifestsReadTime);
     return resultsByKey;
   }
 
+  /**
+   * Manifests that are not in the index are read in parallel, as opening JARs is slow.
+   */
+  private List<Future<PluginInfo>> readPluginInfos(List<Path> jarLocations) {
+    List<Future<PluginInfo>> pluginInfos = new ArrayList<>(jarLocations.size());
+    if (jarLocations.isEmpty()) {
+      return pluginInfos;
+    }
+    var executor = Executors.newFixedThreadPool(Math.min(jarLocations.size(), MAX_MANIFEST_READING_THREADS), r -> new Thread(r, "sonarlint-plugin-manifests"));
+    try {
+      for (Path jarLocation : jarLocations) {
+        pluginInfos.add(executor.submit(() -> PluginInfo.create(jarLocation, manifestIndex.get(jarLocation))));
+      }
+      for (Future<PluginInfo> pluginInfo : pluginInfos) {
+        try {
+          await(pluginInfo);
+        } catch (Exception e) {
+          // reported when checking the plugin
+        }
+      }
+    } finally {
+      executor.shutdown();
+    }
+    manifestIndex.save();
+    return pluginInfos;
+  }
+
+  private static PluginInfo await(Future<PluginInfo> pluginInfo) throws Exception {
+    try {
+      return pluginInfo.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw e;
+    } catch (ExecutionException e) {
+      var cause = e.getCause();
+      throw cause instanceof Exception ? (Exception) cause : e;
+    }
+  }
+
   private PluginRequirementsCheckResult checkIfSkippedAndPopulateReason(PluginInfo plugin, Set<Language> enabledLanguages, Version jreCurrentVersion,
     boolean shouldCheckNodeVersion, Optional<Version> nodeCurrentVersion) {
     var pluginKey = plugin.getKey();
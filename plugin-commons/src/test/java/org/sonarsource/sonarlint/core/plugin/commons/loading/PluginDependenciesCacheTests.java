@@ -0,0 +1,173 @@
+/*
+ * SonarLint Core - Plugin Commons
+ * Copyright (C) 2016-2023 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.plugin.commons.loading;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PluginDependenciesCacheTests {
+
+  private static final List<String> DEPENDENCIES = List.of("META-INF/lib/commons-cli-1.0.jar", "META-INF/lib/checkstyle-5.1.jar", "META-INF/lib/antlr-2.7.6.jar");
+
+  @TempDir
+  private Path cacheDir;
+
+  @Test
+  void should_extract_dependencies_once() throws IOException {
+    var underTest = new PluginDependenciesCache(cacheDir);
+    var info = checkstylePlugin(getFile("sonar-checkstyle-plugin-2.8.jar"));
+
+    var dependencies = underTest.getDependencies(info);
+    var yesterday = FileTime.from(Instant.now().minus(Duration.ofDays(1)).truncatedTo(ChronoUnit.SECONDS));
+    Files.setLastModifiedTime(dependencies.get(0), yesterday);
+    var reused = underTest.getDependencies(info);
+
+    assertThat(dependencies).hasSize(3).allMatch(Files::isRegularFile).allMatch(d -> d.startsWith(cacheDir));
+    assertThat(dependencies.get(0)).hasFileName("commons-cli-1.0.jar");
+    assertThat(reused).isEqualTo(dependencies);
+    assertThat(Files.getLastModifiedTime(reused.get(0))).isEqualTo(yesterday);
+    assertThat(cacheDir).isDirectoryContaining(p -> p.getFileName().toString().equals(PluginDependenciesCache.hash(info.getJarFile().toPath())));
+  }
+
+  @Test
+  void should_store_dependencies_in_the_given_user_home(@TempDir Path userHome) {
+    var underTest = PluginDependenciesCache.inUserHome(userHome);
+
+    var dependencies = underTest.getDependencies(checkstylePlugin(getFile("sonar-checkstyle-plugin-2.8.jar")));
+
+    assertThat(dependencies).isNotEmpty().allMatch(d -> d.startsWith(userHome.resolve("cache").resolve("plugin-dependencies")));
+  }
+
+  @Test
+  void should_key_entries_by_jar_content(@TempDir Path pluginsDir) throws IOException {
+    var underTest = new PluginDependenciesCache(cacheDir);
+    var jar = getFile("sonar-checkstyle-plugin-2.8.jar");
+    var copy = pluginsDir.resolve("copy.jar").toFile();
+    FileUtils.copyFile(jar, copy);
+
+    var dependencies = underTest.getDependencies(checkstylePlugin(jar));
+    var copyDependencies = underTest.getDependencies(checkstylePlugin(copy));
+
+    assertThat(copyDependencies).isEqualTo(dependencies);
+  }
+
+  @Test
+  void should_extract_again_incomplete_entries() throws IOException {
+    var underTest = new PluginDependenciesCache(cacheDir);
+    var info = checkstylePlugin(getFile("sonar-checkstyle-plugin-2.8.jar"));
+    var dependencies = underTest.getDependencies(info);
+    Files.delete(dependencies.get(1));
+
+    var extractedAgain = underTest.getDependencies(info);
+
+    assertThat(extractedAgain).isEqualTo(dependencies).allMatch(Files::isRegularFile);
+  }
+
+  @Test
+  void should_share_entries_between_concurrent_users() throws Exception {
+    var info = checkstylePlugin(getFile("sonar-checkstyle-plugin-2.8.jar"));
+    var executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<List<Path>>> results = new ArrayList<>();
+      for (var i = 0; i < 16; i++) {
+        Callable<List<Path>> task = () -> new PluginDependenciesCache(cacheDir).getDependencies(info);
+        results.add(executor.submit(task));
+      }
+      for (var result : results) {
+        assertThat(result.get()).hasSize(3).allMatch(Files::isRegularFile);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    try (var entries = Files.list(cacheDir)) {
+      assertThat(entries).hasSize(1);
+    }
+  }
+
+  @Test
+  void should_reject_dependencies_outside_of_the_entry() {
+    var underTest = new PluginDependenciesCache(cacheDir);
+    var info = new PluginInfo("checkstyle")
+      .setJarFile(getFile("sonar-checkstyle-plugin-2.8.jar"))
+      .setDependencies(List.of("../../outside.jar"));
+
+    assertThatThrownBy(() -> underTest.getDependencies(info))
+      .isInstanceOf(IllegalStateException.class)
+      .hasMessage("Unable to extract dependencies of plugin checkstyle");
+    try (var entries = Files.list(cacheDir)) {
+      assertThat(entries).isEmpty();
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @Test
+  void should_clean_up_unused_entries_and_abandoned_extractions() throws IOException {
+    var underTest = new PluginDependenciesCache(cacheDir);
+    var usedEntry = underTest.getDependencies(checkstylePlugin(getFile("sonar-checkstyle-plugin-2.8.jar"))).get(0).getParent().getParent().getParent();
+    var unusedEntry = Files.createDirectories(cacheDir.resolve("0123456789abcdef"));
+    Files.setLastModifiedTime(unusedEntry, FileTime.from(Instant.now().minus(PluginDependenciesCache.MAX_UNUSED_AGE).minus(Duration.ofDays(1))));
+    var abandonedExtraction = Files.createDirectories(cacheDir.resolve("0123456789abcdef.tmp42"));
+    Files.setLastModifiedTime(abandonedExtraction, FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+    var ongoingExtraction = Files.createDirectories(cacheDir.resolve("0123456789abcdef.tmp43"));
+
+    underTest.cleanUp();
+
+    assertThat(usedEntry).isDirectory();
+    assertThat(ongoingExtraction).isDirectory();
+    assertThat(unusedEntry).doesNotExist();
+    assertThat(abandonedExtraction).doesNotExist();
+  }
+
+  @Test
+  void should_ignore_clean_up_when_cache_does_not_exist() {
+    new PluginDependenciesCache(cacheDir.resolve("missing")).cleanUp();
+
+    assertThat(cacheDir.resolve("missing")).doesNotExist();
+  }
+
+  private static PluginInfo checkstylePlugin(File jarFile) {
+    return new PluginInfo("checkstyle")
+      .setJarFile(jarFile)
+      .setMainClass("org.foo.FooPlugin")
+      .setDependencies(DEPENDENCIES);
+  }
+
+  private File getFile(String filename) {
+    return FileUtils.toFile(getClass().getResource("/" + filename));
+  }
+}
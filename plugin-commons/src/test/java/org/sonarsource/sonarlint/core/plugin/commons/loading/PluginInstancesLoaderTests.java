@@ -28,6 +28,7 @@ import java.util.Map;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.FileUtils;
 import org.assertj.core.data.MapEntry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 import org.junit.jupiter.api.io.TempDir;
@@ -46,8 +47,16 @@ class PluginInstancesLoaderTests {
   @RegisterExtension
   SonarLintLogTester logTester = new SonarLintLogTester();
 
+  @TempDir
+  Path cacheDir;
+
   PluginClassloaderFactory classloaderFactory = mock(PluginClassloaderFactory.class);
-  PluginInstancesLoader loader = new PluginInstancesLoader(classloaderFactory);
+  PluginInstancesLoader loader;
+
+  @BeforeEach
+  void prepare() {
+    loader = new PluginInstancesLoader(classloaderFactory, new PluginDependenciesCache(cacheDir));
+  }
 
   @Test
   void instantiate_plugin_entry_point() {
@@ -113,6 +122,22 @@ class PluginInstancesLoaderTests {
       tuple("commons-cli-1.0.jar", "d784fa8b6d98d27699781bd9a7cf19f0"),
       tuple("checkstyle-5.1.jar", "d784fa8b6d98d27699781bd9a7cf19f0"),
       tuple("antlr-2.7.6.jar", "d784fa8b6d98d27699781bd9a7cf19f0"));
+    assertThat(def.getFiles()).filteredOn(f -> !f.equals(jarFile)).allMatch(f -> f.toPath().startsWith(cacheDir));
+  }
+
+  @Test
+  void should_reuse_extracted_dependencies_after_unload() {
+    var info = new PluginInfo("checkstyle")
+      .setJarFile(getFile("sonar-checkstyle-plugin-2.8.jar"))
+      .setMainClass("org.foo.FooPlugin")
+      .setDependencies(List.of("META-INF/lib/commons-cli-1.0.jar"));
+    var firstFiles = loader.defineClassloaders(Map.of("checkstyle", info)).iterator().next().getFiles();
+
+    loader.unload();
+    var otherLoader = new PluginInstancesLoader(classloaderFactory, new PluginDependenciesCache(cacheDir));
+    var secondFiles = otherLoader.defineClassloaders(Map.of("checkstyle", info)).iterator().next().getFiles();
+
+    assertThat(secondFiles).isEqualTo(firstFiles).allMatch(File::isFile);
   }
 
   /**
@@ -0,0 +1,171 @@
+/*
+ * SonarLint Core - Plugin Commons
+ * Copyright (C) 2016-2023 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.plugin.commons.loading;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Properties;
+import java.util.jar.Attributes;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PluginManifestIndexTests {
+
+  @TempDir
+  private Path tempDir;
+
+  @Test
+  void should_not_open_unchanged_jars_again() throws IOException {
+    var jar = createPluginJar("java.jar", "java", "1.0");
+    var indexFile = tempDir.resolve("cache/index.properties");
+    var firstIndex = new PluginManifestIndex(indexFile);
+    firstIndex.get(jar);
+    firstIndex.save();
+
+    var secondIndex = new PluginManifestIndex(indexFile);
+    var manifest = secondIndex.get(jar);
+
+    assertThat(manifest.getKey()).isEqualTo("java");
+    assertThat(manifest.getVersion()).isEqualTo("1.0");
+    assertThat(manifest.getMainClass()).isEqualTo("org.foo.JavaPlugin");
+    assertThat(manifest.getDependencies()).containsExactly("META-INF/lib/a.jar", "META-INF/lib/b.jar");
+    assertThat(manifest.getSonarMinVersion()).hasValueSatisfying(v -> assertThat(v).hasToString("9.9"));
+    assertThat(firstIndex.missCount()).isEqualTo(1);
+    assertThat(secondIndex.hitCount()).isEqualTo(1);
+    assertThat(secondIndex.missCount()).isZero();
+  }
+
+  @Test
+  void should_read_modified_jars_again() throws IOException {
+    var jar = createPluginJar("java.jar", "java", "1.0");
+    var indexFile = tempDir.resolve("index.properties");
+    var firstIndex = new PluginManifestIndex(indexFile);
+    firstIndex.get(jar);
+    firstIndex.save();
+
+    createPluginJar("java.jar", "java", "2.0");
+    Files.setLastModifiedTime(jar, FileTime.from(Instant.now().plusSeconds(10)));
+    var secondIndex = new PluginManifestIndex(indexFile);
+
+    assertThat(secondIndex.get(jar).getVersion()).isEqualTo("2.0");
+    assertThat(secondIndex.missCount()).isEqualTo(1);
+    secondIndex.save();
+    assertThat(loadIndex(indexFile)).hasSize(1);
+  }
+
+  @Test
+  void should_forget_deleted_jars() throws IOException {
+    var deletedJar = createPluginJar("deleted.jar", "deleted", "1.0");
+    var jar = createPluginJar("java.jar", "java", "1.0");
+    var indexFile = tempDir.resolve("index.properties");
+    var index = new PluginManifestIndex(indexFile);
+    index.get(deletedJar);
+    index.save();
+
+    Files.delete(deletedJar);
+    index.get(jar);
+    index.save();
+
+    assertThat(loadIndex(indexFile).stringPropertyNames()).hasSize(1).allMatch(key -> key.startsWith(jar.toAbsolutePath().toString()));
+  }
+
+  @Test
+  void should_memoize_manifests_when_not_persisted() throws IOException {
+    var jar = createPluginJar("java.jar", "java", "1.0");
+    var index = new PluginManifestIndex(null);
+
+    index.get(jar);
+    index.get(jar);
+    index.save();
+
+    assertThat(index.missCount()).isEqualTo(1);
+    assertThat(index.hitCount()).isEqualTo(1);
+    try (var files = Files.list(tempDir)) {
+      assertThat(files).containsOnly(jar);
+    }
+  }
+
+  @Test
+  void should_rebuild_corrupted_index() throws IOException {
+    var jar = createPluginJar("java.jar", "java", "1.0");
+    var indexFile = tempDir.resolve("index.properties");
+    Files.writeString(indexFile, "corrupted\\u12");
+
+    var manifest = new PluginManifestIndex(indexFile).get(jar);
+
+    assertThat(manifest.getKey()).isEqualTo("java");
+  }
+
+  @Test
+  void should_persist_the_index_in_the_given_user_home() throws IOException {
+    var jar = createPluginJar("java.jar", "java", "1.0");
+    var userHome = tempDir.resolve("userHome");
+    var index = PluginManifestIndex.inUserHome(userHome);
+    index.get(jar);
+
+    index.save();
+
+    assertThat(userHome.resolve("cache").resolve("plugin-manifests.properties")).isRegularFile();
+  }
+
+  @Test
+  void should_fail_on_missing_jar() {
+    var index = new PluginManifestIndex(tempDir.resolve("index.properties"));
+    var missingJar = tempDir.resolve("missing.jar");
+
+    assertThatThrownBy(() -> index.get(missingJar))
+      .isInstanceOf(IllegalStateException.class)
+      .hasMessage("Error while reading plugin manifest from jar: " + missingJar.toAbsolutePath());
+  }
+
+  private Path createPluginJar(String fileName, String key, String version) throws IOException {
+    var manifest = new Manifest();
+    var attributes = manifest.getMainAttributes();
+    attributes.put(Attributes.Name.MANIFEST_VERSION, "1.0");
+    attributes.putValue(SonarPluginManifest.KEY_ATTRIBUTE, key);
+    attributes.putValue(SonarPluginManifest.VERSION_ATTRIBUTE, version);
+    attributes.putValue(SonarPluginManifest.MAIN_CLASS_ATTRIBUTE, "org.foo.JavaPlugin");
+    attributes.putValue(SonarPluginManifest.SONAR_VERSION_ATTRIBUTE, "9.9");
+    attributes.putValue(SonarPluginManifest.DEPENDENCIES_ATTRIBUTE, "META-INF/lib/a.jar META-INF/lib/b.jar");
+    attributes.putValue("Unused-Attribute", "value");
+    var jar = tempDir.resolve(fileName);
+    try (var out = new JarOutputStream(Files.newOutputStream(jar), manifest)) {
+      out.closeEntry();
+    }
+    return jar;
+  }
+
+  private static Properties loadIndex(Path indexFile) throws IOException {
+    var properties = new Properties();
+    try (var in = Files.newInputStream(indexFile)) {
+      properties.load(in);
+    }
+    return properties;
+  }
+
+}
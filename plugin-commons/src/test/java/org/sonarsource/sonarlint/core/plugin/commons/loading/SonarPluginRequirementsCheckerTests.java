@@ -466,7 +466,8 @@ class SonarPluginRequirementsCheckerTests {
   private Stream<String> logsWithoutStartStop() {
     return logTester.logs().stream()
       .filter(s -> !s.equals("Load plugins"))
-      .filter(s -> !s.matches("Load plugins \\(done\\) \\| time=(.*)ms"));
+      .filter(s -> !s.matches("Load plugins \\(done\\) \\| time=(.*)ms"))
+      .filter(s -> !s.startsWith("Checked requirements of "));
   }
 
 }
@@ -25,6 +25,7 @@ import org.sonarsource.sonarlint.core.serverapi.ServerApiHelper;
 import org.sonarsource.sonarlint.core.serverapi.UrlUtils;
 import org.sonarsource.sonarlint.core.serverapi.proto.sonarqube.ws.Common.BranchType;
 import org.sonarsource.sonarlint.core.serverapi.proto.sonarqube.ws.ProjectBranches;
+import org.sonarsource.sonarlint.core.serverapi.util.ServerApiUtils;
 
 import static java.util.stream.Collectors.toList;
 
@@ -48,7 +49,9 @@ public class ProjectBranchesApi {
     }
     return response.getBranchesList().stream()
       .filter(b -> b.getType() == BranchType.BRANCH || b.getType() == BranchType.LONG)
-      .map(branchWs -> new ServerBranch(branchWs.getName(), branchWs.getIsMain())).collect(toList());
+      .map(branchWs -> new ServerBranch(branchWs.getName(), branchWs.getIsMain(),
+        branchWs.hasAnalysisDate() ? ServerApiUtils.parseOffsetDateTime(branchWs.getAnalysisDate()).toInstant() : null))
+      .collect(toList());
   }
 
 }
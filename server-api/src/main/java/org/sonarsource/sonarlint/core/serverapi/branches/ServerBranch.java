@@ -19,14 +19,25 @@
  */
 package org.sonarsource.sonarlint.core.serverapi.branches;
 
+import java.time.Instant;
+import java.util.Optional;
+import javax.annotation.Nullable;
+
 public class ServerBranch {
 
   private final String name;
   private final boolean isMain;
+  @Nullable
+  private final Instant analysisDate;
 
   public ServerBranch(String name, boolean isMain) {
+    this(name, isMain, null);
+  }
+
+  public ServerBranch(String name, boolean isMain, @Nullable Instant analysisDate) {
     this.name = name;
     this.isMain = isMain;
+    this.analysisDate = analysisDate;
   }
 
   public String getName() {
@@ -37,4 +48,11 @@ public class ServerBranch {
     return isMain;
   }
 
+  /**
+   * @return the date of the last analysis of this branch, empty if never analyzed or if not provided by the server
+   */
+  public Optional<Instant> getAnalysisDate() {
+    return Optional.ofNullable(analysisDate);
+  }
+
 }
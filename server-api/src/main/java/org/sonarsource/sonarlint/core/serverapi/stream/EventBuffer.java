@@ -21,29 +21,118 @@ package org.sonarsource.sonarlint.core.serverapi.stream;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
+/**
+ * Incremental decoder of a server-sent events stream. Chunks are decoded as they arrive, lines contained in a single chunk are read in place,
+ * only the end of a line split across chunks is buffered. An event is emitted for each block of lines terminated by an empty line.
+ * Only the 'event' and 'data' fields are considered, several 'data' fields are concatenated.
+ */
 public class EventBuffer {
-  private final StringBuilder buffer = new StringBuilder();
+  private static final String EVENT_FIELD = "event";
+  private static final String DATA_FIELD = "data";
+  private static final int MAX_KNOWN_TYPES = 32;
+
+  private final StringBuilder pendingLine = new StringBuilder();
+  private final StringBuilder type = new StringBuilder();
+  private final StringBuilder data = new StringBuilder();
+  private final List<String> knownTypes = new ArrayList<>();
+  private boolean hasContent;
+
+  void append(CharSequence chunk, Consumer<Event> eventConsumer) {
+    var lineStart = 0;
+    for (var i = 0; i < chunk.length(); i++) {
+      if (chunk.charAt(i) == '\n') {
+        if (pendingLine.length() > 0) {
+          pendingLine.append(chunk, lineStart, i);
+          onLine(pendingLine, 0, pendingLine.length(), eventConsumer);
+          pendingLine.setLength(0);
+        } else {
+          onLine(chunk, lineStart, i, eventConsumer);
+        }
+        lineStart = i + 1;
+      }
+    }
+    pendingLine.append(chunk, lineStart, chunk.length());
+  }
 
-  EventBuffer append(String data) {
-    buffer.append(data);
-    return this;
+  private void onLine(CharSequence source, int start, int end, Consumer<Event> eventConsumer) {
+    if (end > start && source.charAt(end - 1) == '\r') {
+      end--;
+    }
+    if (start == end) {
+      dispatch(eventConsumer);
+      return;
+    }
+    if (!hasContent && !isBlank(source, start, end)) {
+      hasContent = true;
+    }
+    if (startsWithField(source, start, end, EVENT_FIELD)) {
+      var valueStart = valueStart(source, start + EVENT_FIELD.length() + 1, end);
+      type.setLength(0);
+      type.append(source, valueStart, trimEnd(source, valueStart, end));
+    } else if (startsWithField(source, start, end, DATA_FIELD)) {
+      data.append(source, valueStart(source, start + DATA_FIELD.length() + 1, end), end);
+    }
   }
 
-  List<String> drainCompleteEvents() {
-    List<String> completeEvents = new ArrayList<>();
-    int firstEventEndIndex;
-    do {
-      firstEventEndIndex = buffer.indexOf("\n\n");
-      if (firstEventEndIndex == -1) {
-        break;
+  private void dispatch(Consumer<Event> eventConsumer) {
+    if (hasContent) {
+      eventConsumer.accept(new Event(typeAsString(), trimmedDataAsString()));
+    }
+    type.setLength(0);
+    data.setLength(0);
+    hasContent = false;
+  }
+
+  /**
+   * The same few event types are received again and again, reuse the same instances
+   */
+  private String typeAsString() {
+    for (String knownType : knownTypes) {
+      if (knownType.contentEquals(type)) {
+        return knownType;
       }
-      var completeEvent = buffer.substring(0, firstEventEndIndex).trim();
-      buffer.delete(0, firstEventEndIndex + 2);
-      if (!completeEvent.isEmpty()) {
-        completeEvents.add(completeEvent);
+    }
+    var newType = type.toString();
+    if (knownTypes.size() < MAX_KNOWN_TYPES) {
+      knownTypes.add(newType);
+    }
+    return newType;
+  }
+
+  private String trimmedDataAsString() {
+    return data.substring(0, trimEnd(data, 0, data.length()));
+  }
+
+  private static boolean startsWithField(CharSequence source, int start, int end, String fieldName) {
+    var fieldLength = fieldName.length();
+    if (end - start <= fieldLength || source.charAt(start + fieldLength) != ':') {
+      return false;
+    }
+    for (var i = 0; i < fieldLength; i++) {
+      if (source.charAt(start + i) != fieldName.charAt(i)) {
+        return false;
       }
-    } while (true);
-    return completeEvents;
+    }
+    return true;
+  }
+
+  /**
+   * As per the specification, a single space after the colon is not part of the value
+   */
+  private static int valueStart(CharSequence source, int afterColon, int end) {
+    return afterColon < end && source.charAt(afterColon) == ' ' ? afterColon + 1 : afterColon;
+  }
+
+  private static int trimEnd(CharSequence source, int start, int end) {
+    while (end > start && Character.isWhitespace(source.charAt(end - 1))) {
+      end--;
+    }
+    return end;
+  }
+
+  private static boolean isBlank(CharSequence source, int start, int end) {
+    return trimEnd(source, start, end) == start;
   }
 }
@@ -94,9 +94,7 @@ public class EventStream {
       },
       message -> {
         pendingFuture.get().cancel(true);
-        eventBuffer.append(message)
-          .drainCompleteEvents()
-          .forEach(stringEvent -> eventConsumer.accept(EventParser.parse(stringEvent)));
+        eventBuffer.append(message, eventConsumer);
       }));
     return this;
   }
@@ -19,6 +19,8 @@
  */
 package org.sonarsource.sonarlint.core.serverapi.branches;
 
+import java.time.Instant;
+import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
@@ -54,6 +56,18 @@ class ProjectBranchesApiTests {
     assertThat(branches).extracting(ServerBranch::getName, ServerBranch::isMain).containsExactlyInAnyOrder(tuple("master", true), tuple("feature/foo", false));
   }
 
+  @Test
+  void shouldReadAnalysisDate() {
+    mockServer.addProtobufResponse("/api/project_branches/list.protobuf?project=" + PROJECT_KEY, ProjectBranches.ListWsResponse.newBuilder()
+      .addBranches(ProjectBranches.Branch.newBuilder().setName("feature/foo").setIsMain(false).setType(BranchType.BRANCH))
+      .addBranches(ProjectBranches.Branch.newBuilder().setName("master").setIsMain(true).setType(BranchType.BRANCH).setAnalysisDate("2023-07-19T15:08:01+0200")).build());
+
+    var branches = underTest.getAllBranches(PROJECT_KEY);
+
+    assertThat(branches).extracting(ServerBranch::getName, ServerBranch::getAnalysisDate)
+      .containsExactlyInAnyOrder(tuple("master", Optional.of(Instant.parse("2023-07-19T13:08:01Z"))), tuple("feature/foo", Optional.empty()));
+  }
+
   @Test
   void shouldSkipShortLivingBranches() {
     var branchListResponseBuilder = ProjectBranches.ListWsResponse.newBuilder();
@@ -0,0 +1,87 @@
+/*
+ * SonarLint Core - Server API
+ * Copyright (C) 2016-2023 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.serverapi.stream;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class EventBufferTests {
+
+  private final EventBuffer underTest = new EventBuffer();
+  private final List<Event> receivedEvents = new ArrayList<>();
+
+  @Test
+  void should_decode_a_complete_event() {
+    underTest.append("event: type\ndata: data\n\n", receivedEvents::add);
+
+    assertThat(receivedEvents).extracting("type", "data").containsExactly(tuple("type", "data"));
+  }
+
+  @Test
+  void should_decode_several_events_from_the_same_chunk() {
+    underTest.append("event: type1\ndata: data1\n\nevent: type2\ndata: data2\n\n", receivedEvents::add);
+
+    assertThat(receivedEvents).extracting("type", "data").containsExactly(tuple("type1", "data1"), tuple("type2", "data2"));
+  }
+
+  @Test
+  void should_decode_an_event_split_across_chunks() {
+    underTest.append("event: ty", receivedEvents::add);
+    underTest.append("pe\ndata: {\"key\":", receivedEvents::add);
+    underTest.append("\"value\"}\n", receivedEvents::add);
+    assertThat(receivedEvents).isEmpty();
+
+    underTest.append("\n", receivedEvents::add);
+
+    assertThat(receivedEvents).extracting("type", "data").containsExactly(tuple("type", "{\"key\":\"value\"}"));
+  }
+
+  @Test
+  void should_concatenate_data_fields() {
+    underTest.append("event: type\ndata: {\"key\":\ndata: \"value\"}\n\n", receivedEvents::add);
+
+    assertThat(receivedEvents).extracting("type", "data").containsExactly(tuple("type", "{\"key\":\"value\"}"));
+  }
+
+  @Test
+  void should_support_carriage_returns_and_missing_space_after_colon() {
+    underTest.append("event:type\r\ndata:data\r\n\r\n", receivedEvents::add);
+
+    assertThat(receivedEvents).extracting("type", "data").containsExactly(tuple("type", "data"));
+  }
+
+  @Test
+  void should_ignore_empty_events_and_unknown_fields() {
+    underTest.append("\n\n\nid: 1\nevent: type\nretry: 10\ndata: data  \n\n", receivedEvents::add);
+
+    assertThat(receivedEvents).extracting("type", "data").containsExactly(tuple("type", "data"));
+  }
+
+  @Test
+  void should_reuse_event_type_instances() {
+    underTest.append("event: type\ndata: data1\n\nevent: type\ndata: data2\n\n", receivedEvents::add);
+
+    assertThat(receivedEvents.get(1).getType()).isSameAs(receivedEvents.get(0).getType());
+  }
+}
@@ -27,49 +27,43 @@ import org.sonarsource.sonarlint.core.commons.IssueSeverity;
 import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
 import org.sonarsource.sonarlint.core.serverapi.rules.ServerActiveRule;
 import org.sonarsource.sonarlint.core.serverconnection.proto.Sonarlint;
-import org.sonarsource.sonarlint.core.serverconnection.storage.ProtobufFileUtil;
-import org.sonarsource.sonarlint.core.serverconnection.storage.RWLock;
+import org.sonarsource.sonarlint.core.serverconnection.storage.ProtobufStorageFile;
 import org.sonarsource.sonarlint.core.serverconnection.storage.StorageException;
 
-import static org.sonarsource.sonarlint.core.serverconnection.storage.ProtobufFileUtil.writeToFile;
-
 public class AnalyzerConfigurationStorage {
   private static final SonarLintLogger LOG = SonarLintLogger.get();
-  private final RWLock rwLock = new RWLock();
-  private final Path storageFilePath;
+  private final ProtobufStorageFile<Sonarlint.AnalyzerConfiguration> storageFile;
+  /**
+   * The last read configuration and the message it was adapted from. The storage file returns the same message as long as the file is not
+   * modified, so the same configuration is returned too, and callers can cheaply detect changes by comparing instances
+   */
+  private volatile Map.Entry<Sonarlint.AnalyzerConfiguration, AnalyzerConfiguration> lastRead;
 
   public AnalyzerConfigurationStorage(Path projectStorageRoot) {
-    this.storageFilePath = projectStorageRoot.resolve("analyzer_config.pb");
+    this.storageFile = new ProtobufStorageFile<>(projectStorageRoot.resolve("analyzer_config.pb"), Sonarlint.AnalyzerConfiguration.parser(),
+      Sonarlint.AnalyzerConfiguration.getDefaultInstance());
   }
 
   public void store(AnalyzerConfiguration analyzerConfiguration) {
-    FileUtils.mkdirs(storageFilePath.getParent());
     var data = adapt(analyzerConfiguration);
-    LOG.debug("Storing project analyzer configuration in {}", storageFilePath);
-    rwLock.write(() -> writeToFile(data, storageFilePath));
+    LOG.debug("Storing project analyzer configuration in {}", storageFile.getPath());
+    storageFile.write(data);
   }
 
   public AnalyzerConfiguration read() {
-    return adapt(rwLock.read(() -> readConfiguration(storageFilePath)));
+    var message = storageFile.read().orElseThrow(() -> new StorageException("Failed to read file: " + storageFile.getPath()));
+    var cached = lastRead;
+    if (cached != null && cached.getKey() == message) {
+      return cached.getValue();
+    }
+    var configuration = adapt(message);
+    lastRead = Map.entry(message, configuration);
+    return configuration;
   }
 
   public void update(UnaryOperator<AnalyzerConfiguration> updater) {
-    FileUtils.mkdirs(storageFilePath.getParent());
-    rwLock.write(() -> {
-      Sonarlint.AnalyzerConfiguration config;
-      try {
-        config = readConfiguration(storageFilePath);
-      } catch (StorageException e) {
-        LOG.warn("Unable to read storage. Creating a new one.", e);
-        config = Sonarlint.AnalyzerConfiguration.newBuilder().build();
-      }
-      writeToFile(adapt(updater.apply(adapt(config))), storageFilePath);
-      LOG.debug("Storing project data in {}", storageFilePath);
-    });
-  }
-
-  private static Sonarlint.AnalyzerConfiguration readConfiguration(Path projectFilePath) {
-    return ProtobufFileUtil.readFile(projectFilePath, Sonarlint.AnalyzerConfiguration.parser());
+    storageFile.updateOrReset(config -> adapt(updater.apply(adapt(config))));
+    LOG.debug("Storing project data in {}", storageFile.getPath());
   }
 
   private static AnalyzerConfiguration adapt(Sonarlint.AnalyzerConfiguration analyzerConfiguration) {
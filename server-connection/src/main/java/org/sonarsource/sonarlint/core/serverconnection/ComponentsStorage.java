@@ -19,19 +19,52 @@
  */
 package org.sonarsource.sonarlint.core.serverconnection;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
+import org.sonarsource.sonarlint.core.serverconnection.prefix.FileTreeMatcher;
 import org.sonarsource.sonarlint.core.serverconnection.proto.Sonarlint;
+import org.sonarsource.sonarlint.core.serverconnection.storage.ComponentIndex;
 import org.sonarsource.sonarlint.core.serverconnection.storage.ProtobufFileUtil;
 
 public class ComponentsStorage {
+  private static final SonarLintLogger LOG = SonarLintLogger.get();
   public static final String COMPONENT_LIST_PB = "component_list.pb";
+  public static final String COMPONENT_INDEX = "component_index.bin";
   private final Path storageFilePath;
+  private final Path indexFilePath;
 
   public ComponentsStorage(Path projectStorageRoot) {
     this.storageFilePath = projectStorageRoot.resolve(COMPONENT_LIST_PB);
+    this.indexFilePath = projectStorageRoot.resolve(COMPONENT_INDEX);
   }
 
   public Sonarlint.ProjectComponents read() {
     return ProtobufFileUtil.readFile(storageFilePath, Sonarlint.ProjectComponents.parser());
   }
+
+  /**
+   * Only loads the components having one of the given file names. Uses the component index when it exists, as storages synchronized by older versions only
+   * contain the full list.
+   *
+   * @return the paths of the matching components, in the same order as in {@link #read()}
+   */
+  public List<String> findByFileNames(Collection<String> fileNames) {
+    if (Files.exists(indexFilePath)) {
+      try {
+        return ComponentIndex.findByFileNames(indexFilePath, fileNames);
+      } catch (IOException e) {
+        LOG.debug("Unable to read the component index, reading the full component list", e);
+      }
+    }
+    var fileNameSet = Set.copyOf(fileNames);
+    return read().getComponentList().stream()
+      .filter(component -> fileNameSet.contains(FileTreeMatcher.fileName(component)))
+      .collect(Collectors.toList());
+  }
 }
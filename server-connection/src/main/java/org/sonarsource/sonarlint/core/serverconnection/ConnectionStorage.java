@@ -25,6 +25,9 @@ import java.util.concurrent.ConcurrentHashMap;
 import org.sonarsource.sonarlint.core.serverconnection.storage.PluginsStorage;
 import org.sonarsource.sonarlint.core.serverconnection.storage.ServerInfoStorage;
 import org.sonarsource.sonarlint.core.serverconnection.storage.ServerIssueStoresManager;
+import org.sonarsource.sonarlint.core.serverconnection.storage.ServerProjectsStorage;
+import org.sonarsource.sonarlint.core.serverconnection.storage.ServerRulesCache;
+import org.sonarsource.sonarlint.core.serverconnection.storage.SourceCodeCache;
 
 import static org.sonarsource.sonarlint.core.serverconnection.storage.ProjectStoragePaths.encodeForFs;
 
@@ -34,6 +37,9 @@ public class ConnectionStorage {
   private final Map<String, SonarProjectStorage> sonarProjectStorageByKey = new ConcurrentHashMap<>();
   private final Path projectsStorageRoot;
   private final PluginsStorage pluginsStorage;
+  private final SourceCodeCache sourceCodeCache;
+  private final ServerRulesCache serverRulesCache;
+  private final ServerProjectsStorage serverProjectsStorage;
   private final Path connectionStorageRoot;
 
   public ConnectionStorage(Path globalStorageRoot, Path workDir, String connectionId) {
@@ -42,6 +48,9 @@ public class ConnectionStorage {
     this.serverIssueStoresManager = new ServerIssueStoresManager(projectsStorageRoot, workDir);
     this.serverInfoStorage = new ServerInfoStorage(connectionStorageRoot);
     this.pluginsStorage = new PluginsStorage(connectionStorageRoot);
+    this.sourceCodeCache = new SourceCodeCache(connectionStorageRoot.resolve("sources"));
+    this.serverRulesCache = new ServerRulesCache(connectionStorageRoot.resolve("rules"));
+    this.serverProjectsStorage = new ServerProjectsStorage(connectionStorageRoot);
   }
 
   public ServerInfoStorage serverInfo() {
@@ -57,6 +66,18 @@ public class ConnectionStorage {
     return pluginsStorage;
   }
 
+  public SourceCodeCache sources() {
+    return sourceCodeCache;
+  }
+
+  public ServerRulesCache rules() {
+    return serverRulesCache;
+  }
+
+  public ServerProjectsStorage serverProjects() {
+    return serverProjectsStorage;
+  }
+
   public void close() {
     serverIssueStoresManager.close();
   }
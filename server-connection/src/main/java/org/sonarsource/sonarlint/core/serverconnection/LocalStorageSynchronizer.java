@@ -114,8 +114,8 @@ public class LocalStorageSynchronizer {
   private static ProjectBranches synchronizeProjectBranches(ServerApi serverApi, String projectKey) {
     LOG.info("[SYNC] Synchronizing project branches for project '{}'", projectKey);
     var allBranches = serverApi.branches().getAllBranches(projectKey);
-    var mainBranch = allBranches.stream().filter(ServerBranch::isMain).findFirst().map(ServerBranch::getName)
+    var mainBranch = allBranches.stream().filter(ServerBranch::isMain).findFirst()
       .orElseThrow(() -> new IllegalStateException("No main branch for project '" + projectKey + "'"));
-    return new ProjectBranches(allBranches.stream().map(ServerBranch::getName).collect(toSet()), mainBranch);
+    return new ProjectBranches(allBranches.stream().map(ServerBranch::getName).collect(toSet()), mainBranch.getName(), mainBranch.getAnalysisDate().orElse(null));
   }
 }
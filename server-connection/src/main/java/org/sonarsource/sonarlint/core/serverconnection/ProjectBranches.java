@@ -19,15 +19,25 @@
  */
 package org.sonarsource.sonarlint.core.serverconnection;
 
+import java.time.Instant;
+import java.util.Optional;
 import java.util.Set;
+import javax.annotation.Nullable;
 
 public class ProjectBranches {
   private final Set<String> branchNames;
   private final String mainBranchName;
+  @Nullable
+  private final Instant mainBranchAnalysisDate;
 
   public ProjectBranches(Set<String> branchNames, String mainBranchName) {
+    this(branchNames, mainBranchName, null);
+  }
+
+  public ProjectBranches(Set<String> branchNames, String mainBranchName, @Nullable Instant mainBranchAnalysisDate) {
     this.branchNames = branchNames;
     this.mainBranchName = mainBranchName;
+    this.mainBranchAnalysisDate = mainBranchAnalysisDate;
   }
 
   public Set<String> getBranchNames() {
@@ -38,4 +48,11 @@ public class ProjectBranches {
     return mainBranchName;
   }
 
+  /**
+   * @return the date of the last analysis of the main branch, empty if never analyzed or if not provided by the server
+   */
+  public Optional<Instant> getMainBranchAnalysisDate() {
+    return Optional.ofNullable(mainBranchAnalysisDate);
+  }
+
 }
@@ -20,42 +20,42 @@
 package org.sonarsource.sonarlint.core.serverconnection;
 
 import java.nio.file.Path;
+import java.time.Instant;
 import java.util.Set;
 import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
 import org.sonarsource.sonarlint.core.serverconnection.proto.Sonarlint;
-import org.sonarsource.sonarlint.core.serverconnection.storage.ProtobufFileUtil;
-import org.sonarsource.sonarlint.core.serverconnection.storage.RWLock;
-
-import static org.sonarsource.sonarlint.core.serverconnection.storage.ProtobufFileUtil.writeToFile;
+import org.sonarsource.sonarlint.core.serverconnection.storage.ProtobufStorageFile;
+import org.sonarsource.sonarlint.core.serverconnection.storage.StorageException;
 
 public class ProjectBranchesStorage {
   private static final SonarLintLogger LOG = SonarLintLogger.get();
-  private final Path storageFilePath;
-  private final RWLock rwLock = new RWLock();
+  private final ProtobufStorageFile<Sonarlint.ProjectBranches> storageFile;
 
   public ProjectBranchesStorage(Path projectStorageRoot) {
-    this.storageFilePath = projectStorageRoot.resolve("project_branches.pb");
+    this.storageFile = new ProtobufStorageFile<>(projectStorageRoot.resolve("project_branches.pb"), Sonarlint.ProjectBranches.parser(),
+      Sonarlint.ProjectBranches.getDefaultInstance());
   }
 
   public void store(ProjectBranches projectBranches) {
-    FileUtils.mkdirs(storageFilePath.getParent());
     var data = adapt(projectBranches);
-    LOG.debug("Storing project branches in {}", storageFilePath);
-    rwLock.write(() -> writeToFile(data, storageFilePath));
+    LOG.debug("Storing project branches in {}", storageFile.getPath());
+    storageFile.write(data);
   }
 
   public ProjectBranches read() {
-    return adapt(rwLock.read(() -> ProtobufFileUtil.readFile(storageFilePath, Sonarlint.ProjectBranches.parser())));
+    return adapt(storageFile.read().orElseThrow(() -> new StorageException("Failed to read file: " + storageFile.getPath())));
   }
 
   private static ProjectBranches adapt(Sonarlint.ProjectBranches projectBranches) {
-    return new ProjectBranches(Set.copyOf(projectBranches.getBranchNameList()), projectBranches.getMainBranchName());
+    var mainBranchAnalysisDate = projectBranches.getMainBranchAnalysisDate() == 0 ? null : Instant.ofEpochMilli(projectBranches.getMainBranchAnalysisDate());
+    return new ProjectBranches(Set.copyOf(projectBranches.getBranchNameList()), projectBranches.getMainBranchName(), mainBranchAnalysisDate);
   }
 
   private static Sonarlint.ProjectBranches adapt(ProjectBranches projectBranches) {
-    return Sonarlint.ProjectBranches.newBuilder()
+    var builder = Sonarlint.ProjectBranches.newBuilder()
       .addAllBranchName(projectBranches.getBranchNames())
-      .setMainBranchName(projectBranches.getMainBranchName())
-      .build();
+      .setMainBranchName(projectBranches.getMainBranchName());
+    projectBranches.getMainBranchAnalysisDate().ifPresent(analysisDate -> builder.setMainBranchAnalysisDate(analysisDate.toEpochMilli()));
+    return builder.build();
   }
 }
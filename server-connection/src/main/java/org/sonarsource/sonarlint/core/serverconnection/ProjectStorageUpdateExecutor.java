@@ -22,11 +22,14 @@ package org.sonarsource.sonarlint.core.serverconnection;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import org.apache.commons.lang3.StringUtils;
 import org.sonarsource.sonarlint.core.commons.progress.ProgressMonitor;
 import org.sonarsource.sonarlint.core.serverapi.ServerApi;
 import org.sonarsource.sonarlint.core.serverconnection.proto.Sonarlint;
+import org.sonarsource.sonarlint.core.serverconnection.storage.ComponentIndex;
 import org.sonarsource.sonarlint.core.serverconnection.storage.ProtobufFileUtil;
+import org.sonarsource.sonarlint.core.serverconnection.storage.StorageException;
 
 public class ProjectStorageUpdateExecutor {
   private final ProjectFileListDownloader projectFileListDownloader;
@@ -58,13 +61,20 @@ public class ProjectStorageUpdateExecutor {
   void updateComponents(ServerApi serverApi, String projectKey, Path temp, ProgressMonitor progress) {
     var sqFiles = projectFileListDownloader.get(serverApi, projectKey, progress);
     var componentsBuilder = Sonarlint.ProjectComponents.newBuilder();
+    var components = new ArrayList<String>(sqFiles.size());
 
     for (String fileKey : sqFiles) {
       var separatorIdx = StringUtils.lastIndexOf(fileKey, ":");
       var relativePath = fileKey.substring(separatorIdx + 1);
       componentsBuilder.addComponent(relativePath);
+      components.add(relativePath);
     }
     ProtobufFileUtil.writeToFile(componentsBuilder.build(), temp.resolve(ComponentsStorage.COMPONENT_LIST_PB));
+    try {
+      ComponentIndex.write(components, temp.resolve(ComponentsStorage.COMPONENT_INDEX));
+    } catch (IOException e) {
+      throw new StorageException("Unable to write the component index", e);
+    }
   }
 
 }
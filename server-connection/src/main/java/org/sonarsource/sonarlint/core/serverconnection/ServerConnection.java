@@ -20,11 +20,12 @@
 package org.sonarsource.sonarlint.core.serverconnection;
 
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.time.Instant;
 import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
@@ -99,6 +100,7 @@ public class ServerConnection {
     this.storageSynchronizer = new LocalStorageSynchronizer(enabledLanguagesToSync, embeddedPluginKeys, serverInfoSynchronizer, storage);
     this.projectStorageUpdateExecutor = new ProjectStorageUpdateExecutor(storage);
     storage.plugins().cleanUp();
+    storage.rules().cleanUp();
     coreEventRouter = new EventDispatcher()
       .dispatch(RuleSetChangedEvent.class, new UpdateStorageOnRuleSetChanged(storage))
       .dispatch(IssueChangedEvent.class, new UpdateStorageOnIssueChanged(storage))
@@ -159,15 +161,11 @@ public class ServerConnection {
   }
 
   public ProjectBinding calculatePathPrefixes(String projectKey, Collection<String> ideFilePaths) {
-    List<Path> idePathList = ideFilePaths.stream()
-      .map(Paths::get)
-      .collect(Collectors.toList());
-    List<Path> sqPathList = storage.project(projectKey).components().read()
-      .getComponentList().stream()
-      .map(Paths::get)
-      .collect(Collectors.toList());
+    // only server files having the same name as an IDE file can match
+    var ideFileNames = ideFilePaths.stream().map(FileTreeMatcher::fileName).collect(Collectors.toSet());
+    var sqPathList = storage.project(projectKey).components().findByFileNames(ideFileNames);
     var fileMatcher = new FileTreeMatcher();
-    var match = fileMatcher.match(sqPathList, idePathList);
+    var match = fileMatcher.match(sqPathList, ideFilePaths);
     return new ProjectBinding(projectKey, FilenameUtils.separatorsToUnix(match.sqPrefix().toString()),
       FilenameUtils.separatorsToUnix(match.idePrefix().toString()));
   }
@@ -238,6 +236,10 @@ public class ServerConnection {
       .orElse(false);
   }
 
+  public Optional<Instant> getLastIssueSyncTimestamp(String projectKey, String branchName) {
+    return storage.project(projectKey).findings().getLastIssueSyncTimestamp(branchName);
+  }
+
   public void syncServerIssuesForProject(EndpointParams endpoint, HttpClient client, String projectKey, String branchName) {
     syncServerIssuesForProject(new ServerApi(new ServerApiHelper(endpoint, client)), projectKey, branchName);
   }
@@ -19,9 +19,11 @@
  */
 package org.sonarsource.sonarlint.core.serverconnection;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import javax.annotation.CheckForNull;
 import org.sonarsource.sonarlint.core.commons.Language;
 import org.sonarsource.sonarlint.core.commons.Version;
 import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
@@ -30,6 +32,7 @@ import org.sonarsource.sonarlint.core.serverapi.ServerApi;
 import org.sonarsource.sonarlint.core.serverapi.issue.IssueApi;
 import org.sonarsource.sonarlint.core.serverconnection.issues.ServerIssue;
 import org.sonarsource.sonarlint.core.serverconnection.issues.ServerTaintIssue;
+import org.sonarsource.sonarlint.core.serverconnection.storage.StorageException;
 
 import static org.sonarsource.sonarlint.core.serverconnection.ServerUpdaterUtils.computeLastSync;
 
@@ -114,7 +117,8 @@ public class ServerIssueUpdater {
     if (!IssueApi.supportIssuePull(isSonarCloud, serverVersion)) {
       List<ServerTaintIssue> taintIssues = new ArrayList<>();
       try {
-        taintIssues.addAll(taintIssueDownloader.downloadTaintFromIssueSearch(serverApi, fileKey, branchName, progress));
+        var mainBranchAnalysisDate = readMainBranchAnalysisDate(projectBinding.projectKey());
+        taintIssues.addAll(taintIssueDownloader.downloadTaintFromIssueSearch(serverApi, fileKey, branchName, storage.sources(), mainBranchAnalysisDate, progress));
       } catch (Exception e) {
         // null as cause so that it doesn't get wrapped
         throw new DownloadException("Failed to update file taint vulnerabilities: " + e.getMessage(), null);
@@ -125,4 +129,17 @@ public class ServerIssueUpdater {
     }
 
   }
+
+  /**
+   * The date is stored with the project branches when synchronizing, when unknown the source code cache is not used.
+   */
+  @CheckForNull
+  private Instant readMainBranchAnalysisDate(String projectKey) {
+    try {
+      return storage.project(projectKey).branches().read().getMainBranchAnalysisDate().orElse(null);
+    } catch (StorageException e) {
+      LOG.debug("Unable to read the project branches from the storage", e);
+      return null;
+    }
+  }
 }
@@ -1,5 +1,5 @@
 /*
- * SonarLint Core - Server API
+ * SonarLint Core - Server Connection
  * Copyright (C) 2016-2023 SonarSource SA
  * mailto:info AT sonarsource DOT com
  *
@@ -17,29 +17,26 @@
  * along with this program; if not, write to the Free Software Foundation,
  * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
  */
-package org.sonarsource.sonarlint.core.serverapi.stream;
+package org.sonarsource.sonarlint.core.serverconnection;
 
+import java.time.Instant;
 import java.util.List;
+import org.sonarsource.sonarlint.core.serverapi.component.ServerProject;
 
-public class EventParser {
-  private static final String EVENT_TYPE_PREFIX = "event: ";
-  private static final String DATA_PREFIX = "data: ";
+public class StoredServerProjects {
+  private final List<ServerProject> projects;
+  private final Instant lastRefresh;
 
-  static Event parse(String eventPayload) {
-    var fields = List.of(eventPayload.split("\\n"));
-    var type = "";
-    var data = new StringBuilder();
-    for (String field : fields) {
-      if (field.startsWith(EVENT_TYPE_PREFIX)) {
-        type = field.substring(EVENT_TYPE_PREFIX.length());
-      } else if (field.startsWith(DATA_PREFIX)) {
-        data.append(field.substring(DATA_PREFIX.length()));
-      }
-    }
-    return new Event(type, data.toString());
+  public StoredServerProjects(List<ServerProject> projects, Instant lastRefresh) {
+    this.projects = projects;
+    this.lastRefresh = lastRefresh;
   }
 
-  private EventParser() {
-    // static only
+  public List<ServerProject> getProjects() {
+    return projects;
+  }
+
+  public Instant getLastRefresh() {
+    return lastRefresh;
   }
 }
@@ -22,17 +22,22 @@ package org.sonarsource.sonarlint.core.serverconnection;
 import com.google.common.annotations.VisibleForTesting;
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.regex.Pattern;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
-import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.sonarsource.sonarlint.core.commons.CleanCodeAttribute;
 import org.sonarsource.sonarlint.core.commons.ImpactSeverity;
@@ -42,9 +47,11 @@ import org.sonarsource.sonarlint.core.commons.RuleKey;
 import org.sonarsource.sonarlint.core.commons.RuleType;
 import org.sonarsource.sonarlint.core.commons.SoftwareQuality;
 import org.sonarsource.sonarlint.core.commons.TextRangeWithHash;
+import org.sonarsource.sonarlint.core.commons.hash.Md5;
 import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
 import org.sonarsource.sonarlint.core.commons.progress.ProgressMonitor;
 import org.sonarsource.sonarlint.core.serverapi.ServerApi;
+import org.sonarsource.sonarlint.core.serverapi.issue.IssueApi;
 import org.sonarsource.sonarlint.core.serverapi.proto.sonarqube.ws.Common;
 import org.sonarsource.sonarlint.core.serverapi.proto.sonarqube.ws.Common.Flow;
 import org.sonarsource.sonarlint.core.serverapi.proto.sonarqube.ws.Common.TextRange;
@@ -54,12 +61,18 @@ import org.sonarsource.sonarlint.core.serverapi.proto.sonarqube.ws.Issues.TaintV
 import org.sonarsource.sonarlint.core.serverapi.source.SourceApi;
 import org.sonarsource.sonarlint.core.serverapi.util.ServerApiUtils;
 import org.sonarsource.sonarlint.core.serverconnection.issues.ServerTaintIssue;
+import org.sonarsource.sonarlint.core.serverconnection.storage.SourceCodeCache;
 
 import static java.util.function.Predicate.not;
 
 public class TaintIssueDownloader {
 
-  private static final Pattern MATCH_ALL_WHITESPACES = Pattern.compile("\\s");
+  private static final int MAX_PARALLEL_SOURCE_DOWNLOADS = 4;
+  /**
+   * Shared by all the synchronizations, so that concurrent synchronizations of several projects do not multiply the requests sent to the server.
+   * Idle threads are released.
+   */
+  private static final ExecutorService SOURCE_DOWNLOAD_EXECUTOR = newSourceDownloadExecutor();
 
   private static final SonarLintLogger LOG = SonarLintLogger.get();
   private final Set<Language> enabledLanguages;
@@ -69,13 +82,22 @@ public class TaintIssueDownloader {
   }
 
   public List<ServerTaintIssue> downloadTaintFromIssueSearch(ServerApi serverApi, String key, @Nullable String branchName, ProgressMonitor progress) {
+    return downloadTaintFromIssueSearch(serverApi, key, branchName, null, null, progress);
+  }
+
+  /**
+   * @param sourceCodeCache cache of the source code used to compute the hash of locations, only used if the analysis date is known
+   * @param mainBranchAnalysisDate date of the last analysis of the main branch, used to version the cached source code, which is the one of the main branch
+   */
+  public List<ServerTaintIssue> downloadTaintFromIssueSearch(ServerApi serverApi, String key, @Nullable String branchName, @Nullable SourceCodeCache sourceCodeCache,
+    @Nullable Instant mainBranchAnalysisDate, ProgressMonitor progress) {
     var issueApi = serverApi.issue();
 
     List<ServerTaintIssue> result = new ArrayList<>();
 
     Set<String> taintRuleKeys = serverApi.rules().getAllTaintRules(List.of(Language.values()), progress);
-    Map<String, String> sourceCodeByKey = new HashMap<>();
     var downloadVulnerabilitiesForRules = issueApi.downloadVulnerabilitiesForRules(key, taintRuleKeys, branchName, progress);
+    var sourceCodeByKey = prefetchSourceCode(serverApi.source(), downloadVulnerabilitiesForRules, sourceCodeCache, mainBranchAnalysisDate);
     downloadVulnerabilitiesForRules.getIssues()
       .stream()
       .map(i -> convertTaintVulnerability(serverApi.source(), i, downloadVulnerabilitiesForRules.getComponentPathsByKey(), sourceCodeByKey))
@@ -85,6 +107,67 @@ public class TaintIssueDownloader {
     return result;
   }
 
+  /**
+   * Fetches concurrently the source code of all the distinct components referenced by the locations of the issues,
+   * first looking into the cache, if any.
+   */
+  private static Map<String, String> prefetchSourceCode(SourceApi sourceApi, IssueApi.DownloadIssuesResult downloadedIssues, @Nullable SourceCodeCache sourceCodeCache,
+    @Nullable Instant mainBranchAnalysisDate) {
+    Map<String, String> sourceCodeByKey = new ConcurrentHashMap<>();
+    var componentKeys = new LinkedHashSet<String>();
+    downloadedIssues.getIssues().stream()
+      // project level issues are ignored
+      .filter(issue -> downloadedIssues.getComponentPathsByKey().containsKey(issue.getComponent()))
+      .forEach(issue -> {
+        if (issue.hasTextRange()) {
+          componentKeys.add(issue.getComponent());
+        }
+        issue.getFlowsList().forEach(flow -> flow.getLocationsList().stream()
+          .filter(Common.Location::hasTextRange)
+          .forEach(location -> componentKeys.add(location.getComponent())));
+      });
+    if (componentKeys.isEmpty()) {
+      return sourceCodeByKey;
+    }
+    try {
+      CompletableFuture.allOf(componentKeys.stream()
+        .map(componentKey -> CompletableFuture.runAsync(
+          () -> sourceCodeByKey.put(componentKey, fetchSourceCode(sourceApi, componentKey, sourceCodeCache, mainBranchAnalysisDate)), SOURCE_DOWNLOAD_EXECUTOR))
+        .toArray(CompletableFuture[]::new))
+        .join();
+    } catch (CompletionException e) {
+      LOG.debug("Unable to prefetch source code", e);
+    }
+    if (sourceCodeCache != null && mainBranchAnalysisDate != null) {
+      sourceCodeCache.cleanUp();
+    }
+    return sourceCodeByKey;
+  }
+
+  private static String fetchSourceCode(SourceApi sourceApi, String componentKey, @Nullable SourceCodeCache sourceCodeCache, @Nullable Instant mainBranchAnalysisDate) {
+    if (sourceCodeCache == null || mainBranchAnalysisDate == null) {
+      return sourceApi.getRawSourceCode(componentKey).orElse("");
+    }
+    return sourceCodeCache.get(componentKey, mainBranchAnalysisDate)
+      .orElseGet(() -> {
+        var sourceCode = sourceApi.getRawSourceCode(componentKey).orElse("");
+        if (!sourceCode.isEmpty()) {
+          sourceCodeCache.put(componentKey, mainBranchAnalysisDate, sourceCode);
+        }
+        return sourceCode;
+      });
+  }
+
+  private static ExecutorService newSourceDownloadExecutor() {
+    var executor = new ThreadPoolExecutor(MAX_PARALLEL_SOURCE_DOWNLOADS, MAX_PARALLEL_SOURCE_DOWNLOADS, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+      var thread = new Thread(r, "SonarLint Source Code Downloader");
+      thread.setDaemon(true);
+      return thread;
+    });
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
   /**
    * Fetch all taint issues of the project with specified key, using new SQ 9.6 api/issues/pull_taint
    *
@@ -260,8 +343,7 @@ public class TaintIssueDownloader {
   }
 
   static String hash(String codeSnippet) {
-    String codeSnippetWithoutWhitespaces = MATCH_ALL_WHITESPACES.matcher(codeSnippet).replaceAll("");
-    return DigestUtils.md5Hex(codeSnippetWithoutWhitespaces);
+    return Md5.md5HexIgnoringWhitespaces(codeSnippet);
   }
 
   private static TextRangeWithHash convertTextRangeFromWs(TextRange textRange, String hash) {
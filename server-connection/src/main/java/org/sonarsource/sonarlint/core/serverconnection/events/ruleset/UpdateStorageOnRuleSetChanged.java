@@ -44,6 +44,9 @@ public class UpdateStorageOnRuleSetChanged implements ServerEventHandler<RuleSet
       var newRuleSetByLanguageKey = incorporate(event, currentConfiguration.getRuleSetByLanguageKey());
       return new AnalyzerConfiguration(currentConfiguration.getSettings(), newRuleSetByLanguageKey, currentConfiguration.getSchemaVersion());
     }));
+    var changedRuleKeys = new ArrayList<>(event.getDeactivatedRules());
+    event.getActivatedRules().forEach(activatedRule -> changedRuleKeys.add(activatedRule.getKey()));
+    storage.rules().evict(changedRuleKeys);
   }
 
   private static Map<String, RuleSet> incorporate(RuleSetChangedEvent event, Map<String, RuleSet> ruleSetByLanguageKey) {
@@ -21,7 +21,9 @@ package org.sonarsource.sonarlint.core.serverconnection.prefix;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -35,20 +37,29 @@ import static java.util.Collections.reverseOrder;
 public class FileTreeMatcher {
 
   public Result match(List<Path> serverRelativePaths, List<Path> ideRelativePaths) {
+    return match(toStrings(serverRelativePaths), toStrings(ideRelativePaths));
+  }
+
+  /**
+   * Same as {@link #match(List, List)}, for paths using either '/' or '\' as separator. Avoids creating {@link Path} instances for large projects.
+   */
+  public Result match(Collection<String> serverRelativePaths, Collection<String> ideRelativePaths) {
     var reversePathTree = new ReversePathTree();
 
     Map<Result, Double> resultScores = new LinkedHashMap<>();
 
+    var ideSegments = ideRelativePaths.stream().map(ReversePathTree::segments).collect(Collectors.toList());
     // No need to index server files if no ide path ends with the same filename
-    Set<Path> ideFilenames = ideRelativePaths.stream().map(Path::getFileName).collect(Collectors.toSet());
-    serverRelativePaths.stream().filter(sqPath -> ideFilenames.contains(sqPath.getFileName())).forEach(reversePathTree::index);
+    Set<String> ideFilenames = new HashSet<>();
+    ideSegments.stream().filter(segments -> segments.length > 0).forEach(segments -> ideFilenames.add(segments[segments.length - 1]));
+    serverRelativePaths.stream().filter(sqPath -> ideFilenames.contains(fileName(sqPath))).forEach(reversePathTree::index);
 
-    for (Path ide : ideRelativePaths) {
+    for (String[] ide : ideSegments) {
       var match = reversePathTree.findLongestSuffixMatches(ide);
       if (match.matchLen() > 0) {
-        var idePrefix = getIdePrefix(ide, match);
+        var idePrefix = String.join("/", List.of(ide).subList(0, ide.length - match.matchLen()));
 
-        for (Path sqPrefix : match.matchPrefixes()) {
+        for (String sqPrefix : match.matchPrefixes()) {
           var r = new Result(idePrefix, sqPrefix);
           resultScores.compute(r, (p, i) -> computeScore(i, match));
         }
@@ -58,17 +69,28 @@ public class FileTreeMatcher {
     return higherScoreResult(resultScores);
   }
 
-  private static double computeScore(@Nullable Double currentScore, ReversePathTree.Match match) {
-    var matchScore = (double) match.matchLen() / match.matchPrefixes().size();
-    return currentScore != null ? (currentScore.doubleValue() + matchScore) : matchScore;
+  private static List<String> toStrings(List<Path> paths) {
+    return paths.stream().map(Path::toString).collect(Collectors.toList());
   }
 
-  private static Path getIdePrefix(Path idePath, ReversePathTree.Match match) {
-    var prefixLen = depth(idePath) - match.matchLen();
-    if (prefixLen > 0) {
-      return idePath.subpath(0, depth(idePath) - match.matchLen());
+  /**
+   * @return the last segment of the path, using either '/' or '\\' as separator
+   */
+  public static String fileName(String path) {
+    var end = path.length();
+    while (end > 0 && ReversePathTree.isSeparator(path.charAt(end - 1))) {
+      end--;
+    }
+    var start = end;
+    while (start > 0 && !ReversePathTree.isSeparator(path.charAt(start - 1))) {
+      start--;
     }
-    return Paths.get("");
+    return path.substring(start, end);
+  }
+
+  private static double computeScore(@Nullable Double currentScore, ReversePathTree.Match match) {
+    var matchScore = (double) match.matchLen() / match.matchPrefixes().size();
+    return currentScore != null ? (currentScore.doubleValue() + matchScore) : matchScore;
   }
 
   private static Result higherScoreResult(Map<Result, Double> prefixes) {
@@ -78,33 +100,42 @@ public class FileTreeMatcher {
       // fallback on prefix depth
       .thenComparing(x -> depth(x.getKey().sqPrefix), reverseOrder())
       // fallback on prefix lexicographic order
-      .thenComparing(x -> x.getKey().sqPrefix.toString(), reverseOrder());
+      .thenComparing(x -> x.getKey().sqPrefix, reverseOrder());
 
     return prefixes.entrySet().stream()
       .max(c)
       .map(Map.Entry::getKey)
-      .orElse(new Result(Paths.get(""), Paths.get("")));
+      .orElse(new Result("", ""));
   }
 
-  private static int depth(Path path) {
-    return path.toString().length() == 0 ? 0 : path.getNameCount();
+  private static int depth(String path) {
+    if (path.isEmpty()) {
+      return 0;
+    }
+    var depth = 1;
+    for (var i = 0; i < path.length(); i++) {
+      if (path.charAt(i) == '/') {
+        depth++;
+      }
+    }
+    return depth;
   }
 
   public static class Result {
-    private final Path idePrefix;
-    private final Path sqPrefix;
+    private final String idePrefix;
+    private final String sqPrefix;
 
-    Result(Path idePrefix, Path sqPrefix) {
+    Result(String idePrefix, String sqPrefix) {
       this.idePrefix = idePrefix;
       this.sqPrefix = sqPrefix;
     }
 
     public Path idePrefix() {
-      return idePrefix;
+      return Paths.get(idePrefix);
     }
 
     public Path sqPrefix() {
-      return sqPrefix;
+      return Paths.get(sqPrefix);
     }
 
     @Override
@@ -19,187 +19,241 @@
  */
 package org.sonarsource.sonarlint.core.serverconnection.prefix;
 
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.AbstractMap;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import javax.annotation.CheckForNull;
-import javax.annotation.Nullable;
 
+/**
+ * A trie of path segments, indexed from the filename to the first directory, used to find the longest common suffixes between paths.
+ * <p>
+ * It is designed to index hundreds of thousands of paths: segments are interned and identified by an int, nodes are only identified by their
+ * position in flat arrays, and children are looked up in a single open addressing table keyed by the (parent node, segment) pair.
+ */
 class ReversePathTree {
-  private final Node root = new MultipleChildrenNode();
-
-  public void index(Path path) {
-    Node parent = null;
-    var currentNode = root;
-    Path currentNodePath = null;
-
-    for (var i = path.getNameCount() - 1; i >= 0; i--) {
-      var childNodePath = path.getName(i);
-      var result = currentNode.computeChildrenIfAbsent(parent, currentNodePath, childNodePath);
-      parent = result[0];
-      currentNode = result[1];
-      currentNodePath = childNodePath;
+  private static final int ROOT = 0;
+  private static final int NO_NODE = -1;
+  private static final int INITIAL_CAPACITY = 64;
+
+  private final Map<String, Integer> segmentIds = new HashMap<>();
+  private final List<String> segments = new ArrayList<>();
+
+  private int[] parents = new int[INITIAL_CAPACITY];
+  private int[] nodeSegments = new int[INITIAL_CAPACITY];
+  private int[] firstChildren = new int[INITIAL_CAPACITY];
+  private int[] nextSiblings = new int[INITIAL_CAPACITY];
+  private final BitSet terminals = new BitSet();
+  private int nodeCount;
+
+  // open addressing table, a value of 0 denotes an empty slot as the root can never be a child
+  private long[] childKeys = new long[INITIAL_CAPACITY * 2];
+  private int[] childNodes = new int[INITIAL_CAPACITY * 2];
+
+  ReversePathTree() {
+    newNode(NO_NODE, NO_NODE);
+  }
+
+  public void index(String path) {
+    var pathSegments = segments(path);
+    if (pathSegments.length == 0) {
+      return;
     }
+    var currentNode = ROOT;
+    for (var i = pathSegments.length - 1; i >= 0; i--) {
+      var segmentId = segmentIds.computeIfAbsent(pathSegments[i], this::newSegment);
+      var childNode = getChild(currentNode, segmentId);
+      if (childNode == NO_NODE) {
+        childNode = newNode(currentNode, segmentId);
+      }
+      currentNode = childNode;
+    }
+    terminals.set(currentNode);
+  }
 
-    currentNode.setTerminal(true);
+  public Match findLongestSuffixMatches(String path) {
+    return findLongestSuffixMatches(segments(path));
   }
 
-  public Match findLongestSuffixMatches(Path path) {
-    var currentNode = root;
+  public Match findLongestSuffixMatches(String[] pathSegments) {
+    var currentNode = ROOT;
     var matchLen = 0;
 
-    while (matchLen < path.getNameCount()) {
-      var nextEl = path.getName(path.getNameCount() - matchLen - 1);
-      var nextNode = currentNode.getChild(nextEl);
-      if (nextNode == null) {
+    while (matchLen < pathSegments.length) {
+      var segmentId = segmentIds.get(pathSegments[pathSegments.length - matchLen - 1]);
+      var nextNode = segmentId == null ? NO_NODE : getChild(currentNode, segmentId);
+      if (nextNode == NO_NODE) {
         break;
       }
       matchLen++;
       currentNode = nextNode;
     }
 
-    return collectAllPrefixes(currentNode, matchLen);
+    return new Match(matchLen > 0 ? collectPrefixes(currentNode) : List.of(), matchLen);
   }
 
-  private static Match collectAllPrefixes(Node node, int matchLen) {
-    List<Path> paths = new ArrayList<>();
-    if (matchLen > 0) {
-      collectPrefixes(node, Paths.get(""), paths);
+  /**
+   * Splits a path on both Unix and Windows separators, ignoring empty segments.
+   */
+  static String[] segments(String path) {
+    var result = new ArrayList<String>();
+    var segmentStart = 0;
+    for (var i = 0; i <= path.length(); i++) {
+      if (i == path.length() || isSeparator(path.charAt(i))) {
+        if (i > segmentStart) {
+          result.add(path.substring(segmentStart, i));
+        }
+        segmentStart = i + 1;
+      }
     }
-    return new Match(paths, matchLen);
+    return result.toArray(new String[0]);
   }
 
-  private static void collectPrefixes(Node node, Path currentPath, List<Path> paths) {
-    if (node.isTerminal()) {
-      paths.add(currentPath);
-    }
-
-    for (Map.Entry<Path, Node> child : node.childrenEntrySet()) {
-      var childPath = child.getKey().resolve(currentPath);
-      collectPrefixes(child.getValue(), childPath, paths);
-    }
+  static boolean isSeparator(char c) {
+    return c == '/' || c == '\\';
   }
 
-  /**
-   * Since it is very common that a node will have only one child, we save memory by lazily creating a children HashMap only when a second item is added.
-   */
-  private interface Node {
-    Node[] computeChildrenIfAbsent(Node parent, Path currentNodePath, Path childNodePath);
-
-    Set<Map.Entry<Path, Node>> childrenEntrySet();
-
-    Node getChild(Path name);
-
-    void setTerminal(boolean b);
-
-    boolean isTerminal();
-
-    void put(Path path, Node node);
+  int nodeCount() {
+    return nodeCount;
   }
 
-  private abstract static class AbstractNode implements Node {
-    private boolean terminal;
-
-    @Override
-    public final boolean isTerminal() {
-      return terminal;
-    }
-
-    @Override
-    public final void setTerminal(boolean b) {
-      this.terminal = b;
-    }
+  int segmentCount() {
+    return segments.size();
   }
 
-  private static class SingleChildNode extends AbstractNode {
-    @Nullable
-    private Path singleChildKey;
-    @Nullable
-    private Node singleChildValue;
-
-    @Override
-    public Node[] computeChildrenIfAbsent(Node parent, Path currentNodePath, Path childNodePath) {
-      if (singleChildKey == null) {
-        put(childNodePath, new SingleChildNode());
-        return new Node[] {this, singleChildValue};
+  private List<String> collectPrefixes(int matchNode) {
+    var prefixes = new ArrayList<String>();
+    var prefix = new StringBuilder();
+    // depth-first traversal of the sub-tree, without recursion as paths can be deep
+    var stack = new int[16];
+    var stackSize = 0;
+    stack[stackSize++] = matchNode;
+    while (stackSize > 0) {
+      var node = stack[--stackSize];
+      if (terminals.get(node)) {
+        prefixes.add(buildPrefix(node, matchNode, prefix));
       }
-      if (childNodePath.equals(singleChildKey)) {
-        return new Node[] {this, singleChildValue};
+      for (var child = firstChildren[node]; child != NO_NODE; child = nextSiblings[child]) {
+        if (stackSize == stack.length) {
+          stack = Arrays.copyOf(stack, stackSize * 2);
+        }
+        stack[stackSize++] = child;
       }
-      var child = new SingleChildNode();
-      var replacement = new MultipleChildrenNode();
-      replacement.put(singleChildKey, singleChildValue);
-      replacement.put(childNodePath, child);
-      parent.put(currentNodePath, replacement);
-      return new Node[] {replacement, child};
     }
+    return prefixes;
+  }
 
-    @Override
-    public Set<Map.Entry<Path, Node>> childrenEntrySet() {
-      if (singleChildKey == null) {
-        return Collections.emptySet();
-      } else {
-        return Collections.singleton(new AbstractMap.SimpleEntry<>(singleChildKey, singleChildValue));
+  /**
+   * Going up from a terminal node gives the segments that are not part of the suffix, in the path order.
+   */
+  private String buildPrefix(int terminalNode, int matchNode, StringBuilder prefix) {
+    prefix.setLength(0);
+    for (var node = terminalNode; node != matchNode; node = parents[node]) {
+      if (prefix.length() > 0) {
+        prefix.append('/');
       }
+      prefix.append(segments.get(nodeSegments[node]));
     }
+    return prefix.toString();
+  }
 
-    @Override
-    public void put(Path path, Node node) {
-      this.singleChildKey = path;
-      this.singleChildValue = node;
-    }
+  private Integer newSegment(String segment) {
+    segments.add(segment);
+    return segments.size() - 1;
+  }
 
-    @Override
-    @CheckForNull
-    public Node getChild(Path name) {
-      return name.equals(singleChildKey) ? singleChildValue : null;
+  private int newNode(int parent, int segmentId) {
+    if (nodeCount == parents.length) {
+      var newCapacity = nodeCount * 2;
+      parents = Arrays.copyOf(parents, newCapacity);
+      nodeSegments = Arrays.copyOf(nodeSegments, newCapacity);
+      firstChildren = Arrays.copyOf(firstChildren, newCapacity);
+      nextSiblings = Arrays.copyOf(nextSiblings, newCapacity);
+    }
+    var node = nodeCount++;
+    parents[node] = parent;
+    nodeSegments[node] = segmentId;
+    firstChildren[node] = NO_NODE;
+    nextSiblings[node] = NO_NODE;
+    if (parent != NO_NODE) {
+      nextSiblings[node] = firstChildren[parent];
+      firstChildren[parent] = node;
+      putChild(parent, segmentId, node);
     }
+    return node;
   }
 
-  private static class MultipleChildrenNode extends AbstractNode {
-
-    private final Map<Path, Node> children = new HashMap<>();
-
-    @Override
-    public Node[] computeChildrenIfAbsent(Node parent, Path currentNodePath, Path childNodePath) {
-      return new Node[] {this, children.computeIfAbsent(childNodePath, e -> new SingleChildNode())};
+  private int getChild(int parent, int segmentId) {
+    var key = childKey(parent, segmentId);
+    var mask = childKeys.length - 1;
+    for (var slot = slot(key, mask); childNodes[slot] != 0; slot = (slot + 1) & mask) {
+      if (childKeys[slot] == key) {
+        return childNodes[slot];
+      }
     }
+    return NO_NODE;
+  }
 
-    @Override
-    public Set<Map.Entry<Path, Node>> childrenEntrySet() {
-      return children.entrySet();
+  private void putChild(int parent, int segmentId, int node) {
+    // keep the load factor under 0.5, every node except the root is a child
+    if (nodeCount * 2 > childKeys.length) {
+      rehash(childKeys.length * 2);
     }
+    insert(childKeys, childNodes, childKey(parent, segmentId), node);
+  }
 
-    @CheckForNull
-    @Override
-    public Node getChild(Path name) {
-      return children.get(name);
+  private void rehash(int newCapacity) {
+    var newKeys = new long[newCapacity];
+    var newNodes = new int[newCapacity];
+    for (var slot = 0; slot < childKeys.length; slot++) {
+      if (childNodes[slot] != 0) {
+        insert(newKeys, newNodes, childKeys[slot], childNodes[slot]);
+      }
     }
+    childKeys = newKeys;
+    childNodes = newNodes;
+  }
 
-    @Override
-    public void put(Path path, Node node) {
-      children.put(path, node);
+  private static void insert(long[] keys, int[] nodes, long key, int node) {
+    var mask = keys.length - 1;
+    var slot = slot(key, mask);
+    while (nodes[slot] != 0) {
+      slot = (slot + 1) & mask;
     }
+    keys[slot] = key;
+    nodes[slot] = node;
+  }
+
+  private static long childKey(int parent, int segmentId) {
+    return ((long) parent << 32) | (segmentId & 0xFFFFFFFFL);
+  }
 
+  private static int slot(long key, int mask) {
+    // murmur3 finalizer, to spread sequential ids
+    var h = key;
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return (int) h & mask;
   }
 
   public static class Match {
-    private final List<Path> paths;
+    private final List<String> prefixes;
     private final int matchLen;
 
-    private Match(List<Path> paths, int matchLen) {
-      this.paths = paths;
+    private Match(List<String> prefixes, int matchLen) {
+      this.prefixes = prefixes;
       this.matchLen = matchLen;
     }
 
-    public List<Path> matchPrefixes() {
-      return paths;
+    /**
+     * @return the prefixes of the indexed paths ending with the matched suffix, using '/' as separator
+     */
+    public List<String> matchPrefixes() {
+      return prefixes;
     }
 
     public int matchLen() {
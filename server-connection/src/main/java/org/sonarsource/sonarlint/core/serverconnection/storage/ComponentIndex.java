@@ -0,0 +1,189 @@
+/*
+ * SonarLint Core - Server Connection
+ * Copyright (C) 2016-2023 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.serverconnection.storage;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.SystemUtils;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Compact on-disk index of the components of a project, allowing to find the components having a given file name without loading all of them.
+ * <p>
+ * Layout (big endian):
+ * <pre>
+ * int magic, int version, int entryCount
+ * int[entryCount] entryOffsets, sorted by file name (UTF-8 bytes, unsigned), then by path
+ * entries: int ordinal, int pathLength, int fileNameStart, int fileNameLength, byte[pathLength] path (UTF-8)
+ * </pre>
+ * The ordinal is the position of the component in the original list, so that results can be returned in the same order as when reading the full list.
+ * The file is memory-mapped when queried, except on Windows where a mapped file can't be deleted until the mapping is garbage collected.
+ */
+public class ComponentIndex {
+  private static final int MAGIC = 0x534c4349;
+  private static final int VERSION = 1;
+  private static final int HEADER_SIZE = 3 * Integer.BYTES;
+  private static final int ENTRY_HEADER_SIZE = 4 * Integer.BYTES;
+
+  private ComponentIndex() {
+    // only static stuff
+  }
+
+  public static void write(List<String> components, Path indexFile) throws IOException {
+    var entries = new ArrayList<Entry>(components.size());
+    for (var i = 0; i < components.size(); i++) {
+      entries.add(new Entry(i, components.get(i)));
+    }
+    entries.sort(Comparator.<Entry, byte[]>comparing(e -> e.fileName, Arrays::compareUnsigned).thenComparing(e -> e.path, Arrays::compareUnsigned));
+    try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(indexFile)))) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeInt(entries.size());
+      long offset = HEADER_SIZE + (long) entries.size() * Integer.BYTES;
+      for (var entry : entries) {
+        out.writeInt(Math.toIntExact(offset));
+        offset += ENTRY_HEADER_SIZE + entry.path.length;
+      }
+      for (var entry : entries) {
+        out.writeInt(entry.ordinal);
+        out.writeInt(entry.path.length);
+        out.writeInt(entry.fileNameStart);
+        out.writeInt(entry.fileName.length);
+        out.write(entry.path);
+      }
+    }
+  }
+
+  /**
+   * @return the paths of the components having one of the given file names, in the order they were written
+   * @throws IOException if the index can't be read
+   */
+  public static List<String> findByFileNames(Path indexFile, Collection<String> fileNames) throws IOException {
+    var buffer = open(indexFile);
+    try {
+      if (buffer.getInt(0) != MAGIC || buffer.getInt(Integer.BYTES) != VERSION) {
+        throw new IOException("Unsupported component index: " + indexFile);
+      }
+      var entryCount = buffer.getInt(2 * Integer.BYTES);
+      var matchingOffsets = new ArrayList<Integer>();
+      for (var fileName : fileNames.stream().distinct().collect(Collectors.toList())) {
+        var fileNameBytes = fileName.getBytes(UTF_8);
+        for (var i = lowerBound(buffer, entryCount, fileNameBytes); i < entryCount && compareFileName(buffer, entryOffset(buffer, i), fileNameBytes) == 0; i++) {
+          matchingOffsets.add(entryOffset(buffer, i));
+        }
+      }
+      matchingOffsets.sort(Comparator.comparingInt(offset -> buffer.getInt(offset)));
+      return matchingOffsets.stream().map(offset -> path(buffer, offset)).collect(Collectors.toList());
+    } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+      throw new IOException("Corrupted component index: " + indexFile, e);
+    }
+  }
+
+  private static ByteBuffer open(Path indexFile) throws IOException {
+    try (var channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+      if (!SystemUtils.IS_OS_WINDOWS) {
+        return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      }
+      var buffer = ByteBuffer.allocate(Math.toIntExact(channel.size()));
+      while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+        // read until the end of the file
+      }
+      return buffer.flip();
+    }
+  }
+
+  private static int lowerBound(ByteBuffer buffer, int entryCount, byte[] fileName) {
+    var low = 0;
+    var high = entryCount;
+    while (low < high) {
+      var middle = (low + high) >>> 1;
+      if (compareFileName(buffer, entryOffset(buffer, middle), fileName) < 0) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  private static int entryOffset(ByteBuffer buffer, int index) {
+    return buffer.getInt(HEADER_SIZE + index * Integer.BYTES);
+  }
+
+  private static int compareFileName(ByteBuffer buffer, int entryOffset, byte[] fileName) {
+    var pathStart = entryOffset + ENTRY_HEADER_SIZE;
+    var fileNameStart = pathStart + buffer.getInt(entryOffset + 2 * Integer.BYTES);
+    var fileNameLength = buffer.getInt(entryOffset + 3 * Integer.BYTES);
+    var length = Math.min(fileNameLength, fileName.length);
+    for (var i = 0; i < length; i++) {
+      var result = Byte.compareUnsigned(buffer.get(fileNameStart + i), fileName[i]);
+      if (result != 0) {
+        return result;
+      }
+    }
+    return Integer.compare(fileNameLength, fileName.length);
+  }
+
+  private static String path(ByteBuffer buffer, int entryOffset) {
+    var path = new byte[buffer.getInt(entryOffset + Integer.BYTES)];
+    buffer.duplicate().position(entryOffset + ENTRY_HEADER_SIZE).get(path);
+    return new String(path, UTF_8);
+  }
+
+  private static class Entry {
+    private final int ordinal;
+    private final byte[] path;
+    private final int fileNameStart;
+    private final byte[] fileName;
+
+    private Entry(int ordinal, String path) {
+      this.ordinal = ordinal;
+      this.path = path.getBytes(UTF_8);
+      // separators are ASCII, they can't be part of a multi-byte UTF-8 sequence
+      var end = this.path.length;
+      while (end > 0 && isSeparator(this.path[end - 1])) {
+        end--;
+      }
+      var start = end;
+      while (start > 0 && !isSeparator(this.path[start - 1])) {
+        start--;
+      }
+      this.fileNameStart = start;
+      this.fileName = Arrays.copyOfRange(this.path, start, end);
+    }
+
+    private static boolean isSeparator(byte b) {
+      return b == '/' || b == '\\';
+    }
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * SonarLint Core - Server Connection
+ * Copyright (C) 2016-2023 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.serverconnection.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.stream.Collectors;
+import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
+
+/**
+ * Least recently used eviction of the entries of on-disk caches, where each entry is a file. The last modification date of a file is the date
+ * of its last use, so it has to be updated each time an entry is read.
+ */
+class LeastRecentlyUsedFiles {
+  private static final SonarLintLogger LOG = SonarLintLogger.get();
+
+  private LeastRecentlyUsedFiles() {
+    // only static stuff
+  }
+
+  static void markUsed(Path entryPath) throws IOException {
+    Files.setLastModifiedTime(entryPath, FileTime.from(Instant.now()));
+  }
+
+  /**
+   * Evicts the least recently used files with the given extension, to keep at most the given number of files in the directory.
+   */
+  static void evict(Path cacheDir, String extension, int maxEntries) {
+    if (!Files.isDirectory(cacheDir)) {
+      return;
+    }
+    try (var files = Files.list(cacheDir)) {
+      var entries = files.filter(f -> f.getFileName().toString().endsWith(extension)).collect(Collectors.toList());
+      if (entries.size() <= maxEntries) {
+        return;
+      }
+      entries.stream()
+        .sorted(Comparator.comparing(LeastRecentlyUsedFiles::lastModifiedTime))
+        .limit((long) entries.size() - maxEntries)
+        .forEach(LeastRecentlyUsedFiles::deleteQuietly);
+    } catch (IOException e) {
+      LOG.debug("Unable to clean up the cache in " + cacheDir, e);
+    }
+  }
+
+  static void deleteQuietly(Path path) {
+    try {
+      Files.deleteIfExists(path);
+    } catch (IOException e) {
+      // another process might be using the file, it will be deleted later
+    }
+  }
+
+  private static FileTime lastModifiedTime(Path path) {
+    try {
+      return Files.getLastModifiedTime(path);
+    } catch (IOException e) {
+      return FileTime.fromMillis(0);
+    }
+  }
+}
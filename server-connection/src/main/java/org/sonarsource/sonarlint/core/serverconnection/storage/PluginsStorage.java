@@ -41,25 +41,21 @@ public class PluginsStorage {
   public static final String PLUGIN_REFERENCES_PB = "plugin_references.pb";
 
   private final Path rootPath;
-  private final Path pluginReferencesFilePath;
-  private final RWLock rwLock = new RWLock();
+  private final ProtobufStorageFile<Sonarlint.PluginReferences> pluginReferencesFile;
 
   public PluginsStorage(Path connectionStorageRoot) {
     this.rootPath = connectionStorageRoot.resolve("plugins");
-    this.pluginReferencesFilePath = rootPath.resolve(PLUGIN_REFERENCES_PB);
+    this.pluginReferencesFile = new ProtobufStorageFile<>(rootPath.resolve(PLUGIN_REFERENCES_PB), Sonarlint.PluginReferences.parser(),
+      Sonarlint.PluginReferences.getDefaultInstance());
   }
 
   public void store(ServerPlugin plugin, InputStream pluginBinary) {
     try {
       FileUtils.copyInputStreamToFile(pluginBinary, rootPath.resolve(plugin.getFilename()).toFile());
       var reference = adapt(plugin);
-      rwLock.write(() -> {
-        var references = Files.exists(pluginReferencesFilePath) ? ProtobufFileUtil.readFile(pluginReferencesFilePath, Sonarlint.PluginReferences.parser())
-          : Sonarlint.PluginReferences.newBuilder().build();
-        var currentReferences = Sonarlint.PluginReferences.newBuilder(references);
-        currentReferences.putPluginsByKey(plugin.getKey(), reference);
-        ProtobufFileUtil.writeToFile(currentReferences.build(), pluginReferencesFilePath);
-      });
+      pluginReferencesFile.update(references -> Sonarlint.PluginReferences.newBuilder(references)
+        .putPluginsByKey(plugin.getKey(), reference)
+        .build());
     } catch (IOException e) {
       // XXX should we stop the whole sync ? just continue and log ?
       throw new StorageException("Cannot save plugin " + plugin.getFilename() + " in " + rootPath, e);
@@ -67,8 +63,8 @@ public class PluginsStorage {
   }
 
   public List<StoredPlugin> getStoredPlugins() {
-    return rwLock.read(() -> Files.exists(pluginReferencesFilePath) ? ProtobufFileUtil.readFile(pluginReferencesFilePath, Sonarlint.PluginReferences.parser())
-      : Sonarlint.PluginReferences.newBuilder().build()).getPluginsByKeyMap().values().stream().map(this::adapt).collect(Collectors.toList());
+    return pluginReferencesFile.read().orElse(Sonarlint.PluginReferences.getDefaultInstance())
+      .getPluginsByKeyMap().values().stream().map(this::adapt).collect(Collectors.toList());
   }
 
   public Map<String, StoredPlugin> getStoredPluginsByKey() {
@@ -109,7 +105,7 @@ public class PluginsStorage {
     }
     var knownPluginsPaths = getStoredPlugins().stream().map(StoredPlugin::getJarPath).collect(Collectors.toSet());
     try (Stream<Path> pathsInDir = Files.list(rootPath)) {
-      return pathsInDir.filter(p -> !p.equals(pluginReferencesFilePath))
+      return pathsInDir.filter(p -> !p.equals(pluginReferencesFile.getPath()))
         .filter(p -> !knownPluginsPaths.contains(p))
         .map(Path::toFile)
         .collect(Collectors.toList());
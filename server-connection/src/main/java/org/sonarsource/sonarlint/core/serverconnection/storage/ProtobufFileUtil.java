@@ -21,11 +21,16 @@ package org.sonarsource.sonarlint.core.serverconnection.storage;
 
 import com.google.protobuf.Message;
 import com.google.protobuf.Parser;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import javax.annotation.Nullable;
+import org.sonarsource.sonarlint.core.commons.io.AtomicFiles;
 
 public class ProtobufFileUtil {
+  private static final String TMP_EXTENSION = ".tmp";
+
   private ProtobufFileUtil() {
     // only static stuff
   }
@@ -38,11 +43,31 @@ public class ProtobufFileUtil {
     }
   }
 
+  /**
+   * The message is written to a temporary file that is then moved over the target file, so that concurrent readers never see a partially written file
+   */
   public static void writeToFile(Message message, Path toFile) {
-    try (var out = Files.newOutputStream(toFile)) {
-      message.writeTo(out);
+    Path tmpFile = null;
+    try {
+      tmpFile = Files.createTempFile(toFile.toAbsolutePath().getParent(), toFile.getFileName() + ".", TMP_EXTENSION);
+      try (var out = new BufferedOutputStream(Files.newOutputStream(tmpFile))) {
+        message.writeTo(out);
+      }
+      AtomicFiles.move(tmpFile, toFile);
     } catch (IOException e) {
+      deleteQuietly(tmpFile);
       throw new StorageException("Unable to write protocol buffer data to file " + toFile, e);
     }
   }
+
+  private static void deleteQuietly(@Nullable Path path) {
+    if (path == null) {
+      return;
+    }
+    try {
+      Files.deleteIfExists(path);
+    } catch (IOException e) {
+      // nothing more can be done
+    }
+  }
 }
@@ -0,0 +1,165 @@
+/*
+ * SonarLint Core - Server Connection
+ * Copyright (C) 2016-2023 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.serverconnection.storage;
+
+import com.google.protobuf.Message;
+import com.google.protobuf.Parser;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+import javax.annotation.CheckForNull;
+import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
+import org.sonarsource.sonarlint.core.serverconnection.FileUtils;
+
+/**
+ * A protocol buffer message stored in its own file, that can be shared between several threads and processes.
+ * Each write replaces the file atomically and bumps the version of the message, so that readers never see a partially written file.
+ * The parsed message is kept in memory and reused as long as the version and the attributes of the file did not change,
+ * the attributes being checked to detect the writes made by other processes.
+ */
+public class ProtobufStorageFile<T extends Message> {
+  private static final SonarLintLogger LOG = SonarLintLogger.get();
+  private final Path path;
+  private final Parser<T> parser;
+  private final T defaultMessage;
+  private final RWLock rwLock = new RWLock();
+  private final AtomicLong version = new AtomicLong();
+  private final AtomicLong parseCount = new AtomicLong();
+  private volatile CachedMessage<T> cachedMessage;
+
+  /**
+   * @param defaultMessage the message to update when the file does not exist yet
+   */
+  public ProtobufStorageFile(Path path, Parser<T> parser, T defaultMessage) {
+    this.path = path;
+    this.parser = parser;
+    this.defaultMessage = defaultMessage;
+  }
+
+  public Path getPath() {
+    return path;
+  }
+
+  public Optional<T> read() {
+    return rwLock.read(this::readUnderLock);
+  }
+
+  public void write(T message) {
+    rwLock.write(() -> writeUnderLock(message));
+  }
+
+  /**
+   * Reads, updates and writes the message without any other write happening in between in this process
+   */
+  public void update(UnaryOperator<T> updater) {
+    rwLock.write(() -> writeUnderLock(updater.apply(readUnderLock().orElse(defaultMessage))));
+  }
+
+  /**
+   * Same as {@link #update(UnaryOperator)}, except that the default message is updated when the file cannot be read (e.g. it is corrupted)
+   */
+  public void updateOrReset(UnaryOperator<T> updater) {
+    rwLock.write(() -> {
+      T message;
+      try {
+        message = readUnderLock().orElse(defaultMessage);
+      } catch (StorageException e) {
+        LOG.warn("Unable to read storage. Creating a new one.", e);
+        message = defaultMessage;
+      }
+      writeUnderLock(updater.apply(message));
+    });
+  }
+
+  /**
+   * Incremented each time the message is written by this instance
+   */
+  public long getVersion() {
+    return version.get();
+  }
+
+  /**
+   * The number of times the file was actually parsed, other reads being served from memory
+   */
+  public long getParseCount() {
+    return parseCount.get();
+  }
+
+  private Optional<T> readUnderLock() {
+    var currentVersion = version.get();
+    var fileVersion = fileVersion();
+    if (fileVersion == null) {
+      return Optional.empty();
+    }
+    var cached = cachedMessage;
+    if (cached != null && cached.version == currentVersion && cached.fileVersion.equals(fileVersion)) {
+      return Optional.of(cached.message);
+    }
+    // if another process replaces the file in the meantime, the newer message is cached with the older attributes and will be parsed again on next read
+    var message = ProtobufFileUtil.readFile(path, parser);
+    parseCount.incrementAndGet();
+    cachedMessage = new CachedMessage<>(currentVersion, fileVersion, message);
+    return Optional.of(message);
+  }
+
+  private void writeUnderLock(T message) {
+    cachedMessage = null;
+    FileUtils.mkdirs(path.getParent());
+    ProtobufFileUtil.writeToFile(message, path);
+    var newVersion = version.incrementAndGet();
+    var fileVersion = fileVersion();
+    if (fileVersion != null) {
+      cachedMessage = new CachedMessage<>(newVersion, fileVersion, message);
+    }
+  }
+
+  /**
+   * The file key changes on each write on most file systems, the modification time and size are used where it is not available (e.g. Windows)
+   */
+  @CheckForNull
+  private List<Object> fileVersion() {
+    try {
+      var attributes = Files.readAttributes(path, BasicFileAttributes.class);
+      return List.of(attributes.lastModifiedTime(), attributes.size(), String.valueOf(attributes.fileKey()));
+    } catch (NoSuchFileException e) {
+      return null;
+    } catch (IOException e) {
+      throw new StorageException("Failed to read file: " + path, e);
+    }
+  }
+
+  private static class CachedMessage<T> {
+    private final long version;
+    private final List<Object> fileVersion;
+    private final T message;
+
+    private CachedMessage(long version, List<Object> fileVersion, T message) {
+      this.version = version;
+      this.fileVersion = fileVersion;
+      this.message = message;
+    }
+  }
+}
@@ -19,38 +19,32 @@
  */
 package org.sonarsource.sonarlint.core.serverconnection.storage;
 
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Optional;
 import org.sonarsource.sonarlint.core.commons.Version;
 import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
 import org.sonarsource.sonarlint.core.serverapi.system.ServerInfo;
-import org.sonarsource.sonarlint.core.serverconnection.FileUtils;
 import org.sonarsource.sonarlint.core.serverconnection.StoredServerInfo;
 import org.sonarsource.sonarlint.core.serverconnection.proto.Sonarlint;
 
-import static org.sonarsource.sonarlint.core.serverconnection.storage.ProtobufFileUtil.writeToFile;
-
 public class ServerInfoStorage {
   private static final SonarLintLogger LOG = SonarLintLogger.get();
   public static final String SERVER_INFO_PB = "server_info.pb";
 
-  private final Path storageFilePath;
-  private final RWLock rwLock = new RWLock();
+  private final ProtobufStorageFile<Sonarlint.ServerInfo> storageFile;
 
   public ServerInfoStorage(Path rootPath) {
-    this.storageFilePath = rootPath.resolve(SERVER_INFO_PB);
+    this.storageFile = new ProtobufStorageFile<>(rootPath.resolve(SERVER_INFO_PB), Sonarlint.ServerInfo.parser(), Sonarlint.ServerInfo.getDefaultInstance());
   }
 
   public void store(ServerInfo serverInfo) {
-    FileUtils.mkdirs(storageFilePath.getParent());
     var serverInfoToStore = adapt(serverInfo);
-    LOG.debug("Storing server info in {}", storageFilePath);
-    rwLock.write(() -> writeToFile(serverInfoToStore, storageFilePath));
+    LOG.debug("Storing server info in {}", storageFile.getPath());
+    storageFile.write(serverInfoToStore);
   }
 
   public Optional<StoredServerInfo> read() {
-    return rwLock.read(() -> Files.exists(storageFilePath) ? Optional.of(adapt(ProtobufFileUtil.readFile(storageFilePath, Sonarlint.ServerInfo.parser()))) : Optional.empty());
+    return storageFile.read().map(ServerInfoStorage::adapt);
   }
 
   private static Sonarlint.ServerInfo adapt(ServerInfo serverInfo) {
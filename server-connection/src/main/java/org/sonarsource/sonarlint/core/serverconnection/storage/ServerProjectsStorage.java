@@ -0,0 +1,88 @@
+/*
+ * SonarLint Core - Server Connection
+ * Copyright (C) 2016-2023 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.serverconnection.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
+import org.sonarsource.sonarlint.core.serverapi.component.DefaultRemoteProject;
+import org.sonarsource.sonarlint.core.serverapi.component.ServerProject;
+import org.sonarsource.sonarlint.core.serverconnection.FileUtils;
+import org.sonarsource.sonarlint.core.serverconnection.StoredServerProjects;
+import org.sonarsource.sonarlint.core.serverconnection.proto.Sonarlint;
+
+import static org.sonarsource.sonarlint.core.serverconnection.storage.ProtobufFileUtil.writeToFile;
+
+/**
+ * Stores the list of all the projects visible on the server, so that it does not have to be downloaded again after a restart.
+ */
+public class ServerProjectsStorage {
+  private static final SonarLintLogger LOG = SonarLintLogger.get();
+  public static final String SERVER_PROJECTS_PB = "server_projects.pb";
+
+  private final Path storageFilePath;
+  private final RWLock rwLock = new RWLock();
+
+  public ServerProjectsStorage(Path rootPath) {
+    this.storageFilePath = rootPath.resolve(SERVER_PROJECTS_PB);
+  }
+
+  public void store(List<ServerProject> projects, Instant lastRefresh) {
+    FileUtils.mkdirs(storageFilePath.getParent());
+    var projectsToStore = adapt(projects, lastRefresh);
+    LOG.debug("Storing {} server projects in {}", projects.size(), storageFilePath);
+    rwLock.write(() -> writeToFile(projectsToStore, storageFilePath));
+  }
+
+  public Optional<StoredServerProjects> read() {
+    return rwLock.read(() -> Files.exists(storageFilePath) ? Optional.of(adapt(ProtobufFileUtil.readFile(storageFilePath, Sonarlint.ServerProjects.parser())))
+      : Optional.empty());
+  }
+
+  public void delete() {
+    rwLock.write(() -> {
+      try {
+        Files.deleteIfExists(storageFilePath);
+      } catch (IOException e) {
+        throw new StorageException("Unable to delete " + storageFilePath, e);
+      }
+    });
+  }
+
+  private static Sonarlint.ServerProjects adapt(List<ServerProject> projects, Instant lastRefresh) {
+    return Sonarlint.ServerProjects.newBuilder()
+      .addAllProjects(projects.stream()
+        .map(p -> Sonarlint.ServerProjects.ServerProject.newBuilder().setKey(p.getKey()).setName(p.getName()).build())
+        .collect(Collectors.toList()))
+      .setLastRefresh(lastRefresh.toEpochMilli())
+      .build();
+  }
+
+  private static StoredServerProjects adapt(Sonarlint.ServerProjects serverProjects) {
+    return new StoredServerProjects(serverProjects.getProjectsList().stream()
+      .map(p -> (ServerProject) new DefaultRemoteProject(p.getKey(), p.getName()))
+      .collect(Collectors.toList()), Instant.ofEpochMilli(serverProjects.getLastRefresh()));
+  }
+}
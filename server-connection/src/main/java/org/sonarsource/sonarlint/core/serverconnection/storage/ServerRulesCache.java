@@ -0,0 +1,203 @@
+/*
+ * SonarLint Core - Server Connection
+ * Copyright (C) 2016-2023 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.serverconnection.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.sonarsource.sonarlint.core.commons.IssueSeverity;
+import org.sonarsource.sonarlint.core.commons.RuleType;
+import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
+import org.sonarsource.sonarlint.core.serverapi.rules.ServerRule;
+import org.sonarsource.sonarlint.core.serverconnection.FileUtils;
+import org.sonarsource.sonarlint.core.serverconnection.proto.Sonarlint;
+
+/**
+ * Cache of the rule details fetched from a server, to avoid querying the server each time the description of a rule is displayed.
+ * Each entry is versioned with the last modification date of the quality profile the rule was fetched for, an entry for another version is never returned.
+ * The most recently used entries are kept in memory, and all entries are persisted, so that they survive restarts. Entries are written atomically,
+ * so that the cache can safely be shared between several processes. The least recently used entries are evicted from the disk when the cache contains
+ * more than {@link #DEFAULT_MAX_ENTRIES} entries.
+ */
+public class ServerRulesCache {
+  private static final SonarLintLogger LOG = SonarLintLogger.get();
+  static final int DEFAULT_MAX_ENTRIES = 1000;
+  static final int MAX_ENTRIES_IN_MEMORY = 100;
+  private static final String EXTENSION = ".pb";
+
+  private final Path cacheDir;
+  private final int maxEntries;
+  private final Map<String, Sonarlint.ServerRuleDetails> entriesInMemory = new LinkedHashMap<>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, Sonarlint.ServerRuleDetails> eldest) {
+      return size() > MAX_ENTRIES_IN_MEMORY;
+    }
+  };
+  private final AtomicLong memoryHitCount = new AtomicLong();
+  private final AtomicLong diskHitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+
+  public ServerRulesCache(Path cacheDir) {
+    this(cacheDir, DEFAULT_MAX_ENTRIES);
+  }
+
+  ServerRulesCache(Path cacheDir, int maxEntries) {
+    this.cacheDir = cacheDir;
+    this.maxEntries = maxEntries;
+  }
+
+  public Optional<ServerRule> get(String ruleKey, String qualityProfileLastModified) {
+    Sonarlint.ServerRuleDetails entry;
+    synchronized (entriesInMemory) {
+      entry = entriesInMemory.get(ruleKey);
+    }
+    if (entry != null && entry.getQualityProfileLastModified().equals(qualityProfileLastModified)) {
+      memoryHitCount.incrementAndGet();
+      return Optional.of(adapt(entry));
+    }
+    var storedEntry = readEntry(ruleKey)
+      .filter(e -> e.getQualityProfileLastModified().equals(qualityProfileLastModified));
+    if (storedEntry.isEmpty()) {
+      missCount.incrementAndGet();
+      return Optional.empty();
+    }
+    diskHitCount.incrementAndGet();
+    synchronized (entriesInMemory) {
+      entriesInMemory.put(ruleKey, storedEntry.get());
+    }
+    return storedEntry.map(ServerRulesCache::adapt);
+  }
+
+  public void put(String ruleKey, String qualityProfileLastModified, ServerRule rule) {
+    var entry = adapt(qualityProfileLastModified, rule);
+    synchronized (entriesInMemory) {
+      entriesInMemory.put(ruleKey, entry);
+    }
+    try {
+      FileUtils.mkdirs(cacheDir);
+      ProtobufFileUtil.writeToFile(entry, entryPath(ruleKey));
+    } catch (StorageException e) {
+      LOG.debug("Unable to cache details of rule '" + ruleKey + "'", e);
+    }
+  }
+
+  /**
+   * Called when rules were activated, deactivated or updated in a quality profile, the last modification date of the stored quality profile might not be updated.
+   */
+  public void evict(Collection<String> ruleKeys) {
+    synchronized (entriesInMemory) {
+      entriesInMemory.keySet().removeAll(Set.copyOf(ruleKeys));
+    }
+    ruleKeys.forEach(ruleKey -> LeastRecentlyUsedFiles.deleteQuietly(entryPath(ruleKey)));
+  }
+
+  /**
+   * Evicts the least recently used entries, to keep at most the configured number of entries on the disk.
+   */
+  public void cleanUp() {
+    LeastRecentlyUsedFiles.evict(cacheDir, EXTENSION, maxEntries);
+  }
+
+  public long getMemoryHitCount() {
+    return memoryHitCount.get();
+  }
+
+  public long getDiskHitCount() {
+    return diskHitCount.get();
+  }
+
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  private Optional<Sonarlint.ServerRuleDetails> readEntry(String ruleKey) {
+    var entryPath = entryPath(ruleKey);
+    try {
+      var entry = Sonarlint.ServerRuleDetails.parseFrom(Files.readAllBytes(entryPath));
+      // keep track of usage for the eviction
+      LeastRecentlyUsedFiles.markUsed(entryPath);
+      return Optional.of(entry);
+    } catch (NoSuchFileException e) {
+      return Optional.empty();
+    } catch (IOException e) {
+      LOG.debug("Unable to read cached details of rule '" + ruleKey + "'", e);
+      return Optional.empty();
+    }
+  }
+
+  private static Sonarlint.ServerRuleDetails adapt(String qualityProfileLastModified, ServerRule rule) {
+    return Sonarlint.ServerRuleDetails.newBuilder()
+      .setQualityProfileLastModified(qualityProfileLastModified)
+      .setName(rule.getName())
+      .setSeverity(rule.getSeverity().name())
+      .setType(rule.getType().name())
+      .setLanguageKey(rule.getLanguage().getLanguageKey())
+      .setHtmlDesc(rule.getHtmlDesc())
+      .addAllDescriptionSections(rule.getDescriptionSections().stream().map(ServerRulesCache::adapt).collect(Collectors.toList()))
+      .setHtmlNote(rule.getHtmlNote())
+      .addAllEducationPrincipleKeys(rule.getEducationPrincipleKeys())
+      .build();
+  }
+
+  private static Sonarlint.ServerRuleDetails.DescriptionSection adapt(ServerRule.DescriptionSection section) {
+    var builder = Sonarlint.ServerRuleDetails.DescriptionSection.newBuilder()
+      .setKey(section.getKey())
+      .setHtmlContent(section.getHtmlContent());
+    section.getContext().ifPresent(context -> builder.setContext(Sonarlint.ServerRuleDetails.Context.newBuilder()
+      .setKey(context.getKey())
+      .setDisplayName(context.getDisplayName())
+      .build()));
+    return builder.build();
+  }
+
+  private static ServerRule adapt(Sonarlint.ServerRuleDetails entry) {
+    return new ServerRule(
+      entry.getName(),
+      IssueSeverity.valueOf(entry.getSeverity()),
+      RuleType.valueOf(entry.getType()),
+      entry.getLanguageKey(),
+      entry.getHtmlDesc(),
+      entry.getDescriptionSectionsList().stream().map(ServerRulesCache::adapt).collect(Collectors.toList()),
+      entry.getHtmlNote(),
+      Set.copyOf(entry.getEducationPrincipleKeysList()));
+  }
+
+  private static ServerRule.DescriptionSection adapt(Sonarlint.ServerRuleDetails.DescriptionSection section) {
+    return new ServerRule.DescriptionSection(section.getKey(), section.getHtmlContent(),
+      section.hasContext() ? Optional.of(new ServerRule.DescriptionSection.Context(section.getContext().getKey(), section.getContext().getDisplayName())) : Optional.empty());
+  }
+
+  private Path entryPath(String ruleKey) {
+    return cacheDir.resolve(entryName(ruleKey) + EXTENSION);
+  }
+
+  private static String entryName(String ruleKey) {
+    return DigestUtils.md5Hex(ruleKey);
+  }
+}
@@ -19,36 +19,30 @@
  */
 package org.sonarsource.sonarlint.core.serverconnection.storage;
 
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Optional;
 import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
-import org.sonarsource.sonarlint.core.serverconnection.FileUtils;
 import org.sonarsource.sonarlint.core.serverconnection.proto.Sonarlint;
 
-import static org.sonarsource.sonarlint.core.serverconnection.storage.ProtobufFileUtil.writeToFile;
-
 public class SmartNotificationsStorage {
 
   private static final SonarLintLogger LOG = SonarLintLogger.get();
   public static final String LAST_EVENT_POLLING_PB = "last_event_polling.pb";
-  private final Path storageFilePath;
-  private final RWLock rwLock = new RWLock();
+  private final ProtobufStorageFile<Sonarlint.LastEventPolling> storageFile;
 
   public SmartNotificationsStorage(Path projectStorageRoot) {
-    this.storageFilePath = projectStorageRoot.resolve(LAST_EVENT_POLLING_PB);
+    this.storageFile = new ProtobufStorageFile<>(projectStorageRoot.resolve(LAST_EVENT_POLLING_PB), Sonarlint.LastEventPolling.parser(),
+      Sonarlint.LastEventPolling.getDefaultInstance());
   }
 
   public void store(Long lastEventPolling) {
-    FileUtils.mkdirs(storageFilePath.getParent());
     var serverInfoToStore = adapt(lastEventPolling);
-    LOG.debug("Storing last event polling in {}", storageFilePath);
-    rwLock.write(() -> writeToFile(serverInfoToStore, storageFilePath));
+    LOG.debug("Storing last event polling in {}", storageFile.getPath());
+    storageFile.write(serverInfoToStore);
   }
 
   public Optional<Long> readLastEventPolling() {
-    return rwLock.read(() -> Files.exists(storageFilePath) ?
-      Optional.of(adapt(ProtobufFileUtil.readFile(storageFilePath, Sonarlint.LastEventPolling.parser()))) : Optional.empty());
+    return storageFile.read().map(SmartNotificationsStorage::adapt);
   }
 
   private static Sonarlint.LastEventPolling adapt(Long lastEventPolling) {
@@ -0,0 +1,119 @@
+/*
+ * SonarLint Core - Server Connection
+ * Copyright (C) 2016-2023 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.serverconnection.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.sonarsource.sonarlint.core.commons.io.AtomicFiles;
+import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
+import org.sonarsource.sonarlint.core.serverconnection.FileUtils;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * On-disk cache of the source code of server components, used to compute the hash of taint vulnerability locations.
+ * The source code downloaded from the server is the one of the main branch, so each entry is versioned with the date of the analysis of the main
+ * branch, an entry for an older analysis is never returned.
+ * Entries are written atomically, so that the cache can safely be shared between several processes.
+ * The least recently used entries are evicted when the cache contains more than {@link #DEFAULT_MAX_ENTRIES} entries.
+ */
+public class SourceCodeCache {
+  private static final SonarLintLogger LOG = SonarLintLogger.get();
+  static final int DEFAULT_MAX_ENTRIES = 1000;
+  private static final String EXTENSION = ".src";
+  private static final String TMP_EXTENSION = ".tmp";
+
+  private final Path cacheDir;
+  private final int maxEntries;
+
+  public SourceCodeCache(Path cacheDir) {
+    this(cacheDir, DEFAULT_MAX_ENTRIES);
+  }
+
+  SourceCodeCache(Path cacheDir, int maxEntries) {
+    this.cacheDir = cacheDir;
+    this.maxEntries = maxEntries;
+  }
+
+  public Optional<String> get(String componentKey, Instant mainBranchAnalysisDate) {
+    var entryPath = entryPath(componentKey, mainBranchAnalysisDate);
+    try {
+      var sourceCode = Files.readString(entryPath, UTF_8);
+      // keep track of usage for the eviction
+      LeastRecentlyUsedFiles.markUsed(entryPath);
+      return Optional.of(sourceCode);
+    } catch (NoSuchFileException e) {
+      return Optional.empty();
+    } catch (IOException e) {
+      LOG.debug("Unable to read cached source code of '" + componentKey + "'", e);
+      return Optional.empty();
+    }
+  }
+
+  public void put(String componentKey, Instant mainBranchAnalysisDate, String sourceCode) {
+    var prefix = entryPrefix(componentKey);
+    var entryPath = entryPath(componentKey, mainBranchAnalysisDate);
+    try {
+      FileUtils.mkdirs(cacheDir);
+      var tmpFile = Files.createTempFile(cacheDir, prefix, TMP_EXTENSION);
+      Files.writeString(tmpFile, sourceCode, UTF_8);
+      AtomicFiles.move(tmpFile, entryPath);
+      deleteOtherVersions(prefix, entryPath);
+    } catch (IOException e) {
+      LOG.debug("Unable to cache source code of '" + componentKey + "'", e);
+    }
+  }
+
+  /**
+   * Evicts the least recently used entries, to keep at most the configured number of entries.
+   */
+  public void cleanUp() {
+    LeastRecentlyUsedFiles.evict(cacheDir, EXTENSION, maxEntries);
+  }
+
+  private void deleteOtherVersions(String prefix, Path currentEntryPath) throws IOException {
+    List<Path> otherVersions;
+    try (var files = Files.list(cacheDir)) {
+      otherVersions = files
+        .filter(f -> {
+          var fileName = f.getFileName().toString();
+          return fileName.startsWith(prefix) && fileName.endsWith(EXTENSION);
+        })
+        .filter(f -> !f.equals(currentEntryPath))
+        .collect(Collectors.toList());
+    }
+    otherVersions.forEach(LeastRecentlyUsedFiles::deleteQuietly);
+  }
+
+  private Path entryPath(String componentKey, Instant mainBranchAnalysisDate) {
+    return cacheDir.resolve(entryPrefix(componentKey) + mainBranchAnalysisDate.toEpochMilli() + EXTENSION);
+  }
+
+  private static String entryPrefix(String componentKey) {
+    return DigestUtils.md5Hex(componentKey) + "_";
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * SonarLint Core - Server Connection
+ * Copyright (C) 2016-2023 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.serverconnection;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonarsource.sonarlint.core.commons.IssueSeverity;
+import org.sonarsource.sonarlint.core.serverapi.rules.ServerActiveRule;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.sonarsource.sonarlint.core.serverconnection.AnalyzerConfiguration.CURRENT_SCHEMA_VERSION;
+
+class AnalyzerConfigurationStorageTests {
+
+  @TempDir
+  Path projectStorageRoot;
+
+  @Test
+  void should_return_the_same_instance_while_the_configuration_is_not_modified() {
+    var underTest = new AnalyzerConfigurationStorage(projectStorageRoot);
+    underTest.store(configuration("java:S1"));
+
+    var firstRead = underTest.read();
+
+    assertThat(underTest.read()).isSameAs(firstRead);
+  }
+
+  @Test
+  void should_read_the_configuration_again_after_an_update() {
+    var underTest = new AnalyzerConfigurationStorage(projectStorageRoot);
+    underTest.store(configuration("java:S1"));
+    var firstRead = underTest.read();
+
+    underTest.update(c -> configuration("java:S2"));
+
+    var secondRead = underTest.read();
+    assertThat(secondRead).isNotSameAs(firstRead);
+    assertThat(secondRead.getRuleSetByLanguageKey().get("java").getRulesByKey()).containsOnlyKeys("java:S2");
+  }
+
+  @Test
+  void should_read_the_configuration_again_when_modified_by_another_instance() {
+    var underTest = new AnalyzerConfigurationStorage(projectStorageRoot);
+    underTest.store(configuration("java:S1"));
+    underTest.read();
+
+    new AnalyzerConfigurationStorage(projectStorageRoot).store(configuration("java:S2", "java:S3"));
+
+    assertThat(underTest.read().getRuleSetByLanguageKey().get("java").getRulesByKey()).containsOnlyKeys("java:S2", "java:S3");
+  }
+
+  private static AnalyzerConfiguration configuration(String... ruleKeys) {
+    var rules = List.of(ruleKeys).stream().map(k -> new ServerActiveRule(k, IssueSeverity.MAJOR, Map.of(), "")).collect(Collectors.toList());
+    return new AnalyzerConfiguration(new Settings(Map.of()), Map.of("java", new RuleSet(rules, "2023-07-19T10:00:00+0000")), CURRENT_SCHEMA_VERSION);
+  }
+}
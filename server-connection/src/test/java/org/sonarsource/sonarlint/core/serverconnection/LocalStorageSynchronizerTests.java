@@ -20,6 +20,7 @@
 package org.sonarsource.sonarlint.core.serverconnection;
 
 import java.nio.file.Path;
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.Map;
 import java.util.Set;
@@ -93,6 +94,7 @@ class LocalStorageSynchronizerTests {
     var projectBranches = ProtobufFileUtil.readFile(projectBranchesFile, Sonarlint.ProjectBranches.parser());
     assertThat(projectBranches.getBranchNameList()).containsExactlyInAnyOrder("master", "feature/foo");
     assertThat(projectBranches.getMainBranchName()).isEqualTo("master");
+    assertThat(projectBranches.getMainBranchAnalysisDate()).isEqualTo(Instant.parse("2023-07-19T13:08:01Z").toEpochMilli());
   }
 
   @Test
@@ -208,7 +210,7 @@ class LocalStorageSynchronizerTests {
   private static void mockApiProjectBranchesList() {
     mockServer.addProtobufResponse("/api/project_branches/list.protobuf?project=projectKey",
       ProjectBranches.ListWsResponse.newBuilder()
-        .addBranches(ProjectBranches.Branch.newBuilder().setName("master").setIsMain(true).setType(BranchType.BRANCH))
+        .addBranches(ProjectBranches.Branch.newBuilder().setName("master").setIsMain(true).setType(BranchType.BRANCH).setAnalysisDate("2023-07-19T15:08:01+0200"))
         .addBranches(ProjectBranches.Branch.newBuilder().setName("feature/foo").setIsMain(false).setType(BranchType.BRANCH)).build());
   }
 
@@ -31,6 +31,7 @@ import org.sonarsource.sonarlint.core.commons.progress.ProgressMonitor;
 import org.sonarsource.sonarlint.core.serverapi.ServerApi;
 import org.sonarsource.sonarlint.core.serverapi.ServerApiHelper;
 import org.sonarsource.sonarlint.core.serverconnection.proto.Sonarlint;
+import org.sonarsource.sonarlint.core.serverconnection.storage.ComponentIndex;
 import org.sonarsource.sonarlint.core.serverconnection.storage.ProtobufFileUtil;
 import testutils.MockWebServerExtensionWithProtobuf;
 
@@ -67,6 +68,7 @@ class ProjectStorageUpdateExecutorTests {
     var components = ProtobufFileUtil.readFile(tempDir.resolve(ComponentsStorage.COMPONENT_LIST_PB), Sonarlint.ProjectComponents.parser());
     assertThat(components.getComponentList()).containsOnly(
       "pom.xml", "A/a.java", "B/b.java");
+    assertThat(ComponentIndex.findByFileNames(tempDir.resolve(ComponentsStorage.COMPONENT_INDEX), List.of("a.java", "pom.xml"))).containsExactly("pom.xml", "A/a.java");
   }
 
   @Test
@@ -86,6 +88,17 @@ class ProjectStorageUpdateExecutorTests {
     var components = ProtobufFileUtil.readFile(storagePath.resolve("636f6e6e656374696f6e4964/projects/726f6f744d6f64756c65/" + ComponentsStorage.COMPONENT_LIST_PB), Sonarlint.ProjectComponents.parser());
     assertThat(components.getComponentList()).containsOnly(
       "pom.xml", "A/a.java", "B/b.java");
+    assertThat(storage.project("rootModule").components().findByFileNames(List.of("b.java"))).containsExactly("B/b.java");
+  }
+
+  @Test
+  void should_find_components_by_file_names_in_storage_without_index(@TempDir Path storagePath) throws IOException {
+    var projectStorageRoot = storagePath.resolve("project");
+    Files.createDirectories(projectStorageRoot);
+    ProtobufFileUtil.writeToFile(Sonarlint.ProjectComponents.newBuilder().addComponent("pom.xml").addComponent("A/a.java").addComponent("B/b.java").build(),
+      projectStorageRoot.resolve(ComponentsStorage.COMPONENT_LIST_PB));
+
+    assertThat(new ComponentsStorage(projectStorageRoot).findByFileNames(List.of("b.java", "a.java"))).containsExactly("A/a.java", "B/b.java");
   }
 
 }
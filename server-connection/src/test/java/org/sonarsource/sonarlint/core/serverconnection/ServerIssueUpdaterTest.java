@@ -30,12 +30,14 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.sonarsource.sonarlint.core.commons.Language;
 import org.sonarsource.sonarlint.core.commons.Version;
+import org.sonarsource.sonarlint.core.commons.progress.ProgressMonitor;
 import org.sonarsource.sonarlint.core.serverapi.ServerApi;
 import org.sonarsource.sonarlint.core.serverapi.ServerApiHelper;
 import org.sonarsource.sonarlint.core.serverapi.issue.IssueApi;
 import org.sonarsource.sonarlint.core.serverconnection.issues.ServerIssue;
 import org.sonarsource.sonarlint.core.serverconnection.issues.ServerTaintIssue;
 import org.sonarsource.sonarlint.core.serverconnection.storage.ProjectServerIssueStore;
+import org.sonarsource.sonarlint.core.serverconnection.storage.StorageException;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
@@ -43,6 +45,7 @@ import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anySet;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -54,11 +57,13 @@ import static org.sonarsource.sonarlint.core.serverconnection.storage.ServerIssu
 class ServerIssueUpdaterTest {
 
   private static final String PROJECT_KEY = "module";
+  private static final ProgressMonitor PROGRESS = new ProgressMonitor(null);
   private final IssueDownloader downloader = mock(IssueDownloader.class);
   private final TaintIssueDownloader taintDownloader = mock(TaintIssueDownloader.class);
   private final ProjectServerIssueStore issueStore = mock(ProjectServerIssueStore.class);
   private ProjectBinding projectBinding = new ProjectBinding(PROJECT_KEY, "", "");
 
+  private final ProjectBranchesStorage branchesStorage = mock(ProjectBranchesStorage.class);
   private ServerIssueUpdater updater;
   private ServerApi serverApi;
 
@@ -69,9 +74,30 @@ class ServerIssueUpdaterTest {
     var projectStorage = mock(SonarProjectStorage.class);
     when(storage.project(PROJECT_KEY)).thenReturn(projectStorage);
     when(projectStorage.findings()).thenReturn(issueStore);
+    when(projectStorage.branches()).thenReturn(branchesStorage);
     updater = new ServerIssueUpdater(storage, downloader, taintDownloader);
   }
 
+  @Test
+  void update_file_taints_should_version_the_source_code_with_the_stored_main_branch_analysis_date() {
+    var mainBranchAnalysisDate = Instant.parse("2023-07-19T10:00:00Z");
+    when(branchesStorage.read()).thenReturn(new ProjectBranches(Set.of("master", "feature"), "master", mainBranchAnalysisDate));
+
+    updater.updateFileTaints(serverApi, projectBinding, "file", "feature", false, Version.create("8.9"), PROGRESS);
+
+    verify(taintDownloader).downloadTaintFromIssueSearch(eq(serverApi), eq("module:file"), eq("feature"), any(), eq(mainBranchAnalysisDate), eq(PROGRESS));
+  }
+
+  @Test
+  void update_file_taints_should_not_use_the_source_code_cache_when_the_project_branches_are_not_stored() {
+    when(branchesStorage.read()).thenThrow(new StorageException("Failed to read file"));
+
+    updater.updateFileTaints(serverApi, projectBinding, "file", "feature", false, Version.create("8.9"), PROGRESS);
+
+    verify(taintDownloader).downloadTaintFromIssueSearch(eq(serverApi), eq("module:file"), eq("feature"), any(), isNull(), eq(PROGRESS));
+    verify(issueStore).replaceAllTaintOfFile(eq("feature"), eq("file"), anyList());
+  }
+
   @Test
   void update_project_issues_no_pull() {
     var issue = aServerIssue();
@@ -21,6 +21,7 @@ package org.sonarsource.sonarlint.core.serverconnection;
 
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.util.Optional;
 import java.util.Set;
@@ -28,6 +29,7 @@ import javax.annotation.Nullable;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
 import org.sonarsource.sonarlint.core.commons.CleanCodeAttribute;
 import org.sonarsource.sonarlint.core.commons.ImpactSeverity;
 import org.sonarsource.sonarlint.core.commons.IssueSeverity;
@@ -46,6 +48,7 @@ import org.sonarsource.sonarlint.core.serverapi.proto.sonarqube.ws.Issues;
 import org.sonarsource.sonarlint.core.serverapi.proto.sonarqube.ws.Issues.Location;
 import org.sonarsource.sonarlint.core.serverapi.proto.sonarqube.ws.Issues.TaintVulnerabilityLite;
 import org.sonarsource.sonarlint.core.serverapi.proto.sonarqube.ws.Rules;
+import org.sonarsource.sonarlint.core.serverconnection.storage.SourceCodeCache;
 import testutils.MockWebServerExtensionWithProtobuf;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -229,6 +232,57 @@ class TaintIssueDownloaderTests {
     assertThat(issues).hasSize(1);
   }
 
+  @Test
+  void test_use_and_fill_source_code_cache_when_downloading_vulnerabilities_from_issue_search(@TempDir Path cacheDir) {
+    var ruleSearchResponse = Rules.SearchResponse.newBuilder()
+      .setTotal(1)
+      .addRules(Rules.Rule.newBuilder()
+        .setKey("javasecurity:S789"))
+      .build();
+    var issueSearchResponse = Issues.SearchWsResponse.newBuilder()
+      .addIssues(Issues.Issue.newBuilder()
+        .setKey("uuid1")
+        .setRule("javasecurity:S789")
+        .setMessage("Primary message")
+        .setTextRange(TextRange.newBuilder().setStartLine(1).setStartOffset(0).setEndLine(1).setEndOffset(4))
+        .setCreationDate("2021-01-11T18:17:31+0000")
+        .setComponent(FILE_1_KEY)
+        .setType(Common.RuleType.VULNERABILITY)
+        .setSeverity(Severity.INFO)
+        .addFlows(Flow.newBuilder()
+          .addLocations(Common.Location.newBuilder().setMsg("Flow 1 - Another file").setComponent(FILE_2_KEY)
+            .setTextRange(TextRange.newBuilder().setStartLine(1).setStartOffset(0).setEndLine(1).setEndOffset(5)))))
+      .addComponents(Issues.Component.newBuilder()
+        .setKey(FILE_1_KEY)
+        .setPath("foo/bar/Hello.java"))
+      .addComponents(Issues.Component.newBuilder()
+        .setKey(FILE_2_KEY)
+        .setPath("foo/bar/Hello2.java"))
+      .setPaging(Paging.newBuilder()
+        .setPageIndex(1)
+        .setPageSize(500)
+        .setTotal(1))
+      .build();
+    mockServer.addProtobufResponse(
+      "/api/rules/search.protobuf?repositories=roslyn.sonaranalyzer.security.cs,javasecurity,jssecurity,phpsecurity,pythonsecurity,tssecurity&f=repo&s=key&ps=500&p=1",
+      ruleSearchResponse);
+    mockServer.addProtobufResponse(
+      "/api/issues/search.protobuf?statuses=OPEN,CONFIRMED,REOPENED&types=VULNERABILITY&componentKeys=" + DUMMY_KEY + "&rules=javasecurity%3AS789&ps=500&p=1",
+      issueSearchResponse);
+    mockServer.addStringResponse("/api/sources/raw?key=" + URLEncoder.encode(FILE_2_KEY, StandardCharsets.UTF_8), "Other");
+    var analysisDate = Instant.parse("2023-07-19T10:00:00Z");
+    var sourceCodeCache = new SourceCodeCache(cacheDir);
+    sourceCodeCache.put(FILE_1_KEY, analysisDate, "Code");
+
+    var issues = underTest.downloadTaintFromIssueSearch(serverApi, DUMMY_KEY, null, sourceCodeCache, analysisDate, PROGRESS);
+
+    assertThat(issues).hasSize(1);
+    var taintIssue = issues.get(0);
+    assertTextRange(taintIssue.getTextRange(), 1, 0, 1, 4, hash("Code"));
+    assertTextRange(taintIssue.getFlows().get(0).locations().get(0).getTextRange(), 1, 0, 1, 5, hash("Other"));
+    assertThat(sourceCodeCache.get(FILE_2_KEY, analysisDate)).contains("Other");
+  }
+
   @Test
   void test_download_taint_issues_from_pull_ws() {
     var timestamp = Issues.IssuesPullQueryTimestamp.newBuilder().setQueryTimestamp(123L).build();
@@ -23,12 +23,15 @@ import java.nio.file.Path;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import org.sonarsource.sonarlint.core.commons.IssueSeverity;
+import org.sonarsource.sonarlint.core.commons.RuleType;
 import org.sonarsource.sonarlint.core.serverapi.push.RuleSetChangedEvent;
 import org.sonarsource.sonarlint.core.serverapi.rules.ServerActiveRule;
+import org.sonarsource.sonarlint.core.serverapi.rules.ServerRule;
 import org.sonarsource.sonarlint.core.serverconnection.AnalyzerConfiguration;
 import org.sonarsource.sonarlint.core.serverconnection.ConnectionStorage;
 import org.sonarsource.sonarlint.core.serverconnection.RuleSet;
@@ -76,6 +79,24 @@ class UpdateStorageOnRuleSetChangedTests {
       .containsOnly(tuple("ruleKey2", IssueSeverity.MINOR, Map.of("paramKey", "paramValue"), "templateKey"));
   }
 
+  @Test
+  void should_evict_cached_details_of_changed_rules() {
+    var serverRule = new ServerRule("name", IssueSeverity.MAJOR, RuleType.BUG, "java", "desc", List.of(), "note", Set.of());
+    storage.rules().put("ruleKey1", "", serverRule);
+    storage.rules().put("ruleKey2", "", serverRule);
+    storage.rules().put("ruleKey3", "", serverRule);
+    var event = new RuleSetChangedEvent(
+      List.of("projectKey1"),
+      List.of(new RuleSetChangedEvent.ActiveRule("ruleKey1", "lang1", IssueSeverity.MAJOR, emptyMap(), null)),
+      List.of("ruleKey2"));
+
+    handler.handle(event);
+
+    assertThat(storage.rules().get("ruleKey1", "")).isEmpty();
+    assertThat(storage.rules().get("ruleKey2", "")).isEmpty();
+    assertThat(storage.rules().get("ruleKey3", "")).isPresent();
+  }
+
   @Test
   void should_update_existing_rule_in_storage() {
     storage.project("projectKey1").analyzerConfiguration().store(new AnalyzerConfiguration(new Settings(emptyMap()), Map.of("lang1", new RuleSet(List.of(
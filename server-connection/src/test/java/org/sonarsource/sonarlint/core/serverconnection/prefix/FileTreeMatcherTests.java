@@ -257,10 +257,10 @@ class FileTreeMatcherTests {
 
   @Test
   void verify_equals_and_hashcode_of_result() {
-    var r1 = new FileTreeMatcher.Result(Paths.get("ide1"), Paths.get("sq1"));
-    var r2 = new FileTreeMatcher.Result(Paths.get("ide2"), Paths.get("sq1"));
-    var r3 = new FileTreeMatcher.Result(Paths.get("ide1"), Paths.get("sq2"));
-    var r4 = new FileTreeMatcher.Result(Paths.get("ide1"), Paths.get("sq1"));
+    var r1 = new FileTreeMatcher.Result("ide1", "sq1");
+    var r2 = new FileTreeMatcher.Result("ide2", "sq1");
+    var r3 = new FileTreeMatcher.Result("ide1", "sq2");
+    var r4 = new FileTreeMatcher.Result("ide1", "sq1");
 
     assertThat(r1.equals(r1)).isTrue();
     assertThat(r1.equals(r4)).isTrue();
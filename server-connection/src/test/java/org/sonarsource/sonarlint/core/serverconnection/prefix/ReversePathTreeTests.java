@@ -19,7 +19,6 @@
  */
 package org.sonarsource.sonarlint.core.serverconnection.prefix;
 
-import java.nio.file.Paths;
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -29,45 +28,45 @@ class ReversePathTreeTests {
 
   @Test
   void should_return_matching_prefix() {
-    tree.index(Paths.get("A/src/main/java/File.java"));
+    tree.index("A/src/main/java/File.java");
 
-    var match = tree.findLongestSuffixMatches(Paths.get("B/src/main/java/File.java"));
+    var match = tree.findLongestSuffixMatches("B/src/main/java/File.java");
 
     assertThat(match.matchLen()).isEqualTo(4);
-    assertThat(match.matchPrefixes()).containsExactly(Paths.get("A"));
+    assertThat(match.matchPrefixes()).containsExactly("A");
   }
 
   @Test
   void should_return_matching_prefixes() {
-    tree.index(Paths.get("project1/src/main/java/File.java"));
-    tree.index(Paths.get("project2/src/main/java/File.java"));
-    tree.index(Paths.get("project2/src/test/java/File.java"));
+    tree.index("project1/src/main/java/File.java");
+    tree.index("project2/src/main/java/File.java");
+    tree.index("project2/src/test/java/File.java");
 
-    var match = tree.findLongestSuffixMatches(Paths.get("src/main/java/File.java"));
+    var match = tree.findLongestSuffixMatches("src/main/java/File.java");
 
     assertThat(match.matchLen()).isEqualTo(4);
-    assertThat(match.matchPrefixes()).containsExactlyInAnyOrder(Paths.get("project1"), Paths.get("project2"));
+    assertThat(match.matchPrefixes()).containsExactlyInAnyOrder("project1", "project2");
   }
 
   @Test
   void should_return_empty_prefix_if_full_match() {
-    tree.index(Paths.get("project1/src/main/java/File.java"));
-    tree.index(Paths.get("project2/src/main/java/File.java"));
-    tree.index(Paths.get("project2/src/test/java/File.java"));
+    tree.index("project1/src/main/java/File.java");
+    tree.index("project2/src/main/java/File.java");
+    tree.index("project2/src/test/java/File.java");
 
-    var match = tree.findLongestSuffixMatches(Paths.get("project2/src/main/java/File.java"));
+    var match = tree.findLongestSuffixMatches("project2/src/main/java/File.java");
 
     assertThat(match.matchLen()).isEqualTo(5);
-    assertThat(match.matchPrefixes()).containsExactly(Paths.get(""));
+    assertThat(match.matchPrefixes()).containsExactly("");
   }
 
   @Test
   void should_return_empty_if_no_match() {
-    tree.index(Paths.get("project1/src/main/java/File.java"));
-    tree.index(Paths.get("project2/src/main/java/File.java"));
-    tree.index(Paths.get("project2/src/test/java/File.java"));
+    tree.index("project1/src/main/java/File.java");
+    tree.index("project2/src/main/java/File.java");
+    tree.index("project2/src/test/java/File.java");
 
-    var match = tree.findLongestSuffixMatches(Paths.get("File2.java"));
+    var match = tree.findLongestSuffixMatches("File2.java");
 
     assertThat(match.matchLen()).isEqualTo(0);
     assertThat(match.matchPrefixes()).isEmpty();
@@ -75,12 +74,40 @@ class ReversePathTreeTests {
 
   @Test
   void should_return_matches_that_are_part_of_other_matches() {
-    tree.index(Paths.get("project1/A/pom.xml"));
-    tree.index(Paths.get("project1/pom.xml"));
-    tree.index(Paths.get("pom.xml"));
-    var match = tree.findLongestSuffixMatches(Paths.get("pom.xml"));
+    tree.index("project1/A/pom.xml");
+    tree.index("project1/pom.xml");
+    tree.index("pom.xml");
+    var match = tree.findLongestSuffixMatches("pom.xml");
     assertThat(match.matchLen()).isEqualTo(1);
-    assertThat(match.matchPrefixes()).containsOnly(Paths.get(""), Paths.get("project1"), Paths.get("project1/A"));
+    assertThat(match.matchPrefixes()).containsOnly("", "project1", "project1/A");
+  }
+
+  @Test
+  void should_accept_windows_separators() {
+    tree.index("project1\\src\\File.java");
+
+    var match = tree.findLongestSuffixMatches("src/File.java");
+
+    assertThat(match.matchLen()).isEqualTo(2);
+    assertThat(match.matchPrefixes()).containsExactly("project1");
+  }
+
+  @Test
+  void should_share_nodes_and_segments_between_paths() {
+    var moduleCount = 100;
+    var fileCount = 1000;
+    for (var module = 0; module < moduleCount; module++) {
+      for (var file = 0; file < fileCount; file++) {
+        tree.index("module" + module + "/src/main/java/com/mycompany/File" + file + ".java");
+      }
+    }
+
+    // the root, one node per filename and per shared directory under it, and one module node per path
+    assertThat(tree.nodeCount()).isEqualTo(1 + fileCount * 6 + moduleCount * fileCount);
+    assertThat(tree.segmentCount()).isEqualTo(fileCount + 5 + moduleCount);
+    var match = tree.findLongestSuffixMatches("local/src/main/java/com/mycompany/File42.java");
+    assertThat(match.matchLen()).isEqualTo(6);
+    assertThat(match.matchPrefixes()).hasSize(moduleCount).contains("module0", "module99");
   }
 
 }
@@ -0,0 +1,72 @@
+/*
+ * SonarLint Core - Server Connection
+ * Copyright (C) 2016-2023 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.serverconnection.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ComponentIndexTests {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void should_find_components_by_file_name_in_original_order() throws IOException {
+    var indexFile = tempDir.resolve("index.bin");
+    ComponentIndex.write(List.of("src/b/Foo.java", "pom.xml", "src/a/Foo.java", "src/Bar.java", "Foo.java", "src\\c\\Foo.java"), indexFile);
+
+    assertThat(ComponentIndex.findByFileNames(indexFile, Set.of("Foo.java", "pom.xml")))
+      .containsExactly("src/b/Foo.java", "pom.xml", "src/a/Foo.java", "Foo.java", "src\\c\\Foo.java");
+    assertThat(ComponentIndex.findByFileNames(indexFile, Set.of("Bar.java"))).containsExactly("src/Bar.java");
+    assertThat(ComponentIndex.findByFileNames(indexFile, Set.of("Baz.java", "Foo"))).isEmpty();
+  }
+
+  @Test
+  void should_support_non_ascii_file_names() throws IOException {
+    var indexFile = tempDir.resolve("index.bin");
+    ComponentIndex.write(List.of("src/\u00e9t\u00e9.py", "src/ete.py", "\u65e5\u672c/\u8a9e.js"), indexFile);
+
+    assertThat(ComponentIndex.findByFileNames(indexFile, Set.of("\u00e9t\u00e9.py", "\u8a9e.js"))).containsExactly("src/\u00e9t\u00e9.py", "\u65e5\u672c/\u8a9e.js");
+  }
+
+  @Test
+  void should_support_empty_index() throws IOException {
+    var indexFile = tempDir.resolve("index.bin");
+    ComponentIndex.write(List.of(), indexFile);
+
+    assertThat(ComponentIndex.findByFileNames(indexFile, Set.of("Foo.java"))).isEmpty();
+  }
+
+  @Test
+  void should_fail_on_unsupported_file() throws IOException {
+    var indexFile = tempDir.resolve("index.bin");
+    Files.write(indexFile, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12});
+
+    assertThatThrownBy(() -> ComponentIndex.findByFileNames(indexFile, Set.of("Foo.java"))).isInstanceOf(IOException.class);
+  }
+}
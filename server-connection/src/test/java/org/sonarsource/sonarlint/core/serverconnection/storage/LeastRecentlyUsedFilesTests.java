@@ -0,0 +1,70 @@
+/*
+ * SonarLint Core - Server Connection
+ * Copyright (C) 2016-2023 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.serverconnection.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LeastRecentlyUsedFilesTests {
+
+  private static final Instant YESTERDAY = Instant.now().minusSeconds(86_400);
+
+  @TempDir
+  Path cacheDir;
+
+  @Test
+  void it_should_evict_least_recently_used_files_with_the_given_extension() throws IOException {
+    var oldest = createEntry("oldest.src");
+    var used = createEntry("used.src");
+    var newest = createEntry("newest.src");
+    var otherExtension = createEntry("other.tmp");
+    Files.setLastModifiedTime(newest, FileTime.from(YESTERDAY.plusSeconds(1)));
+    LeastRecentlyUsedFiles.markUsed(used);
+
+    LeastRecentlyUsedFiles.evict(cacheDir, ".src", 2);
+
+    assertThat(oldest).doesNotExist();
+    assertThat(used).exists();
+    assertThat(newest).exists();
+    assertThat(otherExtension).exists();
+  }
+
+  @Test
+  void it_should_ignore_missing_cache_directory() {
+    var missingDir = cacheDir.resolve("missing");
+
+    LeastRecentlyUsedFiles.evict(missingDir, ".src", 0);
+
+    assertThat(missingDir).doesNotExist();
+  }
+
+  private Path createEntry(String fileName) throws IOException {
+    var entry = Files.writeString(cacheDir.resolve(fileName), fileName);
+    Files.setLastModifiedTime(entry, FileTime.from(YESTERDAY));
+    return entry;
+  }
+}
@@ -20,8 +20,12 @@
 package org.sonarsource.sonarlint.core.serverconnection.storage;
 
 import com.google.protobuf.Parser;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.sonarsource.sonarlint.core.serverconnection.proto.Sonarlint;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -45,4 +49,18 @@ class ProtobufFileUtilTests {
     var thrown = assertThrows(StorageException.class, () -> ProtobufFileUtil.writeToFile(SOME_MESSAGE, p));
     assertThat(thrown).hasMessageStartingWith("Unable to write protocol buffer data to file");
   }
+
+  @Test
+  void test_writeFile_replaces_existing_file_without_leaving_temporary_files(@TempDir Path tempDir) throws IOException {
+    var file = tempDir.resolve("file.pb");
+    ProtobufFileUtil.writeToFile(Sonarlint.PluginReferences.newBuilder()
+      .putPluginsByKey("key", Sonarlint.PluginReferences.PluginReference.newBuilder().setKey("key").build()).build(), file);
+
+    ProtobufFileUtil.writeToFile(SOME_MESSAGE, file);
+
+    assertThat(ProtobufFileUtil.readFile(file, SOME_PARSER)).isEqualTo(SOME_MESSAGE);
+    try (var files = Files.list(tempDir)) {
+      assertThat(files).containsExactly(file);
+    }
+  }
 }
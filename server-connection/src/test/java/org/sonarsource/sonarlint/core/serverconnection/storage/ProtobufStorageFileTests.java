@@ -0,0 +1,220 @@
+/*
+ * SonarLint Core - Server Connection
+ * Copyright (C) 2016-2023 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.serverconnection.storage;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonarsource.sonarlint.core.serverconnection.proto.Sonarlint;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProtobufStorageFileTests {
+
+  @TempDir
+  Path tempDir;
+
+  private ExecutorService executor;
+
+  @AfterEach
+  void shutdownExecutor() {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void it_should_return_empty_when_the_file_does_not_exist() {
+    var underTest = newStorageFile();
+
+    assertThat(underTest.read()).isEmpty();
+    assertThat(underTest.getParseCount()).isZero();
+  }
+
+  @Test
+  void it_should_create_parent_directories_when_writing() {
+    var underTest = new ProtobufStorageFile<>(tempDir.resolve("sub").resolve("file.pb"), Sonarlint.PluginReferences.parser(),
+      Sonarlint.PluginReferences.getDefaultInstance());
+
+    underTest.write(references("v1", 2));
+
+    assertThat(Files.exists(tempDir.resolve("sub").resolve("file.pb"))).isTrue();
+  }
+
+  @Test
+  void it_should_serve_reads_from_memory_until_the_next_write() {
+    var underTest = newStorageFile();
+    underTest.write(references("v1", 2));
+
+    var firstRead = underTest.read();
+    var secondRead = underTest.read();
+
+    assertThat(firstRead).contains(references("v1", 2));
+    assertThat(secondRead.get()).isSameAs(firstRead.get());
+    assertThat(underTest.getParseCount()).isZero();
+    assertThat(underTest.getVersion()).isEqualTo(1);
+
+    underTest.write(references("v2", 3));
+
+    assertThat(underTest.read()).contains(references("v2", 3));
+    assertThat(underTest.getVersion()).isEqualTo(2);
+  }
+
+  @Test
+  void it_should_parse_the_file_once_when_written_by_another_instance() {
+    newStorageFile().write(references("v1", 2));
+    var underTest = newStorageFile();
+
+    underTest.read();
+    underTest.read();
+
+    assertThat(underTest.read()).contains(references("v1", 2));
+    assertThat(underTest.getParseCount()).isEqualTo(1);
+  }
+
+  @Test
+  void it_should_detect_writes_made_by_another_process() {
+    var underTest = newStorageFile();
+    underTest.write(references("v1", 2));
+    underTest.read();
+
+    ProtobufFileUtil.writeToFile(references("v2", 2), underTest.getPath());
+
+    assertThat(underTest.read()).contains(references("v2", 2));
+    assertThat(underTest.getParseCount()).isEqualTo(1);
+  }
+
+  @Test
+  void it_should_detect_deletion_of_the_file() throws Exception {
+    var underTest = newStorageFile();
+    underTest.write(references("v1", 2));
+
+    Files.delete(underTest.getPath());
+
+    assertThat(underTest.read()).isEmpty();
+  }
+
+  @Test
+  void it_should_update_the_default_message_when_the_file_does_not_exist() {
+    var underTest = newStorageFile();
+
+    underTest.update(references -> Sonarlint.PluginReferences.newBuilder(references).putPluginsByKey("key", reference("key", "v1")).build());
+    underTest.update(references -> Sonarlint.PluginReferences.newBuilder(references).putPluginsByKey("key2", reference("key2", "v1")).build());
+
+    assertThat(underTest.read().get().getPluginsByKeyMap()).containsOnlyKeys("key", "key2");
+  }
+
+  @Test
+  void it_should_update_the_default_message_when_the_file_is_corrupted() throws Exception {
+    var underTest = newStorageFile();
+    Files.write(underTest.getPath(), new byte[] {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF});
+
+    underTest.updateOrReset(references -> Sonarlint.PluginReferences.newBuilder(references).putPluginsByKey("key", reference("key", "v1")).build());
+
+    assertThat(underTest.read().get().getPluginsByKeyMap()).containsOnlyKeys("key");
+  }
+
+  @Test
+  void it_should_not_leave_temporary_files() throws Exception {
+    var underTest = newStorageFile();
+
+    underTest.write(references("v1", 2));
+    underTest.write(references("v2", 2));
+
+    try (var files = Files.list(tempDir)) {
+      assertThat(files).containsExactly(underTest.getPath());
+    }
+  }
+
+  @Test
+  void concurrent_readers_should_never_see_partially_written_messages() throws Exception {
+    executor = Executors.newFixedThreadPool(8);
+    // two instances sharing the same file behave like two processes, they do not share any lock
+    var storageFiles = List.of(newStorageFile(), newStorageFile());
+    storageFiles.get(0).write(references("initial", 500));
+    var stop = new AtomicBoolean();
+    var tasks = new ArrayList<Callable<Integer>>();
+    for (var i = 0; i < 2; i++) {
+      var writer = storageFiles.get(i);
+      var writerId = i;
+      tasks.add(() -> {
+        var count = 0;
+        while (!stop.get() && count < 200) {
+          writer.write(references("writer" + writerId + "-" + count, 500));
+          count++;
+        }
+        return count;
+      });
+    }
+    for (var i = 0; i < 6; i++) {
+      var reader = storageFiles.get(i % 2);
+      tasks.add(() -> {
+        var count = 0;
+        while (!stop.get() && count < 2000) {
+          var hashes = reader.read().get().getPluginsByKeyMap().values().stream()
+            .map(Sonarlint.PluginReferences.PluginReference::getHash)
+            .collect(Collectors.toSet());
+          assertThat(hashes).hasSize(1);
+          count++;
+        }
+        return count;
+      });
+    }
+
+    List<Future<Integer>> futures;
+    try {
+      futures = executor.invokeAll(tasks, 1, TimeUnit.MINUTES);
+    } finally {
+      stop.set(true);
+    }
+
+    for (var future : futures) {
+      assertThat(future.get()).isPositive();
+    }
+    assertThat(storageFiles.get(0).read().get().getPluginsByKeyCount()).isEqualTo(500);
+  }
+
+  private ProtobufStorageFile<Sonarlint.PluginReferences> newStorageFile() {
+    return new ProtobufStorageFile<>(tempDir.resolve("plugin_references.pb"), Sonarlint.PluginReferences.parser(), Sonarlint.PluginReferences.getDefaultInstance());
+  }
+
+  private static Sonarlint.PluginReferences references(String hash, int count) {
+    var builder = Sonarlint.PluginReferences.newBuilder();
+    for (var i = 0; i < count; i++) {
+      builder.putPluginsByKey("plugin" + i, reference("plugin" + i, hash));
+    }
+    return builder.build();
+  }
+
+  private static Sonarlint.PluginReferences.PluginReference reference(String key, String hash) {
+    return Sonarlint.PluginReferences.PluginReference.newBuilder().setKey(key).setHash(hash).setFilename(key + ".jar").build();
+  }
+}
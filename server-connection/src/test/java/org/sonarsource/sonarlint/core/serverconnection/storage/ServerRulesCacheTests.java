@@ -0,0 +1,163 @@
+/*
+ * SonarLint Core - Server Connection
+ * Copyright (C) 2016-2023 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.serverconnection.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonarsource.sonarlint.core.commons.IssueSeverity;
+import org.sonarsource.sonarlint.core.commons.Language;
+import org.sonarsource.sonarlint.core.commons.RuleType;
+import org.sonarsource.sonarlint.core.serverapi.rules.ServerRule;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class ServerRulesCacheTests {
+
+  private static final String QP_LAST_MODIFIED = "2023-07-19T10:00:00+0000";
+  private static final ServerRule RULE = new ServerRule("name", IssueSeverity.MAJOR, RuleType.BUG, "java", "desc",
+    List.of(
+      new ServerRule.DescriptionSection("introduction", "intro", Optional.empty()),
+      new ServerRule.DescriptionSection("how_to_fix", "fix spring", Optional.of(new ServerRule.DescriptionSection.Context("spring", "Spring")))),
+    "note", Set.of("never_trust_user_input"));
+
+  @TempDir
+  Path cacheDir;
+
+  @Test
+  void it_should_return_empty_when_not_cached() {
+    var underTest = new ServerRulesCache(cacheDir);
+
+    assertThat(underTest.get("java:S1", QP_LAST_MODIFIED)).isEmpty();
+    assertThat(underTest.getMissCount()).isEqualTo(1);
+  }
+
+  @Test
+  void it_should_return_cached_rule_for_the_same_quality_profile_version() {
+    var underTest = new ServerRulesCache(cacheDir);
+
+    underTest.put("java:S1", QP_LAST_MODIFIED, RULE);
+
+    assertThat(underTest.get("java:S1", QP_LAST_MODIFIED)).hasValueSatisfying(ServerRulesCacheTests::assertIsRule);
+    assertThat(underTest.getMemoryHitCount()).isEqualTo(1);
+  }
+
+  @Test
+  void it_should_persist_cached_rules() {
+    new ServerRulesCache(cacheDir).put("java:S1", QP_LAST_MODIFIED, RULE);
+    var underTest = new ServerRulesCache(cacheDir);
+
+    assertThat(underTest.get("java:S1", QP_LAST_MODIFIED)).hasValueSatisfying(ServerRulesCacheTests::assertIsRule);
+    assertThat(underTest.getDiskHitCount()).isEqualTo(1);
+  }
+
+  @Test
+  void it_should_not_return_rule_cached_for_another_quality_profile_version() {
+    var underTest = new ServerRulesCache(cacheDir);
+
+    underTest.put("java:S1", QP_LAST_MODIFIED, RULE);
+
+    assertThat(underTest.get("java:S1", "2023-07-20T10:00:00+0000")).isEmpty();
+    assertThat(new ServerRulesCache(cacheDir).get("java:S1", "2023-07-20T10:00:00+0000")).isEmpty();
+  }
+
+  @Test
+  void it_should_evict_rules() {
+    var underTest = new ServerRulesCache(cacheDir);
+    underTest.put("java:S1", QP_LAST_MODIFIED, RULE);
+    underTest.put("java:S2", QP_LAST_MODIFIED, RULE);
+
+    underTest.evict(List.of("java:S1"));
+
+    assertThat(underTest.get("java:S1", QP_LAST_MODIFIED)).isEmpty();
+    assertThat(new ServerRulesCache(cacheDir).get("java:S1", QP_LAST_MODIFIED)).isEmpty();
+    assertThat(underTest.get("java:S2", QP_LAST_MODIFIED)).isPresent();
+  }
+
+  @Test
+  void it_should_ignore_corrupted_entries() throws IOException {
+    new ServerRulesCache(cacheDir).put("java:S1", QP_LAST_MODIFIED, RULE);
+    try (var files = Files.list(cacheDir)) {
+      files.forEach(f -> write(f, new byte[] {(byte) 0xFF, 0x01}));
+    }
+
+    assertThat(new ServerRulesCache(cacheDir).get("java:S1", QP_LAST_MODIFIED)).isEmpty();
+  }
+
+  @Test
+  void it_should_evict_least_recently_used_entries_from_disk() throws IOException {
+    var underTest = new ServerRulesCache(cacheDir, 2);
+    underTest.put("java:S1", QP_LAST_MODIFIED, RULE);
+    underTest.put("java:S2", QP_LAST_MODIFIED, RULE);
+    underTest.put("java:S3", QP_LAST_MODIFIED, RULE);
+    try (var files = Files.list(cacheDir)) {
+      files.forEach(f -> setLastModifiedTime(f, Instant.parse("2023-07-19T10:00:00Z")));
+    }
+    var otherInstance = new ServerRulesCache(cacheDir, 2);
+    otherInstance.get("java:S1", QP_LAST_MODIFIED);
+    otherInstance.get("java:S3", QP_LAST_MODIFIED);
+
+    underTest.cleanUp();
+
+    var reloaded = new ServerRulesCache(cacheDir);
+    assertThat(reloaded.get("java:S1", QP_LAST_MODIFIED)).isPresent();
+    assertThat(reloaded.get("java:S2", QP_LAST_MODIFIED)).isEmpty();
+    assertThat(reloaded.get("java:S3", QP_LAST_MODIFIED)).isPresent();
+  }
+
+  private static void assertIsRule(ServerRule rule) {
+    assertThat(rule.getName()).isEqualTo("name");
+    assertThat(rule.getSeverity()).isEqualTo(IssueSeverity.MAJOR);
+    assertThat(rule.getType()).isEqualTo(RuleType.BUG);
+    assertThat(rule.getLanguage()).isEqualTo(Language.JAVA);
+    assertThat(rule.getHtmlDesc()).isEqualTo("desc");
+    assertThat(rule.getHtmlNote()).isEqualTo("note");
+    assertThat(rule.getEducationPrincipleKeys()).containsOnly("never_trust_user_input");
+    assertThat(rule.getDescriptionSections())
+      .extracting(ServerRule.DescriptionSection::getKey, ServerRule.DescriptionSection::getHtmlContent, s -> s.getContext().map(ServerRule.DescriptionSection.Context::getKey))
+      .containsExactly(
+        tuple("introduction", "intro", Optional.empty()),
+        tuple("how_to_fix", "fix spring", Optional.of("spring")));
+  }
+
+  private static void write(Path path, byte[] content) {
+    try {
+      Files.write(path, content);
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static void setLastModifiedTime(Path path, Instant instant) {
+    try {
+      Files.setLastModifiedTime(path, FileTime.from(instant));
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
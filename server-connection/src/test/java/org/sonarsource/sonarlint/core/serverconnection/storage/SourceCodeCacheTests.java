@@ -0,0 +1,105 @@
+/*
+ * SonarLint Core - Server Connection
+ * Copyright (C) 2016-2023 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.serverconnection.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SourceCodeCacheTests {
+
+  private static final Instant ANALYSIS_DATE = Instant.parse("2023-07-19T10:00:00Z");
+
+  @TempDir
+  Path cacheDir;
+
+  @Test
+  void it_should_return_empty_when_not_cached() {
+    var underTest = new SourceCodeCache(cacheDir);
+
+    assertThat(underTest.get("project:file", ANALYSIS_DATE)).isEmpty();
+  }
+
+  @Test
+  void it_should_return_cached_source_code_for_the_same_analysis() {
+    var underTest = new SourceCodeCache(cacheDir);
+
+    underTest.put("project:file", ANALYSIS_DATE, "source code");
+
+    assertThat(underTest.get("project:file", ANALYSIS_DATE)).contains("source code");
+    assertThat(new SourceCodeCache(cacheDir).get("project:file", ANALYSIS_DATE)).contains("source code");
+  }
+
+  @Test
+  void it_should_not_return_source_code_cached_for_another_analysis() {
+    var underTest = new SourceCodeCache(cacheDir);
+
+    underTest.put("project:file", ANALYSIS_DATE, "source code");
+
+    assertThat(underTest.get("project:file", ANALYSIS_DATE.plusSeconds(1))).isEmpty();
+  }
+
+  @Test
+  void it_should_delete_older_versions_when_caching_a_new_one() throws IOException {
+    var underTest = new SourceCodeCache(cacheDir);
+
+    underTest.put("project:file", ANALYSIS_DATE, "old source code");
+    underTest.put("project:file", ANALYSIS_DATE.plusSeconds(1), "new source code");
+
+    assertThat(underTest.get("project:file", ANALYSIS_DATE)).isEmpty();
+    assertThat(underTest.get("project:file", ANALYSIS_DATE.plusSeconds(1))).contains("new source code");
+    try (var files = Files.list(cacheDir)) {
+      assertThat(files).hasSize(1);
+    }
+  }
+
+  @Test
+  void it_should_evict_least_recently_used_entries() throws IOException {
+    var underTest = new SourceCodeCache(cacheDir, 2);
+    underTest.put("project:file1", ANALYSIS_DATE, "source code 1");
+    underTest.put("project:file2", ANALYSIS_DATE, "source code 2");
+    underTest.put("project:file3", ANALYSIS_DATE, "source code 3");
+    try (var files = Files.list(cacheDir)) {
+      files.forEach(f -> setLastModifiedTime(f, ANALYSIS_DATE));
+    }
+    underTest.get("project:file1", ANALYSIS_DATE);
+    underTest.get("project:file3", ANALYSIS_DATE);
+
+    underTest.cleanUp();
+
+    assertThat(underTest.get("project:file1", ANALYSIS_DATE)).contains("source code 1");
+    assertThat(underTest.get("project:file2", ANALYSIS_DATE)).isEmpty();
+    assertThat(underTest.get("project:file3", ANALYSIS_DATE)).contains("source code 3");
+  }
+
+  private static void setLastModifiedTime(Path path, Instant instant) {
+    try {
+      Files.setLastModifiedTime(path, FileTime.from(instant));
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
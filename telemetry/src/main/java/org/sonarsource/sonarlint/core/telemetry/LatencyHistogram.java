@@ -0,0 +1,124 @@
+/*
+ * SonarLint Core - Telemetry
+ * Copyright (C) 2016-2023 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.telemetry;
+
+import java.util.Arrays;
+
+/**
+ * Compact log-linear histogram of durations in milliseconds, in the spirit of HdrHistogram.
+ * Values below {@link #LINEAR_BUCKET_COUNT} are counted exactly. Above, each power of two is split in {@link #SUB_BUCKET_COUNT} buckets of
+ * equal width, so that the value reported for a percentile is never more than 1/16 (6.25%) above the actual one.
+ * Histograms can be merged, e.g. to aggregate several languages or sessions.
+ */
+public class LatencyHistogram {
+  private static final int SUB_BUCKET_BITS = 4;
+  static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  static final int LINEAR_BUCKET_COUNT = SUB_BUCKET_COUNT * 2;
+
+  private long[] counts = new long[0];
+  private long totalCount;
+  private long maxValue;
+
+  public LatencyHistogram() {
+  }
+
+  LatencyHistogram(long[] counts, long maxValue) {
+    this.counts = counts;
+    this.totalCount = Arrays.stream(counts).sum();
+    this.maxValue = maxValue;
+  }
+
+  public void record(long valueMs) {
+    var value = Math.max(0, valueMs);
+    var index = bucketIndex(value);
+    if (index >= counts.length) {
+      counts = Arrays.copyOf(counts, index + 1);
+    }
+    counts[index]++;
+    totalCount++;
+    maxValue = Math.max(maxValue, value);
+  }
+
+  public void merge(LatencyHistogram other) {
+    if (other.counts.length > counts.length) {
+      counts = Arrays.copyOf(counts, other.counts.length);
+    }
+    for (var i = 0; i < other.counts.length; i++) {
+      counts[i] += other.counts[i];
+    }
+    totalCount += other.totalCount;
+    maxValue = Math.max(maxValue, other.maxValue);
+  }
+
+  public LatencyHistogram copy() {
+    return new LatencyHistogram(counts.clone(), maxValue);
+  }
+
+  public long totalCount() {
+    return totalCount;
+  }
+
+  public long maxValue() {
+    return maxValue;
+  }
+
+  /**
+   * @param percentile between 0 and 100
+   * @return the highest value of the bucket containing the given percentile of the recorded values (never more than {@link #maxValue()}),
+   * or 0 if the histogram is empty
+   */
+  public long valueAtPercentile(double percentile) {
+    if (totalCount == 0) {
+      return 0;
+    }
+    var rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * totalCount));
+    long cumulativeCount = 0;
+    for (var i = 0; i < counts.length; i++) {
+      cumulativeCount += counts[i];
+      if (cumulativeCount >= rank) {
+        return Math.min(highestEquivalentValue(i), maxValue);
+      }
+    }
+    return maxValue;
+  }
+
+  long[] counts() {
+    return counts;
+  }
+
+  static int bucketIndex(long value) {
+    if (value < LINEAR_BUCKET_COUNT) {
+      return (int) value;
+    }
+    var highestBit = 63 - Long.numberOfLeadingZeros(value);
+    var shift = highestBit - SUB_BUCKET_BITS;
+    var subBucket = (int) (value >>> shift) - SUB_BUCKET_COUNT;
+    return LINEAR_BUCKET_COUNT + (highestBit - SUB_BUCKET_BITS - 1) * SUB_BUCKET_COUNT + subBucket;
+  }
+
+  static long highestEquivalentValue(int index) {
+    if (index < LINEAR_BUCKET_COUNT) {
+      return index;
+    }
+    var shift = (index - LINEAR_BUCKET_COUNT) / SUB_BUCKET_COUNT + 1;
+    var subBucket = (index - LINEAR_BUCKET_COUNT) % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+    return ((long) (subBucket + 1) << shift) - 1;
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * SonarLint Core - Telemetry
+ * Copyright (C) 2016-2023 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.telemetry;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Histograms are sparse, only the non empty buckets are stored, as a flat array of (bucket index, count) pairs.
+ */
+public class LatencyHistogramAdapter extends TypeAdapter<LatencyHistogram> {
+
+  @Override
+  public void write(JsonWriter jsonWriter, LatencyHistogram histogram) throws IOException {
+    jsonWriter.beginObject()
+      .name("max").value(histogram.maxValue())
+      .name("buckets").beginArray();
+    var counts = histogram.counts();
+    for (var i = 0; i < counts.length; i++) {
+      if (counts[i] > 0) {
+        jsonWriter.value(i).value(counts[i]);
+      }
+    }
+    jsonWriter.endArray().endObject();
+  }
+
+  @Override
+  public LatencyHistogram read(JsonReader jsonReader) throws IOException {
+    long maxValue = 0;
+    var counts = new long[0];
+    jsonReader.beginObject();
+    while (jsonReader.hasNext()) {
+      switch (jsonReader.nextName()) {
+        case "max":
+          maxValue = jsonReader.nextLong();
+          break;
+        case "buckets":
+          jsonReader.beginArray();
+          while (jsonReader.hasNext()) {
+            var index = jsonReader.nextInt();
+            var count = jsonReader.nextLong();
+            if (index >= counts.length) {
+              counts = Arrays.copyOf(counts, index + 1);
+            }
+            counts[index] = count;
+          }
+          jsonReader.endArray();
+          break;
+        default:
+          jsonReader.skipValue();
+          break;
+      }
+    }
+    jsonReader.endObject();
+    return new LatencyHistogram(counts, maxValue);
+  }
+}
@@ -24,6 +24,7 @@ import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.time.OffsetTime;
 import java.util.Collection;
+import java.util.EnumMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -34,6 +35,8 @@ import javax.annotation.Nullable;
 import static java.time.temporal.ChronoUnit.DAYS;
 
 public class TelemetryLocalStorage {
+  static final String OTHER_LANGUAGES_KEY = "others";
+
   @Deprecated
   private LocalDate installDate;
   private LocalDate lastUseDate;
@@ -42,6 +45,7 @@ public class TelemetryLocalStorage {
   private long numUseDays;
   private boolean enabled;
   private final Map<String, TelemetryAnalyzerPerformance> analyzers;
+  private final Map<String, Map<AnalysisPhase, LatencyHistogram>> analysisLatencies;
   private final Map<String, TelemetryNotificationsCounter> notificationsCountersByEventType;
   private int showHotspotRequestsCount;
   private int openHotspotInBrowserCount;
@@ -57,6 +61,7 @@ public class TelemetryLocalStorage {
     enabled = true;
     installTime = OffsetDateTime.now();
     analyzers = new LinkedHashMap<>();
+    analysisLatencies = new LinkedHashMap<>();
     notificationsCountersByEventType = new LinkedHashMap<>();
     issueStatusChangedRuleKeys = new HashSet<>();
     raisedIssuesRules = new HashSet<>();
@@ -111,6 +116,13 @@ public class TelemetryLocalStorage {
     return analyzers;
   }
 
+  /**
+   * Latencies of the analysis phases, by language. Unlike other analysis data, they are kept after the upload, to be compared locally over time.
+   */
+  public Map<String, Map<AnalysisPhase, LatencyHistogram>> analysisLatencies() {
+    return analysisLatencies;
+  }
+
   public Map<String, TelemetryNotificationsCounter> notifications() {
     return notificationsCountersByEventType;
   }
@@ -188,6 +200,25 @@ public class TelemetryLocalStorage {
 
     var analyzer = analyzers.computeIfAbsent(language, x -> new TelemetryAnalyzerPerformance());
     analyzer.registerAnalysis(analysisTimeMs);
+    addAnalysisLatency(language, AnalysisPhase.ANALYSIS, analysisTimeMs);
+  }
+
+  /**
+   * Register the duration of the tracking of the issues of a file. The language of the file is not known when tracking,
+   * the duration is registered with the ones of the files without language.
+   */
+  public void addIssueTrackingLatency(long durationMs) {
+    addAnalysisLatency(OTHER_LANGUAGES_KEY, AnalysisPhase.ISSUE_TRACKING, durationMs);
+  }
+
+  void addAnalysisLatency(String language, AnalysisPhase phase, long durationMs) {
+    analysisLatencies.computeIfAbsent(language, x -> new EnumMap<>(AnalysisPhase.class))
+      .computeIfAbsent(phase, x -> new LatencyHistogram())
+      .record(durationMs);
+  }
+
+  void clearAnalysisLatencies() {
+    analysisLatencies.clear();
   }
 
   static boolean isOlder(@Nullable LocalDate first, @Nullable LocalDate second) {
@@ -28,30 +28,62 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
+import javax.annotation.CheckForNull;
+import org.sonarsource.sonarlint.core.commons.io.AtomicFiles;
 import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
 
 /**
  * Serialize and deserialize telemetry data to persistent storage.
+ * <p>
+ * Frequent updates (e.g. counting analyses) can be buffered with {@link #bufferUpdate(Consumer)}. Buffered updates are kept in memory and replayed
+ * together in a single read-modify-write of the file, under the file lock, so that updates made by other processes in the meantime are preserved.
+ * They are flushed when {@link #MAX_PENDING_UPDATES} are pending, at the latest {@link #FLUSH_DELAY} after the first one, before any other update,
+ * and on {@link #flush()}.
+ * <p>
+ * Each write first replaces a backup copy of the file atomically, which is used when the main file is found empty or corrupted after a crash.
  */
 public class TelemetryLocalStorageManager {
   private static final SonarLintLogger LOG = SonarLintLogger.get();
+  static final int MAX_PENDING_UPDATES = 100;
+  static final Duration FLUSH_DELAY = Duration.ofMinutes(1);
+  private static final String BACKUP_EXTENSION = ".bak";
+  private static final ScheduledExecutorService FLUSH_SCHEDULER = Executors.newSingleThreadScheduledExecutor(r -> {
+    var thread = new Thread(r, "sonarlint-telemetry-flush");
+    thread.setDaemon(true);
+    return thread;
+  });
+
   private final Path path;
+  private final Path backupPath;
   private final Gson gson;
+  private final List<Consumer<TelemetryLocalStorage>> pendingUpdates = new ArrayList<>();
+  private boolean flushScheduled;
 
   public TelemetryLocalStorageManager(Path path) {
     this.path = path;
+    this.backupPath = path.resolveSibling(path.getFileName() + BACKUP_EXTENSION);
     this.gson = new GsonBuilder()
       .registerTypeAdapter(OffsetDateTime.class, new OffsetDateTimeAdapter().nullSafe())
       .registerTypeAdapter(LocalDate.class, new LocalDateAdapter().nullSafe())
       .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter().nullSafe())
+      .registerTypeAdapter(LatencyHistogram.class, new LatencyHistogramAdapter().nullSafe())
       .create();
   }
 
+  /**
+   * Apply the update to the persisted data immediately, together with all pending buffered updates.
+   */
   public void tryUpdateAtomically(Consumer<TelemetryLocalStorage> updater) {
     try {
       updateAtomically(updater);
@@ -63,13 +95,53 @@ public class TelemetryLocalStorageManager {
     }
   }
 
+  /**
+   * Buffer the update, it will be persisted later. The updater should only mutate the data it receives, as it might be applied several times.
+   */
+  public void bufferUpdate(Consumer<TelemetryLocalStorage> updater) {
+    boolean flushNow;
+    synchronized (this) {
+      pendingUpdates.add(updater);
+      flushNow = pendingUpdates.size() >= MAX_PENDING_UPDATES;
+      if (!flushNow && !flushScheduled) {
+        flushScheduled = true;
+        FLUSH_SCHEDULER.schedule(this::flush, FLUSH_DELAY.toMillis(), TimeUnit.MILLISECONDS);
+      }
+    }
+    if (flushNow) {
+      flush();
+    }
+  }
+
+  /**
+   * Persist all pending buffered updates.
+   */
+  public void flush() {
+    synchronized (this) {
+      if (pendingUpdates.isEmpty()) {
+        return;
+      }
+    }
+    tryUpdateAtomically(data -> {
+    });
+  }
+
+  synchronized int pendingUpdatesCount() {
+    return pendingUpdates.size();
+  }
+
   private synchronized void updateAtomically(Consumer<TelemetryLocalStorage> updater) throws IOException {
+    var updates = new ArrayList<>(pendingUpdates);
+    updates.add(updater);
+    // pending updates are dropped even if the write fails, to not accumulate them forever when the storage is not writable
+    pendingUpdates.clear();
+    flushScheduled = false;
     Files.createDirectories(path.getParent());
     try (var fileChannel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.SYNC);
       var lock = fileChannel.lock()) {
       var newData = readAtomically(fileChannel);
 
-      updater.accept(newData);
+      updates.forEach(update -> update.accept(newData));
 
       writeAtomically(fileChannel, newData);
     }
@@ -78,16 +150,17 @@ public class TelemetryLocalStorageManager {
   private TelemetryLocalStorage readAtomically(FileChannel fileChannel) throws IOException {
     try {
       if (fileChannel.size() == 0) {
-        return new TelemetryLocalStorage();
+        return readBackupOrDefault();
       }
       final var buf = ByteBuffer.allocate((int) fileChannel.size());
       fileChannel.read(buf);
-      var decoded = Base64.getDecoder().decode(buf.array());
-      var oldJson = new String(decoded, StandardCharsets.UTF_8);
-      var previousData = gson.fromJson(oldJson, TelemetryLocalStorage.class);
-
-      return TelemetryLocalStorage.validateAndMigrate(previousData);
+      return decode(buf.array());
     } catch (Exception e) {
+      var backup = tryReadBackup();
+      if (backup != null) {
+        LOG.debug("Telemetry data is corrupted, restoring the backup");
+        return backup;
+      }
       if (InternalDebug.isEnabled()) {
         LOG.error("Error reading telemetry data", e);
         throw new IllegalStateException(e);
@@ -97,21 +170,65 @@ public class TelemetryLocalStorageManager {
   }
 
   private void writeAtomically(FileChannel fileChannel, TelemetryLocalStorage newData) throws IOException {
-    fileChannel.truncate(0);
-
     var newJson = gson.toJson(newData);
     var encoded = Base64.getEncoder().encode(newJson.getBytes(StandardCharsets.UTF_8));
 
-    fileChannel.write(ByteBuffer.wrap(encoded));
+    writeBackup(encoded);
+
+    fileChannel.truncate(0);
+    fileChannel.write(ByteBuffer.wrap(encoded), 0);
+  }
+
+  private void writeBackup(byte[] encoded) throws IOException {
+    var tmpFile = Files.createTempFile(path.getParent(), path.getFileName().toString(), BACKUP_EXTENSION);
+    try {
+      Files.write(tmpFile, encoded, StandardOpenOption.SYNC);
+      AtomicFiles.move(tmpFile, backupPath);
+    } finally {
+      Files.deleteIfExists(tmpFile);
+    }
+  }
+
+  private TelemetryLocalStorage readBackupOrDefault() {
+    var backup = tryReadBackup();
+    return backup != null ? backup : new TelemetryLocalStorage();
   }
 
+  @CheckForNull
+  private TelemetryLocalStorage tryReadBackup() {
+    try {
+      if (!Files.exists(backupPath)) {
+        return null;
+      }
+      return decode(Files.readAllBytes(backupPath));
+    } catch (Exception e) {
+      LOG.debug("Unable to read telemetry data backup", e);
+      return null;
+    }
+  }
+
+  /**
+   * Read the persisted data, with pending buffered updates applied.
+   */
   public TelemetryLocalStorage tryRead() {
+    var data = tryReadPersisted();
+    synchronized (this) {
+      pendingUpdates.forEach(update -> update.accept(data));
+    }
+    return data;
+  }
+
+  private TelemetryLocalStorage tryReadPersisted() {
     try {
       if (!Files.exists(path)) {
         return new TelemetryLocalStorage();
       }
       return read();
     } catch (Exception e) {
+      var backup = tryReadBackup();
+      if (backup != null) {
+        return backup;
+      }
       if (InternalDebug.isEnabled()) {
         LOG.error("Error loading telemetry data", e);
         throw new IllegalStateException(e);
@@ -122,6 +239,13 @@ public class TelemetryLocalStorageManager {
 
   private TelemetryLocalStorage read() throws IOException {
     var bytes = Files.readAllBytes(path);
+    if (bytes.length == 0) {
+      return readBackupOrDefault();
+    }
+    return decode(bytes);
+  }
+
+  private TelemetryLocalStorage decode(byte[] bytes) {
     var decoded = Base64.getDecoder().decode(bytes);
     var json = new String(decoded, StandardCharsets.UTF_8);
     var rawData = gson.fromJson(json, TelemetryLocalStorage.class);
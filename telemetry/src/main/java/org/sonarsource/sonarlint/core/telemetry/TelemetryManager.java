@@ -20,6 +20,7 @@
 package org.sonarsource.sonarlint.core.telemetry;
 
 import java.nio.file.Path;
+import java.util.Map;
 import java.util.Set;
 import javax.annotation.Nullable;
 import org.sonarsource.sonarlint.core.commons.Language;
@@ -87,21 +88,56 @@ public class TelemetryManager {
   }
 
   public void analysisDoneOnSingleLanguage(@Nullable Language language, int analysisTimeMs) {
-    storage.tryUpdateAtomically(data -> {
-      if (language == null) {
-        data.setUsedAnalysis("others", analysisTimeMs);
-      } else {
-        data.setUsedAnalysis(language.getLanguageKey(), analysisTimeMs);
+    storage.bufferUpdate(data -> data.setUsedAnalysis(languageKey(language), analysisTimeMs));
+  }
+
+  /**
+   * Register the duration of a phase of an analysis, e.g. the durations reported by the {@code AnalysisResults} of the analysis.
+   * The whole analysis duration is registered by {@link #analysisDoneOnSingleLanguage}.
+   */
+  public void analysisPhaseDone(@Nullable Language language, AnalysisPhase phase, long durationMs) {
+    storage.bufferUpdate(data -> data.addAnalysisLatency(languageKey(language), phase, durationMs));
+  }
+
+  /**
+   * @return a copy of the latencies of the given phase for the given language, to compute percentiles
+   */
+  public LatencyHistogram getAnalysisLatencies(@Nullable Language language, AnalysisPhase phase) {
+    var histogram = storage.tryRead().analysisLatencies().getOrDefault(languageKey(language), Map.of()).get(phase);
+    return histogram != null ? histogram.copy() : new LatencyHistogram();
+  }
+
+  /**
+   * @return the latencies of the given phase, merged for all languages
+   */
+  public LatencyHistogram getAnalysisLatencies(AnalysisPhase phase) {
+    var merged = new LatencyHistogram();
+    storage.tryRead().analysisLatencies().values().forEach(histogramsByPhase -> {
+      var histogram = histogramsByPhase.get(phase);
+      if (histogram != null) {
+        merged.merge(histogram);
       }
     });
+    return merged;
+  }
+
+  /**
+   * Forget the latencies registered so far, e.g. after plugins have been upgraded.
+   */
+  public void resetAnalysisLatencies() {
+    storage.tryUpdateAtomically(TelemetryLocalStorage::clearAnalysisLatencies);
+  }
+
+  private static String languageKey(@Nullable Language language) {
+    return language == null ? TelemetryLocalStorage.OTHER_LANGUAGES_KEY : language.getLanguageKey();
   }
 
   public void analysisDoneOnMultipleFiles() {
-    storage.tryUpdateAtomically(TelemetryLocalStorage::setUsedAnalysis);
+    storage.bufferUpdate(TelemetryLocalStorage::setUsedAnalysis);
   }
 
   public void devNotificationsReceived(String eventType) {
-    storage.tryUpdateAtomically(s -> s.incrementDevNotificationsCount(eventType));
+    storage.bufferUpdate(s -> s.incrementDevNotificationsCount(eventType));
   }
 
   public void devNotificationsClicked(String eventType) {
@@ -121,11 +157,11 @@ public class TelemetryManager {
   }
 
   public void addReportedRules(Set<String> ruleKeys) {
-    storage.tryUpdateAtomically(s -> s.addReportedRules(ruleKeys));
+    storage.bufferUpdate(s -> s.addReportedRules(ruleKeys));
   }
 
   public void addQuickFixAppliedForRule(String ruleKey) {
-    storage.tryUpdateAtomically(s -> s.addQuickFixAppliedForRule(ruleKey));
+    storage.bufferUpdate(s -> s.addQuickFixAppliedForRule(ruleKey));
   }
 
   public void helpAndFeedbackLinkClicked(String itemId) {
@@ -136,10 +172,18 @@ public class TelemetryManager {
     storage.tryUpdateAtomically(s -> s.helpAndFeedbackLinkClicked(itemId));
   }
 
+  /**
+   * Persist the data buffered by the frequent events (analyses, notifications, reported rules and quick fixes).
+   */
+  public void flush() {
+    storage.flush();
+  }
+
   /**
    * Save and upload lazily telemetry data.
    */
   public void stop() {
+    flush();
     uploadLazily();
   }
 }
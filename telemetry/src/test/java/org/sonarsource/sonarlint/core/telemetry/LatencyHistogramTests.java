@@ -0,0 +1,111 @@
+/*
+ * SonarLint Core - Telemetry
+ * Copyright (C) 2016-2023 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.telemetry;
+
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyHistogramTests {
+
+  @Test
+  void should_be_empty_by_default() {
+    var histogram = new LatencyHistogram();
+
+    assertThat(histogram.totalCount()).isZero();
+    assertThat(histogram.maxValue()).isZero();
+    assertThat(histogram.valueAtPercentile(50)).isZero();
+  }
+
+  @Test
+  void should_count_small_values_exactly() {
+    var histogram = new LatencyHistogram();
+    LongStream.rangeClosed(1, 20).forEach(histogram::record);
+
+    assertThat(histogram.totalCount()).isEqualTo(20);
+    assertThat(histogram.valueAtPercentile(50)).isEqualTo(10);
+    assertThat(histogram.valueAtPercentile(95)).isEqualTo(19);
+    assertThat(histogram.valueAtPercentile(100)).isEqualTo(20);
+  }
+
+  @Test
+  void should_report_percentiles_with_bounded_relative_error() {
+    var histogram = new LatencyHistogram();
+    LongStream.rangeClosed(1, 100_000).forEach(histogram::record);
+
+    assertThat(histogram.valueAtPercentile(50)).isBetween(50_000L, 50_000L + 50_000L / 16);
+    assertThat(histogram.valueAtPercentile(95)).isBetween(95_000L, 95_000L + 95_000L / 16);
+    assertThat(histogram.valueAtPercentile(99)).isBetween(99_000L, 99_000L + 99_000L / 16);
+    assertThat(histogram.valueAtPercentile(100)).isEqualTo(100_000L);
+    assertThat(histogram.maxValue()).isEqualTo(100_000L);
+  }
+
+  @Test
+  void should_keep_buckets_contiguous() {
+    for (var value = 0L; value < 1_000_000L; value++) {
+      var index = LatencyHistogram.bucketIndex(value);
+      assertThat(LatencyHistogram.highestEquivalentValue(index)).isGreaterThanOrEqualTo(value);
+      if (index > 0) {
+        assertThat(LatencyHistogram.highestEquivalentValue(index - 1)).isLessThan(value);
+      }
+    }
+    assertThat(LatencyHistogram.bucketIndex(Integer.MAX_VALUE)).isLessThan(500);
+  }
+
+  @Test
+  void should_count_negative_values_as_zero() {
+    var histogram = new LatencyHistogram();
+    histogram.record(-5);
+
+    assertThat(histogram.totalCount()).isEqualTo(1);
+    assertThat(histogram.valueAtPercentile(100)).isZero();
+  }
+
+  @Test
+  void should_merge_histograms() {
+    var histogram = new LatencyHistogram();
+    histogram.record(10);
+    var other = new LatencyHistogram();
+    other.record(3);
+    other.record(5000);
+
+    histogram.merge(other);
+
+    assertThat(histogram.totalCount()).isEqualTo(3);
+    assertThat(histogram.maxValue()).isEqualTo(5000);
+    assertThat(histogram.valueAtPercentile(0)).isEqualTo(3);
+    assertThat(histogram.valueAtPercentile(50)).isEqualTo(10);
+    assertThat(histogram.valueAtPercentile(100)).isEqualTo(5000);
+    assertThat(other.totalCount()).isEqualTo(2);
+  }
+
+  @Test
+  void copy_should_be_independent() {
+    var histogram = new LatencyHistogram();
+    histogram.record(10);
+
+    var copy = histogram.copy();
+    copy.record(20);
+
+    assertThat(histogram.totalCount()).isEqualTo(1);
+    assertThat(copy.totalCount()).isEqualTo(2);
+  }
+}
@@ -20,11 +20,13 @@
 package org.sonarsource.sonarlint.core.telemetry;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
@@ -207,4 +209,129 @@ class TelemetryLocalStorageManagerTests {
     var data = storage.tryRead();
     assertThat(data.hotspotStatusChangedCount()).isEqualTo(3);
   }
+
+  @Test
+  void should_persist_analysis_latencies() {
+    var storage = new TelemetryLocalStorageManager(filePath);
+
+    storage.tryUpdateAtomically(data -> {
+      data.addAnalysisLatency("java", AnalysisPhase.SENSORS, 10);
+      data.addAnalysisLatency("java", AnalysisPhase.SENSORS, 12_345);
+      data.addAnalysisLatency("js", AnalysisPhase.ISSUE_TRACKING, 3);
+    });
+
+    var latencies = new TelemetryLocalStorageManager(filePath).tryRead().analysisLatencies();
+    assertThat(latencies).containsOnlyKeys("java", "js");
+    var sensors = latencies.get("java").get(AnalysisPhase.SENSORS);
+    assertThat(sensors.totalCount()).isEqualTo(2);
+    assertThat(sensors.maxValue()).isEqualTo(12_345);
+    assertThat(sensors.valueAtPercentile(50)).isEqualTo(10);
+    assertThat(sensors.valueAtPercentile(100)).isEqualTo(12_345);
+    assertThat(latencies.get("js")).containsOnlyKeys(AnalysisPhase.ISSUE_TRACKING);
+  }
+
+  @Test
+  void should_register_issue_tracking_latencies_with_files_without_language() {
+    var storage = new TelemetryLocalStorageManager(filePath);
+
+    storage.tryUpdateAtomically(data -> data.addIssueTrackingLatency(42));
+
+    var latencies = new TelemetryLocalStorageManager(filePath).tryRead().analysisLatencies();
+    assertThat(latencies).containsOnlyKeys("others");
+    assertThat(latencies.get("others")).containsOnlyKeys(AnalysisPhase.ISSUE_TRACKING);
+    assertThat(latencies.get("others").get(AnalysisPhase.ISSUE_TRACKING).maxValue()).isEqualTo(42);
+  }
+
+  @Test
+  void should_buffer_updates_until_flushed() {
+    var storage = new TelemetryLocalStorageManager(filePath);
+    var otherProcessStorage = new TelemetryLocalStorageManager(filePath);
+
+    storage.bufferUpdate(TelemetryLocalStorage::incrementHotspotStatusChangedCount);
+    storage.bufferUpdate(TelemetryLocalStorage::incrementHotspotStatusChangedCount);
+
+    assertThat(filePath).doesNotExist();
+    assertThat(storage.pendingUpdatesCount()).isEqualTo(2);
+    assertThat(storage.tryRead().hotspotStatusChangedCount()).isEqualTo(2);
+    assertThat(otherProcessStorage.tryRead().hotspotStatusChangedCount()).isZero();
+
+    storage.flush();
+
+    assertThat(storage.pendingUpdatesCount()).isZero();
+    assertThat(storage.tryRead().hotspotStatusChangedCount()).isEqualTo(2);
+    assertThat(otherProcessStorage.tryRead().hotspotStatusChangedCount()).isEqualTo(2);
+  }
+
+  @Test
+  void should_flush_when_too_many_updates_are_pending() {
+    var storage = new TelemetryLocalStorageManager(filePath);
+
+    IntStream.range(0, TelemetryLocalStorageManager.MAX_PENDING_UPDATES)
+      .forEach(i -> storage.bufferUpdate(TelemetryLocalStorage::incrementOpenHotspotInBrowserCount));
+
+    assertThat(storage.pendingUpdatesCount()).isZero();
+    assertThat(new TelemetryLocalStorageManager(filePath).tryRead().openHotspotInBrowserCount()).isEqualTo(TelemetryLocalStorageManager.MAX_PENDING_UPDATES);
+  }
+
+  @Test
+  void should_flush_buffered_updates_before_immediate_update() {
+    var storage = new TelemetryLocalStorageManager(filePath);
+
+    storage.bufferUpdate(TelemetryLocalStorage::incrementOpenHotspotInBrowserCount);
+    storage.tryUpdateAtomically(TelemetryLocalStorage::incrementHotspotStatusChangedCount);
+
+    var data = new TelemetryLocalStorageManager(filePath).tryRead();
+    assertThat(data.openHotspotInBrowserCount()).isEqualTo(1);
+    assertThat(data.hotspotStatusChangedCount()).isEqualTo(1);
+  }
+
+  @Test
+  void should_merge_buffered_updates_with_updates_from_other_processes() {
+    var storage = new TelemetryLocalStorageManager(filePath);
+    var otherProcessStorage = new TelemetryLocalStorageManager(filePath);
+
+    storage.bufferUpdate(TelemetryLocalStorage::incrementHotspotStatusChangedCount);
+    otherProcessStorage.tryUpdateAtomically(TelemetryLocalStorage::incrementHotspotStatusChangedCount);
+    otherProcessStorage.tryUpdateAtomically(TelemetryLocalStorage::incrementOpenHotspotInBrowserCount);
+    storage.bufferUpdate(TelemetryLocalStorage::incrementHotspotStatusChangedCount);
+    storage.flush();
+
+    var data = otherProcessStorage.tryRead();
+    assertThat(data.hotspotStatusChangedCount()).isEqualTo(3);
+    assertThat(data.openHotspotInBrowserCount()).isEqualTo(1);
+  }
+
+  @Test
+  void should_only_lose_buffered_updates_on_crash() {
+    var storage = new TelemetryLocalStorageManager(filePath);
+    storage.bufferUpdate(TelemetryLocalStorage::incrementHotspotStatusChangedCount);
+    storage.flush();
+    // never flushed, the process crashes
+    storage.bufferUpdate(TelemetryLocalStorage::incrementHotspotStatusChangedCount);
+
+    var restarted = new TelemetryLocalStorageManager(filePath);
+
+    assertThat(restarted.tryRead().hotspotStatusChangedCount()).isEqualTo(1);
+  }
+
+  @Test
+  void should_recover_from_backup_when_crashed_while_writing() throws IOException {
+    var storage = new TelemetryLocalStorageManager(filePath);
+    storage.tryUpdateAtomically(TelemetryLocalStorage::incrementHotspotStatusChangedCount);
+    storage.bufferUpdate(TelemetryLocalStorage::incrementHotspotStatusChangedCount);
+    storage.flush();
+    var content = Files.readAllBytes(filePath);
+
+    // simulate a crash after truncating the file, and in the middle of writing it
+    Files.write(filePath, new byte[0]);
+    assertThat(new TelemetryLocalStorageManager(filePath).tryRead().hotspotStatusChangedCount()).isEqualTo(2);
+    Files.write(filePath, Arrays.copyOf(content, content.length / 2));
+    assertThat(new TelemetryLocalStorageManager(filePath).tryRead().hotspotStatusChangedCount()).isEqualTo(2);
+
+    var restarted = new TelemetryLocalStorageManager(filePath);
+    restarted.tryUpdateAtomically(TelemetryLocalStorage::incrementHotspotStatusChangedCount);
+
+    assertThat(Files.readAllBytes(filePath)).isNotEqualTo(content);
+    assertThat(new TelemetryLocalStorageManager(filePath).tryRead().hotspotStatusChangedCount()).isEqualTo(3);
+  }
 }
@@ -118,7 +118,7 @@ class TelemetryManagerTests {
     var storage = mockTelemetryStorage();
     var manager = stubbedTelemetryManager(temp, storage);
     manager.analysisDoneOnMultipleFiles();
-    verify(storage).tryUpdateAtomically(any(Consumer.class));
+    verify(storage).bufferUpdate(any(Consumer.class));
   }
 
   @Test
@@ -130,6 +130,7 @@ class TelemetryManagerTests {
 
     // note: the manager hasn't seen the saved data
     manager.analysisDoneOnMultipleFiles();
+    manager.flush();
 
     var reloaded = storage.tryRead();
     assertThat(reloaded.numUseDays()).isEqualTo(6);
@@ -138,6 +139,35 @@ class TelemetryManagerTests {
     assertThat(reloaded.numUseDays()).isEqualTo(6);
   }
 
+  @Test
+  void should_buffer_frequent_events_until_flushed() {
+    createAndSaveSampleData(storage);
+
+    manager.analysisDoneOnSingleLanguage(Language.JAVA, 1000);
+    manager.addQuickFixAppliedForRule("ruleKey1");
+
+    // not yet persisted
+    assertThat(storage.tryRead().getQuickFixesApplied()).isEmpty();
+
+    manager.flush();
+
+    var reloaded = storage.tryRead();
+    assertThat(reloaded.analyzers()).containsKey("java");
+    assertThat(reloaded.getQuickFixesApplied()).containsExactly("ruleKey1");
+  }
+
+  @Test
+  void stop_should_persist_buffered_events() {
+    createAndSaveSampleData(storage);
+    storage.tryUpdateAtomically(d -> d.setLastUploadTime(LocalDateTime.now()));
+
+    manager.addReportedRules(new HashSet<>(Arrays.asList("ruleKey1", "ruleKey2")));
+    manager.stop();
+
+    assertThat(storage.tryRead().getRaisedIssuesRules()).containsExactlyInAnyOrder("ruleKey1", "ruleKey2");
+    verifyNoMoreInteractions(client);
+  }
+
   @Test
   void stop_should_trigger_upload_once_per_day() throws IOException {
     manager.stop();
@@ -257,6 +287,7 @@ class TelemetryManagerTests {
 
     // note: the manager hasn't seen the saved data
     manager.analysisDoneOnMultipleFiles();
+    manager.flush();
 
     var reloaded = storage.tryRead();
     assertThat(reloaded.enabled()).isEqualTo(data.enabled());
@@ -276,6 +307,7 @@ class TelemetryManagerTests {
 
     // note: the manager hasn't seen the saved data
     manager.analysisDoneOnSingleLanguage(Language.JAVA, 1000);
+    manager.flush();
 
     var reloaded = storage.tryRead();
     assertThat(reloaded.enabled()).isEqualTo(data.enabled());
@@ -287,6 +319,41 @@ class TelemetryManagerTests {
     assertThat(reloaded.notifications().get(FOO_EVENT).getDevNotificationsCount()).isEqualTo(10);
   }
 
+  @Test
+  void should_register_analysis_latencies_by_language_and_phase() {
+    manager.analysisDoneOnSingleLanguage(Language.JAVA, 1000);
+    manager.analysisDoneOnSingleLanguage(Language.JAVA, 3000);
+    manager.analysisDoneOnSingleLanguage(Language.PYTHON, 200);
+    manager.analysisPhaseDone(Language.JAVA, AnalysisPhase.SENSORS, 800);
+    manager.analysisPhaseDone(null, AnalysisPhase.FILE_INDEXING, 5);
+    manager.flush();
+
+    var reloaded = new TelemetryManager(storagePath, client, attributes);
+
+    var javaAnalyses = reloaded.getAnalysisLatencies(Language.JAVA, AnalysisPhase.ANALYSIS);
+    assertThat(javaAnalyses.totalCount()).isEqualTo(2);
+    assertThat(javaAnalyses.valueAtPercentile(50)).isBetween(1000L, 1063L);
+    assertThat(javaAnalyses.valueAtPercentile(99)).isEqualTo(3000);
+    assertThat(reloaded.getAnalysisLatencies(Language.JAVA, AnalysisPhase.SENSORS).totalCount()).isEqualTo(1);
+    assertThat(reloaded.getAnalysisLatencies(null, AnalysisPhase.FILE_INDEXING).valueAtPercentile(100)).isEqualTo(5);
+    assertThat(reloaded.getAnalysisLatencies(Language.PYTHON, AnalysisPhase.SENSORS).totalCount()).isZero();
+    assertThat(reloaded.getAnalysisLatencies(AnalysisPhase.ANALYSIS).totalCount()).isEqualTo(3);
+    assertThat(reloaded.getAnalysisLatencies(AnalysisPhase.ANALYSIS).valueAtPercentile(0)).isEqualTo(200);
+  }
+
+  @Test
+  void analysis_latencies_should_be_kept_after_upload_until_reset() {
+    manager.analysisDoneOnSingleLanguage(Language.JAVA, 1000);
+    manager.uploadLazily();
+
+    assertThat(storage.tryRead().analyzers()).isEmpty();
+    assertThat(manager.getAnalysisLatencies(Language.JAVA, AnalysisPhase.ANALYSIS).totalCount()).isEqualTo(1);
+
+    manager.resetAnalysisLatencies();
+
+    assertThat(manager.getAnalysisLatencies(Language.JAVA, AnalysisPhase.ANALYSIS).totalCount()).isZero();
+  }
+
   @Test
   void accumulate_received_dev_notifications() throws IOException {
     createAndSaveSampleData(storage);
@@ -297,6 +364,7 @@ class TelemetryManagerTests {
     manager.devNotificationsReceived(FOO_EVENT);
     manager.devNotificationsReceived(FOO_EVENT);
     manager.devNotificationsReceived(FOO_EVENT);
+    manager.flush();
 
     var reloaded = storage.tryRead();
     assertThat(reloaded.enabled()).isEqualTo(data.enabled());
@@ -399,6 +467,7 @@ class TelemetryManagerTests {
     createAndSaveSampleData(storage);
 
     manager.addReportedRules(new HashSet<>(Arrays.asList("ruleKey1", "ruleKey1", "ruleKey2")));
+    manager.flush();
 
     var reloaded = storage.tryRead();
     assertThat(reloaded.getRaisedIssuesRules()).hasSize(2);
@@ -412,6 +481,7 @@ class TelemetryManagerTests {
     manager.addQuickFixAppliedForRule("ruleKey1");
     manager.addQuickFixAppliedForRule("ruleKey2");
     manager.addQuickFixAppliedForRule("ruleKey1");
+    manager.flush();
 
     var reloaded = storage.tryRead();
     assertThat(reloaded.getQuickFixesApplied()).containsExactlyInAnyOrder("ruleKey1", "ruleKey2");
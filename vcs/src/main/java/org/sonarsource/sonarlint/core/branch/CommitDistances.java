@@ -0,0 +1,169 @@
+/*
+ * SonarLint Core - Version Control System
+ * Copyright (C) 2016-2023 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.branch;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevFlag;
+import org.eclipse.jgit.revwalk.RevWalk;
+
+/**
+ * Computes in a single traversal of the history the distance between a commit and many other commits. The distance between two commits is the
+ * number of commits reachable from only one of them, i.e. the number of commits between each of them and their merge base.
+ * <p>
+ * Commits are visited from the most recent one, and each commit remembers which of the starting commits can reach it. The traversal stops as
+ * soon as all the remaining commits are reachable from all the starting commits, as older commits can not change the distances anymore.
+ */
+class CommitDistances {
+  private static final int FROM = 0;
+
+  private final Map<ObjectId, Integer> distances;
+  private final boolean complete;
+
+  private CommitDistances(Map<ObjectId, Integer> distances, boolean complete) {
+    this.distances = distances;
+    this.complete = complete;
+  }
+
+  /**
+   * @param maxWalkedCommits the traversal is interrupted after this number of commits, in which case distances are underestimated
+   */
+  static CommitDistances compute(Repository repository, ObjectId from, List<ObjectId> targets, int maxWalkedCommits) throws IOException {
+    var starts = new ArrayList<ObjectId>(targets.size() + 1);
+    starts.add(from);
+    starts.addAll(targets);
+    try (var walk = new RevWalk(repository)) {
+      var traversal = new Traversal(walk, starts.size());
+      for (var source = 0; source < starts.size(); source++) {
+        var sources = new BitSet(starts.size());
+        sources.set(source);
+        traversal.reach(walk.parseCommit(starts.get(source)), sources);
+      }
+      var walkedCommits = 0;
+      while (traversal.partiallyReachedInQueue > 0 && walkedCommits < maxWalkedCommits) {
+        traversal.visitNext();
+        walkedCommits++;
+      }
+      return new CommitDistances(countDistances(starts, traversal.reachableFrom, traversal.allSources), traversal.partiallyReachedInQueue == 0);
+    }
+  }
+
+  private static class Traversal {
+    private final RevWalk walk;
+    private final RevFlag inQueue;
+    private final BitSet allSources;
+    private final Map<RevCommit, BitSet> reachableFrom = new HashMap<>();
+    private final PriorityQueue<RevCommit> queue = new PriorityQueue<>(Comparator.comparingInt(RevCommit::getCommitTime).reversed());
+    private int partiallyReachedInQueue;
+
+    private Traversal(RevWalk walk, int sourceCount) {
+      this.walk = walk;
+      this.inQueue = walk.newFlag("IN_QUEUE");
+      this.allSources = new BitSet(sourceCount);
+      allSources.set(0, sourceCount);
+    }
+
+    private void visitNext() throws IOException {
+      var commit = queue.poll();
+      commit.remove(inQueue);
+      var sources = reachableFrom.get(commit);
+      if (!sources.equals(allSources)) {
+        partiallyReachedInQueue--;
+      }
+      for (RevCommit parent : commit.getParents()) {
+        walk.parseHeaders(parent);
+        reach(parent, sources);
+      }
+    }
+
+    /**
+     * Adds the sources to the ones that can reach the commit, and queues the commit to propagate them to its parents.
+     * With clock skew, a commit can be visited again when new sources reach it after its first visit.
+     */
+    private void reach(RevCommit commit, BitSet sources) {
+      var commitSources = reachableFrom.get(commit);
+      var isNew = commitSources == null;
+      if (isNew) {
+        commitSources = new BitSet(allSources.length());
+        reachableFrom.put(commit, commitSources);
+      }
+      var wasPartial = !commitSources.equals(allSources);
+      var previousCardinality = commitSources.cardinality();
+      commitSources.or(sources);
+      if (!isNew && commitSources.cardinality() == previousCardinality) {
+        return;
+      }
+      var isPartial = !commitSources.equals(allSources);
+      if (!commit.has(inQueue)) {
+        commit.add(inQueue);
+        queue.add(commit);
+        if (isPartial) {
+          partiallyReachedInQueue++;
+        }
+      } else if (wasPartial && !isPartial) {
+        partiallyReachedInQueue--;
+      }
+    }
+  }
+
+  private static Map<ObjectId, Integer> countDistances(List<ObjectId> starts, Map<RevCommit, BitSet> reachableFrom, BitSet allSources) {
+    var counts = new int[starts.size()];
+    for (BitSet sources : reachableFrom.values()) {
+      if (sources.equals(allSources)) {
+        continue;
+      }
+      if (sources.get(FROM)) {
+        // reachable from the starting commit but not from the targets that are not set
+        for (var target = sources.nextClearBit(1); target < starts.size(); target = sources.nextClearBit(target + 1)) {
+          counts[target]++;
+        }
+      } else {
+        for (var target = sources.nextSetBit(1); target >= 0; target = sources.nextSetBit(target + 1)) {
+          counts[target]++;
+        }
+      }
+    }
+    Map<ObjectId, Integer> distances = new HashMap<>();
+    for (var target = 1; target < starts.size(); target++) {
+      distances.put(starts.get(target), counts[target]);
+    }
+    return distances;
+  }
+
+  Map<ObjectId, Integer> getDistances() {
+    return distances;
+  }
+
+  /**
+   * @return false if the traversal was interrupted before the distances could be computed exactly
+   */
+  boolean isComplete() {
+    return complete;
+  }
+}
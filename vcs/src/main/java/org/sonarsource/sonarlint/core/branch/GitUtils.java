@@ -21,19 +21,20 @@ package org.sonarsource.sonarlint.core.branch;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.eclipse.jgit.lib.Constants;
-import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.lib.RepositoryBuilder;
-import org.eclipse.jgit.revwalk.RevWalk;
-import org.eclipse.jgit.revwalk.RevWalkUtils;
-import org.eclipse.jgit.revwalk.filter.RevFilter;
 import org.sonarsource.sonarlint.core.commons.log.SonarLintLogger;
 
 import static java.util.Comparator.naturalOrder;
@@ -45,6 +46,17 @@ public class GitUtils {
   }
 
   private static final SonarLintLogger LOG = SonarLintLogger.get();
+  /**
+   * Bounds the time spent to elect a branch on repositories with a long history between the HEAD and some of the branches
+   */
+  static final int MAX_WALKED_COMMITS = 100_000;
+  private static final int DISTANCE_CACHE_SIZE = 10_000;
+  private static final Map<List<ObjectId>, Integer> DISTANCE_CACHE = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<List<ObjectId>, Integer> eldest) {
+      return size() > DISTANCE_CACHE_SIZE;
+    }
+  });
 
   @CheckForNull
   public static Repository getRepositoryForDir(Path projectDir) {
@@ -73,12 +85,12 @@ public class GitUtils {
       }
 
       var head = repo.exactRef(Constants.HEAD);
-      if (head == null) {
+      if (head == null || head.getObjectId() == null) {
         // Not sure if this is possible to not have a HEAD, but just in case
         return null;
       }
 
-      Map<Integer, Set<String>> branchesPerDistance = new HashMap<>();
+      Map<String, ObjectId> branchTips = new HashMap<>();
       for (String serverBranchName : serverCandidateNames) {
         var shortBranchName = Repository.shortenRefName(serverBranchName);
         var localFullBranchName = Constants.R_HEADS + shortBranchName;
@@ -87,10 +99,12 @@ public class GitUtils {
         if (branchRef == null) {
           continue;
         }
-
-        int distance = distance(repo, head, branchRef);
-        branchesPerDistance.computeIfAbsent(distance, d -> new HashSet<>()).add(serverBranchName);
+        branchTips.put(serverBranchName, branchRef.getObjectId());
       }
+
+      var distances = distances(repo, head.getObjectId(), new HashSet<>(branchTips.values()));
+      Map<Integer, Set<String>> branchesPerDistance = new HashMap<>();
+      branchTips.forEach((serverBranchName, tip) -> branchesPerDistance.computeIfAbsent(distances.get(tip), d -> new HashSet<>()).add(serverBranchName));
       if (branchesPerDistance.isEmpty()) {
         return null;
       }
@@ -108,26 +122,31 @@ public class GitUtils {
     }
   }
 
-  private static int distance(Repository repository, Ref from, Ref to) throws IOException {
-
-    try (var walk = new RevWalk(repository)) {
-
-      var fromCommit = walk.parseCommit(from.getObjectId());
-      var toCommit = walk.parseCommit(to.getObjectId());
-
-      walk.setRevFilter(RevFilter.MERGE_BASE);
-      walk.markStart(fromCommit);
-      walk.markStart(toCommit);
-      var mergeBase = walk.next();
-
-      walk.reset();
-      walk.setRevFilter(RevFilter.ALL);
-      int aheadCount = RevWalkUtils.count(walk, fromCommit, mergeBase);
-      int behindCount = RevWalkUtils.count(walk, toCommit,
-        mergeBase);
-
-      return aheadCount + behindCount;
+  /**
+   * Distances only depend on the commits, so they are cached by (HEAD commit, branch tip) and computed only for the new tips, in a single traversal.
+   */
+  private static Map<ObjectId, Integer> distances(Repository repository, ObjectId head, Set<ObjectId> tips) throws IOException {
+    Map<ObjectId, Integer> distances = new HashMap<>();
+    List<ObjectId> tipsToCompute = new ArrayList<>();
+    for (ObjectId tip : tips) {
+      var cachedDistance = DISTANCE_CACHE.get(List.of(head, tip));
+      if (cachedDistance != null) {
+        distances.put(tip, cachedDistance);
+      } else {
+        tipsToCompute.add(tip);
+      }
+    }
+    if (tipsToCompute.isEmpty()) {
+      return distances;
+    }
+    var computed = CommitDistances.compute(repository, head, tipsToCompute, MAX_WALKED_COMMITS);
+    if (computed.isComplete()) {
+      computed.getDistances().forEach((tip, distance) -> DISTANCE_CACHE.put(List.of(head, tip), distance));
+    } else {
+      LOG.debug("Stopped computing branch distances after {} commits, the elected branch might not be the closest one", MAX_WALKED_COMMITS);
     }
+    distances.putAll(computed.getDistances());
+    return distances;
   }
 
 }
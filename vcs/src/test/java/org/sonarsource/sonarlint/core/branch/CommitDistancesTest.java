@@ -0,0 +1,95 @@
+/*
+ * SonarLint Core - Version Control System
+ * Copyright (C) 2016-2023 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonarsource.sonarlint.core.branch;
+
+import java.io.File;
+import java.util.List;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CommitDistancesTest {
+
+  @Test
+  void shouldComputeDistancesToAllTargets(@TempDir File repoDir) throws Exception {
+    try (var git = Git.init().setDirectory(repoDir).call()) {
+      var c1 = commit(git, "c1");
+      var c2 = commit(git, "c2");
+      commit(git, "c3");
+      var c4 = commit(git, "c4");
+      git.checkout().setCreateBranch(true).setName("feature").setStartPoint(c2).call();
+      commit(git, "f1");
+      var f2 = commit(git, "f2");
+      var w1 = commit(git, "w1");
+
+      var distances = CommitDistances.compute(git.getRepository(), w1, List.of(c4, f2, c2, c1, w1), GitUtils.MAX_WALKED_COMMITS);
+
+      assertThat(distances.isComplete()).isTrue();
+      // w1, f2, f1 on one side, c3, c4 on the other side
+      assertThat(distances.getDistances()).containsEntry(c4, 5);
+      assertThat(distances.getDistances()).containsEntry(f2, 1);
+      assertThat(distances.getDistances()).containsEntry(c2, 3);
+      assertThat(distances.getDistances()).containsEntry(c1, 4);
+      assertThat(distances.getDistances()).containsEntry(w1, 0);
+    }
+  }
+
+  @Test
+  void shouldFollowAllParentsOfMergeCommits(@TempDir File repoDir) throws Exception {
+    try (var git = Git.init().setDirectory(repoDir).call()) {
+      var mainBranch = git.getRepository().getBranch();
+      var c1 = commit(git, "c1");
+      git.checkout().setCreateBranch(true).setName("feature").setStartPoint(c1).call();
+      var f1 = commit(git, "f1");
+      git.checkout().setName(mainBranch).call();
+      commit(git, "c2");
+      var merge = git.merge().include(f1).setMessage("merge").call().getNewHead();
+
+      var distances = CommitDistances.compute(git.getRepository(), merge, List.of(f1, c1), GitUtils.MAX_WALKED_COMMITS);
+
+      assertThat(distances.getDistances()).containsEntry(f1, 2);
+      assertThat(distances.getDistances()).containsEntry(c1, 3);
+    }
+  }
+
+  @Test
+  void shouldStopAfterMaxWalkedCommits(@TempDir File repoDir) throws Exception {
+    try (var git = Git.init().setDirectory(repoDir).call()) {
+      var c1 = commit(git, "c1");
+      for (var i = 0; i < 10; i++) {
+        commit(git, "c" + i);
+      }
+      var head = commit(git, "head");
+
+      var distances = CommitDistances.compute(git.getRepository(), head, List.of(c1), 3);
+
+      assertThat(distances.isComplete()).isFalse();
+      assertThat(distances.getDistances().get(c1)).isLessThan(11);
+    }
+  }
+
+  private static RevCommit commit(Git git, String message) throws GitAPIException {
+    return git.commit().setMessage(message).setAllowEmpty(true).call();
+  }
+}
@@ -28,6 +28,7 @@ import java.util.Enumeration;
 import java.util.Set;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
+import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.lib.RefDatabase;
 import org.eclipse.jgit.lib.Repository;
 import org.junit.jupiter.api.Test;
@@ -152,6 +153,28 @@ class GitUtilsTest {
     }
   }
 
+  @Test
+  void shouldElectClosestBranchOnSyntheticRepository(@TempDir File repoDir) throws Exception {
+    try (var git = Git.init().setDirectory(repoDir).call()) {
+      var mainBranch = git.getRepository().getBranch();
+      git.commit().setMessage("c1").setAllowEmpty(true).call();
+      var c2 = git.commit().setMessage("c2").setAllowEmpty(true).call();
+      git.commit().setMessage("c3").setAllowEmpty(true).call();
+      git.checkout().setCreateBranch(true).setName("feature").setStartPoint(c2).call();
+      git.commit().setMessage("f1").setAllowEmpty(true).call();
+      git.checkout().setCreateBranch(true).setName("wip").call();
+      git.commit().setMessage("w1").setAllowEmpty(true).call();
+      Set<String> serverCandidateNames = Set.of(mainBranch, "feature");
+
+      String branch = GitUtils.electBestMatchingServerBranchForCurrentHead(git.getRepository(), serverCandidateNames, mainBranch);
+      assertThat(branch).isEqualTo("feature");
+
+      // distances are cached for the same HEAD and branch tips
+      branch = GitUtils.electBestMatchingServerBranchForCurrentHead(git.getRepository(), serverCandidateNames, mainBranch);
+      assertThat(branch).isEqualTo("feature");
+    }
+  }
+
   public void javaUnzip(String zipFileName, File toDir) throws IOException {
     File testRepos = new File("src/test/test-repos");
     File zipFile = new File(testRepos, zipFileName);